@@ -0,0 +1,71 @@
+package main.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line and always attaches the GC profiler,
+ * so every result reports the allocation rate next to the throughput. Like JMH's own main class, the help and
+ * list options (-h, -l, -lp, -lprof, -lrf) only print and do not run anything.
+ */
+public class BenchmarkRunner {
+    /**
+     * Runs the benchmarks selected on the command line, or all of them.
+     *
+     * @param args JMH command-line options, e.g. a benchmark name pattern.
+     * @throws RunnerException if a benchmark fails.
+     * @throws IOException     if the help cannot be printed.
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line:");
+            System.err.println(" " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldListProfilers()) {
+            commandLine.listProfilers();
+            return;
+        }
+        if (commandLine.shouldListResultFormats()) {
+            commandLine.listResultFormats();
+            return;
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        Runner runner = new Runner(options);
+        if (commandLine.shouldList()) {
+            runner.list();
+            return;
+        }
+        if (commandLine.shouldListWithParams()) {
+            runner.listWithParams(commandLine);
+            return;
+        }
+        try {
+            runner.run();
+        } catch (NoBenchmarksException e) {
+            System.err.println("No matching benchmarks. Miss-spelled regexp?");
+            runner.list();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package main.benchmarks;
+
+import main.entities.other.Player;
+import main.levels.managers.EnemyManager;
+import main.levels.managers.FruitManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-tick collision queries: player against enemies, enemy lookup by cell and fruit collection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"1", "3"})
+    private int layout;
+
+    @Param({"1", "8", "64", "512"})
+    private int enemies;
+
+    @Param({"1", "8", "32"})
+    private int fruits;
+
+    private EnemyManager enemyManager;
+    private FruitManager fruitManager;
+    private Player player;
+    private int columns;
+    private int rows;
+    private int nextCell;
+
+    @Setup
+    public void setup() {
+        LevelFixture fixture = new LevelFixture(this.layout, this.enemies, this.fruits);
+        this.enemyManager = fixture.getLevel().getEnemyManager().orElseThrow();
+        this.fruitManager = fixture.getLevel().getFruitManager().orElseThrow();
+        this.player = fixture.getPlayer();
+        this.columns = fixture.getLevel().getLevelLayout().layout()[0].length;
+        this.rows = fixture.getLevel().getLevelLayout().layout().length;
+    }
+
+    @Benchmark
+    public boolean checkPlayerCollision() {
+        return this.enemyManager.checkPlayerCollision(this.player);
+    }
+
+    @Benchmark
+    public boolean isEnemyAt() {
+        int cell = this.nextCell++ % (this.columns * this.rows);
+        return this.enemyManager.isEnemyAt(cell % this.columns, cell / this.columns);
+    }
+
+    @Benchmark
+    public int checkFruitCollection() {
+        this.fruitManager.checkFruitCollection(this.player);
+        return this.player.getPoints();
+    }
+}
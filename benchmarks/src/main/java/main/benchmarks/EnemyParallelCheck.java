@@ -0,0 +1,100 @@
+package main.benchmarks;
+
+import main.entities.enemies.Enemy;
+import main.levels.EntityStorage;
+import main.levels.managers.EnemyManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that the parallel two-phase enemy update moves every enemy exactly as the sequential one does.
+ * Every shipped layout is filled with enough enemies of every type, thermal titans included, for the parallel
+ * update to run, and the same level is played three times side by side: with enemy objects, with the enemy table
+ * updated one enemy at a time, and with the table deciding in parallel. After every tick the three must have the
+ * same layout and every enemy must be at the same position.
+ * <p>
+ * The process exits with status 1 at the first difference of any layout. On a machine with a single core the
+ * decide phase still runs split into chunks, but to catch races it should be run where the pool has several threads.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar main.benchmarks.EnemyParallelCheck [enemies] [ticks]}
+ */
+public class EnemyParallelCheck {
+    private static final int LAYOUT_COUNT = 5;
+    private static final int FRUIT_COUNT = 8;
+    private static final String[] NAMES = {"objects", "sequential table", "parallel table"};
+
+    /**
+     * Main method for running the check.
+     *
+     * @param args optional number of enemies per level and number of ticks to play.
+     */
+    public static void main(String[] args) {
+        int enemies = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 1500;
+
+        int failures = 0;
+        for (int layout = 1; layout <= LAYOUT_COUNT; layout++) {
+            LevelFixture[] fixtures = {
+                new LevelFixture(layout, enemies, FRUIT_COUNT, EntityStorage.OBJECTS),
+                new LevelFixture(layout, enemies, FRUIT_COUNT, EntityStorage.ARRAYS),
+                new LevelFixture(layout, enemies, FRUIT_COUNT, EntityStorage.ARRAYS),
+            };
+            fixtures[1].getLevel().getEnemyManager().orElseThrow().setParallelUpdate(false);
+            fixtures[2].getLevel().getEnemyManager().orElseThrow().setParallelUpdate(true);
+
+            String difference = compare(fixtures);
+            int tick = 0;
+            while (difference == null && tick < ticks) {
+                for (LevelFixture fixture : fixtures) {
+                    fixture.tick();
+                }
+                tick++;
+                difference = compare(fixtures);
+            }
+            if (difference != null) {
+                failures++;
+                System.out.printf("Layout %d, %d enemies, tick %d: %s%n", layout, enemies, tick, difference);
+            } else {
+                System.out.printf("Layout %d, %d enemies: %d ticks identical%n", layout, enemies, ticks);
+            }
+        }
+
+        System.out.printf("%d of %d layouts differ between the sequential and the parallel enemy update%n",
+                failures, LAYOUT_COUNT);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Compares every fixture with the first; returns a description of the first difference, or null
+    private static String compare(LevelFixture[] fixtures) {
+        int[][] expectedLayout = fixtures[0].getLevel().getLevelLayout().layout();
+        List<Enemy> expectedEnemies = enemiesOf(fixtures[0]);
+        for (int i = 1; i < fixtures.length; i++) {
+            if (!Arrays.deepEquals(expectedLayout, fixtures[i].getLevel().getLevelLayout().layout())) {
+                return "the layout of the " + NAMES[i] + " differs from that of the " + NAMES[0];
+            }
+            List<Enemy> actualEnemies = enemiesOf(fixtures[i]);
+            if (actualEnemies.size() != expectedEnemies.size()) {
+                return "the " + NAMES[i] + " has " + actualEnemies.size() + " enemies, the " + NAMES[0] + " "
+                        + expectedEnemies.size();
+            }
+            for (int enemy = 0; enemy < expectedEnemies.size(); enemy++) {
+                Enemy expected = expectedEnemies.get(enemy);
+                Enemy actual = actualEnemies.get(enemy);
+                if (expected.getX() != actual.getX() || expected.getY() != actual.getY()) {
+                    return String.format("enemy %d (%s) is at (%d, %d) with the %s and at (%d, %d) with the %s",
+                            enemy, expected.getClass().getSimpleName(), actual.getX(), actual.getY(), NAMES[i],
+                            expected.getX(), expected.getY(), NAMES[0]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<Enemy> enemiesOf(LevelFixture fixture) {
+        EnemyManager manager = fixture.getLevel().getEnemyManager().orElseThrow();
+        return manager.getEnemies();
+    }
+}
@@ -0,0 +1,51 @@
+package main.benchmarks;
+
+import main.levels.EntityStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full {@code Level.update} tick with the enemies updated one by one and with the two-phase update
+ * that decides their moves in parallel. Both run on the array storage; the parallel update uses every core.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnemyUpdateBenchmark {
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    @Param({"1", "3"})
+    private int layout;
+
+    @Param({"1000", "10000", "50000"})
+    private int enemies;
+
+    private LevelFixture fixture;
+
+    @Setup
+    public void setup() {
+        this.fixture = new LevelFixture(this.layout, this.enemies, 32, EntityStorage.ARRAYS);
+        this.fixture.getLevel().getEnemyManager().orElseThrow().setParallelUpdate(this.parallel);
+    }
+
+    @Benchmark
+    public LevelFixture tick() {
+        this.fixture.tick();
+        return this.fixture;
+    }
+}
@@ -0,0 +1,63 @@
+package main.benchmarks;
+
+import main.levels.EntityStorage;
+import main.levels.managers.EnemyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full {@code Level.update} tick with the enemies and fruits held as objects and as parallel arrays,
+ * on crowded levels. The second benchmark also asks for the list of enemies once per tick, as a frame being
+ * painted does, which with the arrays copies every position into the enemy objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityStorageBenchmark {
+    @Param({"OBJECTS", "ARRAYS"})
+    private EntityStorage storage;
+
+    @Param({"1", "3"})
+    private int layout;
+
+    @Param({"1000", "10000", "50000"})
+    private int enemies;
+
+    @Param({"32"})
+    private int fruits;
+
+    private LevelFixture fixture;
+    private EnemyManager enemyManager;
+
+    @Setup
+    public void setup() {
+        this.fixture = new LevelFixture(this.layout, this.enemies, this.fruits, this.storage);
+        this.enemyManager = this.fixture.getLevel().getEnemyManager().orElseThrow();
+    }
+
+    @Benchmark
+    public LevelFixture tick() {
+        this.fixture.tick();
+        return this.fixture;
+    }
+
+    @Benchmark
+    public int tickAndRead() {
+        this.fixture.tick();
+        return this.enemyManager.getEnemies().size();
+    }
+}
@@ -0,0 +1,81 @@
+package main.benchmarks;
+
+import main.levels.Level;
+import main.levels.managers.IceBlockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ice creation and melting in {@link IceBlockManager}. Each operation restores the ice it removed,
+ * so the level stays in the same state for the whole run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IceBlockBenchmark {
+    @Param({"1", "2", "5"})
+    private int layout;
+
+    @Param({"1", "8", "64"})
+    private int enemies;
+
+    @Param({"1", "8", "32"})
+    private int fruits;
+
+    @Param({"1", "3"})
+    private int heatRadius;
+
+    private Level level;
+    private IceBlockManager iceBlockManager;
+    private int centerX;
+    private int centerY;
+
+    @Setup
+    public void setup() {
+        this.level = new LevelFixture(this.layout, this.enemies, this.fruits).getLevel();
+        this.iceBlockManager = this.level.getIceManager().orElseThrow().getIceBlockManager();
+        int columns = this.level.getLevelLayout().layout()[0].length;
+        int rows = this.level.getLevelLayout().layout().length;
+        this.centerX = columns / 2 - 3;
+        this.centerY = rows / 2 - 3;
+    }
+
+    /**
+     * Toggles a single cell between ice and empty.
+     */
+    @Benchmark
+    public int interactWithIceBlock() {
+        this.iceBlockManager.interactWithIceBlock(2, 2, true);
+        this.iceBlockManager.interactWithIceBlock(2, 2, false);
+        return this.level.getLevelLayout().layout()[2][2];
+    }
+
+    /**
+     * Freezes every free cell around the center, then melts them again like a ThermalTitan does.
+     */
+    @Benchmark
+    public int meltIceAround() {
+        for (int y = this.centerY - this.heatRadius; y <= this.centerY + this.heatRadius; y++) {
+            for (int x = this.centerX - this.heatRadius; x <= this.centerX + this.heatRadius; x++) {
+                this.iceBlockManager.interactWithIceBlock(x, y, true);
+            }
+        }
+        this.iceBlockManager.meltIceAround(this.centerX * this.level.getCellWidth(),
+                this.centerY * this.level.getCellHeight(), this.heatRadius);
+        return this.level.getLevelLayout().layout()[this.centerY][this.centerX];
+    }
+}
@@ -0,0 +1,146 @@
+package main.benchmarks;
+
+import main.entities.enemies.Enemy;
+import main.entities.enemies.Ghost;
+import main.entities.enemies.Guard;
+import main.entities.enemies.ThermalTitan;
+import main.entities.enemies.Yeti;
+import main.entities.fruits.Banana;
+import main.entities.fruits.Fruit;
+import main.entities.other.EnemySpawn;
+import main.entities.other.Player;
+import main.entities.other.PlayerInputHandler;
+import main.geometry.Position;
+import main.input.InputSource;
+import main.levels.EntityStorage;
+import main.levels.Level;
+import main.levels.Pair;
+import main.levels.config.DifferentLevels;
+import main.levels.config.LevelConfigFactory;
+import main.levels.config.LevelConfiguration;
+import main.metrics.TickProfiler;
+import main.simulation.RandomStream;
+import main.simulation.TickClock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The LevelFixture class builds levels with a chosen number of enemies and fruits for the benchmarks.
+ * Enemies are placed on random empty cells of one of the five shipped layouts, cycling through all enemy types.
+ * Everything is derived from a fixed seed, so every benchmark run measures the same level.
+ */
+public class LevelFixture {
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 800;
+    public static final long SEED = 42;
+
+    @SuppressWarnings("unchecked")
+    private static final Class<? extends Enemy>[] ENEMY_TYPES = new Class[]{
+        Guard.class, Yeti.class, Ghost.class, ThermalTitan.class,
+    };
+
+    private final Level level;
+    private final Player player;
+    private final TickClock clock;
+
+    /**
+     * Builds a fixture.
+     *
+     * @param layoutNumber The number of the layout in {@link DifferentLevels}, from 1 to 5.
+     * @param enemyCount   The number of enemies to spawn.
+     * @param fruitCount   The number of fruits to spawn; must not exceed the number of empty cells.
+     */
+    public LevelFixture(int layoutNumber, int enemyCount, int fruitCount) {
+        this(layoutNumber, enemyCount, fruitCount, EntityStorage.OBJECTS);
+    }
+
+    /**
+     * Builds a fixture whose level holds its enemies and fruits in the given storage.
+     *
+     * @param layoutNumber The number of the layout in {@link DifferentLevels}, from 1 to 5.
+     * @param enemyCount   The number of enemies to spawn.
+     * @param fruitCount   The number of fruits to spawn; must not exceed the number of empty cells.
+     * @param storage      The storage of the enemies and fruits.
+     */
+    public LevelFixture(int layoutNumber, int enemyCount, int fruitCount, EntityStorage storage) {
+        int[][] layout = layout(layoutNumber);
+        List<Position> emptyCells = emptyCells(layout);
+        RandomStream random = new RandomStream(SEED);
+
+        List<EnemySpawn> enemies = new ArrayList<>();
+        for (int i = 0; i < enemyCount; i++) {
+            Position cell = emptyCells.get(random.nextInt(emptyCells.size()));
+            enemies.add(new EnemySpawn(ENEMY_TYPES[i % ENEMY_TYPES.length], cell));
+        }
+        List<Pair<Class<? extends Fruit>, Integer>> fruits = new ArrayList<>();
+        fruits.add(new Pair<>(Banana.class, fruitCount));
+        Position start = emptyCells.get(0);
+
+        LevelConfiguration config = LevelConfigFactory.createLevelConfig(layout, enemies, fruits, start);
+        this.clock = new TickClock(60);
+        this.level = new Level(config, WIDTH, HEIGHT, null, this.clock, SEED, new TickProfiler(false, 0), storage);
+        this.player = new Player(start.x() * this.level.getCellWidth(), start.y() * this.level.getCellHeight(),
+                this.level.getCellWidth(), this.level.getCellHeight(), new PlayerInputHandler(new IdleInput()), this.level);
+    }
+
+    /**
+     * Advances the level by one tick, the way the game state does.
+     */
+    public void tick() {
+        this.clock.tick();
+        this.level.update();
+    }
+
+    public Level getLevel() {
+        return this.level;
+    }
+
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Returns the layout with the given number.
+     *
+     * @param layoutNumber The number of the layout, from 1 to 5.
+     * @return The layout.
+     */
+    public static int[][] layout(int layoutNumber) {
+        return switch (layoutNumber) {
+            case 1 -> DifferentLevels.LAYOUT_1;
+            case 2 -> DifferentLevels.LAYOUT_2;
+            case 3 -> DifferentLevels.LAYOUT_3;
+            case 4 -> DifferentLevels.LAYOUT_4;
+            case 5 -> DifferentLevels.LAYOUT_5;
+            default -> throw new IllegalArgumentException("Unknown layout: " + layoutNumber);
+        };
+    }
+
+    private static List<Position> emptyCells(int[][] layout) {
+        List<Position> cells = new ArrayList<>();
+        for (int y = 0; y < layout.length; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                if (layout[y][x] == Level.EMPTY) {
+                    cells.add(new Position(x, y));
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Input source of a player that never touches the keyboard.
+     */
+    private static class IdleInput implements InputSource {
+        @Override
+        public boolean isKeyDown(int keyCode) {
+            return false;
+        }
+
+        @Override
+        public boolean isKeyPressed(int keyCode) {
+            return false;
+        }
+    }
+}
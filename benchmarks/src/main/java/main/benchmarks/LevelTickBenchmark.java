@@ -0,0 +1,48 @@
+package main.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full {@code Level.update} tick on each of the five shipped layouts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelTickBenchmark {
+    @Param({"1", "2", "3", "4", "5"})
+    private int layout;
+
+    @Param({"1", "8", "64"})
+    private int enemies;
+
+    @Param({"1", "8", "32"})
+    private int fruits;
+
+    private LevelFixture fixture;
+
+    @Setup
+    public void setup() {
+        this.fixture = new LevelFixture(this.layout, this.enemies, this.fruits);
+    }
+
+    @Benchmark
+    public LevelFixture tick() {
+        this.fixture.tick();
+        return this.fixture;
+    }
+}
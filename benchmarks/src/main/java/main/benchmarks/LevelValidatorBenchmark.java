@@ -0,0 +1,69 @@
+package main.benchmarks;
+
+import main.levels.Level;
+import main.simulation.RandomStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the movement checks of {@code LevelValidator} through {@link Level#canMoveTo} and
+ * {@link Level#canEnemyMoveTo} on a fixed set of random pixel positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelValidatorBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param({"1", "2", "3", "4", "5"})
+    private int layout;
+
+    @Param({"1", "8", "64"})
+    private int enemies;
+
+    @Param({"1", "8", "32"})
+    private int fruits;
+
+    private Level level;
+    private int[] xs;
+    private int[] ys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.level = new LevelFixture(this.layout, this.enemies, this.fruits).getLevel();
+        RandomStream random = new RandomStream(LevelFixture.SEED);
+        this.xs = new int[POSITIONS];
+        this.ys = new int[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            this.xs[i] = random.nextInt(LevelFixture.WIDTH);
+            this.ys[i] = random.nextInt(LevelFixture.HEIGHT);
+        }
+    }
+
+    @Benchmark
+    public boolean canMoveTo() {
+        int i = this.next++ & (POSITIONS - 1);
+        return this.level.canMoveTo(this.xs[i], this.ys[i], this.level.getCellWidth(), this.level.getCellHeight());
+    }
+
+    @Benchmark
+    public boolean canEnemyMoveTo() {
+        int i = this.next++ & (POSITIONS - 1);
+        return this.level.canEnemyMoveTo(this.xs[i], this.ys[i], this.level.getCellWidth(), this.level.getCellHeight());
+    }
+}
@@ -0,0 +1,75 @@
+package main.benchmarks;
+
+import main.host.Match;
+import main.host.MatchHost;
+import main.input.RandomInput;
+import main.metrics.LatencyHistogram;
+
+/**
+ * Entry point that measures how match throughput scales with the number of cores. The same set of bot-driven
+ * matches is run unthrottled with 1, 2, 4, ... worker threads, and ticks/sec, speedup and latency are printed.
+ * It measures whole rounds across worker threads rather than a single operation, so it is a plain main class in the
+ * benchmark jar instead of a JMH benchmark.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar main.benchmarks.MatchHostBenchmark [matches] [rounds] [max cores]}
+ */
+public class MatchHostBenchmark {
+    private static final int WARMUP_ROUNDS = 100;
+
+    /**
+     * Main method for running the scaling benchmark.
+     *
+     * @param args optional number of matches, measured rounds and maximum number of cores.
+     */
+    public static void main(String[] args) {
+        int matchCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int maxCores = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%d matches, %d rounds per run%n", matchCount, rounds);
+        double baseline = 0;
+        for (int cores = 1; cores <= maxCores; cores = nextCoreCount(cores, maxCores)) {
+            double ticksPerSecond = runWithCores(cores, matchCount, rounds);
+            if (cores == 1) {
+                baseline = ticksPerSecond;
+            }
+            double speedup = ticksPerSecond / baseline;
+            System.out.printf("  speedup %.2fx, efficiency %.0f%%%n", speedup, 100 * speedup / cores);
+        }
+    }
+
+    private static int nextCoreCount(int cores, int maxCores) {
+        if (cores == maxCores) {
+            return maxCores + 1;
+        }
+        return Math.min(cores * 2, maxCores);
+    }
+
+    private static double runWithCores(int cores, int matchCount, int rounds) {
+        MatchHost host = new MatchHost(cores, MatchHost.DEFAULT_TICK_DEADLINE_NANOS);
+        for (int i = 0; i < matchCount; i++) {
+            host.createMatch(i % 5, new RandomInput(i), i);
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            host.tickAll();
+        }
+        host.resetStatistics();
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            host.tickAll();
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        double ticksPerSecond = (double) matchCount * rounds / seconds;
+
+        LatencyHistogram tickLatency = host.getAggregateTickLatency();
+        LatencyHistogram roundLatency = host.getRoundLatency();
+        long suspended = host.getMatches().stream().filter(Match::isSuspended).count();
+        System.out.printf("%2d cores: %.0f ticks/sec, %d suspended%n    tick:  %s%n    round: %s%n",
+                cores, ticksPerSecond, suspended, tickLatency.summary(), roundLatency.summary());
+
+        host.shutdown();
+        return ticksPerSecond;
+    }
+}
@@ -0,0 +1,133 @@
+package main.benchmarks;
+
+import main.levels.Level;
+import main.levels.pathfinding.GridAStar;
+import main.levels.pathfinding.HierarchicalPathfinder;
+import main.simulation.RandomStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares path queries of the {@link HierarchicalPathfinder} with a flat {@link GridAStar} on a large generated map.
+ * The map is scattered with walls and ice, and the queries run between random empty cells at most
+ * {@code range} cells apart, the way an enemy looks for a player somewhere near it.
+ * The last benchmark changes one cell of ice before every query, so it includes the cluster rebuilds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PathfindingBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"256", "1000"})
+    private int size;
+
+    // Percentage of the cells holding ice or, for a fifth of them, walls
+    @Param({"10", "25"})
+    private int obstacles;
+
+    @Param({"64", "1000"})
+    private int range;
+
+    private int[][] layout;
+    private GridAStar flat;
+    private HierarchicalPathfinder hierarchical;
+    private int[] queries;
+    private int[] toggledCells;
+    private int next;
+
+    @Setup
+    public void setup() {
+        RandomStream random = new RandomStream(42);
+        this.layout = new int[this.size][this.size];
+        for (int y = 0; y < this.size; y++) {
+            for (int x = 0; x < this.size; x++) {
+                int roll = random.nextInt(100);
+                this.layout[y][x] = roll < this.obstacles / 5 ? Level.WALL : roll < this.obstacles ? Level.ICE_BLOCK : Level.EMPTY;
+            }
+        }
+        this.flat = new GridAStar(this.layout, false);
+        this.hierarchical = new HierarchicalPathfinder(this.layout, false);
+
+        this.queries = new int[QUERIES * 4];
+        this.toggledCells = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int startX;
+            int startY;
+            int goalX;
+            int goalY;
+            do {
+                startX = random.nextInt(this.size);
+                startY = random.nextInt(this.size);
+            } while (this.layout[startY][startX] != Level.EMPTY);
+            do {
+                goalX = Math.max(0, Math.min(this.size - 1, startX + random.nextInt(2 * this.range + 1) - this.range));
+                goalY = Math.max(0, Math.min(this.size - 1, startY + random.nextInt(2 * this.range + 1) - this.range));
+            } while (this.layout[goalY][goalX] != Level.EMPTY);
+            this.queries[i * 4] = startX;
+            this.queries[i * 4 + 1] = startY;
+            this.queries[i * 4 + 2] = goalX;
+            this.queries[i * 4 + 3] = goalY;
+        }
+        // The toggled cells are never walls and never the ends of a query
+        boolean[] queryCells = new boolean[this.size * this.size];
+        for (int i = 0; i < QUERIES; i++) {
+            queryCells[this.queries[i * 4 + 1] * this.size + this.queries[i * 4]] = true;
+            queryCells[this.queries[i * 4 + 3] * this.size + this.queries[i * 4 + 2]] = true;
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            int cell;
+            do {
+                cell = random.nextInt(this.size * this.size);
+            } while (queryCells[cell] || this.layout[cell / this.size][cell % this.size] == Level.WALL);
+            this.toggledCells[i] = cell;
+        }
+    }
+
+    @Benchmark
+    public int flatAStar() {
+        int query = this.nextQuery();
+        return this.flat.findPathLength(this.queries[query], this.queries[query + 1], this.queries[query + 2], this.queries[query + 3]);
+    }
+
+    @Benchmark
+    public int hierarchical() {
+        int query = this.nextQuery();
+        return this.hierarchical.findPathLength(this.queries[query], this.queries[query + 1], this.queries[query + 2], this.queries[query + 3]);
+    }
+
+    /**
+     * Freezes or melts one cell away from the query cells, then runs a query, which first rebuilds the cluster.
+     */
+    @Benchmark
+    public int hierarchicalAfterIceChange() {
+        int query = this.nextQuery();
+        int cell = this.toggledCells[query / 4];
+        int x = cell % this.size;
+        int y = cell / this.size;
+        boolean frozen = this.layout[y][x] == Level.EMPTY;
+        this.layout[y][x] = frozen ? Level.ICE_BLOCK : Level.EMPTY;
+        this.hierarchical.onIceChanged(x, y, frozen);
+        return this.hierarchical.findPathLength(this.queries[query], this.queries[query + 1], this.queries[query + 2], this.queries[query + 3]);
+    }
+
+    private int nextQuery() {
+        int query = this.next * 4;
+        this.next = (this.next + 1) % QUERIES;
+        return query;
+    }
+}
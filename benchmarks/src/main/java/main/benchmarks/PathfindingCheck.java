@@ -0,0 +1,196 @@
+package main.benchmarks;
+
+import main.levels.Level;
+import main.levels.pathfinding.GridAStar;
+import main.levels.pathfinding.HierarchicalPathfinder;
+import main.levels.pathfinding.Pathfinder;
+import main.simulation.RandomStream;
+
+/**
+ * Checks the {@link HierarchicalPathfinder} against a flat {@link GridAStar} on randomly generated maps, generated as
+ * in {@link PathfindingBenchmark}, with one cell of ice frozen or melted before every query. For every query the
+ * two must agree on whether the goal can be reached, the hierarchical path must not be shorter than the exact one,
+ * and its first step must lead to a cell from which the goal is still within the hierarchical length.
+ * At regular intervals a pathfinder is built from scratch over the current map, and the incrementally rebuilt one
+ * must have the same nodes and answer the same queries with the same paths.
+ * <p>
+ * The process exits with status 1 if any of these fails.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar main.benchmarks.PathfindingCheck [queries] [seed]}
+ */
+public class PathfindingCheck {
+    // Map sizes, obstacle percentages and whether ice blocks the way, one map per entry
+    private static final int[] SIZES = {64, 128, 256, 256};
+    private static final int[] OBSTACLES = {25, 40, 10, 25};
+    private static final boolean[] PASSES_THROUGH_ICE = {false, false, false, true};
+    private static final int[] DIRECTION_DX = {0, 1, 0, -1};
+    private static final int[] DIRECTION_DY = {-1, 0, 1, 0};
+    // Half of the queries stay within this many cells, the others may cross the map
+    private static final int NEAR_RANGE = 32;
+    private static final int FRESH_BUILD_INTERVAL = 1000;
+    private static final int FRESH_BUILD_QUERIES = 50;
+    private static final int REPORTED_FAILURES = 10;
+
+    private static int failures;
+    private static long extraSteps;
+    private static long exactSteps;
+
+    /**
+     * Main method for running the check.
+     *
+     * @param args optional number of queries over all maps and random seed.
+     */
+    public static void main(String[] args) {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 60_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        RandomStream random = new RandomStream(seed);
+        int queriesPerMap = queries / SIZES.length;
+        int freshBuilds = 0;
+        for (int map = 0; map < SIZES.length; map++) {
+            int size = SIZES[map];
+            int[][] layout = createLayout(random, size, OBSTACLES[map]);
+            GridAStar flat = new GridAStar(layout, PASSES_THROUGH_ICE[map]);
+            HierarchicalPathfinder hierarchical = new HierarchicalPathfinder(layout, PASSES_THROUGH_ICE[map]);
+            String name = String.format("%dx%d map, %d%% obstacles%s", size, size, OBSTACLES[map],
+                    PASSES_THROUGH_ICE[map] ? ", passing through ice" : "");
+
+            for (int query = 1; query <= queriesPerMap; query++) {
+                toggleIce(random, layout, hierarchical);
+                int[] ends = randomQuery(random, layout, query % 2 == 0 ? NEAR_RANGE : size);
+                compare(name, flat, hierarchical, layout, ends[0], ends[1], ends[2], ends[3]);
+
+                if (query % FRESH_BUILD_INTERVAL == 0) {
+                    compareWithFreshBuild(name, random, layout, hierarchical, PASSES_THROUGH_ICE[map]);
+                    freshBuilds++;
+                }
+            }
+        }
+
+        System.out.printf("%d queries and %d fresh builds checked, hierarchical paths %.1f%% longer on average, %d failures%n",
+                queriesPerMap * SIZES.length, freshBuilds,
+                exactSteps == 0 ? 0.0 : 100.0 * extraSteps / exactSteps, failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int[][] createLayout(RandomStream random, int size, int obstacles) {
+        int[][] layout = new int[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int roll = random.nextInt(100);
+                layout[y][x] = roll < obstacles / 5 ? Level.WALL : roll < obstacles ? Level.ICE_BLOCK : Level.EMPTY;
+            }
+        }
+        return layout;
+    }
+
+    // Freezes or melts one cell that is not a wall
+    private static void toggleIce(RandomStream random, int[][] layout, HierarchicalPathfinder hierarchical) {
+        int x;
+        int y;
+        do {
+            x = random.nextInt(layout[0].length);
+            y = random.nextInt(layout.length);
+        } while (layout[y][x] == Level.WALL);
+        boolean frozen = layout[y][x] == Level.EMPTY;
+        layout[y][x] = frozen ? Level.ICE_BLOCK : Level.EMPTY;
+        hierarchical.onIceChanged(x, y, frozen);
+    }
+
+    // Picks an empty start cell and an empty goal cell at most range cells away from it in each direction
+    private static int[] randomQuery(RandomStream random, int[][] layout, int range) {
+        int size = layout.length;
+        int startX;
+        int startY;
+        int goalX;
+        int goalY;
+        do {
+            startX = random.nextInt(size);
+            startY = random.nextInt(size);
+        } while (layout[startY][startX] != Level.EMPTY);
+        do {
+            goalX = Math.max(0, Math.min(size - 1, startX + random.nextInt(2 * range + 1) - range));
+            goalY = Math.max(0, Math.min(size - 1, startY + random.nextInt(2 * range + 1) - range));
+        } while (layout[goalY][goalX] != Level.EMPTY);
+        return new int[]{startX, startY, goalX, goalY};
+    }
+
+    private static void compare(String name, GridAStar flat, HierarchicalPathfinder hierarchical, int[][] layout,
+                                int startX, int startY, int goalX, int goalY) {
+        int exact = flat.findPathLength(startX, startY, goalX, goalY);
+        int length = hierarchical.findPathLength(startX, startY, goalX, goalY);
+        if ((exact == Pathfinder.NO_PATH) != (length == Pathfinder.NO_PATH)) {
+            fail(name, startX, startY, goalX, goalY, "flat A* " + describe(exact) + ", hierarchical " + describe(length));
+            return;
+        }
+        if (exact == Pathfinder.NO_PATH) {
+            return;
+        }
+        if (length < exact) {
+            fail(name, startX, startY, goalX, goalY, "hierarchical path of " + length + " steps is shorter than the "
+                    + exact + " of flat A*");
+            return;
+        }
+        extraSteps += length - exact;
+        exactSteps += exact;
+
+        int direction = hierarchical.findFirstDirection(startX, startY, goalX, goalY);
+        if (length == 0) {
+            if (direction != Pathfinder.NO_DIRECTION) {
+                fail(name, startX, startY, goalX, goalY, "step " + direction + " from the goal itself");
+            }
+            return;
+        }
+        if (direction < 0 || direction >= DIRECTION_DX.length) {
+            fail(name, startX, startY, goalX, goalY, "no first step on a path of " + length);
+            return;
+        }
+        int nextX = startX + DIRECTION_DX[direction];
+        int nextY = startY + DIRECTION_DY[direction];
+        if (nextX < 0 || nextY < 0 || nextX >= layout[0].length || nextY >= layout.length) {
+            fail(name, startX, startY, goalX, goalY, "first step " + direction + " leaves the map");
+            return;
+        }
+        int remaining = flat.findPathLength(nextX, nextY, goalX, goalY);
+        if (remaining == Pathfinder.NO_PATH || remaining + 1 > length) {
+            fail(name, startX, startY, goalX, goalY, "first step " + direction + " leaves " + describe(remaining)
+                    + " to go on a path of " + length);
+        }
+    }
+
+    private static void compareWithFreshBuild(String name, RandomStream random, int[][] layout,
+                                              HierarchicalPathfinder incremental, boolean passesThroughIce) {
+        HierarchicalPathfinder fresh = new HierarchicalPathfinder(layout, passesThroughIce);
+        if (incremental.getNodeCount() != fresh.getNodeCount()) {
+            failures++;
+            System.out.printf("%s: %d nodes after incremental rebuilds, %d after a fresh build%n",
+                    name, incremental.getNodeCount(), fresh.getNodeCount());
+            return;
+        }
+        for (int i = 0; i < FRESH_BUILD_QUERIES; i++) {
+            int[] ends = randomQuery(random, layout, layout.length);
+            int expected = fresh.findPathLength(ends[0], ends[1], ends[2], ends[3]);
+            int actual = incremental.findPathLength(ends[0], ends[1], ends[2], ends[3]);
+            int expectedDirection = fresh.findFirstDirection(ends[0], ends[1], ends[2], ends[3]);
+            int actualDirection = incremental.findFirstDirection(ends[0], ends[1], ends[2], ends[3]);
+            if (expected != actual || expectedDirection != actualDirection) {
+                fail(name, ends[0], ends[1], ends[2], ends[3], "incremental rebuild finds " + describe(actual)
+                        + " starting " + actualDirection + ", a fresh build " + describe(expected) + " starting "
+                        + expectedDirection);
+            }
+        }
+    }
+
+    private static String describe(int length) {
+        return length == Pathfinder.NO_PATH ? "no path" : length + " steps";
+    }
+
+    private static void fail(String name, int startX, int startY, int goalX, int goalY, String message) {
+        failures++;
+        if (failures <= REPORTED_FAILURES) {
+            System.out.printf("%s, (%d, %d) to (%d, %d): %s%n", name, startX, startY, goalX, goalY, message);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package main.benchmarks;
+
+import main.entities.other.Player;
+import main.graphics.EntitySprites;
+import main.graphics.FrameRasterizer;
+import main.graphics.LevelRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the frames per second of the Java2D renderer and the software rasterizer drawing the same level.
+ * Both draw into an empty ARGB image of the window size, which is where they produce identical pixels.
+ * Run headless ({@code -Djava.awt.headless=true}) to compare the software loops of both paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    @Param({"1", "3"})
+    private int layout;
+
+    @Param({"8", "512", "4096"})
+    private int enemies;
+
+    @Param({"1", "4"})
+    private int stripes;
+
+    private LevelFixture fixture;
+    private LevelRenderer levelRenderer;
+    private BufferedImage java2dFrame;
+    private FrameRasterizer rasterizer;
+    private List<Player> players;
+
+    @Setup
+    public void setup() {
+        this.fixture = new LevelFixture(this.layout, this.enemies, 8);
+        EntitySprites sprites = new EntitySprites();
+        this.levelRenderer = new LevelRenderer(this.fixture.getLevel(), sprites);
+        this.java2dFrame = new BufferedImage(LevelFixture.WIDTH, LevelFixture.HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        this.rasterizer = new FrameRasterizer(LevelFixture.WIDTH, LevelFixture.HEIGHT, sprites, this.stripes);
+        this.players = List.of(this.fixture.getPlayer());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.levelRenderer.dispose();
+        this.rasterizer.shutdown();
+    }
+
+    @Benchmark
+    public BufferedImage java2d() {
+        Graphics2D g = this.java2dFrame.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, LevelFixture.WIDTH, LevelFixture.HEIGHT);
+        g.setComposite(AlphaComposite.SrcOver);
+        this.levelRenderer.render(g);
+        this.levelRenderer.getAtlas().draw(g, this.fixture.getPlayer());
+        g.dispose();
+        return this.java2dFrame;
+    }
+
+    @Benchmark
+    public BufferedImage software() {
+        return this.rasterizer.renderFrame(this.fixture.getLevel(), this.players);
+    }
+}
@@ -0,0 +1,104 @@
+package main.benchmarks;
+
+import main.entities.other.Player;
+import main.graphics.EntitySprites;
+import main.graphics.FrameRasterizer;
+import main.graphics.LevelRenderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Checks that the software rasterizer produces the same image as the Java2D renderer. Every shipped layout is filled
+ * with the levels of {@link RenderBenchmark}, drawn by both paths into an empty ARGB image of the window size, and
+ * compared pixel by pixel, with one stripe and with several; the levels are then played on and compared again, so
+ * moving enemies and changed ice are covered too.
+ * <p>
+ * The process exits with status 1 if any pixel differs. It runs headless unless told otherwise, because only the
+ * software loops of Java2D are guaranteed to match the rasterizer to the pixel.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar main.benchmarks.RenderEquivalenceCheck [ticks] [comparisons]}
+ */
+public class RenderEquivalenceCheck {
+    private static final int LAYOUT_COUNT = 5;
+    private static final int[] ENEMY_COUNTS = {8, 512};
+    private static final int[] STRIPE_COUNTS = {1, 4};
+    private static final int FRUIT_COUNT = 8;
+
+    /**
+     * Main method for running the check.
+     *
+     * @param args optional number of ticks played between comparisons and number of comparisons per level.
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int comparisons = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        EntitySprites sprites = new EntitySprites();
+        int failures = 0;
+        int frames = 0;
+        for (int layout = 1; layout <= LAYOUT_COUNT; layout++) {
+            for (int enemies : ENEMY_COUNTS) {
+                for (int stripes : STRIPE_COUNTS) {
+                    LevelFixture fixture = new LevelFixture(layout, enemies, FRUIT_COUNT);
+                    LevelRenderer levelRenderer = new LevelRenderer(fixture.getLevel(), sprites);
+                    FrameRasterizer rasterizer = new FrameRasterizer(LevelFixture.WIDTH, LevelFixture.HEIGHT, sprites,
+                            stripes);
+                    BufferedImage java2dFrame = new BufferedImage(LevelFixture.WIDTH, LevelFixture.HEIGHT,
+                            BufferedImage.TYPE_INT_ARGB);
+                    List<Player> players = List.of(fixture.getPlayer());
+                    for (int comparison = 0; comparison < comparisons; comparison++) {
+                        drawJava2d(java2dFrame, levelRenderer, fixture.getPlayer());
+                        BufferedImage softwareFrame = rasterizer.renderFrame(fixture.getLevel(), players);
+                        int differing = countDifferingPixels(java2dFrame, softwareFrame);
+                        frames++;
+                        if (differing > 0) {
+                            failures++;
+                            System.out.printf("Layout %d, %d enemies, %d stripes, comparison %d: %d pixels differ%n",
+                                    layout, enemies, stripes, comparison, differing);
+                        }
+                        for (int tick = 0; tick < ticks; tick++) {
+                            fixture.tick();
+                        }
+                    }
+                    levelRenderer.dispose();
+                    rasterizer.shutdown();
+                }
+            }
+        }
+
+        System.out.printf("%d of %d frames differ between the Java2D renderer and the software rasterizer%n",
+                failures, frames);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // The same drawing as RenderBenchmark#java2d
+    private static void drawJava2d(BufferedImage frame, LevelRenderer levelRenderer, Player player) {
+        Graphics2D g = frame.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        levelRenderer.render(g);
+        levelRenderer.getAtlas().draw(g, player);
+        g.dispose();
+    }
+
+    private static int countDifferingPixels(BufferedImage expected, BufferedImage actual) {
+        int differing = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+                    differing++;
+                }
+            }
+        }
+        return differing;
+    }
+}
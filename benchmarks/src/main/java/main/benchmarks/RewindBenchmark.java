@@ -0,0 +1,70 @@
+package main.benchmarks;
+
+import main.controller.GameState;
+import main.input.RandomInput;
+import main.simulation.RewindBuffer;
+import main.simulation.TickClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks capturing a tick into a {@link RewindBuffer} and restoring one from it, on a game played by a bot on
+ * each of the five shipped levels. The restored tick lies half a keyframe interval after its keyframe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewindBenchmark {
+    private static final int CAPACITY = 1800;
+    private static final int KEYFRAME_INTERVAL = 60;
+
+    @Param({"1", "2", "3", "4", "5"})
+    private int level;
+
+    private GameState gameState;
+    private RewindBuffer rewindBuffer;
+    private long tick;
+
+    @Setup
+    public void setup() {
+        this.gameState = new GameState(LevelFixture.WIDTH, LevelFixture.HEIGHT, new RandomInput(LevelFixture.SEED),
+                this.level - 1, LevelFixture.SEED);
+        this.rewindBuffer = new RewindBuffer(CAPACITY, KEYFRAME_INTERVAL, CAPACITY * 1024);
+        for (int i = 0; i < KEYFRAME_INTERVAL * 5 / 2; i++) {
+            this.gameState.update();
+            if (this.gameState.hasEnded()) {
+                this.gameState.restart();
+                this.rewindBuffer.clear();
+            }
+            this.rewindBuffer.capture(((TickClock) this.gameState.getClock()).getTicks(), this.gameState);
+        }
+        this.tick = this.rewindBuffer.getNewestTick();
+    }
+
+    @Benchmark
+    public RewindBuffer capture() {
+        // The state stands still, so every capture after the first is a delta of the same size
+        this.rewindBuffer.capture(++this.tick, this.gameState);
+        return this.rewindBuffer;
+    }
+
+    @Benchmark
+    public GameState restore() {
+        this.rewindBuffer.restore(this.rewindBuffer.getNewestTick(), this.gameState);
+        return this.gameState;
+    }
+}
@@ -0,0 +1,98 @@
+package main.controller;
+
+import main.input.RandomInput;
+import main.levels.Level;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that a steady-state simulation tick allocates nothing. A bot plays every level until the JIT has
+ * settled, then the bytes allocated by the simulation thread are measured tick by tick. Ticks in which something
+ * is created on purpose (a game restarts, a level is entered, a collected fruit is replaced) are not steady state
+ * and are skipped.
+ * <p>
+ * An allocation left in the tick shows up in nearly every tick, while the JVM itself occasionally charges a few
+ * hundred bytes to an isolated tick, for example when compiled code is deoptimized and scalar-replaced objects are
+ * rematerialized. The process therefore exits with status 1 only if more than {@value #TOLERATED_TICKS_PER_MILLION}
+ * in a million steady ticks allocated. Running with {@code -Xint} gives an exact check without any tolerance.
+ * <p>
+ * Usage: {@code AllocationCheck [warmup ticks] [measured ticks] [seed]}
+ */
+public class AllocationCheck {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 800;
+    private static final int LEVEL_COUNT = 5;
+    private static final long TOLERATED_TICKS_PER_MILLION = 100;
+
+    /**
+     * Main method for running the allocation check.
+     *
+     * @param args optional warmup tick count, measured tick count and input seed.
+     */
+    public static void main(String[] args) {
+        long warmupTicks = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+        long measuredTicks = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation measurement is not supported by this JVM");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        boolean failed = false;
+        for (int levelIndex = 0; levelIndex < LEVEL_COUNT; levelIndex++) {
+            GameState gameState = new GameState(WIDTH, HEIGHT, new RandomInput(seed), levelIndex, seed);
+            for (long tick = 0; tick < warmupTicks; tick++) {
+                advance(gameState);
+            }
+
+            // The measurement itself must not be counted
+            long overhead = -threads.getCurrentThreadAllocatedBytes() + threads.getCurrentThreadAllocatedBytes();
+            long steadyTicks = 0;
+            long allocatingTicks = 0;
+            long allocatedBytes = 0;
+            long maxBytes = 0;
+            for (long tick = 0; tick < measuredTicks; tick++) {
+                Level level = gameState.getCurrentLevel();
+                int points = gameState.getPlayer().getPoints();
+
+                long before = threads.getCurrentThreadAllocatedBytes();
+                gameState.update();
+                long bytes = threads.getCurrentThreadAllocatedBytes() - before - overhead;
+
+                boolean event = gameState.hasEnded() || level != gameState.getCurrentLevel()
+                        || points != gameState.getPlayer().getPoints();
+                if (!event) {
+                    steadyTicks++;
+                    if (bytes > 0) {
+                        allocatingTicks++;
+                        allocatedBytes += bytes;
+                        maxBytes = Math.max(maxBytes, bytes);
+                    }
+                }
+                if (gameState.hasEnded()) {
+                    gameState.restart();
+                }
+            }
+
+            System.out.printf("Level %d: %d steady ticks, %d allocated (%d bytes in total, at most %d in one tick)%n",
+                    levelIndex + 1, steadyTicks, allocatingTicks, allocatedBytes, maxBytes);
+            failed |= allocatingTicks * 1_000_000 > steadyTicks * TOLERATED_TICKS_PER_MILLION;
+        }
+
+        if (failed) {
+            System.out.println("FAILED: steady-state ticks allocated memory");
+            System.exit(1);
+        }
+        System.out.println("OK: steady-state ticks do not allocate memory");
+    }
+
+    private static void advance(GameState gameState) {
+        gameState.update();
+        if (gameState.hasEnded()) {
+            gameState.restart();
+        }
+    }
+}
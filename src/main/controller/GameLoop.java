@@ -0,0 +1,131 @@
+package main.controller;
+
+import main.levels.separators.Updatable;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The GameLoop class drives the simulation on a dedicated thread using a fixed-timestep accumulator.
+ * Every tick advances the simulation by exactly the same amount of game time, independently of how long
+ * rendering takes. After each batch of ticks the presenter is notified so that the UI can show a new frame.
+ */
+public class GameLoop implements Runnable {
+    public static final int DEFAULT_TICKS_PER_SECOND = 60;
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Updatable simulation;
+    private final Runnable presenter;
+    private final Object lock;
+    private final long tickNanos;
+    private final int maxCatchUpTicks;
+    private volatile boolean running;
+    private Thread thread;
+    private long tickCount;
+    private long droppedTicks;
+
+    /**
+     * Constructs a new GameLoop.
+     *
+     * @param simulation      The simulation to advance once per tick.
+     * @param presenter       The callback notified after one or more ticks have been simulated.
+     * @param lock            The lock held while a tick is simulated, shared with the renderer.
+     * @param ticksPerSecond  The fixed number of simulation ticks per second.
+     * @param maxCatchUpTicks The maximum number of ticks simulated back to back before time is dropped.
+     */
+    public GameLoop(Updatable simulation, Runnable presenter, Object lock, int ticksPerSecond, int maxCatchUpTicks) {
+        if (ticksPerSecond <= 0 || maxCatchUpTicks <= 0) {
+            throw new IllegalArgumentException("Tick rate and catch-up limit must be positive");
+        }
+        this.simulation = simulation;
+        this.presenter = presenter;
+        this.lock = lock;
+        this.tickNanos = NANOS_PER_SECOND / ticksPerSecond;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    /**
+     * Starts the simulation thread.
+     */
+    public void start() {
+        this.running = true;
+        this.thread = new Thread(this, "BadIceCream-Simulation");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stops the simulation thread. The tick in progress, if any, is completed first.
+     */
+    public void stop() {
+        this.running = false;
+        if (this.thread != null && this.thread != Thread.currentThread()) {
+            LockSupport.unpark(this.thread);
+        }
+    }
+
+    /**
+     * Runs the fixed-timestep loop until the loop is stopped.
+     */
+    @Override
+    public void run() {
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+
+        while (this.running) {
+            long currentTime = System.nanoTime();
+            accumulator += currentTime - previousTime;
+            previousTime = currentTime;
+
+            // Spiral-of-death protection: never owe more ticks than we are willing to catch up on
+            long maxAccumulated = this.tickNanos * this.maxCatchUpTicks;
+            if (accumulator > maxAccumulated) {
+                this.droppedTicks += (accumulator - maxAccumulated) / this.tickNanos;
+                accumulator = maxAccumulated;
+            }
+
+            boolean ticked = false;
+            while (accumulator >= this.tickNanos && this.running) {
+                synchronized (this.lock) {
+                    this.simulation.update();
+                }
+                accumulator -= this.tickNanos;
+                this.tickCount++;
+                ticked = true;
+            }
+
+            if (ticked) {
+                this.presenter.run();
+            }
+
+            LockSupport.parkNanos(this.tickNanos - accumulator);
+        }
+    }
+
+    /**
+     * Checks if the loop is running.
+     *
+     * @return true if the loop is running, false otherwise.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the number of ticks simulated since the loop was started.
+     *
+     * @return The tick count.
+     */
+    public long getTickCount() {
+        return this.tickCount;
+    }
+
+    /**
+     * Returns the number of ticks skipped because the simulation fell too far behind.
+     *
+     * @return The dropped tick count.
+     */
+    public long getDroppedTicks() {
+        return this.droppedTicks;
+    }
+}
@@ -0,0 +1,14 @@
+package main.controller;
+
+/**
+ * The GameOverListener interface is notified when a game ends, whatever the reason.
+ */
+@FunctionalInterface
+public interface GameOverListener {
+    /**
+     * Called once when the game is over.
+     *
+     * @param message the message describing how the game ended
+     */
+    void onGameOver(String message);
+}
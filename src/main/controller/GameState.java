@@ -2,36 +2,66 @@ package main.controller;
 
 import main.entities.other.Player;
 import main.entities.other.PlayerInputHandler;
-import main.input.KeyInput;
+import main.geometry.Position;
+import main.input.InputSource;
 import main.levels.Level;
 import main.levels.config.LevelConfigFactory;
 import main.levels.config.LevelConfiguration;
 import main.levels.managers.FruitManager;
 import main.levels.managers.LevelManager;
+import main.levels.separators.Updatable;
+import main.metrics.TickPhase;
+import main.metrics.TickProfiler;
+import main.simulation.GameClock;
+import main.simulation.RandomStream;
+import main.simulation.RewindBuffer;
+import main.simulation.Snapshottable;
+import main.simulation.StateBuffer;
+import main.simulation.TickClock;
 
-import javax.swing.Timer;
-import javax.swing.JOptionPane;
-import java.awt.Point;
-import java.awt.Graphics;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 /**
  * Represents the state of the game, including current player, level, and game loop.
+ * The game state is headless; clients observe it and render it on their own.
+ * <p>
+ * In a co-op game a partner plays the same level next to the player, with an input of its own. Both collect fruit
+ * for the team score, and the game is over as soon as an enemy catches either of them. The enemies chase the player.
  */
-public class GameState implements ActionListener {
-    private Timer gameLoopTimer;
+public class GameState implements Updatable, Snapshottable {
+    public static final String REWIND_SECONDS_PROPERTY = "badicecream.rewind.seconds";
+    private static final int REWIND_KEYFRAME_INTERVAL = 60; // 1 second at the default tick rate
+    private static final int REWIND_BYTES_PER_SECOND = 16 * 1024;
+    private GameLoop gameLoop;
+    private final Object stateLock = new Object();
+    private Runnable frameListener = () -> { };
+    private GameOverListener gameOverListener = message -> { };
     private final PlayerInputHandler inputHandler;
+    private final PlayerInputHandler partnerInputHandler;
     private Player player;
+    private Player partner;
+    private List<Player> players;
     private LevelManager levelManager;
     private boolean isNotGameOver;
+    private boolean hasEnded;
     private long levelStartTime;
     private static final int LEVEL_DURATION = 120000; // 2 minutes
     private boolean isTimeUp;
     private final int width;
     private final int height;
+    private final int startingLevelIndex;
+    private final GameClock clock;
+    private final RandomStream seedStream;
+    private long gameSeed;
+    private long stateVersion;
+    private final TickProfiler profiler;
+    private final RewindBuffer rewindBuffer;
 
+    private static final int[][] PARTNER_OFFSETS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    @SuppressWarnings("unchecked")
     private static final Supplier<LevelConfiguration>[] LEVEL_CONFIGURATIONS = new Supplier[]{
         LevelConfigFactory::createLevel1Config,
         LevelConfigFactory::createLevel2Config,
@@ -45,58 +75,207 @@ public class GameState implements ActionListener {
      *
      * @param width  the width of the game area
      * @param height the height of the game area
+     * @param input  the source of the player's input
+     */
+    public GameState(int width, int height, InputSource input) {
+        this(width, height, input, 0);
+    }
+
+    /**
+     * Constructor for GameState starting at an arbitrary level with an unpredictable seed.
+     *
+     * @param width              the width of the game area
+     * @param height             the height of the game area
+     * @param input              the source of the player's input
+     * @param startingLevelIndex the zero-based index of the first level to play
+     */
+    public GameState(int width, int height, InputSource input, int startingLevelIndex) {
+        this(width, height, input, startingLevelIndex, System.nanoTime());
+    }
+
+    /**
+     * Constructor for a deterministic GameState driven by a tick clock running at the default tick rate.
+     *
+     * @param width              the width of the game area
+     * @param height             the height of the game area
+     * @param input              the source of the player's input
+     * @param startingLevelIndex the zero-based index of the first level to play
+     * @param seed               the seed all randomness of the game is derived from
+     */
+    public GameState(int width, int height, InputSource input, int startingLevelIndex, long seed) {
+        this(width, height, input, startingLevelIndex, seed, new TickClock(GameLoop.DEFAULT_TICKS_PER_SECOND));
+    }
+
+    /**
+     * Constructor for GameState with an explicit clock. The same seed, clock and input always produce the same game.
+     *
+     * @param width              the width of the game area
+     * @param height             the height of the game area
+     * @param input              the source of the player's input
+     * @param startingLevelIndex the zero-based index of the first level to play
+     * @param seed               the seed all randomness of the game is derived from
+     * @param clock              the clock the simulation reads time from; it is ticked once per update
+     */
+    public GameState(int width, int height, InputSource input, int startingLevelIndex, long seed, GameClock clock) {
+        this(width, height, input, null, startingLevelIndex, seed, clock, true);
+    }
+
+    /**
+     * Constructor for a co-op GameState with an explicit clock. The same seed, clock and inputs always produce the
+     * same game.
+     *
+     * @param width              the width of the game area
+     * @param height             the height of the game area
+     * @param input              the source of the player's input
+     * @param partnerInput       the source of the partner's input, or null for a single-player game
+     * @param startingLevelIndex the zero-based index of the first level to play
+     * @param seed               the seed all randomness of the game is derived from
+     * @param clock              the clock the simulation reads time from; it is ticked once per update
+     */
+    public GameState(int width, int height, InputSource input, InputSource partnerInput, int startingLevelIndex,
+                     long seed, GameClock clock) {
+        this(width, height, input, partnerInput, startingLevelIndex, seed, clock, true);
+    }
+
+    /**
+     * Constructor for a co-op GameState with an explicit clock that may opt out of the rewind history, e.g. because
+     * its owner saves and restores the state itself, like a replay player or a network session.
+     *
+     * @param width              the width of the game area
+     * @param height             the height of the game area
+     * @param input              the source of the player's input
+     * @param partnerInput       the source of the partner's input, or null for a single-player game
+     * @param startingLevelIndex the zero-based index of the first level to play
+     * @param seed               the seed all randomness of the game is derived from
+     * @param clock              the clock the simulation reads time from; it is ticked once per update
+     * @param rewindable         whether to keep a rewind history when the {@value #REWIND_SECONDS_PROPERTY} system
+     *                           property is set
      */
-    public GameState(int width, int height) {
+    public GameState(int width, int height, InputSource input, InputSource partnerInput, int startingLevelIndex,
+                     long seed, GameClock clock, boolean rewindable) {
+        if (startingLevelIndex < 0 || startingLevelIndex >= LEVEL_CONFIGURATIONS.length) {
+            throw new IllegalArgumentException("Unknown level index: " + startingLevelIndex);
+        }
         this.isNotGameOver = true;
-        this.inputHandler = new PlayerInputHandler(new KeyInput());
+        this.inputHandler = new PlayerInputHandler(input);
+        this.partnerInputHandler = partnerInput != null ? new PlayerInputHandler(partnerInput) : null;
         this.width = width;
         this.height = height;
+        this.startingLevelIndex = startingLevelIndex;
+        this.clock = clock;
+        this.seedStream = new RandomStream(seed);
+        this.profiler = TickProfiler.fromSystemProperties();
+        this.rewindBuffer = rewindable ? createRewindBuffer(clock) : null;
 
         this.initiateNewGame();
+        this.levelStartTime = this.clock.currentTimeMillis();
     }
 
-    private void initiateNewGame() {
-        this.levelManager = new LevelManager();
-        for (Supplier<LevelConfiguration> levelConfigSupplier : LEVEL_CONFIGURATIONS) {
-            LevelConfiguration levelConfig = levelConfigSupplier.get();
-            Level level = new Level(levelConfig, this.width, this.height, this.player);
-            this.levelManager.addLevel(level);
+    // Only a game on a tick clock can be restored, so the history is kept only for those
+    private static RewindBuffer createRewindBuffer(GameClock clock) {
+        int seconds = Integer.getInteger(REWIND_SECONDS_PROPERTY, 0);
+        if (seconds <= 0 || !(clock instanceof TickClock)) {
+            return null;
         }
+        return new RewindBuffer(seconds * GameLoop.DEFAULT_TICKS_PER_SECOND, REWIND_KEYFRAME_INTERVAL,
+                seconds * REWIND_BYTES_PER_SECOND);
+    }
 
-        // first time player initialization
-        LevelConfiguration firstLevelConfig = LEVEL_CONFIGURATIONS[0].get();
-        Point startingPosition = firstLevelConfig.getPlayerStartingPosition();
+    private void initiateNewGame() {
+        // The player exists before any level, so every level is built knowing who plays it
+        LevelConfiguration firstLevelConfig = LEVEL_CONFIGURATIONS[this.startingLevelIndex].get();
+        Position startingPosition = firstLevelConfig.getPlayerStartingPosition();
         int cellWidth = this.width / firstLevelConfig.getLayout()[0].length;
         int cellHeight = this.height / firstLevelConfig.getLayout().length;
-        this.player = new Player(startingPosition.x * cellWidth, startingPosition.y * cellHeight, cellWidth,
-                cellHeight, this.inputHandler, this.levelManager.getCurrentLevel());
+        Player newPlayer = new Player(startingPosition.x() * cellWidth, startingPosition.y() * cellHeight, cellWidth,
+                cellHeight, this.inputHandler, null);
+
+        // Every new game gets fresh level seeds, drawn in a fixed order from the game seed.
+        // Levels are built lazily, possibly on a background thread, so the factories capture everything they need.
+        this.gameSeed = this.seedStream.getState();
+        if (this.levelManager != null) {
+            this.levelManager.close();
+        }
+        this.levelManager = new LevelManager();
+        for (int i = this.startingLevelIndex; i < LEVEL_CONFIGURATIONS.length; i++) {
+            Supplier<LevelConfiguration> levelConfigSupplier = LEVEL_CONFIGURATIONS[i];
+            long levelSeed = this.seedStream.nextLong();
+            this.levelManager.addLevel(() -> new Level(levelConfigSupplier.get(), this.width, this.height, newPlayer,
+                    this.clock, levelSeed, this.profiler));
+        }
+
+        this.player = newPlayer;
+        this.player.setLevel(this.levelManager.getCurrentLevel());
+        if (this.partnerInputHandler != null) {
+            this.partner = new Player(newPlayer.getX(), newPlayer.getY(), cellWidth, cellHeight,
+                    this.partnerInputHandler, null);
+            this.placePartner(this.levelManager.getCurrentLevel());
+            this.players = List.of(this.player, this.partner);
+        } else {
+            this.players = List.of(this.player);
+        }
+    }
+
+    // The partner starts on the first free cell next to the player's starting cell, or on it if there is none
+    private void placePartner(Level level) {
+        Position start = level.getConfig().getPlayerStartingPosition();
+        this.partner.setLevel(level);
+        this.partner.updatePosition(start);
+        for (int[] offset : PARTNER_OFFSETS) {
+            Position position = new Position(start.x() + offset[0], start.y() + offset[1]);
+            if (level.canMoveTo(position.x() * level.getCellWidth(), position.y() * level.getCellHeight(),
+                    this.partner.getWidth(), this.partner.getHeight())) {
+                this.partner.updatePosition(position);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the message describing how the game ended, with the score.
+     *
+     * @return the game over message
+     */
+    public String getGameOverMessage() {
+        return this.constructGameOverMessage();
     }
 
     private String constructGameOverMessage() {
         if (this.isTimeUp) {
-            return "Game Over! You ran out of time! Your score was: " + this.player.getPoints();
+            return "Game Over! You ran out of time! Your score was: " + this.getScore();
         } else if (this.isNotGameOver) {
-            return "Game Over! You won! Your score was: " + this.player.getPoints();
+            return "Game Over! You won! Your score was: " + this.getScore();
         } else {
-            return "Game Over! You were hit by an enemy! Your score was: " + this.player.getPoints();
+            return "Game Over! You were hit by an enemy! Your score was: " + this.getScore();
         }
     }
 
-    private void resetGame() {
-        this.gameLoopTimer.stop();
-        String message = this.constructGameOverMessage();
-        int result = JOptionPane.showConfirmDialog(null, message + " Would you like to play again?", "Game Over", JOptionPane.YES_NO_OPTION);
-        if (result == JOptionPane.YES_OPTION) {
+    private void endGame() {
+        this.hasEnded = true;
+        if (this.gameLoop != null) {
+            this.gameLoop.stop();
+        }
+        this.gameOverListener.onGameOver(this.constructGameOverMessage());
+    }
+
+    /**
+     * Resets the game to the first level with a fresh score. The game loop is not restarted.
+     */
+    public void restart() {
+        synchronized (this.stateLock) {
             this.resetPlayerScore();
             this.initiateNewGame();
-            this.levelStartTime = System.currentTimeMillis();
+            this.levelStartTime = this.clock.currentTimeMillis();
             this.isNotGameOver = true;
             this.isTimeUp = false;
-            this.startGameLoop();
-        } else {
-            System.exit(0);
+            this.hasEnded = false;
+            if (this.rewindBuffer != null) {
+                this.rewindBuffer.clear();
+            }
+            this.stateVersion++;
         }
     }
+
     private void checkGameState() {
         Level currentLevel = this.levelManager.getCurrentLevel();
 
@@ -104,82 +283,268 @@ public class GameState implements ActionListener {
             FruitManager currentFruitManager = currentLevel.getFruitManager().get();
             if (currentFruitManager.allFruitsCollected()) {
                 if (this.levelManager.isLastLevel()) {
-                    this.isNotGameOver = false;
-                    this.resetGame();
+                    this.endGame();
                 } else {
                     this.levelManager.nextLevel();
                     currentLevel = this.levelManager.getCurrentLevel();
                     this.player.setLevel(currentLevel);
                     this.player.updatePosition(currentLevel.getConfig().getPlayerStartingPosition());
-                    this.levelStartTime = System.currentTimeMillis();
+                    if (this.partner != null) {
+                        this.placePartner(currentLevel);
+                    }
+                    this.levelStartTime = this.clock.currentTimeMillis();
                 }
             }
         }
     }
 
     private void resetPlayerScore() {
-        this.player.setPoints(0);
+        for (Player member : this.players) {
+            member.setPoints(0);
+        }
     }
 
     /**
-     * Starts the main game loop.
+     * Starts the main game loop with the default tick rate and catch-up limit.
      */
     public void startGameLoop() {
-        this.gameLoopTimer = new Timer(1000 / 60, this);
-        this.gameLoopTimer.start();
-        this.isNotGameOver = true;
-        this.isTimeUp = false;
-        this.levelStartTime = System.currentTimeMillis();
+        this.startGameLoop(GameLoop.DEFAULT_TICKS_PER_SECOND, GameLoop.DEFAULT_MAX_CATCH_UP_TICKS);
+    }
+
+    /**
+     * Starts the main game loop on its own simulation thread.
+     *
+     * @param ticksPerSecond  the fixed number of simulation ticks per second
+     * @param maxCatchUpTicks the maximum number of ticks simulated back to back after a stall
+     */
+    public void startGameLoop(int ticksPerSecond, int maxCatchUpTicks) {
+        synchronized (this.stateLock) {
+            this.isNotGameOver = true;
+            this.isTimeUp = false;
+            this.hasEnded = false;
+            this.levelStartTime = this.clock.currentTimeMillis();
+        }
+        this.gameLoop = new GameLoop(this, () -> this.frameListener.run(), this.stateLock, ticksPerSecond, maxCatchUpTicks);
+        this.gameLoop.start();
+    }
+
+    /**
+     * Starts a game loop on its own simulation thread that drives another simulation instead of this game state,
+     * e.g. a network session that advances the game state itself. The loop presents frames to the frame listener of
+     * this game state under its state lock. It is not stopped when the game ends; the caller stops it.
+     *
+     * @param simulation the simulation updated once per tick at the default tick rate
+     * @return the running game loop
+     */
+    public GameLoop startGameLoop(Updatable simulation) {
+        GameLoop loop = new GameLoop(simulation, () -> this.frameListener.run(), this.stateLock,
+                GameLoop.DEFAULT_TICKS_PER_SECOND, GameLoop.DEFAULT_MAX_CATCH_UP_TICKS);
+        loop.start();
+        return loop;
     }
 
     private void checkLevelTime() {
-        if (System.currentTimeMillis() - this.levelStartTime > LEVEL_DURATION) {
+        if (this.clock.currentTimeMillis() - this.levelStartTime > LEVEL_DURATION) {
             this.isTimeUp = true;
         }
     }
 
     private void playing() {
+        if (this.hasEnded) {
+            return;
+        }
         if (!this.isNotGameOver || this.isTimeUp) {
-            this.resetGame();
+            this.endGame();
             return;
         }
 
+        this.clock.tick();
+        this.inputHandler.keyInput().nextTick();
+        if (this.partnerInputHandler != null) {
+            this.partnerInputHandler.keyInput().nextTick();
+        }
         this.checkLevelTime();
 
-        this.player.update();
+        long startTime = this.profiler.begin();
+        for (int i = 0; i < this.players.size(); i++) {
+            this.players.get(i).update();
+        }
+        this.profiler.end(TickPhase.PLAYER_UPDATE, startTime);
+
+        startTime = this.profiler.begin();
         this.levelManager.getCurrentLevel().update();
+        this.profiler.end(TickPhase.LEVEL_UPDATE, startTime);
 
         // Check if the player collided with an enemy
         if (this.levelManager.getCurrentLevel().getEnemyManager().isPresent() && this.levelManager.getCurrentLevel().getFruitManager().isPresent()) {
-            if (this.levelManager.getCurrentLevel().getEnemyManager().get().checkPlayerCollision(this.player)) {
+            startTime = this.profiler.begin();
+            boolean collided = false;
+            for (int i = 0; i < this.players.size() && !collided; i++) {
+                collided = this.levelManager.getCurrentLevel().getEnemyManager().get().checkPlayerCollision(this.players.get(i));
+            }
+            this.profiler.end(TickPhase.PLAYER_COLLISION, startTime);
+            if (collided) {
                 this.isNotGameOver = false;
-                this.resetGame();
+                this.endGame();
                 return;
             }
 
-            this.levelManager.getCurrentLevel().getFruitManager().get().checkFruitCollection(this.player);
+            startTime = this.profiler.begin();
+            for (int i = 0; i < this.players.size(); i++) {
+                this.levelManager.getCurrentLevel().getFruitManager().get().checkFruitCollection(this.players.get(i));
+            }
+            this.profiler.end(TickPhase.FRUIT_COLLECTION, startTime);
             this.checkGameState();
         }
     }
 
     /**
-     * Handles the action event, namely updating the game state.
-     *
-     * @param e the action event
+     * Advances the game state by a single tick.
      */
     @Override
-    public void actionPerformed(ActionEvent e) {
+    public void update() {
+        long tickStartTime = this.profiler.begin();
         this.playing();
+        this.stateVersion++;
+        if (this.rewindBuffer != null) {
+            long startTime = this.profiler.begin();
+            this.rewindBuffer.capture(this.getTickClock().getTicks(), this);
+            this.profiler.end(TickPhase.SNAPSHOT, startTime);
+        }
+        this.profiler.endTick(tickStartTime);
     }
 
     /**
-     * Renders the game state.
+     * Takes the game back by a number of ticks, or to the oldest tick kept if the history is shorter.
+     * Only possible with the {@value #REWIND_SECONDS_PROPERTY} system property set; the game plays on from the
+     * restored tick and the ticks after it are forgotten.
      *
-     * @param g the Graphics object to protect
+     * @param ticks the number of ticks to go back
+     * @return true if the game was rewound, false if there is no history to rewind to
      */
-    public void render(Graphics g) {
-        this.levelManager.getCurrentLevel().render(g);
-        this.player.render(g);
+    public boolean rewind(int ticks) {
+        synchronized (this.stateLock) {
+            if (this.rewindBuffer == null || this.rewindBuffer.size() == 0) {
+                return false;
+            }
+            long target = Math.max(this.rewindBuffer.getOldestTick(), this.rewindBuffer.getNewestTick() - ticks);
+            this.rewindBuffer.restore(target, this);
+            return true;
+        }
+    }
+
+    /**
+     * Writes the state of the game being played, e.g. for a replay keyframe: the tick, the level being played,
+     * the player, the partner in a co-op game, and everything in the level that has changed since it was built.
+     *
+     * @param out the buffer to write to
+     * @throws IllegalStateException if the game does not run on a {@link TickClock}
+     */
+    @Override
+    public void saveState(StateBuffer out) {
+        synchronized (this.stateLock) {
+            out.putLong(this.gameSeed);
+            out.putLong(this.getTickClock().getTicks());
+            out.putLong(this.levelStartTime);
+            out.putBoolean(this.isNotGameOver);
+            out.putBoolean(this.isTimeUp);
+            out.putBoolean(this.hasEnded);
+            out.putInt(this.levelManager.getCurrentLevelIndex());
+            this.player.saveState(out);
+            if (this.partner != null) {
+                this.partner.saveState(out);
+            }
+            this.levelManager.getCurrentLevel().saveState(out);
+        }
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}. The state must come from the same game,
+     * i.e. a game state with the same seed and starting level that has not been restarted since.
+     * Going back to an earlier level rebuilds it from its seed before restoring it. The rewind history, if any,
+     * forgets the ticks after the restored one, so it keeps following the game whoever restored it.
+     *
+     * @param in the buffer to read from
+     * @throws IllegalStateException if the state belongs to another game or the game does not run on a {@link TickClock}
+     */
+    @Override
+    public void restoreState(StateBuffer in) {
+        synchronized (this.stateLock) {
+            if (in.getLong() != this.gameSeed) {
+                throw new IllegalStateException("The saved state belongs to another game");
+            }
+            long tick = in.getLong();
+            this.getTickClock().setTicks(tick);
+            if (this.rewindBuffer != null) {
+                this.rewindBuffer.discardAfter(tick);
+            }
+            this.levelStartTime = in.getLong();
+            this.isNotGameOver = in.getBoolean();
+            this.isTimeUp = in.getBoolean();
+            this.hasEnded = in.getBoolean();
+            this.levelManager.goToLevel(in.getInt());
+            Level currentLevel = this.levelManager.getCurrentLevel();
+            this.player.setLevel(currentLevel);
+            this.player.restoreState(in);
+            if (this.partner != null) {
+                this.partner.setLevel(currentLevel);
+                this.partner.restoreState(in);
+            }
+            currentLevel.restoreState(in);
+            this.stateVersion++;
+        }
+    }
+
+    private TickClock getTickClock() {
+        if (this.clock instanceof TickClock tickClock) {
+            return tickClock;
+        }
+        throw new IllegalStateException("Only a game running on a tick clock can be saved and restored");
+    }
+
+    /**
+     * Sets the listener notified whenever the simulation has produced a new frame.
+     *
+     * @param frameListener the listener, typically a repaint request
+     */
+    public void setFrameListener(Runnable frameListener) {
+        this.frameListener = frameListener;
+    }
+
+    /**
+     * Sets the listener notified when the game is over. It is called from the simulation thread.
+     *
+     * @param gameOverListener the listener
+     */
+    public void setGameOverListener(GameOverListener gameOverListener) {
+        this.gameOverListener = gameOverListener;
+    }
+
+    /**
+     * Returns the lock held while the simulation advances. Renderers hold it while reading the state.
+     *
+     * @return the state lock
+     */
+    public Object getStateLock() {
+        return this.stateLock;
+    }
+
+    /**
+     * Checks if the game has ended.
+     *
+     * @return true if the game has ended, false otherwise
+     */
+    public boolean hasEnded() {
+        return this.hasEnded;
+    }
+
+    /**
+     * Returns the level currently being played.
+     *
+     * @return the current level
+     */
+    public Level getCurrentLevel() {
+        return this.levelManager.getCurrentLevel();
     }
 
     /**
@@ -200,6 +565,66 @@ public class GameState implements ActionListener {
         return this.player;
     }
 
+    /**
+     * Returns the partner playing alongside the player in a co-op game.
+     *
+     * @return an Optional containing the partner, or an empty Optional in a single-player game
+     */
+    public Optional<Player> getPartner() {
+        return Optional.ofNullable(this.partner);
+    }
+
+    /**
+     * Returns everyone playing: the player, followed by the partner in a co-op game.
+     *
+     * @return an unmodifiable list of the players
+     */
+    public List<Player> getPlayers() {
+        return this.players;
+    }
+
+    /**
+     * Returns the score of the game, the points of the player and of the partner together.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        int score = 0;
+        for (int i = 0; i < this.players.size(); i++) {
+            score += this.players.get(i).getPoints();
+        }
+        return score;
+    }
+
+    /**
+     * Returns the index of the level every game starts at.
+     *
+     * @return the zero-based index of the first level
+     */
+    public int getStartingLevelIndex() {
+        return this.startingLevelIndex;
+    }
+
+    /**
+     * Returns the seed the current game was started with. A new game state built with this seed, the same starting
+     * level and a clock at the tick the game started plays exactly the same game given the same input.
+     *
+     * @return the seed of the current game
+     */
+    public long getGameSeed() {
+        return this.gameSeed;
+    }
+
+    /**
+     * Returns a number that changes whenever the game may look different: after every tick, restore and restart.
+     * A renderer can keep a finished frame for as long as the number stays the same. Read it under the state lock.
+     *
+     * @return the state version
+     */
+    public long getStateVersion() {
+        return this.stateVersion;
+    }
+
     /**
      * Returns the start time of the level.
      *
@@ -209,6 +634,60 @@ public class GameState implements ActionListener {
         return this.levelStartTime;
     }
 
+    /**
+     * Returns the simulation time left to finish the current level.
+     *
+     * @return the remaining time in milliseconds
+     */
+    public long getRemainingTime() {
+        return LEVEL_DURATION - (this.clock.currentTimeMillis() - this.levelStartTime);
+    }
+
+    /**
+     * Returns the profiler timing the phases of every tick.
+     *
+     * @return the profiler
+     */
+    public TickProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    /**
+     * Returns the history kept for rewinding, if the {@value #REWIND_SECONDS_PROPERTY} system property is set.
+     *
+     * @return an Optional containing the rewind buffer, or an empty Optional if rewinding is off
+     */
+    public Optional<RewindBuffer> getRewindBuffer() {
+        return Optional.ofNullable(this.rewindBuffer);
+    }
+
+    /**
+     * Returns the clock of the simulation.
+     *
+     * @return the clock
+     */
+    public GameClock getClock() {
+        return this.clock;
+    }
+
+    /**
+     * Returns the width of the playing field in pixels.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the playing field in pixels.
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
     /**
      * Returns the duration of the level.
      *
@@ -217,4 +696,4 @@ public class GameState implements ActionListener {
     public static int getLevelDuration() {
         return LEVEL_DURATION;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package main.controller;
+
+import main.replay.Replay;
+import main.replay.ReplayPlayer;
+import main.replay.StateChecksum;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the game still plays recorded games exactly as it did when they were recorded. Every golden replay in
+ * a directory is played back headless, and the {@link StateChecksum}s of the game after every tick are compared with
+ * the ones stored in the replay; the first tick and part of the game that differ are reported. Every replay is then
+ * played once more without checksumming to measure the simulated ticks per second, so the check doubles as a
+ * throughput test. The process exits with status 1 if any replay diverged.
+ * <p>
+ * With {@code --update}, the stored checksums are replaced by the ones of the current build instead, which turns
+ * freshly recorded replays into golden ones.
+ * <p>
+ * Usage: {@code GoldenReplayCheck <replay directory> [--update]}
+ */
+public class GoldenReplayCheck {
+    // Every replay is played from start to end, so only the keyframe at the start is ever saved
+    private static final int NO_KEYFRAMES = Integer.MAX_VALUE;
+    private static final StateChecksum[] CHECKSUMS = StateChecksum.values();
+
+    /**
+     * Main method for running the golden replay check.
+     *
+     * @param args the replay directory and an optional {@code --update}.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: GoldenReplayCheck <replay directory> [--update]");
+            return;
+        }
+        boolean update = args.length > 1 && args[1].equals("--update");
+
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(Path.of(args[0]))) {
+            files = entries.filter(file -> file.toString().endsWith(Replay.FILE_EXTENSION)).sorted().toList();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        if (files.isEmpty()) {
+            System.out.println("No replays in " + args[0]);
+            System.exit(1);
+        }
+
+        int failures = 0;
+        long totalTicks = 0;
+        double totalSeconds = 0;
+        for (Path file : files) {
+            try {
+                Replay replay = Replay.load(file);
+                String result = update ? updateChecksums(replay, file) : checkChecksums(replay);
+                if (result != null) {
+                    failures++;
+                    System.out.printf("FAILED %s: %s%n", file.getFileName(), result);
+                    continue;
+                }
+
+                ReplayPlayer player = new ReplayPlayer(replay, NO_KEYFRAMES);
+                long startTime = System.nanoTime();
+                player.runToEnd();
+                double seconds = (System.nanoTime() - startTime) / 1e9;
+                totalTicks += player.getTick();
+                totalSeconds += seconds;
+                System.out.printf("%s %s: level %d, %d ticks, %.0f ticks/sec%n", update ? "UPDATED" : "OK",
+                        file.getFileName(), replay.getLevelIndex() + 1, player.getTick(), player.getTick() / seconds);
+            } catch (IOException e) {
+                failures++;
+                System.out.printf("FAILED %s: %s%n", file.getFileName(), e.getMessage());
+            }
+        }
+
+        System.out.printf("%d of %d replays passed", files.size() - failures, files.size());
+        if (totalTicks > 0) {
+            System.out.printf(", %d ticks at %.0f ticks/sec overall", totalTicks, totalTicks / totalSeconds);
+        }
+        System.out.println();
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Returns null if the game played out as recorded, or else a description of the first divergence
+    private static String checkChecksums(Replay replay) {
+        if (!replay.hasChecksums()) {
+            return "no checksums stored; record them with --update";
+        }
+        ReplayPlayer player = new ReplayPlayer(replay, NO_KEYFRAMES);
+        int tick = 0;
+        while (true) {
+            if (tick >= replay.getChecksumCount()) {
+                return "the game went on past tick " + (replay.getChecksumCount() - 1) + ", where it ended when recorded";
+            }
+            for (StateChecksum checksum : CHECKSUMS) {
+                int expected = replay.getChecksum(checksum, tick);
+                int actual = checksum.compute(player.getGameState());
+                if (actual != expected) {
+                    return String.format("diverged at tick %d in %s (expected %08x, got %08x)", tick, checksum,
+                            expected, actual);
+                }
+            }
+            if (!player.step()) {
+                break;
+            }
+            tick++;
+        }
+        if (tick + 1 < replay.getChecksumCount()) {
+            return "the game ended at tick " + tick + ", earlier than when recorded";
+        }
+        return null;
+    }
+
+    // Stores the checksums after every tick in the replay file; only fails with an I/O error
+    private static String updateChecksums(Replay replay, Path file) throws IOException {
+        ReplayPlayer player = new ReplayPlayer(replay, NO_KEYFRAMES);
+        int[][] checksums = new int[CHECKSUMS.length][replay.getTickCount() + 1];
+        int tick = 0;
+        while (true) {
+            for (StateChecksum checksum : CHECKSUMS) {
+                checksums[checksum.ordinal()][tick] = checksum.compute(player.getGameState());
+            }
+            if (!player.step()) {
+                break;
+            }
+            tick++;
+        }
+        int count = tick + 1;
+        for (int i = 0; i < checksums.length; i++) {
+            checksums[i] = Arrays.copyOf(checksums[i], count);
+        }
+        replay.withChecksums(checksums).save(file);
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package main.controller;
+
+import main.input.RandomInput;
+import main.metrics.TickProfiler;
+import main.replay.ReplayRecorder;
+import main.simulation.RewindBuffer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Entry point for running the game without any user interface. A bot plays the chosen level as fast as the
+ * simulation allows, restarting whenever the game ends, and the achieved tick rate is printed at the end.
+ * With the {@value ReplayRecorder#DIRECTORY_PROPERTY} system property set, every finished game is saved as a replay;
+ * with the {@value GameState#REWIND_SECONDS_PROPERTY} system property set, the cost of keeping the rewind history
+ * is printed.
+ * <p>
+ * Usage: {@code HeadlessRunner [level 1-5] [ticks] [seed]}
+ */
+public class HeadlessRunner {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 800;
+    private static final long DEFAULT_TICKS = 1_000_000;
+    private static final int REWIND_RESTORES = 100;
+
+    /**
+     * Main method for running the headless simulation.
+     *
+     * @param args optional level number, tick count and input seed.
+     */
+    public static void main(String[] args) {
+        int levelNumber = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_TICKS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        String replayDirectory = System.getProperty(ReplayRecorder.DIRECTORY_PROPERTY);
+        ReplayRecorder recorder = replayDirectory != null ? new ReplayRecorder(new RandomInput(seed)) : null;
+        GameState gameState = new GameState(WIDTH, HEIGHT, recorder != null ? recorder : new RandomInput(seed),
+                levelNumber - 1, seed);
+        if (recorder != null) {
+            recorder.begin(gameState);
+        }
+        int games = 1;
+
+        long startTime = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            gameState.update();
+            if (gameState.hasEnded()) {
+                saveReplay(recorder, replayDirectory);
+                gameState.restart();
+                if (recorder != null) {
+                    recorder.begin(gameState);
+                }
+                games++;
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("Level %d: %d ticks over %d games in %.3f s (%.0f ticks/sec), final score %d%n",
+                levelNumber, ticks, games, seconds, ticks / seconds, gameState.getPlayer().getPoints());
+        printProfile(gameState.getProfiler());
+        gameState.getRewindBuffer().ifPresent(rewindBuffer -> printRewind(gameState, rewindBuffer));
+    }
+
+    // Every rewind forgets the ticks after it, so restoring is timed in steps across the history after reporting it
+    private static void printRewind(GameState gameState, RewindBuffer rewindBuffer) {
+        System.out.print(rewindBuffer.summary(GameLoop.DEFAULT_TICKS_PER_SECOND));
+        int restores = Math.min(REWIND_RESTORES, rewindBuffer.size() - 1);
+        for (int i = 0; i < restores; i++) {
+            gameState.rewind((rewindBuffer.size() - 1) / (restores - i));
+        }
+        if (restores > 0) {
+            System.out.printf("  %-8s %s%n", "restore", rewindBuffer.getRestoreTimes().summary());
+        }
+    }
+
+    private static void saveReplay(ReplayRecorder recorder, String directory) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.finishAndSave(Path.of(directory));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void printProfile(TickProfiler profiler) {
+        if (!profiler.isEnabled()) {
+            return;
+        }
+        System.out.print(profiler.summary());
+
+        String traceFile = System.getProperty(TickProfiler.TRACE_FILE_PROPERTY);
+        if (traceFile != null) {
+            try {
+                profiler.exportTrace(Path.of(traceFile));
+                System.out.println("Trace written to " + traceFile);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package main.controller;
+
+import main.input.RandomInput;
+import main.net.LoopbackTransport;
+import main.net.RollbackMetrics;
+import main.net.RollbackSession;
+import main.net.UdpTransport;
+import main.replay.StateChecksum;
+import main.simulation.TickClock;
+
+import java.io.IOException;
+
+/**
+ * Entry point for headless co-op games over the network, played by two bots.
+ * <p>
+ * By default both peers run in this process, linked by a {@link LoopbackTransport} with the given latency, jitter and
+ * packet loss, and stepped in turn by one simulated network clock, so a run is reproducible. Games are played one
+ * after another until the tick count is reached. Once both peers have finished a game, their final states are
+ * compared; together with the checksums the peers exchange on every confirmed tick, this checks that rollback keeps
+ * the two simulations identical. The rollback metrics of both peers are printed at the end, and the process exits
+ * with status 1 if the peers ever disagreed.
+ * <p>
+ * With {@code udp}, this process is a single peer playing in real time over UDP against another NetplayRunner.
+ * <p>
+ * Usage: {@code NetplayRunner [level 1-5] [ticks] [latency ms] [jitter ms] [loss %] [seed]}<br>
+ * or: {@code NetplayRunner udp <player 1-2> <local port> <peer host:port> [level 1-5] [seed]}
+ */
+public class NetplayRunner {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 800;
+    private static final long DEFAULT_TICKS = 100_000;
+    private static final StateChecksum[] CHECKSUMS = StateChecksum.values();
+
+    /**
+     * Main method for running headless network games.
+     *
+     * @param args the mode and its settings, see the class documentation.
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("udp")) {
+            if (args.length < 4) {
+                System.out.println("Usage: NetplayRunner udp <player 1-2> <local port> <peer host:port> [level 1-5] [seed]");
+                return;
+            }
+            runUdp(Integer.parseInt(args[1]), Integer.parseInt(args[2]), args[3],
+                    args.length > 4 ? Integer.parseInt(args[4]) : 1, args.length > 5 ? Long.parseLong(args[5]) : 42);
+            return;
+        }
+        int levelNumber = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_TICKS;
+        int latencyMillis = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int jitterMillis = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int lossPercent = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+        if (!runLoopback(levelNumber, ticks, latencyMillis, jitterMillis, lossPercent, seed)) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean runLoopback(int levelNumber, long ticks, int latencyMillis, int jitterMillis,
+                                       int lossPercent, long seed) {
+        RollbackMetrics[] metrics = new RollbackMetrics[2];
+        int games = 0;
+        int mismatches = 0;
+        long updates = 0;
+        long startTime = System.nanoTime();
+        while (updates < ticks) {
+            long gameSeed = seed + games;
+            TickClock network = new TickClock(GameLoop.DEFAULT_TICKS_PER_SECOND);
+            LoopbackTransport[] transports = LoopbackTransport.createPair(network, latencyMillis, jitterMillis,
+                    lossPercent, gameSeed);
+            RollbackSession[] peers = new RollbackSession[2];
+            for (int i = 0; i < peers.length; i++) {
+                peers[i] = new RollbackSession(WIDTH, HEIGHT, new RandomInput(gameSeed * 2 + i), i + 1,
+                        levelNumber - 1, gameSeed, transports[i]);
+            }
+            while (updates < ticks && !(peers[0].isFinished() && peers[1].isFinished())) {
+                peers[0].update();
+                peers[1].update();
+                network.tick();
+                updates++;
+            }
+            games++;
+            if (peers[0].isFinished() && peers[1].isFinished() && !sameState(peers[0], peers[1])) {
+                mismatches++;
+                System.out.printf("Game %d: the peers finished in different states%n", games);
+            }
+            for (int i = 0; i < peers.length; i++) {
+                if (metrics[i] == null) {
+                    metrics[i] = peers[i].getMetrics();
+                } else {
+                    metrics[i].merge(peers[i].getMetrics());
+                }
+                peers[i].close();
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("Level %d: %d network ticks over %d games in %.3f s, %d ms latency, %d ms jitter, %d%% loss%n",
+                levelNumber, updates, games, seconds, latencyMillis, jitterMillis, lossPercent);
+        long desyncs = 0;
+        for (int i = 0; i < metrics.length; i++) {
+            System.out.printf("Peer %d:%n%s", i + 1, metrics[i].summary());
+            desyncs += metrics[i].getDesyncCount();
+        }
+        System.out.printf("%d of %d finished games ended in different states, %d desyncs%n", mismatches, games, desyncs);
+        return mismatches == 0 && desyncs == 0;
+    }
+
+    private static boolean sameState(RollbackSession first, RollbackSession second) {
+        if (first.getGameState().getClock().currentTimeMillis() != second.getGameState().getClock().currentTimeMillis()) {
+            return false;
+        }
+        for (StateChecksum checksum : CHECKSUMS) {
+            if (checksum.compute(first.getGameState()) != checksum.compute(second.getGameState())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void runUdp(int playerNumber, int localPort, String peer, int levelNumber, long seed) {
+        RollbackSession session;
+        try {
+            session = new RollbackSession(WIDTH, HEIGHT, new RandomInput(seed * 2 + playerNumber - 1), playerNumber,
+                    levelNumber - 1, seed, new UdpTransport(localPort, UdpTransport.parseAddress(peer)));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        Object done = new Object();
+        session.setGameOverListener(message -> {
+            synchronized (done) {
+                done.notifyAll();
+            }
+        });
+        System.out.printf("Player %d on port %d, waiting for %s%n", playerNumber, localPort, peer);
+        synchronized (done) {
+            session.start();
+            while (!session.isFinished()) {
+                try {
+                    done.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        // Give the other peer a moment to receive the last inputs before the socket closes
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        session.close();
+        System.out.printf("%s after %d ticks%n%s", session.getGameState().getGameOverMessage(), session.getTick(),
+                session.getMetrics().summary());
+    }
+}
@@ -0,0 +1,61 @@
+package main.controller;
+
+import main.entities.other.Player;
+import main.replay.Replay;
+import main.replay.ReplayPlayer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point for playing a recorded game back without any user interface. The replay is played to the end as fast
+ * as the simulation allows and the achieved tick rate is printed; given a tick, the game is then sought back to it
+ * from the nearest keyframe and the state of the player at that tick is printed.
+ * To watch a replay at the normal speed, start the game with the {@value ReplayPlayer#FILE_PROPERTY} system property.
+ * <p>
+ * Usage: {@code ReplayRunner <replay file> [tick]}
+ */
+public class ReplayRunner {
+
+    /**
+     * Main method for playing a replay headless.
+     *
+     * @param args the replay file and an optional tick to seek to.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayRunner <replay file> [tick]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        Replay replay;
+        long fileSize;
+        try {
+            replay = Replay.load(file);
+            fileSize = Files.size(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        System.out.printf("%s: level %d, %d ticks, %d bytes%n", file.getFileName(), replay.getLevelIndex() + 1,
+                replay.getTickCount(), fileSize);
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        long startTime = System.nanoTime();
+        player.runToEnd();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("Played %d ticks in %.3f s (%.0f ticks/sec), final score %d%n",
+                player.getTick(), seconds, player.getTick() / seconds, player.getGameState().getPlayer().getPoints());
+
+        if (args.length > 1) {
+            int tick = Integer.parseInt(args[1]);
+            startTime = System.nanoTime();
+            player.seek(tick);
+            double milliseconds = (System.nanoTime() - startTime) / 1e6;
+            Player seekedPlayer = player.getGameState().getPlayer();
+            System.out.printf("Sought to tick %d in %.3f ms: player at (%d, %d) with %d points%n",
+                    player.getTick(), milliseconds, seekedPlayer.getX(), seekedPlayer.getY(), seekedPlayer.getPoints());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package main.core;
+
+import main.controller.GameState;
+import main.graphics.CompatibleImages;
+import main.graphics.RendererBackend;
+import main.graphics.Renderable;
+import main.graphics.SharedImage;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+
+/**
+ * The ActiveRenderCanvas class draws the game from its own render thread instead of waiting for Swing to paint.
+ * Frames are drawn into the back buffer of a {@link BufferStrategy} and presented by page flipping when the
+ * platform supports it, or by blitting otherwise. A {@link FrameLimiter} decides when the next frame is drawn.
+ */
+public class ActiveRenderCanvas extends Canvas implements Runnable {
+    private static final int BUFFER_COUNT = 2;
+    private static final int HUD_MARGIN = 8;
+
+    private final GameState gameState;
+    private final Renderable renderer;
+    private final SharedImage backgroundImage;
+    private final FrameLimiter frameLimiter;
+    private BufferedImage scaledBackground;
+    private volatile boolean running;
+    private Thread thread;
+    private volatile int measuredFps;
+
+    /**
+     * Constructs an ActiveRenderCanvas.
+     *
+     * @param gameState       The game state to draw.
+     * @param backgroundImage The image drawn behind the level, or null for a black background.
+     * @param targetFps       The target frames per second, or 0 for an uncapped frame rate.
+     */
+    public ActiveRenderCanvas(GameState gameState, SharedImage backgroundImage, int targetFps) {
+        this.gameState = gameState;
+        this.renderer = RendererBackend.fromSystemProperties().createRenderer(gameState);
+        this.backgroundImage = backgroundImage;
+        this.frameLimiter = new FrameLimiter(targetFps);
+        setPreferredSize(new Dimension(gameState.getWidth(), gameState.getHeight()));
+        setBackground(Color.BLACK);
+        // Swing must never clear the canvas behind the render thread's back
+        setIgnoreRepaint(true);
+    }
+
+    /**
+     * Creates the buffer strategy and starts the render thread. The canvas must already be displayable.
+     */
+    public void start() {
+        if (this.running) {
+            return;
+        }
+        createBufferStrategy(BUFFER_COUNT);
+        this.running = true;
+        this.thread = new Thread(this, "BadIceCream-Render");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stops the render thread after the frame in progress.
+     */
+    public void stop() {
+        this.running = false;
+    }
+
+    /**
+     * Draws and presents frames until the canvas is stopped.
+     */
+    @Override
+    public void run() {
+        BufferStrategy strategy = getBufferStrategy();
+        long secondStart = System.nanoTime();
+        int framesThisSecond = 0;
+        this.frameLimiter.reset();
+
+        while (this.running) {
+            // The back buffer may be lost while drawing (e.g. on a display change); the frame is then drawn again
+            do {
+                do {
+                    Graphics g = strategy.getDrawGraphics();
+                    try {
+                        this.renderFrame(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+
+            framesThisSecond++;
+            long now = System.nanoTime();
+            if (now - secondStart >= 1_000_000_000L) {
+                this.measuredFps = framesThisSecond;
+                framesThisSecond = 0;
+                secondStart = now;
+            }
+            this.frameLimiter.waitForNextFrame();
+        }
+    }
+
+    /**
+     * Describes how the buffer strategy presents frames.
+     *
+     * @return "page flipping" or "blitting", or "not started" before {@link #start()}.
+     */
+    public String describePresentation() {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            return "not started";
+        }
+        return strategy.getCapabilities().isPageFlipping() ? "page flipping" : "blitting";
+    }
+
+    /**
+     * Returns the number of frames presented during the last full second.
+     *
+     * @return The measured frames per second.
+     */
+    public int getMeasuredFps() {
+        return this.measuredFps;
+    }
+
+    private void renderFrame(Graphics g) {
+        this.drawBackground(g);
+        this.renderer.render(g);
+
+        long remainingTime;
+        int points;
+        synchronized (this.gameState.getStateLock()) {
+            remainingTime = this.gameState.getRemainingTime();
+            points = this.gameState.getScore();
+        }
+        String hud = GamePanel.scoreText(points) + "   " + GamePanel.timeText(remainingTime);
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(Color.WHITE);
+        g.drawString(hud, (getWidth() - metrics.stringWidth(hud)) / 2, HUD_MARGIN + metrics.getAscent());
+    }
+
+    private void drawBackground(Graphics g) {
+        if (this.backgroundImage == null) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+            return;
+        }
+        // The background is scaled once per canvas size, so every frame starts with a 1:1 copy
+        if (this.scaledBackground == null || this.scaledBackground.getWidth() != getWidth()
+                || this.scaledBackground.getHeight() != getHeight()) {
+            this.scaledBackground = CompatibleImages.create(getWidth(), getHeight(), Transparency.OPAQUE);
+            Graphics scaledGraphics = this.scaledBackground.createGraphics();
+            this.backgroundImage.draw(scaledGraphics, 0, 0, getWidth(), getHeight());
+            scaledGraphics.dispose();
+        }
+        g.drawImage(this.scaledBackground, 0, 0, null);
+    }
+}
@@ -0,0 +1,69 @@
+package main.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The FrameLimiter class paces a render loop to a target frame rate with nanosecond precision.
+ * It parks the thread for most of the remaining frame time and spins for the last millisecond,
+ * because parking alone wakes up too late on most schedulers.
+ */
+public class FrameLimiter {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SPIN_THRESHOLD_NANOS = 1_000_000L;
+
+    private final long frameNanos;
+    private long nextFrameTime;
+
+    /**
+     * Constructs a FrameLimiter.
+     *
+     * @param targetFps The target frames per second, or 0 for an uncapped frame rate.
+     */
+    public FrameLimiter(int targetFps) {
+        if (targetFps < 0) {
+            throw new IllegalArgumentException("Target frame rate must not be negative");
+        }
+        this.frameNanos = targetFps == 0 ? 0 : NANOS_PER_SECOND / targetFps;
+        this.reset();
+    }
+
+    /**
+     * Starts pacing from now; the next frame is due one frame period later.
+     */
+    public void reset() {
+        this.nextFrameTime = System.nanoTime() + this.frameNanos;
+    }
+
+    /**
+     * Waits until the next frame is due. Returns immediately when uncapped or when the loop is running late.
+     * A loop that falls more than a frame behind is resynchronised rather than rushing to catch up.
+     */
+    public void waitForNextFrame() {
+        if (this.frameNanos == 0) {
+            return;
+        }
+        long remaining;
+        while ((remaining = this.nextFrameTime - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+
+        long now = System.nanoTime();
+        this.nextFrameTime += this.frameNanos;
+        if (this.nextFrameTime - now <= 0) {
+            this.nextFrameTime = now + this.frameNanos;
+        }
+    }
+
+    /**
+     * Checks if the frame rate is uncapped.
+     *
+     * @return true if frames are not limited, false otherwise.
+     */
+    public boolean isUncapped() {
+        return this.frameNanos == 0;
+    }
+}
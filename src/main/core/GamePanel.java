@@ -1,19 +1,42 @@
 package main.core;
 
 import main.controller.GameState;
+import main.graphics.AssetCache;
+import main.graphics.DirtyRegionTracker;
+import main.graphics.RendererBackend;
+import main.graphics.Renderable;
+import main.metrics.TickProfiler;
 
-import javax.swing.Timer;
+import javax.swing.AbstractAction;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 
 import java.awt.Graphics;
 import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The GamePanel class is responsible for drawing the game state and updating the score and time labels.
+ * After every simulated frame only the regions that changed are repainted; when too much of the screen changed,
+ * the whole panel is repainted instead.
  */
 public class GamePanel extends JPanel {
+    private static final String EXPORT_TRACE_ACTION = "exportTrace";
+    private static final int MAX_DIRTY_REGIONS = 32;
+    private static final double FULL_REPAINT_AREA_RATIO = 0.5;
     private final GameState gameState;
+    private final Renderable renderer;
+    private final DirtyRegionTracker dirtyRegionTracker;
+    private final List<Rectangle> pendingRegions;
+    private boolean paintScheduled;
     private final JLabel scoreLabel;
     private final JLabel timeLabel;
 
@@ -24,32 +47,162 @@ public class GamePanel extends JPanel {
      */
     public GamePanel(GameState gameState) {
         this.gameState = gameState;
-        Timer repaintTimer = new Timer(16, e -> repaint());
-        repaintTimer.start();
+        this.renderer = RendererBackend.fromSystemProperties().createRenderer(gameState);
+        this.dirtyRegionTracker = new DirtyRegionTracker(gameState.getWidth(), gameState.getHeight());
+        this.pendingRegions = new ArrayList<>();
+        // Frames are presented only when the simulation thread has advanced the game
+        this.gameState.setFrameListener(this::presentFrame);
         this.scoreLabel = new JLabel();
         this.timeLabel = new JLabel();
+        this.scoreLabel.setForeground(Color.WHITE);
+        this.timeLabel.setForeground(Color.WHITE);
 
         add(this.scoreLabel);
         add(this.timeLabel);
+        this.setupTraceExport();
     }
 
-    @Override
-    public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        this.gameState.render(g);
+    /**
+     * Collects the regions changed by the ticks just simulated and schedules them to be painted.
+     * Called on the simulation thread; several frames may be collected before the EDT gets to paint them.
+     */
+    private void presentFrame() {
+        List<Rectangle> regions;
+        synchronized (this.gameState.getStateLock()) {
+            regions = this.dirtyRegionTracker.collect(this.gameState);
+        }
+        synchronized (this.pendingRegions) {
+            this.pendingRegions.addAll(regions);
+            if (this.paintScheduled) {
+                return;
+            }
+            this.paintScheduled = true;
+        }
+        SwingUtilities.invokeLater(this::paintPendingRegions);
+    }
 
-        // Update score and time labels
-        this.scoreLabel.setForeground(Color.WHITE);
-        this.scoreLabel.setText("Score: " + this.gameState.getPlayer().getPoints());
-        long remainingTime = GameState.getLevelDuration() - (System.currentTimeMillis() - this.gameState.getLevelStartTime());
+    private void paintPendingRegions() {
+        List<Rectangle> regions;
+        synchronized (this.pendingRegions) {
+            regions = mergeOverlapping(this.pendingRegions);
+            this.pendingRegions.clear();
+            this.paintScheduled = false;
+        }
+        this.updateHud();
 
+        long dirtyArea = 0;
+        for (Rectangle region : regions) {
+            dirtyArea += (long) region.width * region.height;
+        }
+        // The RepaintManager would coalesce separate repaint requests into their bounding box,
+        // so each region is painted right away instead
+        if (regions.size() > MAX_DIRTY_REGIONS || dirtyArea > getWidth() * getHeight() * FULL_REPAINT_AREA_RATIO) {
+            paintImmediately(0, 0, getWidth(), getHeight());
+            return;
+        }
+        // The simulation is held still for the whole batch, so every region shows the same tick
+        synchronized (this.gameState.getStateLock()) {
+            for (Rectangle region : regions) {
+                paintImmediately(region);
+            }
+        }
+    }
+
+    private static List<Rectangle> mergeOverlapping(List<Rectangle> regions) {
+        List<Rectangle> merged = new ArrayList<>(regions.size());
+        for (Rectangle region : regions) {
+            Rectangle union = new Rectangle(region);
+            // Absorb every region that overlaps the growing union; absorbing may make it overlap earlier ones
+            boolean grown = true;
+            while (grown) {
+                grown = false;
+                for (int i = merged.size() - 1; i >= 0; i--) {
+                    if (merged.get(i).intersects(union)) {
+                        union.add(merged.remove(i));
+                        grown = true;
+                    }
+                }
+            }
+            merged.add(union);
+        }
+        return merged;
+    }
+
+    private void updateHud() {
+        long remainingTime;
+        int points;
+        synchronized (this.gameState.getStateLock()) {
+            remainingTime = this.gameState.getRemainingTime();
+            points = this.gameState.getScore();
+        }
+
+        // Labels repaint themselves only when their text changes
+        String scoreText = scoreText(points);
+        String timeText = timeText(remainingTime);
+        if (!scoreText.equals(this.scoreLabel.getText())) {
+            this.scoreLabel.setText(scoreText);
+        }
+        if (!timeText.equals(this.timeLabel.getText())) {
+            this.timeLabel.setText(timeText);
+        }
+    }
+
+    /**
+     * Formats the score shown in the HUD.
+     *
+     * @param points The points of the player.
+     * @return The score text.
+     */
+    static String scoreText(int points) {
+        return "Score: " + points;
+    }
+
+    /**
+     * Formats the remaining time shown in the HUD.
+     *
+     * @param remainingTime The remaining time in milliseconds.
+     * @return The time text.
+     */
+    static String timeText(long remainingTime) {
         long minutes = remainingTime / 60000; // 1 minute = 60000 milliseconds
         long seconds = (remainingTime % 60000) / 1000; // 1 second = 1000 milliseconds
 
         // Ensure that the time is always shown as two digits
-        String timeString = String.format("%02d:%02d", minutes, seconds);
+        return "Time: " + String.format("%02d:%02d", minutes, seconds);
+    }
 
-        this.timeLabel.setForeground(Color.WHITE);
-        this.timeLabel.setText("Time: " + timeString);
+    private void setupTraceExport() {
+        // F12 dumps the last profiled ticks when the game runs with -Dbadicecream.profile=true
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F12, 0), EXPORT_TRACE_ACTION);
+        getActionMap().put(EXPORT_TRACE_ACTION, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                GamePanel.this.exportTrace();
+            }
+        });
+    }
+
+    private void exportTrace() {
+        TickProfiler profiler = this.gameState.getProfiler();
+        if (!profiler.isEnabled()) {
+            return;
+        }
+        Path file = Path.of("badicecream-trace-" + System.currentTimeMillis() + ".json");
+        try {
+            synchronized (this.gameState.getStateLock()) {
+                profiler.exportTrace(file);
+                System.out.print(profiler.summary());
+            }
+            System.out.println(AssetCache.getShared().summary());
+            System.out.println("Trace written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        this.renderer.render(g);
     }
 }
\ No newline at end of file
@@ -1,9 +1,20 @@
 package main.core;
 
 import main.controller.GameState;
+import main.graphics.AssetCache;
+import main.graphics.CompatibleImages;
+import main.graphics.SharedImage;
+import main.input.KeyInput;
+import main.net.RollbackSession;
+import main.net.UdpTransport;
+import main.replay.Replay;
+import main.replay.ReplayPlayer;
+import main.replay.ReplayRecorder;
+import main.simulation.TickClock;
 
-import javax.imageio.ImageIO;
 import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.JPanel;
 import javax.swing.JButton;
 import javax.swing.JLabel;
@@ -15,13 +26,22 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.BorderLayout;
 import java.awt.Graphics;
+import java.awt.Transparency;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
 import java.awt.image.BufferedImage;
 import java.awt.FlowLayout;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
- * Main game window for the Bad IceCream game
+ * Main game window for the Bad IceCream game.
+ * With the {@value ReplayRecorder#DIRECTORY_PROPERTY} system property set, every game played is saved as a replay;
+ * with the {@value ReplayPlayer#FILE_PROPERTY} system property set, the window plays that replay instead.
+ * With the {@value GameState#REWIND_SECONDS_PROPERTY} system property set, 'R' takes the game back a few seconds.
+ * With the {@value UdpTransport#PEER_PROPERTY} system property set, the window plays a single co-op game against
+ * another window over the network; see {@link RollbackSession} for the other properties.
  */
 public class GameWindow extends JFrame {
     private static final int WIDTH = 800;
@@ -29,6 +49,7 @@ public class GameWindow extends JFrame {
     private static final String TITLE = "Bad IceCream";
     private static final String LICK_BUTTON_LABEL = "CLICK TO LICK";
     private static final String BACKGROUND_IMAGE_PATH = "res/background.png";
+    private static final int REWIND_TICKS = 180; // 3 seconds at the default tick rate
 
     private BackgroundPanel backgroundPanel;
     private JPanel overlayPanel;
@@ -36,11 +57,17 @@ public class GameWindow extends JFrame {
     private JPanel miniMenu;
     private GameState gameState;
     private GamePanel gamePanel;
+    private ActiveRenderCanvas activeCanvas;
+    private final RenderMode renderMode;
+    private ReplayRecorder replayRecorder;
+    private ReplayPlayer replayPlayer;
+    private RollbackSession rollbackSession;
 
     /**
      * Constructor for GameWindow
      */
     public GameWindow() {
+        this.renderMode = RenderMode.fromSystemProperties();
         this.setupWindow();
         this.setupBackgroundImage();
         this.setupOverlayPanel();
@@ -59,7 +86,7 @@ public class GameWindow extends JFrame {
     }
 
     private void setupBackgroundImage() {
-        BufferedImage backgroundImage = loadImage();
+        SharedImage backgroundImage = loadImage();
         this.backgroundPanel = new BackgroundPanel(backgroundImage);
         this.backgroundPanel.setLayout(new BorderLayout());
         this.backgroundPanel.setPreferredSize(new Dimension(WIDTH, HEIGHT));
@@ -96,11 +123,87 @@ public class GameWindow extends JFrame {
         this.overlayPanel.add(this.miniMenu);
     }
     private void setupGamePanel() {
-        this.gameState = new GameState(WIDTH, HEIGHT);
-        this.gamePanel = new GamePanel(this.gameState);
-        this.gamePanel.setOpaque(false);
-        this.gamePanel.addKeyListener(this.gameState.getInputHandler().keyInput());
-        this.gamePanel.setFocusable(true);
+        KeyInput keyInput = new KeyInput();
+        String replayFile = System.getProperty(ReplayPlayer.FILE_PROPERTY);
+        this.rollbackSession = createRollbackSession(keyInput);
+        if (this.rollbackSession != null) {
+            this.gameState = this.rollbackSession.getGameState();
+        } else if (replayFile != null) {
+            this.replayPlayer = new ReplayPlayer(loadReplay(replayFile));
+            this.gameState = this.replayPlayer.getGameState();
+        } else if (System.getProperty(ReplayRecorder.DIRECTORY_PROPERTY) != null) {
+            this.replayRecorder = new ReplayRecorder(keyInput);
+            this.gameState = new GameState(WIDTH, HEIGHT, this.replayRecorder);
+        } else {
+            this.gameState = new GameState(WIDTH, HEIGHT, keyInput);
+        }
+        // The game ends on the simulation thread, so the dialog has to be shown from the EDT
+        if (this.rollbackSession != null) {
+            this.rollbackSession.setGameOverListener(message -> SwingUtilities.invokeLater(() -> this.endNetworkGame(message)));
+        } else {
+            this.gameState.setGameOverListener(message -> {
+                this.saveReplay();
+                SwingUtilities.invokeLater(() -> this.askToPlayAgain(message));
+            });
+        }
+        KeyListener rewindKey = new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_R) {
+                    GameWindow.this.rewind();
+                }
+            }
+        };
+        // Replays and network games keep no rewind history
+        boolean canRewind = this.gameState.getRewindBuffer().isPresent();
+        if (this.renderMode == RenderMode.ACTIVE) {
+            this.activeCanvas = new ActiveRenderCanvas(this.gameState, loadImage(), RenderMode.targetFpsFromSystemProperties());
+            this.activeCanvas.addKeyListener(keyInput);
+            if (canRewind) {
+                this.activeCanvas.addKeyListener(rewindKey);
+            }
+            this.activeCanvas.setFocusable(true);
+        } else {
+            this.gamePanel = new GamePanel(this.gameState);
+            this.gamePanel.setOpaque(false);
+            this.gamePanel.addKeyListener(keyInput);
+            if (canRewind) {
+                this.gamePanel.addKeyListener(rewindKey);
+            }
+            this.gamePanel.setFocusable(true);
+        }
+    }
+
+    /**
+     * Returns the render mode the window was created with.
+     *
+     * @return The render mode.
+     */
+    public RenderMode getRenderMode() {
+        return this.renderMode;
+    }
+
+    private void askToPlayAgain(String message) {
+        int result = JOptionPane.showConfirmDialog(this, message + " Would you like to play again?", "Game Over", JOptionPane.YES_NO_OPTION);
+        if (result == JOptionPane.YES_OPTION) {
+            if (this.replayPlayer != null) {
+                // Playing again watches the replay again
+                this.replayPlayer.seek(0);
+            } else {
+                this.gameState.restart();
+            }
+            this.startGame();
+        } else {
+            System.exit(0);
+        }
+    }
+
+    // Both peers would have to agree on a new seed to play again, so a network game is played only once
+    private void endNetworkGame(String message) {
+        JOptionPane.showMessageDialog(this, message, "Game Over", JOptionPane.INFORMATION_MESSAGE);
+        this.rollbackSession.close();
+        System.out.print(this.rollbackSession.getMetrics().summary());
+        System.exit(0);
     }
 
     private void handleLickButtonClick() {
@@ -110,23 +213,84 @@ public class GameWindow extends JFrame {
 
     private void handlePlayButtonClick() {
         this.backgroundPanel.remove(this.overlayPanel);
-        this.gamePanel.setVisible(true);
-        this.backgroundPanel.add(this.gamePanel, BorderLayout.CENTER);
+        if (this.renderMode == RenderMode.ACTIVE) {
+            // The canvas needs its native peer laid out before a buffer strategy can be created
+            this.backgroundPanel.add(this.activeCanvas, BorderLayout.CENTER);
+            this.backgroundPanel.validate();
+            this.activeCanvas.start();
+            System.out.println("Render mode: " + this.renderMode + " (" + this.activeCanvas.describePresentation() + ")");
+        } else {
+            this.gamePanel.setVisible(true);
+            this.backgroundPanel.add(this.gamePanel, BorderLayout.CENTER);
+        }
         new HelpDialog(GameWindow.this).setVisible(true);
-        this.gameState.startGameLoop();
+        this.startGame();
         this.backgroundPanel.revalidate();
         this.backgroundPanel.repaint();
+        if (this.activeCanvas != null) {
+            this.activeCanvas.requestFocus();
+        }
     }
 
-    private static BufferedImage loadImage() {
+    private void startGame() {
+        if (this.rollbackSession != null) {
+            this.rollbackSession.start();
+            return;
+        }
+        if (this.replayPlayer != null) {
+            this.replayPlayer.start();
+            return;
+        }
+        if (this.replayRecorder != null) {
+            this.replayRecorder.begin(this.gameState);
+        }
+        this.gameState.startGameLoop();
+    }
+
+    // The recording is cut back in the same step, so the replay holds only the input of the game as it is now played
+    private void rewind() {
+        synchronized (this.gameState.getStateLock()) {
+            if (this.gameState.hasEnded() || !this.gameState.rewind(REWIND_TICKS)) {
+                return;
+            }
+            if (this.replayRecorder != null) {
+                this.replayRecorder.rewindTo(((TickClock) this.gameState.getClock()).getTicks());
+            }
+        }
+    }
+
+    private void saveReplay() {
+        if (this.replayRecorder == null) {
+            return;
+        }
         try {
-            return ImageIO.read(new File(GameWindow.BACKGROUND_IMAGE_PATH));
+            Path file = this.replayRecorder.finishAndSave(Path.of(System.getProperty(ReplayRecorder.DIRECTORY_PROPERTY)));
+            System.out.println("Replay saved to " + file);
         } catch (IOException e) {
             e.printStackTrace();
-            return null;
         }
     }
 
+    private static RollbackSession createRollbackSession(KeyInput keyInput) {
+        try {
+            return RollbackSession.fromSystemProperties(WIDTH, HEIGHT, keyInput);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open the network port", e);
+        }
+    }
+
+    private static Replay loadReplay(String file) {
+        try {
+            return Replay.load(Path.of(file));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load the replay " + file, e);
+        }
+    }
+
+    private static SharedImage loadImage() {
+        return AssetCache.getShared().getImage(GameWindow.BACKGROUND_IMAGE_PATH);
+    }
+
     private static JPanel createPanelWithBoxLayout() {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
@@ -142,16 +306,28 @@ public class GameWindow extends JFrame {
     }
 
     private static class BackgroundPanel extends JPanel {
-        private final BufferedImage backgroundImage;
+        private final SharedImage backgroundImage;
+        private BufferedImage scaledBackground;
 
-        BackgroundPanel(BufferedImage backgroundImage) {
+        BackgroundPanel(SharedImage backgroundImage) {
             this.backgroundImage = backgroundImage;
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            g.drawImage(this.backgroundImage, 0, 0, getWidth(), getHeight(), null);
+            if (this.backgroundImage == null || getWidth() <= 0 || getHeight() <= 0) {
+                return;
+            }
+            // The background is scaled once per panel size; repainting a region is then a clipped copy
+            if (this.scaledBackground == null || this.scaledBackground.getWidth() != getWidth()
+                    || this.scaledBackground.getHeight() != getHeight()) {
+                this.scaledBackground = CompatibleImages.create(getWidth(), getHeight(), Transparency.TRANSLUCENT);
+                Graphics scaledGraphics = this.scaledBackground.createGraphics();
+                this.backgroundImage.draw(scaledGraphics, 0, 0, getWidth(), getHeight());
+                scaledGraphics.dispose();
+            }
+            g.drawImage(this.scaledBackground, 0, 0, null);
         }
     }
 }
\ No newline at end of file
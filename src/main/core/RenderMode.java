@@ -0,0 +1,44 @@
+package main.core;
+
+import java.util.Locale;
+
+/**
+ * The RenderMode enum selects how frames reach the screen.
+ */
+public enum RenderMode {
+    /**
+     * Swing paints the {@link GamePanel} when the simulation requests a repaint.
+     */
+    PASSIVE,
+    /**
+     * A dedicated render thread draws into an {@link ActiveRenderCanvas} through a buffer strategy, paced by a
+     * {@link FrameLimiter}.
+     */
+    ACTIVE;
+
+    public static final String MODE_PROPERTY = "badicecream.render.mode";
+    public static final String TARGET_FPS_PROPERTY = "badicecream.fps";
+    public static final int DEFAULT_TARGET_FPS = 60;
+
+    /**
+     * Returns the render mode selected by the {@value #MODE_PROPERTY} system property ("passive" or "active").
+     * Passive rendering is used unless active rendering is explicitly requested.
+     *
+     * @return The render mode.
+     * @throws IllegalArgumentException if the property names an unknown mode.
+     */
+    public static RenderMode fromSystemProperties() {
+        String mode = System.getProperty(MODE_PROPERTY, PASSIVE.name());
+        return RenderMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the target frame rate of active rendering, selected by the {@value #TARGET_FPS_PROPERTY} system property.
+     * A value of 0 means uncapped.
+     *
+     * @return The target frames per second.
+     */
+    public static int targetFpsFromSystemProperties() {
+        return Integer.getInteger(TARGET_FPS_PROPERTY, DEFAULT_TARGET_FPS);
+    }
+}
@@ -0,0 +1,74 @@
+package main.entities.enemies;
+
+import main.levels.FlowField;
+import main.levels.Level;
+
+/**
+ * The Chaser class represents an enemy that hunts the player down instead of wandering.
+ * It walks from cell to cell along the level's shared {@link FlowField}, taking the shortest way around the ice;
+ * while the player cannot be reached it wanders like the other enemies.
+ */
+public class Chaser extends Enemy {
+
+    private final Level level;
+    private final boolean passesThroughIce;
+
+    public Chaser(int x, int y, int width, int height, int speed, Level level) {
+        this(x, y, width, height, speed, level, false);
+    }
+
+    protected Chaser(int x, int y, int width, int height, int speed, Level level, boolean passesThroughIce) {
+        super(x, y, width, height, speed, level.getClock(), level.nextRandomStream());
+        this.level = level;
+        this.passesThroughIce = passesThroughIce;
+    }
+
+    @Override
+    public void update() {
+        int cellWidth = this.level.getCellWidth();
+        int cellHeight = this.level.getCellHeight();
+        boolean onCell = getX() % cellWidth == 0 && getY() % cellHeight == 0;
+
+        // A new direction is only chosen on a cell, so the chaser always moves along the grid
+        if (onCell && this.level.getEnemyManager().isPresent()) {
+            FlowField flowField = this.level.getEnemyManager().get().getFlowField(this.passesThroughIce);
+            int direction = flowField.getDirectionToward(getX() / cellWidth, getY() / cellHeight);
+            if (direction != FlowField.NO_DIRECTION) {
+                setDirection(direction);
+            }
+        }
+
+        int newX = getX();
+        int newY = getY();
+        // 0 = up, 1 = right, 2 = down, 3 = left; a step never goes past the next cell
+        switch (getDirection()) {
+            case 0 -> newY -= Math.min(getSpeed(), getY() % cellHeight == 0 ? cellHeight : getY() % cellHeight);
+            case 1 -> newX += Math.min(getSpeed(), cellWidth - getX() % cellWidth);
+            case 2 -> newY += Math.min(getSpeed(), cellHeight - getY() % cellHeight);
+            default -> newX -= Math.min(getSpeed(), getX() % cellWidth == 0 ? cellWidth : getX() % cellWidth);
+        }
+
+        if (this.canMoveTo(newX, newY)) {
+            setX(newX);
+            setY(newY);
+        } else if (onCell) {
+            changeDirection();
+        } else {
+            // The cell ahead froze while walking into it; go back to the cell just left
+            setDirection((getDirection() + 2) % 4);
+        }
+        this.performUniqueActions();
+    }
+
+    private boolean canMoveTo(int x, int y) {
+        if (this.passesThroughIce) {
+            return this.level.canEnemyMoveTo(x, y, getWidth(), getHeight());
+        }
+        return this.level.canMoveTo(x, y, getWidth(), getHeight());
+    }
+
+    @Override
+    protected void performUniqueActions() {
+        // The Chaser class does not perform any unique actions
+    }
+}
@@ -2,8 +2,9 @@ package main.entities.enemies;
 
 import main.entities.other.GameElement;
 import main.entities.other.Player;
-import java.awt.Point;
-import java.util.Random;
+import main.simulation.GameClock;
+import main.simulation.RandomStream;
+import main.simulation.StateBuffer;
 
 /**
  * The Enemy abstract class represents a generic enemy in the game.
@@ -11,7 +12,8 @@ import java.util.Random;
 public abstract class Enemy extends GameElement {
     private final int speed;
     private int direction;
-    private final Random random;
+    private final GameClock clock;
+    private final RandomStream random;
     private long lastChange;
 
     /**
@@ -21,35 +23,32 @@ public abstract class Enemy extends GameElement {
      * @param width the width of the enemy
      * @param height the height of the enemy
      * @param speed the speed of the enemy
+     * @param clock the clock of the level
+     * @param random the random stream owned by this enemy
      */
-    public Enemy(int x, int y, int width, int height, int speed) {
+    public Enemy(int x, int y, int width, int height, int speed, GameClock clock, RandomStream random) {
         super(x, y, width, height);
         this.speed = speed;
-        this.random = new Random();
+        this.clock = clock;
+        this.random = random;
         this.direction = this.random.nextInt(4); // random initial direction
-        this.lastChange = System.currentTimeMillis(); // time of last direction change
+        this.lastChange = 0; // time of last direction change; levels may be built ahead of time, so not read from the clock
+    }
+    // 0 = up, 1 = right, 2 = down, 3 = left
+    protected int calculateNewX() {
+        return switch (this.direction) {
+            case 1 -> getX() + this.speed;
+            case 3 -> getX() - this.speed;
+            default -> getX();
+        };
     }
-    protected Point calculateNewPosition() {
-        int newX = getX();
-        int newY = getY();
-
-        // 0 = up, 1 = right, 2 = down, 3 = left
-        switch (this.direction) {
-            case 0:
-                newY -= this.speed;
-                break;
-            case 1:
-                newX += this.speed;
-                break;
-            case 2:
-                newY += this.speed;
-                break;
-            case 3:
-                newX -= this.speed;
-                break;
-        }
 
-        return new Point(newX, newY);
+    protected int calculateNewY() {
+        return switch (this.direction) {
+            case 0 -> getY() - this.speed;
+            case 2 -> getY() + this.speed;
+            default -> getY();
+        };
     }
 
     public boolean hasCollidedWithPlayer(Player player) {
@@ -64,7 +63,19 @@ public abstract class Enemy extends GameElement {
 
     protected void changeDirection() {
         this.direction = this.random.nextInt(4);
-        this.lastChange = System.currentTimeMillis();
+        this.lastChange = this.clock.currentTimeMillis();
+    }
+
+    protected void setDirection(int direction) {
+        this.direction = direction;
+    }
+
+    public int getSpeed() {
+        return this.speed;
+    }
+
+    protected long getCurrentTime() {
+        return this.clock.currentTimeMillis();
     }
 
     public abstract void update();
@@ -78,4 +89,39 @@ public abstract class Enemy extends GameElement {
     public long getLastChange() {
         return this.lastChange;
     }
+
+    /**
+     * Returns the state of the random stream owned by this enemy, e.g. for copying the enemy into another storage.
+     *
+     * @return The state of the random stream.
+     */
+    public long getRandomState() {
+        return this.random.getState();
+    }
+
+    /**
+     * Writes everything about the enemy that changes while it moves, e.g. for a replay keyframe.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putInt(getX());
+        out.putInt(getY());
+        out.putInt(this.direction);
+        out.putLong(this.lastChange);
+        out.putLong(this.random.getState());
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from.
+     */
+    public void restoreState(StateBuffer in) {
+        setX(in.getInt());
+        setY(in.getInt());
+        this.direction = in.getInt();
+        this.lastChange = in.getLong();
+        this.random.setState(in.getLong());
+    }
 }
\ No newline at end of file
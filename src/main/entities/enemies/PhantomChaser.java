@@ -0,0 +1,14 @@
+package main.entities.enemies;
+
+import main.levels.Level;
+
+/**
+ * The PhantomChaser class represents a chaser that floats through ice like a ghost.
+ * Only walls stand in its way, so it follows a flow field of its own that ignores the ice.
+ */
+public class PhantomChaser extends Chaser {
+
+    public PhantomChaser(int x, int y, int width, int height, int speed, Level level) {
+        super(x, y, width, height, speed, level, true);
+    }
+}
@@ -2,26 +2,17 @@ package main.entities.enemies;
 
 import main.levels.Level;
 
-import javax.imageio.ImageIO;
-import java.awt.Point;
-import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
 /**
  * The ThermalTitan class represents a specific type of enemy in the game.
  */
 public class ThermalTitan extends Enemy {
     private final Level level;
-    private BufferedImage sprite;
     private final int heatRadius;
 
     public ThermalTitan(int x, int y, int width, int height, int speed, Level level, int heatRadius) {
-        super(x, y, width, height, speed);
+        super(x, y, width, height, speed, level.getClock(), level.nextRandomStream());
         this.level = level;
         this.heatRadius = heatRadius;
-        this.loadTitanImage();
     }
 
     @Override
@@ -31,11 +22,12 @@ public class ThermalTitan extends Enemy {
 
     @Override
     public void update() {
-        Point newPosition = calculateNewPosition();
+        int newX = calculateNewX();
+        int newY = calculateNewY();
 
-        if (this.level.canEnemyMoveTo(newPosition.x, newPosition.y, getWidth(), getHeight())) {
-            setX(newPosition.x);
-            setY(newPosition.y);
+        if (this.level.canEnemyMoveTo(newX, newY, getWidth(), getHeight())) {
+            setX(newX);
+            setY(newY);
         } else {
             changeDirection();
         }
@@ -44,27 +36,18 @@ public class ThermalTitan extends Enemy {
         this.performUniqueActions();
 
         // change direction every 4 seconds
-        if (System.currentTimeMillis() - getLastChange() > 4000) {
+        if (getCurrentTime() - getLastChange() > 4000) {
             changeDirection();
         }
     }
 
+    public int getHeatRadius() {
+        return this.heatRadius;
+    }
+
     private void emitHeatAura() {
         if (this.level.getIceManager().isPresent()) {
             this.level.getIceManager().get().meltIceAround(getX(), getY(), this.heatRadius);
         }
     }
-
-    private void loadTitanImage() {
-        try {
-            this.sprite = ImageIO.read(new File("res/thermalTitan.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    @Override
-    public void render(Graphics g) {
-        g.drawImage(this.sprite, getX(), getY(), getWidth(), getHeight(), null);
-    }
 }
\ No newline at end of file
@@ -1,12 +1,7 @@
 package main.entities.enemies;
 
 import main.levels.Level;
-
-import javax.imageio.ImageIO;
-import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
+import main.simulation.StateBuffer;
 
 /**
  * The Yeti class represents a specific type of enemy in the game.
@@ -16,12 +11,10 @@ public class Yeti extends Enemy {
     private final int speed;
     private int direction = 0; // Initial is right
     private final Level level;
-    private BufferedImage sprite;
     public Yeti(int x, int y, int width, int height, int speed, Level level) {
-        super(x, y, width, height, speed);
+        super(x, y, width, height, speed, level.getClock(), level.nextRandomStream());
         this.speed = speed;
         this.level = level;
-        this.loadGuardImage();
     }
 
     @Override
@@ -56,19 +49,18 @@ public class Yeti extends Enemy {
     }
 
     @Override
-    protected void performUniqueActions() {
+    public void saveState(StateBuffer out) {
+        super.saveState(out);
+        out.putInt(this.direction);
     }
 
-    private void loadGuardImage() {
-        try {
-            this.sprite = ImageIO.read(new File("res/yeti.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    @Override
+    public void restoreState(StateBuffer in) {
+        super.restoreState(in);
+        this.direction = in.getInt();
     }
 
     @Override
-    public void render(Graphics g) {
-        g.drawImage(this.sprite, getX(), getY(), getWidth(), getHeight(), null);
+    protected void performUniqueActions() {
     }
 }
\ No newline at end of file
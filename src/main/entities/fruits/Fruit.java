@@ -1,9 +1,7 @@
 package main.entities.fruits;
 
 import main.entities.other.GameElement;
-
-import java.awt.Rectangle;
-import java.awt.Graphics;
+import main.geometry.Bounds;
 
 /**
  * The Fruit abstract class represents a generic fruit in the game
@@ -17,12 +15,10 @@ public abstract class Fruit extends GameElement {
     public int getPointValue() {
         return this.pointValue;
     }
-    public Rectangle getBounds() {
-        return new Rectangle(getX(), getY(), getWidth(), getHeight());
+    public Bounds getBounds() {
+        return new Bounds(getX(), getY(), getWidth(), getHeight());
     }
     @Override
     public void update() {
     }
-    @Override
-    public abstract void render(Graphics g);
 }
@@ -2,10 +2,10 @@ package main.entities.other;
 
 import main.entities.enemies.Enemy;
 
-import java.awt.Point;
+import main.geometry.Position;
 
 /**
  * Class representing the spawn location and type of enemy.
  */
-public record EnemySpawn(Class<? extends Enemy> type, Point position) {
+public record EnemySpawn(Class<? extends Enemy> type, Position position) {
 }
\ No newline at end of file
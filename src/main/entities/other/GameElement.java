@@ -1,7 +1,5 @@
 package main.entities.other;
 
-import java.awt.Graphics;
-
 /**
  * This is a base class for all game elements such as player, enemies and ice blocks. It provides
  * methods that are common to these elements.
@@ -20,7 +18,6 @@ public abstract class GameElement {
         this.height = height;
     }
     public abstract void update();
-    public abstract void render(Graphics g);
 
     /**
      * Getters and setters below
@@ -1,16 +1,10 @@
 package main.entities.other;
 
-import java.awt.Graphics;
-import java.awt.Point;
-import java.awt.Rectangle;
-import java.awt.event.KeyEvent;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import main.input.KeyInput;
+import main.geometry.Bounds;
+import main.geometry.Position;
+import main.input.InputSource;
 import main.levels.Level;
-import javax.imageio.ImageIO;
+import main.simulation.StateBuffer;
 
 /**
  * Class representing the Player entity in the game.
@@ -19,9 +13,8 @@ import javax.imageio.ImageIO;
 public class Player extends GameElement {
     private final int speed;
     private final PlayerInputHandler inputHandler;
-    private final KeyInput keyInput;
+    private final InputSource keyInput;
     private Level level;
-    private BufferedImage sprite;
     private int points;
     private int targetX;
     private int targetY;
@@ -43,7 +36,6 @@ public class Player extends GameElement {
         this.keyInput = this.inputHandler.keyInput();
         this.level = level;
         this.points = 0;
-        this.loadPlayerImage();
 
         this.targetX = x;
         this.targetY = y;
@@ -84,19 +76,23 @@ public class Player extends GameElement {
         }
     }
 
-    private Point computeIceBlockInitialPosition() {
+    // The ice block position is computed per axis, so shooting ice allocates nothing
+    private int computeIceBlockX(Direction direction, int distance) {
         int iceBlockX = getX() / this.level.getCellWidth();
-        int iceBlockY = getY() / this.level.getCellHeight();
-        return new Point(iceBlockX, iceBlockY);
+        return switch (direction) {
+            case LEFT -> iceBlockX - distance;
+            case RIGHT -> iceBlockX + distance;
+            default -> iceBlockX;
+        };
     }
 
-    private void adjustIceBlockPositionForBreaking(Direction direction, Point iceBlockPosition) {
-        switch (direction) {
-            case UP -> iceBlockPosition.y--;
-            case DOWN -> iceBlockPosition.y++;
-            case LEFT -> iceBlockPosition.x--;
-            case RIGHT -> iceBlockPosition.x++;
-        }
+    private int computeIceBlockY(Direction direction, int distance) {
+        int iceBlockY = getY() / this.level.getCellHeight();
+        return switch (direction) {
+            case UP -> iceBlockY - distance;
+            case DOWN -> iceBlockY + distance;
+            default -> iceBlockY;
+        };
     }
 
     private int computeLookAhead() {
@@ -107,43 +103,29 @@ public class Player extends GameElement {
         }
     }
     private void handleIceCreationAndBreaking() {
-        if (!this.keyInput.isKeyPressed(KeyEvent.VK_SPACE)) {
+        if (!this.keyInput.isKeyPressed(InputSource.KEY_SPACE)) {
             return;
         }
         Direction direction = this.inputHandler.getFacingDirection();
 
         // Compute the ice block's initial position. ALso adjust the ice block position for breaking the ice.
-        Point iceBlockPosition = this.computeIceBlockInitialPosition();
-        this.adjustIceBlockPositionForBreaking(direction, iceBlockPosition);
+        int iceBlockX = this.computeIceBlockX(direction, 1);
+        int iceBlockY = this.computeIceBlockY(direction, 1);
 
         if (this.level.getIceManager().isPresent()) {
-            if (this.level.hasIceBlock(iceBlockPosition.x, iceBlockPosition.y)) {
-                this.level.getIceManager().get().breakIceInDirection(iceBlockPosition.x, iceBlockPosition.y, direction);
+            if (this.level.hasIceBlock(iceBlockX, iceBlockY)) {
+                this.level.getIceManager().get().breakIceInDirection(iceBlockX, iceBlockY, direction);
                 return;  // return after breaking ice
             }
         }
 
         // Compute lookahead only for creating the ice.
         int lookahead = this.computeLookAhead();
-        iceBlockPosition = this.computeIceBlockInitialPosition();
-
-        switch (direction) {
-            case UP:
-                iceBlockPosition.y -= lookahead;
-                break;
-            case DOWN:
-                iceBlockPosition.y += lookahead;
-                break;
-            case LEFT:
-                iceBlockPosition.x -= lookahead;
-                break;
-            case RIGHT:
-                iceBlockPosition.x += lookahead;
-                break;
-        }
+        iceBlockX = this.computeIceBlockX(direction, lookahead);
+        iceBlockY = this.computeIceBlockY(direction, lookahead);
 
-        if (this.level.getIceManager().isPresent() && !this.level.hasIceBlock(iceBlockPosition.x, iceBlockPosition.y)) {
-            this.level.getIceManager().get().createIceInDirection(iceBlockPosition.x, iceBlockPosition.y, direction);
+        if (this.level.getIceManager().isPresent() && !this.level.hasIceBlock(iceBlockX, iceBlockY)) {
+            this.level.getIceManager().get().createIceInDirection(iceBlockX, iceBlockY, direction);
         }
     }
 
@@ -157,18 +139,11 @@ public class Player extends GameElement {
      *
      * @param newPosition The new position of the player.
      */
-    public void updatePosition(Point newPosition) {
-        setX(newPosition.x * this.level.getCellWidth());
-        setY(newPosition.y * this.level.getCellHeight());
+    public void updatePosition(Position newPosition) {
+        setX(newPosition.x() * this.level.getCellWidth());
+        setY(newPosition.y() * this.level.getCellHeight());
         this.resetTargetLocation();
     }
-    private void loadPlayerImage() {
-        try {
-            this.sprite = ImageIO.read(new File("res/pink_iceCream.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
 
     public void addPoints(int points) {
         this.points += points;
@@ -180,18 +155,13 @@ public class Player extends GameElement {
         this.handleIceCreationAndBreaking();
     }
 
-    @Override
-    public void render(Graphics g) {
-        g.drawImage(this.sprite, getX(), getY(), getWidth(), getHeight(), null);
-    }
-
     /**
      * Retrieves the bounding rectangle of the player.
      *
      * @return The bounding rectangle.
      */
-    public Rectangle getBounds() {
-        return new Rectangle(getX(), getY(), getWidth(), getHeight());
+    public Bounds getBounds() {
+        return new Bounds(getX(), getY(), getWidth(), getHeight());
     }
 
     /**
@@ -212,6 +182,41 @@ public class Player extends GameElement {
         this.points = points;
     }
 
+    /**
+     * Writes the position, movement target and points of the player, e.g. for a replay keyframe.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putInt(getX());
+        out.putInt(getY());
+        out.putInt(this.targetX);
+        out.putInt(this.targetY);
+        out.putInt(this.points);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from.
+     */
+    public void restoreState(StateBuffer in) {
+        setX(in.getInt());
+        setY(in.getInt());
+        this.targetX = in.getInt();
+        this.targetY = in.getInt();
+        this.points = in.getInt();
+    }
+
+    /**
+     * Returns the level the player is currently in.
+     *
+     * @return The level.
+     */
+    public Level getLevel() {
+        return this.level;
+    }
+
     /**
      * Sets the level for the player.
      *
@@ -1,11 +1,11 @@
 package main.entities.other;
 
-import main.input.KeyInput;
+import main.input.InputSource;
 
 /**
  * Represents the input handler for the player.
  */
-public record PlayerInputHandler(KeyInput keyInput) {
+public record PlayerInputHandler(InputSource keyInput) {
 
     /**
      * Checks if the move up key is pressed.
@@ -0,0 +1,20 @@
+package main.geometry;
+
+/**
+ * The Bounds record represents an axis-aligned rectangle in pixel coordinates.
+ */
+public record Bounds(int x, int y, int width, int height) {
+    /**
+     * Checks if this rectangle overlaps the given one. Touching edges do not count as an overlap.
+     *
+     * @param other The other rectangle.
+     * @return True if both rectangles share a non-empty area, false otherwise.
+     */
+    public boolean intersects(Bounds other) {
+        if (this.width <= 0 || this.height <= 0 || other.width <= 0 || other.height <= 0) {
+            return false;
+        }
+        return this.x < other.x + other.width && other.x < this.x + this.width &&
+                this.y < other.y + other.height && other.y < this.y + this.height;
+    }
+}
@@ -0,0 +1,7 @@
+package main.geometry;
+
+/**
+ * The Position record represents an integer point, either in cell or in pixel coordinates.
+ */
+public record Position(int x, int y) {
+}
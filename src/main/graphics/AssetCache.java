@@ -0,0 +1,130 @@
+package main.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The AssetCache class decodes every image resource once per process and hands out the shared decoded image.
+ * Images are handed out as read-only {@link SharedImage} handles, so no caller can change what the others see;
+ * a caller that needs to modify an image works on a copy.
+ */
+public final class AssetCache {
+    private static final AssetCache SHARED = new AssetCache();
+
+    private final Map<String, SharedImage> images;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong bytesResident;
+
+    private AssetCache() {
+        this.images = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.bytesResident = new AtomicLong();
+    }
+
+    /**
+     * Returns the process-wide asset cache.
+     *
+     * @return The shared cache.
+     */
+    public static AssetCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the decoded image stored at the given path, decoding it on first use.
+     * Concurrent first requests for the same path decode it only once; the request that decodes counts as the
+     * miss and every other request as a hit.
+     *
+     * @param path The file path of the image.
+     * @return The shared image, or null if the image could not be decoded.
+     */
+    public SharedImage getImage(String path) {
+        SharedImage image = this.images.get(path);
+        if (image != null) {
+            this.hits.incrementAndGet();
+            return image;
+        }
+        // A failed decode is not cached, so a missing file is reported again on the next request
+        SharedImage[] decoded = new SharedImage[1];
+        image = this.images.computeIfAbsent(path, key -> decoded[0] = this.decode(key));
+        if (image != null && image != decoded[0]) {
+            // Another thread decoded the image first
+            this.hits.incrementAndGet();
+        }
+        return image;
+    }
+
+    /**
+     * Returns the number of requests served from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the number of requests that had to decode the image.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Returns the approximate number of bytes held by the decoded images.
+     *
+     * @return The resident size in bytes.
+     */
+    public long getBytesResident() {
+        return this.bytesResident.get();
+    }
+
+    /**
+     * Returns the number of decoded images held by the cache.
+     *
+     * @return The image count.
+     */
+    public int size() {
+        return this.images.size();
+    }
+
+    /**
+     * Returns a one-line summary of the cache metrics.
+     *
+     * @return The summary.
+     */
+    public String summary() {
+        return String.format("assets: %d images, %d KiB resident, %d hits, %d misses",
+                this.size(), this.getBytesResident() / 1024, this.getHits(), this.getMisses());
+    }
+
+    private SharedImage decode(String path) {
+        this.misses.incrementAndGet();
+        try {
+            BufferedImage image = ImageIO.read(new File(path));
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + path);
+            }
+            this.bytesResident.addAndGet(sizeOf(image));
+            return new SharedImage(image);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+}
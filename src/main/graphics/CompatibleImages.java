@@ -0,0 +1,34 @@
+package main.graphics;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * The CompatibleImages class creates off-screen images in the pixel format of the screen,
+ * so that drawing them is a plain copy the graphics pipeline can accelerate.
+ */
+public final class CompatibleImages {
+    private CompatibleImages() {
+    }
+
+    /**
+     * Creates an image compatible with the default screen.
+     * Without a display, a plain integer RGB or ARGB image is returned instead.
+     *
+     * @param width        The width of the image.
+     * @param height       The height of the image.
+     * @param transparency The transparency of the image, one of the {@link Transparency} constants.
+     * @return The new image.
+     */
+    public static BufferedImage create(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        return new BufferedImage(width, height, type);
+    }
+}
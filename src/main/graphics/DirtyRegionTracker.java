@@ -0,0 +1,140 @@
+package main.graphics;
+
+import main.controller.GameState;
+import main.entities.enemies.Enemy;
+import main.entities.fruits.Fruit;
+import main.entities.other.GameElement;
+import main.entities.other.Player;
+import main.levels.Level;
+import main.levels.managers.IceChangeListener;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The DirtyRegionTracker class works out which parts of the screen changed since the previous frame.
+ * It remembers where every player, enemy and fruit was last painted and which ice cells froze or melted,
+ * so that only those regions have to be repainted. A new level or a restarted game requests a full repaint.
+ * All methods must be called while holding the state lock of the game.
+ */
+public class DirtyRegionTracker implements IceChangeListener {
+    private final int width;
+    private final int height;
+    private final Map<GameElement, TrackedBounds> paintedBounds;
+    private final List<Rectangle> changedIceCells;
+    private Level trackedLevel;
+    private long generation;
+
+    /**
+     * Constructs a DirtyRegionTracker for a screen of the given size.
+     *
+     * @param width  The width of the screen.
+     * @param height The height of the screen.
+     */
+    public DirtyRegionTracker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.paintedBounds = new IdentityHashMap<>();
+        this.changedIceCells = new ArrayList<>();
+    }
+
+    /**
+     * Collects the regions that changed since the previous call.
+     * A full repaint is returned as a single region covering the whole screen.
+     *
+     * @param gameState The game state being drawn.
+     * @return The changed regions; empty if nothing changed.
+     */
+    public List<Rectangle> collect(GameState gameState) {
+        List<Rectangle> regions = new ArrayList<>();
+        Level level = gameState.getCurrentLevel();
+        if (level != this.trackedLevel) {
+            this.track(level);
+            regions.add(new Rectangle(0, 0, this.width, this.height));
+            return regions;
+        }
+
+        this.generation++;
+        for (Player player : gameState.getPlayers()) {
+            this.trackElement(player, regions);
+        }
+        if (level.getEnemyManager().isPresent()) {
+            for (Enemy enemy : level.getEnemyManager().get().getEnemies()) {
+                this.trackElement(enemy, regions);
+            }
+        }
+        if (level.getFruitManager().isPresent()) {
+            for (Fruit fruit : level.getFruitManager().get().getFruits()) {
+                this.trackElement(fruit, regions);
+            }
+        }
+
+        // Elements that were not seen this frame are gone and leave their old area behind
+        Iterator<TrackedBounds> iterator = this.paintedBounds.values().iterator();
+        while (iterator.hasNext()) {
+            TrackedBounds tracked = iterator.next();
+            if (tracked.generation != this.generation) {
+                regions.add(tracked.bounds);
+                iterator.remove();
+            }
+        }
+
+        regions.addAll(this.changedIceCells);
+        this.changedIceCells.clear();
+        return regions;
+    }
+
+    /**
+     * Records a frozen or melted cell of the tracked level.
+     *
+     * @param x      The x-coordinate of the cell.
+     * @param y      The y-coordinate of the cell.
+     * @param frozen true if the cell now holds ice, false if it was cleared.
+     */
+    @Override
+    public void onIceChanged(int x, int y, boolean frozen) {
+        int cellWidth = this.trackedLevel.getCellWidth();
+        int cellHeight = this.trackedLevel.getCellHeight();
+        this.changedIceCells.add(new Rectangle(x * cellWidth, y * cellHeight, cellWidth, cellHeight));
+    }
+
+    private void track(Level level) {
+        if (this.trackedLevel != null) {
+            this.trackedLevel.getIceManager().ifPresent(iceManager -> iceManager.getIceBlockManager().removeIceChangeListener(this));
+        }
+        this.trackedLevel = level;
+        this.paintedBounds.clear();
+        this.changedIceCells.clear();
+        level.getIceManager().ifPresent(iceManager -> iceManager.getIceBlockManager().addIceChangeListener(this));
+    }
+
+    private void trackElement(GameElement element, List<Rectangle> regions) {
+        TrackedBounds tracked = this.paintedBounds.get(element);
+        if (tracked == null) {
+            tracked = new TrackedBounds(element);
+            this.paintedBounds.put(element, tracked);
+            regions.add(tracked.bounds);
+        } else if (tracked.bounds.x != element.getX() || tracked.bounds.y != element.getY()
+                || tracked.bounds.width != element.getWidth() || tracked.bounds.height != element.getHeight()) {
+            // Both the area the element left and the area it moved to have to be repainted
+            regions.add(tracked.bounds);
+            tracked.bounds = new Rectangle(element.getX(), element.getY(), element.getWidth(), element.getHeight());
+            regions.add(tracked.bounds);
+        }
+        tracked.generation = this.generation;
+    }
+
+    private final class TrackedBounds {
+        private Rectangle bounds;
+        private long generation;
+
+        private TrackedBounds(GameElement element) {
+            this.bounds = new Rectangle(element.getX(), element.getY(), element.getWidth(), element.getHeight());
+            this.generation = DirtyRegionTracker.this.generation;
+        }
+    }
+}
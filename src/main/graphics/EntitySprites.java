@@ -0,0 +1,96 @@
+package main.graphics;
+
+import main.entities.enemies.Chaser;
+import main.entities.enemies.Ghost;
+import main.entities.enemies.Guard;
+import main.entities.enemies.PhantomChaser;
+import main.entities.enemies.ThermalTitan;
+import main.entities.enemies.Yeti;
+import main.entities.fruits.Banana;
+import main.entities.fruits.Grapes;
+import main.entities.fruits.Lemon;
+import main.entities.fruits.Orange;
+import main.entities.fruits.Watermelon;
+import main.entities.other.GameElement;
+import main.entities.other.Player;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The EntitySprites class maps simulation entities to the images the Swing client draws for them.
+ * The simulation itself never loads images; the decoded images come from the shared {@link AssetCache}.
+ * These are the images at their original size; {@link SpriteAtlas} scales them for drawing.
+ */
+public class EntitySprites {
+    private final Map<Class<? extends GameElement>, SharedImage> sprites;
+    private final SharedImage wallSprite;
+    private final SharedImage iceSprite;
+
+    /**
+     * Constructs an EntitySprites object and loads all sprites used by the game.
+     */
+    public EntitySprites() {
+        this.sprites = new HashMap<>();
+        this.sprites.put(Player.class, loadImage("res/pink_iceCream.png"));
+        this.sprites.put(Ghost.class, loadImage("res/ghost.png"));
+        this.sprites.put(Guard.class, loadImage("res/guard.png"));
+        this.sprites.put(ThermalTitan.class, loadImage("res/thermalTitan.png"));
+        this.sprites.put(Yeti.class, loadImage("res/yeti.png"));
+        // The chasers have no artwork of their own yet and borrow the look of their wandering counterparts
+        this.sprites.put(Chaser.class, loadImage("res/guard.png"));
+        this.sprites.put(PhantomChaser.class, loadImage("res/ghost.png"));
+
+        SpriteSheet fruitSheet = new SpriteSheet("res/fruits.png");
+        this.sprites.put(Banana.class, fruitSheet.getSprite(175, 94, 20, 20));
+        this.sprites.put(Grapes.class, fruitSheet.getSprite(145, 6, 20, 20));
+        this.sprites.put(Lemon.class, fruitSheet.getSprite(64, 124, 20, 20));
+        this.sprites.put(Orange.class, fruitSheet.getSprite(37, 124, 20, 20));
+        this.sprites.put(Watermelon.class, fruitSheet.getSprite(37, 62, 20, 20));
+
+        this.wallSprite = loadImage("res/wallBlock.png");
+        this.iceSprite = loadImage("res/iceBlock.png");
+    }
+
+    /**
+     * Returns the sprites of all element types.
+     *
+     * @return An unmodifiable view of the sprites by element type.
+     */
+    public Map<Class<? extends GameElement>, SharedImage> getSprites() {
+        return Collections.unmodifiableMap(this.sprites);
+    }
+
+    /**
+     * Returns the sprite used for the given element type.
+     *
+     * @param type The element type.
+     * @return The sprite image, or null if the type has no sprite.
+     */
+    public SharedImage getSprite(Class<? extends GameElement> type) {
+        return this.sprites.get(type);
+    }
+
+    /**
+     * Returns the sprite used for walls.
+     *
+     * @return The wall sprite image.
+     */
+    public SharedImage getWallSprite() {
+        return this.wallSprite;
+    }
+
+    /**
+     * Returns the sprite used for ice cells.
+     *
+     * @return The ice sprite image.
+     */
+    public SharedImage getIceSprite() {
+        return this.iceSprite;
+    }
+
+    private static SharedImage loadImage(String path) {
+        return AssetCache.getShared().getImage(path);
+    }
+}
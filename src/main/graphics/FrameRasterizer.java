@@ -0,0 +1,310 @@
+package main.graphics;
+
+import main.entities.enemies.Enemy;
+import main.entities.fruits.Fruit;
+import main.entities.other.GameElement;
+import main.entities.other.Player;
+import main.levels.Level;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The FrameRasterizer class draws a level without Java2D: sprites are kept as pixel arrays and copied straight into
+ * the integer pixel array of the frame. Fully transparent sprite pixels are skipped, opaque ones copied and
+ * translucent ones blended source-over with the same 8-bit alpha arithmetic as Java2D, so the frame matches what the
+ * Java2D renderer draws into an empty ARGB image pixel for pixel.
+ * The frame can be split into horizontal stripes that are drawn in parallel; every stripe clips all copies to its rows.
+ */
+public class FrameRasterizer {
+    private static final byte[] MUL8 = new byte[256 * 256];
+    private static final byte[] DIV8 = new byte[256 * 256];
+
+    static {
+        // The rounding tables of Java2D's software loops: MUL8[a][b] ~ a * b / 255 and DIV8[a][b] ~ b * 255 / a
+        for (int a = 1; a < 256; a++) {
+            long increment = a * 0x10101L;
+            long value = increment + (1 << 23);
+            for (int b = 1; b < 256; b++) {
+                MUL8[(a << 8) + b] = (byte) (value >> 24);
+                value += increment;
+            }
+        }
+        for (int a = 1; a < 256; a++) {
+            long increment = ((0xFFL << 24) + a / 2) / a;
+            long value = 1 << 23;
+            for (int b = 0; b < 256; b++) {
+                DIV8[(a << 8) + b] = b < a ? (byte) (value >> 24) : (byte) 0xFF;
+                value += increment;
+            }
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final BufferedImage frame;
+    private final int[] pixels;
+    private final EntitySprites sprites;
+    private final int stripes;
+    private final ForkJoinPool pool;
+    private Level rasterizedLevel;
+    private Map<Class<? extends GameElement>, PixelSprite> levelSprites;
+    private PixelSprite iceSprite;
+    private int[] wallLayer;
+
+    /**
+     * Constructs a FrameRasterizer.
+     *
+     * @param width   The width of the frame.
+     * @param height  The height of the frame.
+     * @param sprites The sprites of the game.
+     * @param stripes The number of horizontal stripes drawn in parallel; 1 draws the frame on the calling thread.
+     */
+    public FrameRasterizer(int width, int height, EntitySprites sprites, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.width = width;
+        this.height = height;
+        this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.pixels = ((DataBufferInt) this.frame.getRaster().getDataBuffer()).getData();
+        this.sprites = sprites;
+        this.stripes = Math.min(stripes, height);
+        this.pool = this.stripes > 1 ? new ForkJoinPool(this.stripes) : null;
+    }
+
+    /**
+     * Draws the level and the players into the frame. The caller must keep the level still while it is drawn.
+     *
+     * @param level   The level to draw.
+     * @param players The players to draw.
+     * @return The frame; it is reused by the next call.
+     */
+    public BufferedImage renderFrame(Level level, List<Player> players) {
+        if (level != this.rasterizedLevel) {
+            this.prepareLevel(level);
+        }
+        if (this.pool == null) {
+            this.renderStripe(level, players, 0, this.height);
+        } else {
+            this.pool.invoke(new StripeTask(level, players, 0, this.stripes));
+        }
+        return this.frame;
+    }
+
+    /**
+     * Returns the number of stripes the frame is split into.
+     *
+     * @return The stripe count.
+     */
+    public int getStripes() {
+        return this.stripes;
+    }
+
+    /**
+     * Stops the threads drawing the stripes. The rasterizer must not be used afterwards.
+     */
+    public void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    private void prepareLevel(Level level) {
+        // The same pre-scaled sprites as the Java2D path, so both produce the same pixels
+        SpriteAtlas atlas = new SpriteAtlas(this.sprites, level.getCellWidth(), level.getCellHeight());
+        this.levelSprites = new HashMap<>();
+        for (Class<? extends GameElement> type : this.sprites.getSprites().keySet()) {
+            this.levelSprites.put(type, new PixelSprite(atlas.getSprite(type)));
+        }
+        // The Java2D path draws ice and walls into layer images first; compositing over an empty image
+        // rounds translucent pixels, so the same rounding is applied here once
+        this.iceSprite = new PixelSprite(atlas.getIceSprite()).flattened();
+
+        // Walls never change: they are drawn once and copied row by row into every frame
+        PixelSprite wallSprite = new PixelSprite(atlas.getWallSprite());
+        this.wallLayer = new int[this.width * this.height];
+        int[][] layout = level.getLevelLayout().layout();
+        for (int y = 0; y < layout.length; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                if (layout[y][x] == Level.WALL) {
+                    this.blit(this.wallLayer, wallSprite, x * level.getCellWidth(), y * level.getCellHeight(),
+                            wallSprite.width, wallSprite.height, 0, this.height);
+                }
+            }
+        }
+        for (int i = 0; i < this.wallLayer.length; i++) {
+            this.wallLayer[i] = blend(this.wallLayer[i], 0);
+        }
+        this.rasterizedLevel = level;
+    }
+
+    private void renderStripe(Level level, List<Player> players, int top, int bottom) {
+        System.arraycopy(this.wallLayer, top * this.width, this.pixels, top * this.width, (bottom - top) * this.width);
+
+        // Same order as the Java2D path: enemies, fruits, ice, players
+        if (level.getEnemyManager().isPresent() && level.getFruitManager().isPresent() && level.getIceManager().isPresent()) {
+            List<Enemy> enemies = level.getEnemyManager().get().getEnemies();
+            for (int i = 0; i < enemies.size(); i++) {
+                this.blitElement(enemies.get(i), top, bottom);
+            }
+            List<Fruit> fruits = level.getFruitManager().get().getFruits();
+            for (int i = 0; i < fruits.size(); i++) {
+                this.blitElement(fruits.get(i), top, bottom);
+            }
+            this.blitIce(level, top, bottom);
+        }
+        for (int i = 0; i < players.size(); i++) {
+            this.blitElement(players.get(i), top, bottom);
+        }
+    }
+
+    private void blitIce(Level level, int top, int bottom) {
+        int[][] layout = level.getLevelLayout().layout();
+        int cellWidth = level.getCellWidth();
+        int cellHeight = level.getCellHeight();
+        int firstRow = top / cellHeight;
+        int lastRow = Math.min(layout.length - 1, (bottom - 1) / cellHeight);
+        for (int y = firstRow; y <= lastRow; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                if (layout[y][x] == Level.ICE_BLOCK) {
+                    this.blit(this.pixels, this.iceSprite, x * cellWidth, y * cellHeight, cellWidth, cellHeight, top, bottom);
+                }
+            }
+        }
+    }
+
+    private void blitElement(GameElement element, int top, int bottom) {
+        PixelSprite sprite = this.levelSprites.get(element.getClass());
+        if (sprite != null && element.getY() < bottom && element.getY() + element.getHeight() > top) {
+            this.blit(this.pixels, sprite, element.getX(), element.getY(), element.getWidth(), element.getHeight(), top, bottom);
+        }
+    }
+
+    /**
+     * Copies a sprite into the target rows [top, bottom). A sprite drawn at a size other than its own is
+     * scaled with nearest-neighbour sampling.
+     */
+    private void blit(int[] target, PixelSprite sprite, int x, int y, int drawWidth, int drawHeight, int top, int bottom) {
+        int startX = Math.max(0, x);
+        int endX = Math.min(this.width, x + drawWidth);
+        int startY = Math.max(top, y);
+        int endY = Math.min(bottom, y + drawHeight);
+        boolean unscaled = drawWidth == sprite.width && drawHeight == sprite.height;
+
+        for (int targetY = startY; targetY < endY; targetY++) {
+            int spriteY = unscaled ? targetY - y : (targetY - y) * sprite.height / drawHeight;
+            int spriteRow = spriteY * sprite.width;
+            int targetRow = targetY * this.width;
+            for (int targetX = startX; targetX < endX; targetX++) {
+                int spriteX = unscaled ? targetX - x : (targetX - x) * sprite.width / drawWidth;
+                int source = sprite.argb[spriteRow + spriteX];
+                int alpha = source >>> 24;
+                if (alpha == 0xFF) {
+                    target[targetRow + targetX] = source;
+                } else if (alpha != 0) {
+                    target[targetRow + targetX] = blend(source, target[targetRow + targetX]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Composites a translucent non-premultiplied ARGB pixel over another one.
+     */
+    private static int blend(int source, int destination) {
+        int sourceAlpha = source >>> 24;
+        if (sourceAlpha == 0) {
+            return destination;
+        }
+        int red = mul8(sourceAlpha, (source >> 16) & 0xFF);
+        int green = mul8(sourceAlpha, (source >> 8) & 0xFF);
+        int blue = mul8(sourceAlpha, source & 0xFF);
+        int destinationAlpha = mul8(0xFF - sourceAlpha, destination >>> 24);
+        int alpha = sourceAlpha + destinationAlpha;
+        if (destinationAlpha != 0) {
+            red += mul8(destinationAlpha, (destination >> 16) & 0xFF);
+            green += mul8(destinationAlpha, (destination >> 8) & 0xFF);
+            blue += mul8(destinationAlpha, destination & 0xFF);
+        }
+        if (alpha < 0xFF) {
+            red = div8(alpha, red);
+            green = div8(alpha, green);
+            blue = div8(alpha, blue);
+        }
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    private static int mul8(int a, int b) {
+        return MUL8[(a << 8) + b] & 0xFF;
+    }
+
+    private static int div8(int a, int b) {
+        return DIV8[(a << 8) + b] & 0xFF;
+    }
+
+    /**
+     * A sprite as a packed non-premultiplied ARGB pixel array.
+     */
+    private static final class PixelSprite {
+        private final int width;
+        private final int height;
+        private final int[] argb;
+
+        private PixelSprite(BufferedImage image) {
+            this(image.getWidth(), image.getHeight(), image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+        }
+
+        private PixelSprite(int width, int height, int[] argb) {
+            this.width = width;
+            this.height = height;
+            this.argb = argb;
+        }
+
+        /**
+         * Returns the sprite as it looks after being drawn into an empty image.
+         */
+        private PixelSprite flattened() {
+            int[] flattened = new int[this.argb.length];
+            for (int i = 0; i < flattened.length; i++) {
+                flattened[i] = blend(this.argb[i], 0);
+            }
+            return new PixelSprite(this.width, this.height, flattened);
+        }
+    }
+
+    /**
+     * Splits a range of stripes in half until a single stripe is left, which is then drawn.
+     */
+    private final class StripeTask extends RecursiveAction {
+        private final Level level;
+        private final List<Player> players;
+        private final int firstStripe;
+        private final int endStripe;
+
+        private StripeTask(Level level, List<Player> players, int firstStripe, int endStripe) {
+            this.level = level;
+            this.players = players;
+            this.firstStripe = firstStripe;
+            this.endStripe = endStripe;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.endStripe - this.firstStripe == 1) {
+                int top = FrameRasterizer.this.height * this.firstStripe / FrameRasterizer.this.stripes;
+                int bottom = FrameRasterizer.this.height * this.endStripe / FrameRasterizer.this.stripes;
+                FrameRasterizer.this.renderStripe(this.level, this.players, top, bottom);
+                return;
+            }
+            int middle = (this.firstStripe + this.endStripe) >>> 1;
+            invokeAll(new StripeTask(this.level, this.players, this.firstStripe, middle),
+                    new StripeTask(this.level, this.players, middle, this.endStripe));
+        }
+    }
+}
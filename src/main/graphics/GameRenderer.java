@@ -0,0 +1,52 @@
+package main.graphics;
+
+import main.controller.GameState;
+import main.levels.Level;
+import main.metrics.TickPhase;
+
+import java.awt.Graphics;
+
+/**
+ * The GameRenderer class adapts the headless game state to Swing by drawing the current level and the player.
+ */
+public class GameRenderer implements Renderable {
+    private final GameState gameState;
+    private final EntitySprites sprites;
+    private Level renderedLevel;
+    private LevelRenderer levelRenderer;
+
+    /**
+     * Constructs a GameRenderer for the given game state.
+     *
+     * @param gameState The game state to render.
+     */
+    public GameRenderer(GameState gameState) {
+        this.gameState = gameState;
+        this.sprites = new EntitySprites();
+    }
+
+    /**
+     * Renders the current level and the player. The simulation is held still while the frame is drawn.
+     *
+     * @param g The Graphics object to render on.
+     */
+    @Override
+    public void render(Graphics g) {
+        synchronized (this.gameState.getStateLock()) {
+            Level currentLevel = this.gameState.getCurrentLevel();
+            if (currentLevel != this.renderedLevel) {
+                if (this.levelRenderer != null) {
+                    this.levelRenderer.dispose();
+                }
+                this.renderedLevel = currentLevel;
+                this.levelRenderer = new LevelRenderer(currentLevel, this.sprites);
+            }
+            long startTime = this.gameState.getProfiler().begin();
+            this.levelRenderer.render(g);
+            for (int i = 0; i < this.gameState.getPlayers().size(); i++) {
+                this.levelRenderer.getAtlas().draw(g, this.gameState.getPlayers().get(i));
+            }
+            this.gameState.getProfiler().end(TickPhase.RENDER, startTime);
+        }
+    }
+}
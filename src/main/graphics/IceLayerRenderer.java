@@ -0,0 +1,125 @@
+package main.graphics;
+
+import main.levels.Level;
+import main.levels.managers.IceBlockManager;
+import main.levels.managers.IceChangeListener;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * The IceLayerRenderer class draws every ice cell of a level with one shared sprite.
+ * The ice is kept in a layer image that is composited once and afterwards patched only at the cells that froze
+ * or melted since the previous frame, so every frame is one blit.
+ * Ice has no per-cell objects; the renderer reads the frozen cells straight from the level layout.
+ */
+public class IceLayerRenderer implements Renderable, IceChangeListener {
+    private final Level level;
+    private final BufferedImage iceSprite;
+    private final BufferedImage layer;
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+
+    /**
+     * Constructs an IceLayerRenderer object for the specified level.
+     * The renderer starts listening to ice changes of the level; call {@link #dispose()} once it is no longer used.
+     *
+     * @param level     The level whose ice is drawn.
+     * @param iceSprite The sprite drawn in every ice cell, already scaled to the cell size.
+     */
+    public IceLayerRenderer(Level level, BufferedImage iceSprite) {
+        this.level = level;
+        this.iceSprite = iceSprite;
+
+        int[][] layout = level.getLevelLayout().layout();
+        this.layer = CompatibleImages.create(layout[0].length * level.getCellWidth(), layout.length * level.getCellHeight(),
+                Transparency.TRANSLUCENT);
+        this.dirty = new boolean[layout.length * layout[0].length];
+        this.dirtyCells = new int[this.dirty.length];
+
+        Graphics2D g = this.layer.createGraphics();
+        for (int y = 0; y < layout.length; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                if (layout[y][x] == Level.ICE_BLOCK) {
+                    this.drawCell(g, x, y);
+                }
+            }
+        }
+        g.dispose();
+
+        level.getIceManager().ifPresent(iceManager -> iceManager.getIceBlockManager().addIceChangeListener(this));
+    }
+
+    /**
+     * Marks a cell to be redrawn in the next frame.
+     *
+     * @param x      The x-coordinate of the cell.
+     * @param y      The y-coordinate of the cell.
+     * @param frozen true if the cell now holds ice, false if it was cleared.
+     */
+    @Override
+    public void onIceChanged(int x, int y, boolean frozen) {
+        int cell = y * this.level.getLevelLayout().layout()[0].length + x;
+        if (!this.dirty[cell]) {
+            this.dirty[cell] = true;
+            this.dirtyCells[this.dirtyCount++] = cell;
+        }
+    }
+
+    /**
+     * Patches the cells changed since the previous frame and renders the ice layer.
+     *
+     * @param g The Graphics object to render on.
+     */
+    @Override
+    public void render(Graphics g) {
+        if (this.dirtyCount > 0) {
+            this.patchDirtyCells();
+        }
+        g.drawImage(this.layer, 0, 0, null);
+    }
+
+    /**
+     * Stops listening to the ice changes of the level.
+     */
+    public void dispose() {
+        this.level.getIceManager().ifPresent(iceManager -> iceManager.getIceBlockManager().removeIceChangeListener(this));
+    }
+
+    private void patchDirtyCells() {
+        int[][] layout = this.level.getLevelLayout().layout();
+        int columns = layout[0].length;
+        int cellWidth = this.level.getCellWidth();
+        int cellHeight = this.level.getCellHeight();
+
+        Graphics2D g = this.layer.createGraphics();
+        Composite drawComposite = g.getComposite();
+        for (int i = 0; i < this.dirtyCount; i++) {
+            int cell = this.dirtyCells[i];
+            int x = cell % columns;
+            int y = cell / columns;
+            this.dirty[cell] = false;
+
+            // A cell may change several times between two frames; only its current state is drawn
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(x * cellWidth, y * cellHeight, cellWidth, cellHeight);
+            g.setComposite(drawComposite);
+            if (layout[y][x] == Level.ICE_BLOCK) {
+                this.drawCell(g, x, y);
+            }
+        }
+        g.dispose();
+        this.dirtyCount = 0;
+    }
+
+    private void drawCell(Graphics g, int x, int y) {
+        int cellWidth = this.level.getCellWidth();
+        int cellHeight = this.level.getCellHeight();
+        g.drawImage(this.iceSprite, x * cellWidth, y * cellHeight, null);
+    }
+}
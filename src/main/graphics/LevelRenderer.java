@@ -0,0 +1,69 @@
+package main.graphics;
+
+import main.entities.enemies.Enemy;
+import main.entities.fruits.Fruit;
+import main.levels.Level;
+
+import java.awt.Graphics;
+
+/**
+ * The LevelRenderer class is responsible for rendering the level, including walls, enemies, fruits, and ice blocks.
+ * It implements the Renderable interface to define the rendering behavior.
+ */
+public class LevelRenderer implements Renderable {
+    private final Level level;
+    private final SpriteAtlas atlas;
+    private final WallLayerRenderer wallLayerRenderer;
+    private final IceLayerRenderer iceLayerRenderer;
+
+    /**
+     * Constructs a LevelRenderer object with the specified level.
+     *
+     * @param level   The level to render.
+     * @param sprites The sprites used to draw the level.
+     */
+    public LevelRenderer(Level level, EntitySprites sprites) {
+        this.level = level;
+        this.atlas = new SpriteAtlas(sprites, level.getCellWidth(), level.getCellHeight());
+        this.wallLayerRenderer = new WallLayerRenderer(level, this.atlas.getWallSprite());
+        this.iceLayerRenderer = new IceLayerRenderer(level, this.atlas.getIceSprite());
+    }
+
+    /**
+     * Renders the level by drawing walls, enemies, fruits, and ice blocks on the Graphics object.
+     *
+     * @param g The Graphics object to render on.
+     */
+    @Override
+    public void render(Graphics g) {
+        // Render walls
+        this.wallLayerRenderer.render(g);
+
+        // Render enemies, fruits, and ice blocks if present
+        if (this.level.getEnemyManager().isPresent() && this.level.getFruitManager().isPresent() && this.level.getIceManager().isPresent()) {
+            for (Enemy enemy : this.level.getEnemyManager().get().getEnemies()) {
+                this.atlas.draw(g, enemy);
+            }
+            for (Fruit fruit : this.level.getFruitManager().get().getFruits()) {
+                this.atlas.draw(g, fruit);
+            }
+            this.iceLayerRenderer.render(g);
+        }
+    }
+
+    /**
+     * Returns the sprites of the level, scaled to its cell size.
+     *
+     * @return The sprite atlas.
+     */
+    public SpriteAtlas getAtlas() {
+        return this.atlas;
+    }
+
+    /**
+     * Releases the resources held for the level. The renderer must not be used afterwards.
+     */
+    public void dispose() {
+        this.iceLayerRenderer.dispose();
+    }
+}
@@ -1,4 +1,4 @@
-package main.levels.separators;
+package main.graphics;
 
 import java.awt.Graphics;
 
@@ -14,4 +14,4 @@ public interface Renderable {
      * @param g the Graphics object to use for rendering
      */
     void render(Graphics g);
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package main.graphics;
+
+import main.controller.GameState;
+
+import java.util.Locale;
+
+/**
+ * The RendererBackend enum selects what draws the game into a frame.
+ */
+public enum RendererBackend {
+    /**
+     * Java2D draws every layer and sprite ({@link GameRenderer}).
+     */
+    JAVA2D,
+    /**
+     * Sprites are copied straight into an integer pixel array ({@link SoftwareRenderer}).
+     */
+    SOFTWARE;
+
+    public static final String BACKEND_PROPERTY = "badicecream.render.backend";
+    public static final String STRIPES_PROPERTY = "badicecream.render.stripes";
+
+    /**
+     * Returns the backend selected by the {@value #BACKEND_PROPERTY} system property ("java2d" or "software").
+     * Java2D is used unless the software backend is explicitly requested.
+     *
+     * @return The backend.
+     * @throws IllegalArgumentException if the property names an unknown backend.
+     */
+    public static RendererBackend fromSystemProperties() {
+        String backend = System.getProperty(BACKEND_PROPERTY, JAVA2D.name());
+        return RendererBackend.valueOf(backend.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Creates a renderer of this backend for the given game state.
+     * The software backend splits the frame into the number of stripes given by {@value #STRIPES_PROPERTY}, 1 by default.
+     *
+     * @param gameState The game state to render.
+     * @return The renderer.
+     */
+    public Renderable createRenderer(GameState gameState) {
+        if (this == SOFTWARE) {
+            return new SoftwareRenderer(gameState, Integer.getInteger(STRIPES_PROPERTY, 1));
+        }
+        return new GameRenderer(gameState);
+    }
+}
@@ -0,0 +1,76 @@
+package main.graphics;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * The SharedImage class is a read-only handle on a decoded image that is shared by every part of the game, such as
+ * the images held by the {@link AssetCache}. It can be drawn and cut into regions, but not drawn on or modified;
+ * a caller that needs to change the pixels works on a {@link #copy()}.
+ */
+public final class SharedImage {
+    private final BufferedImage image;
+
+    SharedImage(BufferedImage image) {
+        this.image = image;
+    }
+
+    /**
+     * Returns the width of the image.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    /**
+     * Returns the height of the image.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    /**
+     * Draws the image scaled to the given rectangle, using the rendering hints of the Graphics object.
+     *
+     * @param g      The Graphics object to draw with.
+     * @param x      The x-coordinate of the rectangle.
+     * @param y      The y-coordinate of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public void draw(Graphics g, int x, int y, int width, int height) {
+        g.drawImage(this.image, x, y, width, height, null);
+    }
+
+    /**
+     * Returns a region of the image. The region shares the pixels of this image and is just as read-only.
+     *
+     * @param x      The x-coordinate of the region.
+     * @param y      The y-coordinate of the region.
+     * @param width  The width of the region.
+     * @param height The height of the region.
+     * @return The region.
+     */
+    public SharedImage getRegion(int x, int y, int width, int height) {
+        return new SharedImage(this.image.getSubimage(x, y, width, height));
+    }
+
+    /**
+     * Returns a private copy of the image that the caller may modify freely.
+     *
+     * @return The copy, in the pixel format of the screen.
+     */
+    public BufferedImage copy() {
+        BufferedImage copy = CompatibleImages.create(this.getWidth(), this.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(this.image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+}
@@ -0,0 +1,60 @@
+package main.graphics;
+
+import main.controller.GameState;
+import main.metrics.TickPhase;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * The SoftwareRenderer class draws the game with a {@link FrameRasterizer} and presents the finished frame
+ * with a single image copy. It produces the same picture as {@link GameRenderer}.
+ * <p>
+ * A frame is rasterized at most once per change of the game state; painting several dirty regions of the same
+ * frame only copies the clipped part of it each time.
+ */
+public class SoftwareRenderer implements Renderable {
+    private final GameState gameState;
+    private final FrameRasterizer rasterizer;
+    private BufferedImage frame;
+    private long frameVersion;
+
+    /**
+     * Constructs a SoftwareRenderer for the given game state.
+     *
+     * @param gameState The game state to render.
+     * @param stripes   The number of horizontal stripes drawn in parallel.
+     */
+    public SoftwareRenderer(GameState gameState, int stripes) {
+        this.gameState = gameState;
+        this.rasterizer = new FrameRasterizer(gameState.getWidth(), gameState.getHeight(), new EntitySprites(), stripes);
+    }
+
+    /**
+     * Rasterizes the current level and the players unless the game has not changed since the last frame, then
+     * copies the clipped part of the frame onto the Graphics object.
+     * The simulation is held still only while the frame is rasterized.
+     *
+     * @param g The Graphics object to render on.
+     */
+    @Override
+    public void render(Graphics g) {
+        synchronized (this.gameState.getStateLock()) {
+            long version = this.gameState.getStateVersion();
+            if (this.frame == null || this.frameVersion != version) {
+                long startTime = this.gameState.getProfiler().begin();
+                this.frame = this.rasterizer.renderFrame(this.gameState.getCurrentLevel(), this.gameState.getPlayers());
+                this.frameVersion = version;
+                this.gameState.getProfiler().end(TickPhase.RENDER, startTime);
+            }
+        }
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            g.drawImage(this.frame, 0, 0, null);
+        } else {
+            g.drawImage(this.frame, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, null);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package main.graphics;
+
+import main.entities.other.GameElement;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The SpriteAtlas class holds every sprite pre-scaled to the cell size of a level, in the pixel format of the screen.
+ * It is built once when a level is loaded, so that drawing a cell-sized element is an unscaled 1:1 copy.
+ */
+public class SpriteAtlas {
+    private final Map<Class<? extends GameElement>, BufferedImage> sprites;
+    private final BufferedImage wallSprite;
+    private final BufferedImage iceSprite;
+    private final int cellWidth;
+    private final int cellHeight;
+
+    /**
+     * Constructs a SpriteAtlas by scaling the given sprites to the given cell size.
+     *
+     * @param source     The sprites as decoded from the resources.
+     * @param cellWidth  The width of a cell.
+     * @param cellHeight The height of a cell.
+     */
+    public SpriteAtlas(EntitySprites source, int cellWidth, int cellHeight) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.sprites = new HashMap<>();
+        for (Map.Entry<Class<? extends GameElement>, SharedImage> entry : source.getSprites().entrySet()) {
+            this.sprites.put(entry.getKey(), this.scale(entry.getValue()));
+        }
+        this.wallSprite = this.scale(source.getWallSprite());
+        this.iceSprite = this.scale(source.getIceSprite());
+    }
+
+    /**
+     * Draws the sprite of the given element. Cell-sized elements are copied 1:1; any other size is scaled.
+     *
+     * @param g       The Graphics object to draw with.
+     * @param element The element to draw.
+     */
+    public void draw(Graphics g, GameElement element) {
+        BufferedImage sprite = this.sprites.get(element.getClass());
+        if (sprite == null) {
+            return;
+        }
+        if (element.getWidth() == this.cellWidth && element.getHeight() == this.cellHeight) {
+            g.drawImage(sprite, element.getX(), element.getY(), null);
+        } else {
+            g.drawImage(sprite, element.getX(), element.getY(), element.getWidth(), element.getHeight(), null);
+        }
+    }
+
+    /**
+     * Returns the cell-sized sprite of the given element type.
+     *
+     * @param type The element type.
+     * @return The sprite image, or null if the type has no sprite.
+     */
+    public BufferedImage getSprite(Class<? extends GameElement> type) {
+        return this.sprites.get(type);
+    }
+
+    /**
+     * Returns the cell-sized sprite used for walls.
+     *
+     * @return The wall sprite image.
+     */
+    public BufferedImage getWallSprite() {
+        return this.wallSprite;
+    }
+
+    /**
+     * Returns the cell-sized sprite used for ice cells.
+     *
+     * @return The ice sprite image.
+     */
+    public BufferedImage getIceSprite() {
+        return this.iceSprite;
+    }
+
+    private BufferedImage scale(SharedImage image) {
+        BufferedImage scaled = CompatibleImages.create(this.cellWidth, this.cellHeight, Transparency.TRANSLUCENT);
+        if (image == null) {
+            return scaled;
+        }
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        image.draw(g, 0, 0, this.cellWidth, this.cellHeight);
+        g.dispose();
+        return scaled;
+    }
+}
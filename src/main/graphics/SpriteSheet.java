@@ -1,28 +1,21 @@
 package main.graphics;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
 /**
 
  Represents a sprite sheet that contains multiple sprites.
  */
 public class SpriteSheet {
-    private BufferedImage sheet;
+    private final SharedImage sheet;
 
     /**
      * Constructs a SpriteSheet object with the specified image file path.
      *
+     * The image is shared through the {@link AssetCache}, so it is decoded only once per process.
+     *
      * @param path the file path of the sprite sheet image.
      */
     public SpriteSheet(String path) {
-        try {
-            this.sheet = ImageIO.read(new File(path));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this.sheet = AssetCache.getShared().getImage(path);
     }
     /**
      * Retrieves a specific sprite from the sprite sheet based on the specified coordinates and dimensions.
@@ -31,10 +24,10 @@ public class SpriteSheet {
      * @param y the y-coordinate of the sprite on the sprite sheet.
      * @param width the width of the sprite.
      * @param height the height of the sprite.
-     * @return the BufferedImage representing the specified sprite.
+     * @return the read-only image representing the specified sprite.
      */
-    public BufferedImage getSprite(int x, int y, int width, int height) {
-        return this.sheet.getSubimage(x, y, width, height);
+    public SharedImage getSprite(int x, int y, int width, int height) {
+        return this.sheet.getRegion(x, y, width, height);
     }
 }
 
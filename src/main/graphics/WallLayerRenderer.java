@@ -0,0 +1,49 @@
+package main.graphics;
+
+import main.levels.Level;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * The WallLayerRenderer class draws the walls of a level.
+ * Walls never change, so they are composited into a single image once and every frame is one blit.
+ */
+public class WallLayerRenderer implements Renderable {
+    private final BufferedImage layer;
+
+    /**
+     * Constructs a WallLayerRenderer object and composites the walls of the specified level.
+     *
+     * @param level      The level whose walls are drawn.
+     * @param wallSprite The sprite drawn in every wall cell, already scaled to the cell size.
+     */
+    public WallLayerRenderer(Level level, BufferedImage wallSprite) {
+        int[][] layout = level.getLevelLayout().layout();
+        int cellWidth = level.getCellWidth();
+        int cellHeight = level.getCellHeight();
+        this.layer = CompatibleImages.create(layout[0].length * cellWidth, layout.length * cellHeight, Transparency.TRANSLUCENT);
+
+        Graphics2D g = this.layer.createGraphics();
+        for (int y = 0; y < layout.length; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                if (layout[y][x] == Level.WALL) {
+                    g.drawImage(wallSprite, x * cellWidth, y * cellHeight, null);
+                }
+            }
+        }
+        g.dispose();
+    }
+
+    /**
+     * Renders the wall layer.
+     *
+     * @param g The Graphics object to render on.
+     */
+    @Override
+    public void render(Graphics g) {
+        g.drawImage(this.layer, 0, 0, null);
+    }
+}
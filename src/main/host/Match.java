@@ -0,0 +1,145 @@
+package main.host;
+
+import main.controller.GameState;
+import main.metrics.LatencyHistogram;
+
+/**
+ * The Match class is a single isolated game hosted by a {@link MatchHost}. It owns its own game state and
+ * records how long each of its ticks takes. A match is ticked by at most one thread at a time.
+ */
+public class Match {
+    private final int id;
+    private final GameState gameState;
+    private final long tickDeadlineNanos;
+    private final int maxConsecutiveMisses;
+    private final LatencyHistogram tickLatency;
+    private long ticks;
+    private long deadlineMisses;
+    private int consecutiveMisses;
+    private int gamesPlayed;
+    private boolean suspended;
+
+    /**
+     * Constructs a new Match.
+     *
+     * @param id                   The identifier of the match within its host.
+     * @param gameState            The game state owned by the match.
+     * @param tickDeadlineNanos    The time budget of a single tick.
+     * @param maxConsecutiveMisses The number of consecutive missed deadlines after which the match is suspended.
+     */
+    public Match(int id, GameState gameState, long tickDeadlineNanos, int maxConsecutiveMisses) {
+        this.id = id;
+        this.gameState = gameState;
+        this.tickDeadlineNanos = tickDeadlineNanos;
+        this.maxConsecutiveMisses = maxConsecutiveMisses;
+        this.tickLatency = new LatencyHistogram();
+        this.gamesPlayed = 1;
+    }
+
+    /**
+     * Advances the match by one tick, restarting the game when it has ended. Suspended matches are skipped.
+     */
+    public void tick() {
+        if (this.suspended) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        synchronized (this.gameState.getStateLock()) {
+            this.gameState.update();
+            if (this.gameState.hasEnded()) {
+                this.gameState.restart();
+                this.gamesPlayed++;
+            }
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        this.tickLatency.record(elapsed);
+        this.ticks++;
+        this.enforceDeadline(elapsed);
+    }
+
+    private void enforceDeadline(long elapsed) {
+        if (elapsed <= this.tickDeadlineNanos) {
+            this.consecutiveMisses = 0;
+            return;
+        }
+        this.deadlineMisses++;
+        this.consecutiveMisses++;
+        if (this.consecutiveMisses >= this.maxConsecutiveMisses) {
+            // A match that keeps blowing its budget would starve every other match on the host
+            this.suspended = true;
+        }
+    }
+
+    /**
+     * Resumes a suspended match.
+     */
+    public void resume() {
+        this.suspended = false;
+        this.consecutiveMisses = 0;
+    }
+
+    /**
+     * Returns the identifier of the match.
+     *
+     * @return The identifier.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the game state owned by the match.
+     *
+     * @return The game state.
+     */
+    public GameState getGameState() {
+        return this.gameState;
+    }
+
+    /**
+     * Returns the latency distribution of the ticks of this match.
+     *
+     * @return The tick latency histogram.
+     */
+    public LatencyHistogram getTickLatency() {
+        return this.tickLatency;
+    }
+
+    /**
+     * Returns the number of ticks simulated.
+     *
+     * @return The tick count.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Returns the number of ticks that took longer than the deadline.
+     *
+     * @return The number of missed deadlines.
+     */
+    public long getDeadlineMisses() {
+        return this.deadlineMisses;
+    }
+
+    /**
+     * Returns the number of games played, including the one in progress.
+     *
+     * @return The number of games.
+     */
+    public int getGamesPlayed() {
+        return this.gamesPlayed;
+    }
+
+    /**
+     * Checks if the match was suspended for missing its deadline too often.
+     *
+     * @return True if the match is suspended, false otherwise.
+     */
+    public boolean isSuspended() {
+        return this.suspended;
+    }
+}
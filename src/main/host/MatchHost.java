@@ -0,0 +1,221 @@
+package main.host;
+
+import main.controller.GameLoop;
+import main.controller.GameState;
+import main.input.InputSource;
+import main.levels.separators.Updatable;
+import main.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The MatchHost class runs many independent matches in one JVM. Every round, each match is ticked exactly once;
+ * the matches are spread over a work-stealing pool so that a round uses all the cores it is given.
+ * Each match records its own tick latency and is suspended if it keeps missing its tick deadline.
+ */
+public class MatchHost implements Updatable {
+    public static final long DEFAULT_TICK_DEADLINE_NANOS = 1_000_000; // 1 ms
+    public static final int DEFAULT_MAX_CONSECUTIVE_MISSES = 3;
+    private static final int MATCHES_PER_TASK = 16;
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 800;
+
+    private final ForkJoinPool pool;
+    private final long tickDeadlineNanos;
+    private final Object hostLock = new Object();
+    private final List<Match> matches;
+    private final LatencyHistogram roundLatency;
+    private Match[] schedule;
+    private GameLoop gameLoop;
+    private int nextMatchId;
+
+    /**
+     * Constructs a MatchHost using every available core and the default tick deadline.
+     */
+    public MatchHost() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_TICK_DEADLINE_NANOS);
+    }
+
+    /**
+     * Constructs a MatchHost.
+     *
+     * @param parallelism       The number of worker threads ticking matches.
+     * @param tickDeadlineNanos The time budget of a single match tick.
+     */
+    public MatchHost(int parallelism, long tickDeadlineNanos) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.tickDeadlineNanos = tickDeadlineNanos;
+        this.matches = new ArrayList<>();
+        this.roundLatency = new LatencyHistogram();
+        this.schedule = new Match[0];
+    }
+
+    /**
+     * Creates a new isolated match and schedules it from the next round on.
+     *
+     * @param levelIndex The zero-based index of the level the match starts at.
+     * @param input      The input source of the match's player.
+     * @param seed       The seed of the match.
+     * @return The created match.
+     */
+    public Match createMatch(int levelIndex, InputSource input, long seed) {
+        GameState gameState = new GameState(WIDTH, HEIGHT, input, levelIndex, seed);
+        synchronized (this.hostLock) {
+            Match match = new Match(this.nextMatchId++, gameState, this.tickDeadlineNanos, DEFAULT_MAX_CONSECUTIVE_MISSES);
+            this.matches.add(match);
+            this.schedule = null;
+            return match;
+        }
+    }
+
+    /**
+     * Removes a match from the host.
+     *
+     * @param match The match to remove.
+     */
+    public void removeMatch(Match match) {
+        synchronized (this.hostLock) {
+            this.matches.remove(match);
+            this.schedule = null;
+        }
+    }
+
+    /**
+     * Ticks every match once, in parallel, and waits until the whole round is done.
+     */
+    public void tickAll() {
+        synchronized (this.hostLock) {
+            if (this.schedule == null) {
+                this.schedule = this.matches.toArray(new Match[0]);
+            }
+            long startTime = System.nanoTime();
+            this.pool.invoke(new TickTask(this.schedule, 0, this.schedule.length));
+            this.roundLatency.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Runs one round. Called by the host's game loop.
+     */
+    @Override
+    public void update() {
+        this.tickAll();
+    }
+
+    /**
+     * Starts ticking all matches at a fixed rate on a dedicated thread.
+     *
+     * @param ticksPerSecond The number of rounds per second.
+     */
+    public void start(int ticksPerSecond) {
+        this.gameLoop = new GameLoop(this, () -> { }, this.hostLock, ticksPerSecond, GameLoop.DEFAULT_MAX_CATCH_UP_TICKS);
+        this.gameLoop.start();
+    }
+
+    /**
+     * Stops the fixed-rate loop started by {@link #start(int)}.
+     */
+    public void stop() {
+        if (this.gameLoop != null) {
+            this.gameLoop.stop();
+        }
+    }
+
+    /**
+     * Stops the host and releases its worker threads.
+     */
+    public void shutdown() {
+        this.stop();
+        this.pool.shutdown();
+    }
+
+    /**
+     * Returns the tick latency of all matches merged into one distribution.
+     *
+     * @return A new histogram with the aggregate tick latency.
+     */
+    public LatencyHistogram getAggregateTickLatency() {
+        LatencyHistogram aggregate = new LatencyHistogram();
+        synchronized (this.hostLock) {
+            for (Match match : this.matches) {
+                aggregate.merge(match.getTickLatency());
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * Returns the latency distribution of whole rounds, i.e. the time to tick every match once.
+     *
+     * @return A copy of the round latency histogram.
+     */
+    public LatencyHistogram getRoundLatency() {
+        LatencyHistogram copy = new LatencyHistogram();
+        synchronized (this.hostLock) {
+            copy.merge(this.roundLatency);
+        }
+        return copy;
+    }
+
+    /**
+     * Clears the latency statistics of the host and of every match.
+     */
+    public void resetStatistics() {
+        synchronized (this.hostLock) {
+            this.roundLatency.reset();
+            for (Match match : this.matches) {
+                match.getTickLatency().reset();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the hosted matches.
+     *
+     * @return The list of matches.
+     */
+    public List<Match> getMatches() {
+        synchronized (this.hostLock) {
+            return new ArrayList<>(this.matches);
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return The parallelism of the host.
+     */
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Ticks a range of matches, splitting it in halves until the ranges are small enough.
+     */
+    private static class TickTask extends RecursiveAction {
+        private final Match[] matches;
+        private final int from;
+        private final int to;
+
+        TickTask(Match[] matches, int from, int to) {
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= MATCHES_PER_TASK) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.matches[i].tick();
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new TickTask(this.matches, this.from, middle), new TickTask(this.matches, middle, this.to));
+        }
+    }
+}
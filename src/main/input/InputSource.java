@@ -0,0 +1,32 @@
+package main.input;
+
+/**
+ * The InputSource interface represents anything that can provide player input to the simulation,
+ * be it a keyboard, a recorded session or a bot. Key codes follow the ASCII upper-case letters.
+ */
+public interface InputSource {
+    int KEY_SPACE = ' ';
+
+    /**
+     * Checks if the key is currently held down.
+     *
+     * @param keyCode the key code
+     * @return true if the key is held down, false otherwise
+     */
+    boolean isKeyDown(int keyCode);
+
+    /**
+     * Checks if the key was pressed since the last call. Consumes the press.
+     *
+     * @param keyCode the key code
+     * @return true if the key was pressed, false otherwise
+     */
+    boolean isKeyPressed(int keyCode);
+
+    /**
+     * Called by the simulation once at the start of every tick, before any input is read.
+     * Sources that produce input per tick, such as bots, advance their state here.
+     */
+    default void nextTick() {
+    }
+}
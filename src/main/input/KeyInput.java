@@ -7,14 +7,16 @@ import java.awt.event.KeyListener;
  *
  * The KeyInput class handles keyboard input by implementing the KeyListener interface.
  */
-public class KeyInput implements KeyListener {
+public class KeyInput implements KeyListener, InputSource {
     private final boolean[] keys = new boolean[256];
     private boolean spacePressed = false;
-    public boolean isKeyDown(int keyCode) {
+    @Override
+    public synchronized boolean isKeyDown(int keyCode) {
         return this.keys[keyCode];
     }
-    public boolean isKeyPressed(int keyCode) {
-        if (keyCode == KeyEvent.VK_SPACE && this.spacePressed) {
+    @Override
+    public synchronized boolean isKeyPressed(int keyCode) {
+        if (keyCode == KEY_SPACE && this.spacePressed) {
             this.spacePressed = false;
             return true;
         }
@@ -22,7 +24,7 @@ public class KeyInput implements KeyListener {
     }
 
     @Override
-    public void keyPressed(KeyEvent e) {
+    public synchronized void keyPressed(KeyEvent e) {
         this.keys[e.getKeyCode()] = true;
 
         if (e.getKeyCode() == KeyEvent.VK_SPACE && !this.spacePressed) {
@@ -31,7 +33,7 @@ public class KeyInput implements KeyListener {
     }
 
     @Override
-    public void keyReleased(KeyEvent e) {
+    public synchronized void keyReleased(KeyEvent e) {
         this.keys[e.getKeyCode()] = false;
 
         if (e.getKeyCode() == KeyEvent.VK_SPACE) {
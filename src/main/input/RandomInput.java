@@ -0,0 +1,51 @@
+package main.input;
+
+import main.simulation.RandomStream;
+
+/**
+ * The RandomInput class simulates a player mashing the keyboard. It is used to exercise the game without a human,
+ * for example by the headless runner. New input is rolled at the start of every tick.
+ */
+public class RandomInput implements InputSource {
+    private static final int[] MOVEMENT_KEYS = {'W', 'A', 'S', 'D'};
+    private final RandomStream random;
+    private int heldKey;
+    private boolean spacePressed;
+
+    /**
+     * Constructs a RandomInput with the given seed.
+     *
+     * @param seed the seed of the random generator
+     */
+    public RandomInput(long seed) {
+        this.random = new RandomStream(seed);
+    }
+
+    /**
+     * Rolls the input for the next tick: occasionally switches the held movement key and presses SPACE.
+     */
+    @Override
+    public void nextTick() {
+        if (this.random.nextInt(8) == 0) {
+            int choice = this.random.nextInt(MOVEMENT_KEYS.length + 1);
+            this.heldKey = choice < MOVEMENT_KEYS.length ? MOVEMENT_KEYS[choice] : 0;
+        }
+        if (this.random.nextInt(30) == 0) {
+            this.spacePressed = true;
+        }
+    }
+
+    @Override
+    public boolean isKeyDown(int keyCode) {
+        return keyCode == this.heldKey;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        if (keyCode == KEY_SPACE && this.spacePressed) {
+            this.spacePressed = false;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,236 @@
+package main.levels;
+
+import java.util.Arrays;
+
+/**
+ * The CellIndex class indexes entities by the cell that holds their top-left corner. The entities are identified by
+ * slots, dense integers chosen by the owner, and the per-cell doubly linked lists are threaded through int arrays
+ * indexed by slot, so moving an entity to another cell, adding it and removing it are constant-time, and an area
+ * query only visits the cells around that area instead of every entity.
+ * The positions and sizes are not copied; the queries read them from the owner through {@link SlotBounds}.
+ * An entity is found by a query when its bounds overlap the queried area, exactly as in {@link main.geometry.Bounds#intersects}.
+ */
+public final class CellIndex {
+    /**
+     * The slot returned when no entity was found.
+     */
+    public static final int NONE = -1;
+    private final int columns;
+    private final int rows;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int[] heads;
+    private int[] cells;
+    private int[] previous;
+    private int[] next;
+    private int maxWidth;
+    private int maxHeight;
+
+    /**
+     * Constructs an empty CellIndex.
+     *
+     * @param columns    The number of cell columns.
+     * @param rows       The number of cell rows.
+     * @param cellWidth  The width of a cell in pixels.
+     * @param cellHeight The height of a cell in pixels.
+     * @param capacity   The number of slots to reserve.
+     */
+    public CellIndex(int columns, int rows, int cellWidth, int cellHeight, int capacity) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.heads = new int[columns * rows];
+        Arrays.fill(this.heads, NONE);
+        this.cells = new int[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+    }
+
+    /**
+     * Makes room for slots up to, but not including, the given capacity.
+     *
+     * @param capacity The number of slots needed.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > this.cells.length) {
+            int length = Math.max(capacity, this.cells.length * 2);
+            this.cells = Arrays.copyOf(this.cells, length);
+            this.previous = Arrays.copyOf(this.previous, length);
+            this.next = Arrays.copyOf(this.next, length);
+        }
+    }
+
+    /**
+     * Adds the entity in the given slot.
+     *
+     * @param slot   The slot of the entity.
+     * @param x      The x-coordinate of the entity.
+     * @param y      The y-coordinate of the entity.
+     * @param width  The width of the entity.
+     * @param height The height of the entity.
+     */
+    public void add(int slot, int x, int y, int width, int height) {
+        this.maxWidth = Math.max(this.maxWidth, width);
+        this.maxHeight = Math.max(this.maxHeight, height);
+        this.link(slot, this.cellOf(x, y));
+    }
+
+    /**
+     * Moves the entity in the given slot to the cell of its new position; does nothing while it stays in the same cell.
+     *
+     * @param slot The slot of the entity.
+     * @param x    The new x-coordinate of the entity.
+     * @param y    The new y-coordinate of the entity.
+     */
+    public void move(int slot, int x, int y) {
+        int cell = this.cellOf(x, y);
+        if (cell != this.cells[slot]) {
+            this.unlink(slot);
+            this.link(slot, cell);
+        }
+    }
+
+    /**
+     * Removes the entity in the given slot.
+     *
+     * @param slot The slot of the entity.
+     */
+    public void remove(int slot) {
+        this.unlink(slot);
+    }
+
+    /**
+     * Removes every entity.
+     */
+    public void clear() {
+        Arrays.fill(this.heads, NONE);
+    }
+
+    /**
+     * Moves an entity to another, unused slot, after the table has moved its data there.
+     *
+     * @param from The slot the entity was in.
+     * @param to   The slot the entity is in now.
+     */
+    public void relocate(int from, int to) {
+        int cell = this.cells[from];
+        this.cells[to] = cell;
+        this.previous[to] = this.previous[from];
+        this.next[to] = this.next[from];
+        if (this.previous[to] != NONE) {
+            this.next[this.previous[to]] = to;
+        } else {
+            this.heads[cell] = to;
+        }
+        if (this.next[to] != NONE) {
+            this.previous[this.next[to]] = to;
+        }
+    }
+
+    /**
+     * Finds an entity overlapping the given area.
+     *
+     * @param x      The x-coordinate of the area.
+     * @param y      The y-coordinate of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @param bounds The current positions and sizes of the entities.
+     * @return The slot of an overlapping entity, or {@link #NONE} if the area is free.
+     */
+    public int findOverlapping(int x, int y, int width, int height, SlotBounds bounds) {
+        if (width <= 0 || height <= 0) {
+            return NONE;
+        }
+        // An entity overlapping the area can have its top-left corner up to one entity size above and left of it
+        int minColumn = this.clampColumn(Math.floorDiv(x - this.maxWidth + 1, this.cellWidth));
+        int maxColumn = this.clampColumn(Math.floorDiv(x + width - 1, this.cellWidth));
+        int minRow = this.clampRow(Math.floorDiv(y - this.maxHeight + 1, this.cellHeight));
+        int maxRow = this.clampRow(Math.floorDiv(y + height - 1, this.cellHeight));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int slot = this.heads[row * this.columns + column]; slot != NONE; slot = this.next[slot]) {
+                    int entityX = bounds.getX(slot);
+                    int entityY = bounds.getY(slot);
+                    if (entityX < x + width && entityX + bounds.getWidth(slot) > x
+                            && entityY < y + height && entityY + bounds.getHeight(slot) > y) {
+                        return slot;
+                    }
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private int cellOf(int x, int y) {
+        // Entities outside the grid are kept in the nearest border cell
+        return this.clampRow(Math.floorDiv(y, this.cellHeight)) * this.columns + this.clampColumn(Math.floorDiv(x, this.cellWidth));
+    }
+
+    private int clampColumn(int column) {
+        return Math.max(0, Math.min(this.columns - 1, column));
+    }
+
+    private int clampRow(int row) {
+        return Math.max(0, Math.min(this.rows - 1, row));
+    }
+
+    private void link(int slot, int cell) {
+        this.cells[slot] = cell;
+        this.previous[slot] = NONE;
+        this.next[slot] = this.heads[cell];
+        if (this.next[slot] != NONE) {
+            this.previous[this.next[slot]] = slot;
+        }
+        this.heads[cell] = slot;
+    }
+
+    private void unlink(int slot) {
+        if (this.previous[slot] != NONE) {
+            this.next[this.previous[slot]] = this.next[slot];
+        } else {
+            this.heads[this.cells[slot]] = this.next[slot];
+        }
+        if (this.next[slot] != NONE) {
+            this.previous[this.next[slot]] = this.previous[slot];
+        }
+    }
+
+    /**
+     * The SlotBounds interface gives the index read access to the current position and size of the entity in a slot.
+     */
+    public interface SlotBounds {
+        /**
+         * Returns the x-coordinate of the entity in the given slot.
+         *
+         * @param slot The slot of the entity.
+         * @return The x-coordinate.
+         */
+        int getX(int slot);
+
+        /**
+         * Returns the y-coordinate of the entity in the given slot.
+         *
+         * @param slot The slot of the entity.
+         * @return The y-coordinate.
+         */
+        int getY(int slot);
+
+        /**
+         * Returns the width of the entity in the given slot.
+         *
+         * @param slot The slot of the entity.
+         * @return The width.
+         */
+        int getWidth(int slot);
+
+        /**
+         * Returns the height of the entity in the given slot.
+         *
+         * @param slot The slot of the entity.
+         * @return The height.
+         */
+        int getHeight(int slot);
+    }
+}
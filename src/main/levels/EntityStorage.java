@@ -0,0 +1,33 @@
+package main.levels;
+
+import java.util.Locale;
+
+/**
+ * The EntityStorage enum selects how the managers of a level hold their enemies and fruits.
+ * Both storages run the same behaviour in the same order, so a level evolves identically with either of them.
+ */
+public enum EntityStorage {
+    /**
+     * Every enemy and fruit is an object that updates itself, kept in a list.
+     */
+    OBJECTS,
+    /**
+     * Positions, speeds, directions, type tags and timers live in parallel primitive arrays that are updated in one
+     * linear pass; the entity objects are only kept as views for the renderers.
+     */
+    ARRAYS;
+
+    public static final String STORAGE_PROPERTY = "badicecream.storage";
+
+    /**
+     * Returns the storage selected by the {@value #STORAGE_PROPERTY} system property ("objects" or "arrays").
+     * Objects are used unless the arrays are explicitly requested.
+     *
+     * @return The storage.
+     * @throws IllegalArgumentException if the property names an unknown storage.
+     */
+    public static EntityStorage fromSystemProperties() {
+        String storage = System.getProperty(STORAGE_PROPERTY, OBJECTS.name());
+        return EntityStorage.valueOf(storage.trim().toUpperCase(Locale.ROOT));
+    }
+}
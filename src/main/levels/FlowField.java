@@ -0,0 +1,315 @@
+package main.levels;
+
+import main.levels.managers.IceChangeListener;
+
+import java.util.Arrays;
+
+/**
+ * The FlowField class holds the walking distance from every cell of a level to a target cell, usually the player's.
+ * One field is shared by every enemy that chases the same target, so a chaser only has to step to the neighbouring
+ * cell with the smallest distance, and a hundred chasers cost as much as one.
+ * <p>
+ * The distances are computed with a breadth-first search whenever the target moves to another cell. When the ice
+ * changes while the target stays put, only the affected part of the field is repaired: a melted cell lowers the
+ * distances behind it, and a frozen cell invalidates the cells whose shortest path ran through it, which are then
+ * recomputed from their still valid neighbours.
+ * A field may ignore the ice entirely, for enemies that pass through it; such a field only depends on the walls.
+ */
+public class FlowField implements IceChangeListener {
+    /**
+     * The distance of a cell from which the target cannot be reached.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * The direction returned when there is no step to take.
+     */
+    public static final int NO_DIRECTION = -1;
+    // Directions as used by the enemies: 0 = up, 1 = right, 2 = down, 3 = left
+    private static final int[] DIRECTION_DX = {0, 1, 0, -1};
+    private static final int[] DIRECTION_DY = {-1, 0, 1, 0};
+
+    private final int[][] layout;
+    private final boolean passesThroughIce;
+    private final int columns;
+    private final int rows;
+    private final int[] distances;
+    private final int[] queue;
+    private final int[] queuedMarks;
+    private final int[] invalidated;
+    // A circular queue in which a cell is held at most once at a time, so it never needs more slots than cells
+    private int queueHead;
+    private int queueTail;
+    private int queueMark;
+    private int target = -1;
+    private long rebuilds;
+    private long repairs;
+
+    /**
+     * Constructs a FlowField over the given layout. The field has no target until {@link #setTarget(int, int)} is called.
+     *
+     * @param layout           The layout of the level; the field reads it as the ice changes.
+     * @param passesThroughIce true if ice does not block the way, false if only empty cells can be walked.
+     */
+    public FlowField(int[][] layout, boolean passesThroughIce) {
+        this.layout = layout;
+        this.passesThroughIce = passesThroughIce;
+        this.rows = layout.length;
+        this.columns = layout[0].length;
+        this.distances = new int[this.columns * this.rows];
+        this.queue = new int[this.columns * this.rows + 1];
+        this.queuedMarks = new int[this.columns * this.rows];
+        this.invalidated = new int[this.columns * this.rows];
+        Arrays.fill(this.distances, UNREACHABLE);
+    }
+
+    /**
+     * Moves the target of the field to the given cell. The distances are recomputed only if the target changed cell.
+     *
+     * @param column The column of the target cell.
+     * @param row    The row of the target cell.
+     */
+    public void setTarget(int column, int row) {
+        column = Math.max(0, Math.min(this.columns - 1, column));
+        row = Math.max(0, Math.min(this.rows - 1, row));
+        int cell = row * this.columns + column;
+        if (cell == this.target) {
+            return;
+        }
+        this.target = cell;
+        this.rebuild();
+    }
+
+    /**
+     * Returns the walking distance from the given cell to the target, in cells.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return The distance, or {@link #UNREACHABLE} if the target cannot be reached from the cell.
+     */
+    public int getDistance(int column, int row) {
+        if (column < 0 || column >= this.columns || row < 0 || row >= this.rows) {
+            return UNREACHABLE;
+        }
+        return this.distances[row * this.columns + column];
+    }
+
+    /**
+     * Returns the direction of the first step from the given cell towards the target.
+     * Ties are broken in the order up, right, down, left, so every chaser on the same cell takes the same step.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return The direction (0 = up, 1 = right, 2 = down, 3 = left), or {@link #NO_DIRECTION} if the cell is the
+     *         target or the target cannot be reached.
+     */
+    public int getDirectionToward(int column, int row) {
+        int distance = this.getDistance(column, row);
+        if (distance == UNREACHABLE || distance == 0) {
+            return NO_DIRECTION;
+        }
+        int bestDirection = NO_DIRECTION;
+        int bestDistance = distance;
+        for (int direction = 0; direction < 4; direction++) {
+            int neighbourDistance = this.getDistance(column + DIRECTION_DX[direction], row + DIRECTION_DY[direction]);
+            if (neighbourDistance < bestDistance) {
+                bestDistance = neighbourDistance;
+                bestDirection = direction;
+            }
+        }
+        return bestDirection;
+    }
+
+    /**
+     * Returns how many times the whole field was recomputed because the target moved.
+     *
+     * @return The number of full rebuilds.
+     */
+    public long getRebuildCount() {
+        return this.rebuilds;
+    }
+
+    /**
+     * Returns how many ice changes were absorbed by repairing the field in place.
+     *
+     * @return The number of repairs.
+     */
+    public long getRepairCount() {
+        return this.repairs;
+    }
+
+    @Override
+    public void onIceChanged(int x, int y, boolean frozen) {
+        if (this.passesThroughIce || this.target < 0) {
+            return;
+        }
+        int cell = y * this.columns + x;
+        if (cell == this.target) {
+            return;
+        }
+        this.repairs++;
+        if (frozen) {
+            this.repairFrozen(cell);
+        } else {
+            this.repairMelted(cell);
+        }
+    }
+
+    private void rebuild() {
+        this.rebuilds++;
+        Arrays.fill(this.distances, UNREACHABLE);
+        this.distances[this.target] = 0;
+        int head = 0;
+        int tail = 0;
+        this.queue[tail++] = this.target;
+        while (head < tail) {
+            int cell = this.queue[head++];
+            int column = cell % this.columns;
+            int row = cell / this.columns;
+            int next = this.distances[cell] + 1;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourColumn = column + DIRECTION_DX[direction];
+                int neighbourRow = row + DIRECTION_DY[direction];
+                if (this.isWalkable(neighbourColumn, neighbourRow)) {
+                    int neighbour = neighbourRow * this.columns + neighbourColumn;
+                    if (this.distances[neighbour] == UNREACHABLE) {
+                        this.distances[neighbour] = next;
+                        this.queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    private void repairMelted(int cell) {
+        int best = this.bestNeighbourDistance(cell);
+        if (best == UNREACHABLE || best + 1 >= this.distances[cell]) {
+            return;
+        }
+        this.distances[cell] = best + 1;
+        this.startQueue();
+        this.enqueue(cell);
+        this.relax();
+    }
+
+    private void repairFrozen(int cell) {
+        int oldDistance = this.distances[cell];
+        if (oldDistance == UNREACHABLE) {
+            return;
+        }
+        this.distances[cell] = UNREACHABLE;
+
+        // Invalidate, layer by layer, every cell that has lost all of its neighbours one step closer to the target
+        this.startQueue();
+        this.enqueueDependants(cell, oldDistance);
+        int invalidatedCount = 0;
+        while (this.queueHead != this.queueTail) {
+            int dependant = this.dequeue();
+            int distance = this.distances[dependant];
+            if (distance == UNREACHABLE || this.hasNeighbourAt(dependant, distance - 1)) {
+                continue;
+            }
+            this.distances[dependant] = UNREACHABLE;
+            this.invalidated[invalidatedCount++] = dependant;
+            this.enqueueDependants(dependant, distance);
+        }
+
+        // Seed the invalidated cells from their valid neighbours and let the improvements spread
+        this.startQueue();
+        for (int i = 0; i < invalidatedCount; i++) {
+            int invalid = this.invalidated[i];
+            int best = this.bestNeighbourDistance(invalid);
+            if (best != UNREACHABLE) {
+                this.distances[invalid] = best + 1;
+                this.enqueue(invalid);
+            }
+        }
+        this.relax();
+    }
+
+    private void relax() {
+        while (this.queueHead != this.queueTail) {
+            int cell = this.dequeue();
+            int column = cell % this.columns;
+            int row = cell / this.columns;
+            int next = this.distances[cell] + 1;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourColumn = column + DIRECTION_DX[direction];
+                int neighbourRow = row + DIRECTION_DY[direction];
+                if (this.isWalkable(neighbourColumn, neighbourRow)) {
+                    int neighbour = neighbourRow * this.columns + neighbourColumn;
+                    if (neighbour != this.target && next < this.distances[neighbour]) {
+                        this.distances[neighbour] = next;
+                        this.enqueue(neighbour);
+                    }
+                }
+            }
+        }
+    }
+
+    private void enqueueDependants(int cell, int distance) {
+        int column = cell % this.columns;
+        int row = cell / this.columns;
+        for (int direction = 0; direction < 4; direction++) {
+            int neighbourColumn = column + DIRECTION_DX[direction];
+            int neighbourRow = row + DIRECTION_DY[direction];
+            if (this.isWalkable(neighbourColumn, neighbourRow)) {
+                int neighbour = neighbourRow * this.columns + neighbourColumn;
+                if (neighbour != this.target && this.distances[neighbour] == distance + 1) {
+                    this.enqueue(neighbour);
+                }
+            }
+        }
+    }
+
+    private boolean hasNeighbourAt(int cell, int distance) {
+        int column = cell % this.columns;
+        int row = cell / this.columns;
+        for (int direction = 0; direction < 4; direction++) {
+            if (this.getDistance(column + DIRECTION_DX[direction], row + DIRECTION_DY[direction]) == distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int bestNeighbourDistance(int cell) {
+        int column = cell % this.columns;
+        int row = cell / this.columns;
+        int best = UNREACHABLE;
+        for (int direction = 0; direction < 4; direction++) {
+            best = Math.min(best, this.getDistance(column + DIRECTION_DX[direction], row + DIRECTION_DY[direction]));
+        }
+        return best;
+    }
+
+    private boolean isWalkable(int column, int row) {
+        if (column < 0 || column >= this.columns || row < 0 || row >= this.rows) {
+            return false;
+        }
+        int value = this.layout[row][column];
+        return this.passesThroughIce ? value != Level.WALL : value == Level.EMPTY;
+    }
+
+    private void startQueue() {
+        this.queueHead = 0;
+        this.queueTail = 0;
+        this.queueMark++;
+    }
+
+    private void enqueue(int cell) {
+        if (this.queuedMarks[cell] == this.queueMark) {
+            return;
+        }
+        this.queuedMarks[cell] = this.queueMark;
+        this.queue[this.queueTail] = cell;
+        this.queueTail = (this.queueTail + 1) % this.queue.length;
+    }
+
+    private int dequeue() {
+        int cell = this.queue[this.queueHead];
+        this.queueHead = (this.queueHead + 1) % this.queue.length;
+        // A cell may be queued again once it has been taken out
+        this.queuedMarks[cell] = this.queueMark - 1;
+        return cell;
+    }
+}
@@ -0,0 +1,169 @@
+package main.levels;
+
+import main.simulation.RandomStream;
+import main.simulation.StateBuffer;
+
+import java.util.Arrays;
+
+/**
+ * The FreeCellIndex class keeps the set of empty cells of a level layout.
+ * The cells are packed into a dense array and every cell remembers its slot in it, so adding a cell, removing it
+ * and drawing a uniformly random one are all constant-time, no matter how much of the level is covered in ice.
+ * Cells are identified by {@code y * columns + x}.
+ */
+public class FreeCellIndex {
+    private static final int ABSENT = -1;
+    private final int columns;
+    private final int rows;
+    private final int[] cells;
+    private final int[] slots;
+    private int size;
+
+    /**
+     * Constructs a FreeCellIndex holding every empty cell of the given layout.
+     *
+     * @param layout The layout of the level.
+     */
+    public FreeCellIndex(int[][] layout) {
+        this.rows = layout.length;
+        this.columns = layout[0].length;
+        this.cells = new int[this.columns * this.rows];
+        this.slots = new int[this.columns * this.rows];
+        Arrays.fill(this.slots, ABSENT);
+        for (int y = 0; y < this.rows; y++) {
+            for (int x = 0; x < this.columns; x++) {
+                if (layout[y][x] == Level.EMPTY) {
+                    this.add(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the cell at the given coordinates as free. Does nothing if it already is.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    public void add(int x, int y) {
+        int cell = y * this.columns + x;
+        if (this.slots[cell] != ABSENT) {
+            return;
+        }
+        this.cells[this.size] = cell;
+        this.slots[cell] = this.size;
+        this.size++;
+    }
+
+    /**
+     * Marks the cell at the given coordinates as taken. Does nothing if it is not free.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    public void remove(int x, int y) {
+        int cell = y * this.columns + x;
+        int slot = this.slots[cell];
+        if (slot == ABSENT) {
+            return;
+        }
+        // The last free cell takes over the slot of the removed one
+        this.size--;
+        this.moveToSlot(this.cells[this.size], slot);
+        this.slots[cell] = ABSENT;
+    }
+
+    /**
+     * Checks if the cell at the given coordinates is free.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return true if the cell is free, false otherwise.
+     */
+    public boolean contains(int x, int y) {
+        return this.slots[y * this.columns + x] != ABSENT;
+    }
+
+    /**
+     * Returns the number of free cells.
+     *
+     * @return The number of free cells.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of cell columns, needed to turn a cell back into coordinates.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Draws a uniformly random free cell that lies outside the given rectangle of cells.
+     * The free cells inside the rectangle are moved to the end of the dense array, so the draw needs a single
+     * random number however many cells are excluded.
+     *
+     * @param random    The random stream to draw from.
+     * @param minColumn The first excluded column.
+     * @param minRow    The first excluded row.
+     * @param maxColumn The last excluded column, or less than minColumn to exclude nothing.
+     * @param maxRow    The last excluded row, or less than minRow to exclude nothing.
+     * @return The drawn cell, or -1 if no free cell lies outside the rectangle.
+     */
+    public int sampleExcluding(RandomStream random, int minColumn, int minRow, int maxColumn, int maxRow) {
+        int candidates = this.size;
+        for (int y = Math.max(0, minRow); y <= Math.min(this.rows - 1, maxRow); y++) {
+            for (int x = Math.max(0, minColumn); x <= Math.min(this.columns - 1, maxColumn); x++) {
+                int cell = y * this.columns + x;
+                int slot = this.slots[cell];
+                if (slot != ABSENT) {
+                    candidates--;
+                    this.moveToSlot(this.cells[candidates], slot);
+                    this.moveToSlot(cell, candidates);
+                }
+            }
+        }
+        if (candidates == 0) {
+            return ABSENT;
+        }
+        return this.cells[random.nextInt(candidates)];
+    }
+
+    /**
+     * Writes the free cells in their order in the dense array, which decides the cells drawn from now on.
+     * The whole array is written, so the state has the same size however many cells are free.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putInt(this.size);
+        for (int slot = 0; slot < this.cells.length; slot++) {
+            out.putInt(this.cells[slot]);
+        }
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from.
+     */
+    public void restoreState(StateBuffer in) {
+        Arrays.fill(this.slots, ABSENT);
+        this.size = in.getInt();
+        for (int slot = 0; slot < this.cells.length; slot++) {
+            this.cells[slot] = in.getInt();
+            if (slot < this.size) {
+                this.slots[this.cells[slot]] = slot;
+            }
+        }
+    }
+
+    private void moveToSlot(int cell, int slot) {
+        this.cells[slot] = cell;
+        this.slots[cell] = slot;
+    }
+}
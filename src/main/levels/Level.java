@@ -5,20 +5,15 @@ import main.levels.config.LevelLayout;
 import main.levels.managers.EnemyManager;
 import main.levels.managers.FruitManager;
 import main.entities.other.Player;
-import main.entities.other.IceBlock;
-import main.graphics.SpriteSheet;
 import main.levels.managers.IceManager;
-import main.levels.separators.Renderable;
-import main.levels.separators.LevelRenderer;
 import main.levels.separators.LevelUpdater;
 import main.levels.separators.LevelValidator;
 import main.levels.separators.Updatable;
+import main.metrics.TickProfiler;
+import main.simulation.GameClock;
+import main.simulation.RandomStream;
+import main.simulation.StateBuffer;
 
-import javax.imageio.ImageIO;
-import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.util.Optional;
 
 /**
@@ -30,46 +25,78 @@ public class Level {
     public static final int WALL = 1;
     public static final int ICE_BLOCK = 2;
     private final LevelLayout levelLayout;
-    private IceBlock[][] iceBlocks;
     private final int cellWidth;
     private final int cellHeight;
     private final Player player;
+    private final GameClock clock;
+    private final RandomStream random;
+    private final TickProfiler profiler;
+    private final EntityStorage entityStorage;
     private final EnemyManager enemyManager;
     private final FruitManager fruitManager;
     private final IceManager iceManager;
-    private final SpriteSheet spriteSheet = new SpriteSheet("res/fruits.png");
-    private BufferedImage sprite;
+    // The optionals are created once, so the getters called every tick do not allocate
+    private Optional<EnemyManager> optionalEnemyManager = Optional.empty();
+    private Optional<FruitManager> optionalFruitManager = Optional.empty();
+    private Optional<IceManager> optionalIceManager = Optional.empty();
     private final LevelConfiguration config;
     private final Updatable updater;
-    private final Renderable renderer;
     private final LevelValidator validator;
 
     /**
      * Constructs a new Level object with the specified configuration, width, height, and player.
+     * Every source of randomness in the level is derived from the seed, and all timing from the clock,
+     * so two levels built with the same seed and fed the same input evolve identically.
      *
      * @param config The configuration of the level.
      * @param width The width of the level.
      * @param height The height of the level.
      * @param player The player object.
+     * @param clock The clock of the simulation.
+     * @param seed The seed of the level's random streams.
+     * @param profiler The profiler timing the phases of the level update.
      */
-    public Level(LevelConfiguration config, int width, int height, Player player) {
+    public Level(LevelConfiguration config, int width, int height, Player player, GameClock clock, long seed,
+                 TickProfiler profiler) {
+        this(config, width, height, player, clock, seed, profiler, EntityStorage.fromSystemProperties());
+    }
+
+    /**
+     * Constructs a new Level object whose managers hold their enemies and fruits in the given storage.
+     *
+     * @param config The configuration of the level.
+     * @param width The width of the level.
+     * @param height The height of the level.
+     * @param player The player object.
+     * @param clock The clock of the simulation.
+     * @param seed The seed of the level's random streams.
+     * @param profiler The profiler timing the phases of the level update.
+     * @param entityStorage The storage of the enemies and fruits.
+     */
+    public Level(LevelConfiguration config, int width, int height, Player player, GameClock clock, long seed,
+                 TickProfiler profiler, EntityStorage entityStorage) {
         this.levelLayout = new LevelLayout(config.getLayout());
         this.player = player;
+        this.clock = clock;
+        this.random = new RandomStream(seed);
+        this.profiler = profiler;
+        this.entityStorage = entityStorage;
         this.config = config;
         this.cellWidth = width / config.getLayout()[0].length;
         this.cellHeight = height / config.getLayout().length;
 
-        // Instantiate the managers and other components
+        // Instantiate the managers and other components; the ice comes first because fruits spawn on its free cells
+        this.iceManager = new IceManager(this);
+        this.optionalIceManager = Optional.of(this.iceManager);
         this.fruitManager = new FruitManager(this, config.getFruits());
+        this.optionalFruitManager = Optional.of(this.fruitManager);
         this.enemyManager = new EnemyManager(this, config.getEnemies());
-        this.iceManager = new IceManager(this);
+        this.optionalEnemyManager = Optional.of(this.enemyManager);
         this.updater = new LevelUpdater(this);
-        this.renderer = new LevelRenderer(this);
         this.validator = new LevelValidator(this);
 
         // Initial game setup
         this.initializeGame();
-        this.loadWallImage();
     }
 
     /**
@@ -99,20 +126,12 @@ public class Level {
     }
 
     /**
-     * Initializes the game by spawning enemies, fruits, and ice blocks.
+     * Initializes the game by spawning enemies and fruits.
+     * The ice needs no setup: it lives only in the cells of the level layout.
      */
     public void initializeGame() {
         this.enemyManager.spawnEnemies(this.cellWidth, this.cellHeight);
         this.fruitManager.spawnFruitsOfType();
-        this.initializeIceBlocks();
-        this.iceBlocks = this.iceManager.getIceBlockManager().getIceBlocks();
-    }
-
-    /**
-     * Initializes the ice blocks in the level.
-     */
-    public void initializeIceBlocks() {
-        this.iceManager.initializeIceBlocks();
     }
 
     /**
@@ -127,49 +146,79 @@ public class Level {
     }
 
     /**
-     * Loads the wall image used for rendering the level.
+     * Updates the level.
+     * This method should be called to update the state and behavior of the level.
      */
-    private void loadWallImage() {
-        try {
-            this.sprite = ImageIO.read(new File("res/wallBlock.png"));
-        } catch (IOException e) {
-            e.printStackTrace();
+    public void update() {
+        this.updater.update();
+    }
+
+    /**
+     * Writes everything about the level that changes while it is played: the ice, the enemies and the fruits.
+     * The layout, the configuration and the random streams handed out at construction are fixed by the seed.
+     * Only the fruits take a varying number of bytes, so they come last and the snapshots of consecutive ticks
+     * line up byte for byte.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putByte(this.entityStorage.ordinal());
+        this.iceManager.saveState(out);
+        this.enemyManager.saveState(out);
+        this.fruitManager.saveState(out);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)} for a level built from the same
+     * configuration and seed.
+     *
+     * @param in The buffer to read from.
+     * @throws IllegalStateException if the state was saved from a level with another entity storage.
+     */
+    public void restoreState(StateBuffer in) {
+        if (in.getByte() != this.entityStorage.ordinal()) {
+            throw new IllegalStateException("Saved state was taken with another entity storage than " + this.entityStorage);
         }
+        this.iceManager.restoreState(in);
+        this.enemyManager.restoreState(in);
+        this.fruitManager.restoreState(in);
     }
 
     /**
-     * Renders the level.
+     * Returns the clock of the simulation.
      *
-     * @param g The graphics object used for rendering.
+     * @return The clock.
      */
-    public void render(Graphics g) {
-        this.renderer.render(g);
+    public GameClock getClock() {
+        return this.clock;
     }
 
     /**
-     * Updates the level.
-     * This method should be called to update the state and behavior of the level.
+     * Returns the profiler timing the phases of the level update.
+     *
+     * @return The profiler.
      */
-    public void update() {
-        this.updater.update();
+    public TickProfiler getProfiler() {
+        return this.profiler;
     }
 
     /**
-     * Returns the sprite sheet used for obtaining sprite images.
+     * Returns the storage in which the managers hold their enemies and fruits.
      *
-     * @return The sprite sheet.
+     * @return The entity storage.
      */
-    public SpriteSheet getSpriteSheet() {
-        return this.spriteSheet;
+    public EntityStorage getEntityStorage() {
+        return this.entityStorage;
     }
 
     /**
-     * Returns the ice blocks in the level.
+     * Splits off a new random stream for an entity or manager of this level.
+     * Streams are handed out in construction order, which is fixed by the level configuration.
      *
-     * @return The 2D array of ice blocks.
+     * @return The new random stream.
      */
-    public IceBlock[][] getIceBlocks() {
-        return this.iceBlocks;
+    public RandomStream nextRandomStream() {
+        return this.random.split();
     }
 
     /**
@@ -196,7 +245,7 @@ public class Level {
      * @return An optional containing the ice manager, or empty if it does not exist.
      */
     public Optional<IceManager> getIceManager() {
-        return Optional.ofNullable(this.iceManager);
+        return this.optionalIceManager;
     }
 
     /**
@@ -205,7 +254,7 @@ public class Level {
      * @return An optional containing the fruit manager, or empty if it does not exist.
      */
     public Optional<FruitManager> getFruitManager() {
-        return Optional.ofNullable(this.fruitManager);
+        return this.optionalFruitManager;
     }
 
     /**
@@ -214,7 +263,7 @@ public class Level {
      * @return An optional containing the enemy manager, or empty if it does not exist.
      */
     public Optional<EnemyManager> getEnemyManager() {
-        return Optional.ofNullable(this.enemyManager);
+        return this.optionalEnemyManager;
     }
 
     /**
@@ -243,13 +292,4 @@ public class Level {
     public LevelConfiguration getConfig() {
         return this.config;
     }
-
-    /**
-     * Returns the sprite image used for rendering the level's walls.
-     *
-     * @return The wall sprite image.
-     */
-    public BufferedImage getSprite() {
-        return this.sprite;
-    }
 }
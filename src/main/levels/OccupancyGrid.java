@@ -0,0 +1,198 @@
+package main.levels;
+
+import main.entities.other.GameElement;
+
+import java.util.Arrays;
+
+/**
+ * The OccupancyGrid class indexes game elements by the cell that holds their top-left corner.
+ * It is the object-based front of a {@link CellIndex}: every element gets a slot in the index, and the handle returned
+ * when it is added keeps track of that slot, so moving an element to another cell, adding it and removing it are
+ * constant-time, and an area query only visits the cells around that area instead of every element of the level.
+ * The queries read the elements' current positions, so an element that has moved is still found where it is.
+ */
+public class OccupancyGrid {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int cellWidth;
+    private final int cellHeight;
+    private final CellIndex cellIndex;
+    private final CellIndex.SlotBounds bounds = new ElementBounds();
+    private Occupant[] occupants;
+    private int size;
+
+    /**
+     * Constructs an empty OccupancyGrid.
+     *
+     * @param columns    The number of cell columns.
+     * @param rows       The number of cell rows.
+     * @param cellWidth  The width of a cell in pixels.
+     * @param cellHeight The height of a cell in pixels.
+     */
+    public OccupancyGrid(int columns, int rows, int cellWidth, int cellHeight) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.cellIndex = new CellIndex(columns, rows, cellWidth, cellHeight, INITIAL_CAPACITY);
+        this.occupants = new Occupant[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds an element to the grid.
+     *
+     * @param element The element to add.
+     * @return The handle used to move or remove the element later.
+     */
+    public Occupant add(GameElement element) {
+        if (this.size == this.occupants.length) {
+            this.occupants = Arrays.copyOf(this.occupants, this.size * 2);
+            this.cellIndex.ensureCapacity(this.occupants.length);
+        }
+        Occupant occupant = new Occupant(element);
+        occupant.slot = this.size++;
+        this.occupants[occupant.slot] = occupant;
+        this.cellIndex.add(occupant.slot, element.getX(), element.getY(), element.getWidth(), element.getHeight());
+        return occupant;
+    }
+
+    /**
+     * Moves an element to the cell of its current position. Must be called whenever the element has moved;
+     * it does nothing while the element stays within the same cell.
+     *
+     * @param occupant The handle of the element.
+     */
+    public void update(Occupant occupant) {
+        this.cellIndex.move(occupant.slot, occupant.element.getX(), occupant.element.getY());
+    }
+
+    /**
+     * Removes an element from the grid. The last element added takes over its slot.
+     *
+     * @param occupant The handle of the element.
+     */
+    public void remove(Occupant occupant) {
+        int slot = occupant.slot;
+        int last = --this.size;
+        this.cellIndex.remove(slot);
+        if (slot != last) {
+            Occupant moved = this.occupants[last];
+            moved.slot = slot;
+            this.occupants[slot] = moved;
+            this.cellIndex.relocate(last, slot);
+        }
+        this.occupants[last] = null;
+    }
+
+    /**
+     * Finds an element overlapping the given area.
+     *
+     * @param x      The x-coordinate of the area.
+     * @param y      The y-coordinate of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @return The handle of an overlapping element, or null if the area is free.
+     */
+    public Occupant findOverlapping(int x, int y, int width, int height) {
+        if (this.size == 0) {
+            return null;
+        }
+        int slot = this.cellIndex.findOverlapping(x, y, width, height, this.bounds);
+        return slot == CellIndex.NONE ? null : this.occupants[slot];
+    }
+
+    /**
+     * Checks if any element overlaps the given cell.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return true if an element overlaps the cell, false otherwise.
+     */
+    public boolean isCellOccupied(int column, int row) {
+        return this.findOverlapping(column * this.cellWidth, row * this.cellHeight, this.cellWidth, this.cellHeight) != null;
+    }
+
+    /**
+     * Checks if any element overlaps the given block of cells.
+     *
+     * @param minColumn The first column of the block.
+     * @param minRow    The first row of the block.
+     * @param maxColumn The last column of the block, inclusive.
+     * @param maxRow    The last row of the block, inclusive.
+     * @return true if an element overlaps one of the cells, false otherwise.
+     */
+    public boolean isAnyCellOccupied(int minColumn, int minRow, int maxColumn, int maxRow) {
+        return this.findOverlapping(minColumn * this.cellWidth, minRow * this.cellHeight,
+                (maxColumn - minColumn + 1) * this.cellWidth, (maxRow - minRow + 1) * this.cellHeight) != null;
+    }
+
+    /**
+     * Returns the number of elements in the grid.
+     *
+     * @return The element count.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Reads the bounds of the element in a slot from the element itself
+    private final class ElementBounds implements CellIndex.SlotBounds {
+        @Override
+        public int getX(int slot) {
+            return OccupancyGrid.this.occupants[slot].element.getX();
+        }
+
+        @Override
+        public int getY(int slot) {
+            return OccupancyGrid.this.occupants[slot].element.getY();
+        }
+
+        @Override
+        public int getWidth(int slot) {
+            return OccupancyGrid.this.occupants[slot].element.getWidth();
+        }
+
+        @Override
+        public int getHeight(int slot) {
+            return OccupancyGrid.this.occupants[slot].element.getHeight();
+        }
+    }
+
+    /**
+     * The Occupant class is the list node of one element in the grid.
+     */
+    public static final class Occupant {
+        private final GameElement element;
+        private int slot;
+        private int index;
+
+        private Occupant(GameElement element) {
+            this.element = element;
+        }
+
+        /**
+         * Returns the element this node stands for.
+         *
+         * @return The element.
+         */
+        public GameElement getElement() {
+            return this.element;
+        }
+
+        /**
+         * Returns the position of the element in its owner's list. The grid itself does not use it.
+         *
+         * @return The list index.
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Sets the position of the element in its owner's list, e.g. after the owner moved it.
+         *
+         * @param index The list index.
+         */
+        public void setIndex(int index) {
+            this.index = index;
+        }
+    }
+}
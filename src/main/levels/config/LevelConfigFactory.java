@@ -8,12 +8,14 @@ import main.entities.fruits.Grapes;
 import main.entities.fruits.Lemon;
 import main.entities.fruits.Banana;
 import main.entities.enemies.Yeti;
+import main.entities.enemies.Chaser;
+import main.entities.enemies.PhantomChaser;
 import main.entities.enemies.Guard;
 import main.entities.enemies.Ghost;
 import main.entities.enemies.ThermalTitan;
+import main.geometry.Position;
 import main.levels.Pair;
 
-import java.awt.Point;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -32,7 +34,7 @@ public class LevelConfigFactory {
      * @param playerStartingPosition The starting position of the player.
      * @return The created level configuration.
      */
-    public static LevelConfiguration createLevelConfig(int[][] layout, List<EnemySpawn> enemies, List<Pair<Class<? extends Fruit>, Integer>> fruits, Point playerStartingPosition) {
+    public static LevelConfiguration createLevelConfig(int[][] layout, List<EnemySpawn> enemies, List<Pair<Class<? extends Fruit>, Integer>> fruits, Position playerStartingPosition) {
         return new LevelConfiguration(layout, enemies, fruits, playerStartingPosition);
     }
 
@@ -67,15 +69,15 @@ public class LevelConfigFactory {
     public static LevelConfiguration createLevel1Config() {
         int[][] layout = DifferentLevels.LAYOUT_1;
         List<EnemySpawn> enemies = createEnemyList(
-                new EnemySpawn(Yeti.class, new Point(16, 10)),
-                new EnemySpawn(Yeti.class, new Point(6, 6))
+                new EnemySpawn(Yeti.class, new Position(16, 10)),
+                new EnemySpawn(Yeti.class, new Position(6, 6))
         );
         List<Pair<Class<? extends Fruit>, Integer>> fruits = createFruitList(
                 new Pair<>(Banana.class, 20),
                 new Pair<>(Grapes.class, 16)
         );
 
-        Point playerStartingPosition = new Point(9, 16);
+        Position playerStartingPosition = new Position(9, 16);
         return createLevelConfig(layout, enemies, fruits, playerStartingPosition);
     }
 
@@ -87,15 +89,15 @@ public class LevelConfigFactory {
     public static LevelConfiguration createLevel2Config() {
         int[][] layout = DifferentLevels.LAYOUT_2;
         List<EnemySpawn> enemies = createEnemyList(
-                new EnemySpawn(Guard.class, new Point(2, 5)),
-                new EnemySpawn(Yeti.class, new Point(17, 7)),
-                new EnemySpawn(Yeti.class, new Point(3, 16))
+                new EnemySpawn(Guard.class, new Position(2, 5)),
+                new EnemySpawn(Yeti.class, new Position(17, 7)),
+                new EnemySpawn(Yeti.class, new Position(3, 16))
         );
         List<Pair<Class<? extends Fruit>, Integer>> fruits = createFruitList(
                 new Pair<>(Grapes.class, 7),
                 new Pair<>(Watermelon.class, 10)
         );
-        Point playerStartingPosition = new Point(8, 2);
+        Position playerStartingPosition = new Position(8, 2);
         return createLevelConfig(layout, enemies, fruits, playerStartingPosition);
     }
 
@@ -107,16 +109,16 @@ public class LevelConfigFactory {
     public static LevelConfiguration createLevel3Config() {
         int[][] layout = DifferentLevels.LAYOUT_3;
         List<EnemySpawn> enemies = createEnemyList(
-                new EnemySpawn(Guard.class, new Point(3, 3)),
-                new EnemySpawn(Guard.class, new Point(3, 16)),
-                new EnemySpawn(Guard.class, new Point(16, 16)),
-                new EnemySpawn(Guard.class, new Point(16, 3))
+                new EnemySpawn(Guard.class, new Position(3, 3)),
+                new EnemySpawn(Guard.class, new Position(3, 16)),
+                new EnemySpawn(Guard.class, new Position(16, 16)),
+                new EnemySpawn(Guard.class, new Position(16, 3))
         );
         List<Pair<Class<? extends Fruit>, Integer>> fruits = createFruitList(
                 new Pair<>(Banana.class, 26),
                 new Pair<>(Orange.class, 24)
         );
-        Point playerStartingPosition = new Point(5, 5);
+        Position playerStartingPosition = new Position(5, 5);
         return createLevelConfig(layout, enemies, fruits, playerStartingPosition);
     }
 
@@ -128,15 +130,16 @@ public class LevelConfigFactory {
     public static LevelConfiguration createLevel4Config() {
         int[][] layout = DifferentLevels.LAYOUT_4;
         List<EnemySpawn> enemies = createEnemyList(
-                new EnemySpawn(Guard.class, new Point(4, 4)),
-                new EnemySpawn(Ghost.class, new Point(6, 6)),
-                new EnemySpawn(Guard.class, new Point(13, 8))
+                new EnemySpawn(Guard.class, new Position(4, 4)),
+                new EnemySpawn(Ghost.class, new Position(6, 6)),
+                new EnemySpawn(Guard.class, new Position(13, 8)),
+                new EnemySpawn(Chaser.class, new Position(17, 17))
         );
         List<Pair<Class<? extends Fruit>, Integer>> fruits = createFruitList(
                 new Pair<>(Lemon.class, 22),
                 new Pair<>(Orange.class, 22)
         );
-        Point playerStartingPosition = new Point(2, 2);
+        Position playerStartingPosition = new Position(2, 2);
         return createLevelConfig(layout, enemies, fruits, playerStartingPosition);
     }
 
@@ -148,16 +151,17 @@ public class LevelConfigFactory {
     public static LevelConfiguration createLevel5Config() {
         int[][] layout = DifferentLevels.LAYOUT_5;
         List<EnemySpawn> enemies = createEnemyList(
-                new EnemySpawn(ThermalTitan.class, new Point(4, 4)),
-                new EnemySpawn(Ghost.class, new Point(6, 6)),
-                new EnemySpawn(Yeti.class, new Point(13, 8))
+                new EnemySpawn(ThermalTitan.class, new Position(4, 4)),
+                new EnemySpawn(Ghost.class, new Position(6, 6)),
+                new EnemySpawn(Yeti.class, new Position(13, 8)),
+                new EnemySpawn(PhantomChaser.class, new Position(10, 18))
         );
         List<Pair<Class<? extends Fruit>, Integer>> fruits = createFruitList(
                 new Pair<>(Banana.class, 16),
                 new Pair<>(Grapes.class, 16),
                 new Pair<>(Watermelon.class, 4)
         );
-        Point playerStartingPosition = new Point(2, 2);
+        Position playerStartingPosition = new Position(2, 2);
         return createLevelConfig(layout, enemies, fruits, playerStartingPosition);
     }
 
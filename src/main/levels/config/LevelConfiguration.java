@@ -2,9 +2,9 @@ package main.levels.config;
 
 import main.entities.other.EnemySpawn;
 import main.entities.fruits.Fruit;
+import main.geometry.Position;
 import main.levels.Pair;
 
-import java.awt.Point;
 import java.util.Arrays;
 import java.util.List;
 
@@ -15,7 +15,7 @@ public class LevelConfiguration {
     private final int[][] layout;
     private final List<EnemySpawn> enemies;
     private final List<Pair<Class<? extends Fruit>, Integer>> fruits;
-    private final Point playerStartingPosition;
+    private final Position playerStartingPosition;
 
     /**
      * Constructs a new LevelConfiguration object with the specified layout, enemies, fruits, and player starting position.
@@ -25,7 +25,7 @@ public class LevelConfiguration {
      * @param fruits               The list of fruit types and their quantities in the level.
      * @param playerStartingPosition The starting position of the player in the level.
      */
-    public LevelConfiguration(int[][] layout, List<EnemySpawn> enemies, List<Pair<Class<? extends Fruit>, Integer>> fruits, Point playerStartingPosition) {
+    public LevelConfiguration(int[][] layout, List<EnemySpawn> enemies, List<Pair<Class<? extends Fruit>, Integer>> fruits, Position playerStartingPosition) {
         this.layout = deepCopy(layout);
         this.enemies = enemies;
         this.fruits = fruits;
@@ -37,7 +37,7 @@ public class LevelConfiguration {
      *
      * @return The player's starting position.
      */
-    public Point getPlayerStartingPosition() {
+    public Position getPlayerStartingPosition() {
         return this.playerStartingPosition;
     }
 
@@ -2,24 +2,42 @@ package main.levels.managers;
 
 import main.entities.other.EnemySpawn;
 import main.entities.other.Player;
+import main.entities.enemies.Chaser;
 import main.entities.enemies.Guard;
+import main.entities.enemies.PhantomChaser;
 import main.entities.enemies.ThermalTitan;
 import main.entities.enemies.Ghost;
 import main.entities.enemies.Enemy;
 import main.entities.enemies.Yeti;
+import main.levels.EntityStorage;
+import main.levels.FlowField;
 import main.levels.Level;
+import main.levels.OccupancyGrid;
+import main.simulation.StateBuffer;
 
-import java.awt.Graphics;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * The EnemyManager class manages the enemies in a level.
+ * Enemies are indexed in an {@link OccupancyGrid}, so collision and cell queries only look at nearby enemies.
+ * The chasing enemies share two {@link FlowField}s towards the player, one around the ice and one through it,
+ * which are brought up to date once per tick before any enemy moves.
+ * With the {@link EntityStorage#ARRAYS} storage the enemies live in an {@link EnemyTable} instead, and the enemy
+ * objects are only views whose positions are copied from the table whenever the list of enemies is asked for.
+ * The table can also update the enemies in two phases, deciding their moves in parallel and committing them in
+ * order; the {@value #PARALLEL_UPDATE_PROPERTY} system property switches that on for every level.
  */
 public class EnemyManager {
+    public static final String PARALLEL_UPDATE_PROPERTY = "badicecream.enemies.parallel";
     private final Level level;
     private final List<Enemy> enemies;
     private final List<EnemySpawn> enemies2;
+    private final OccupancyGrid occupancy;
+    private final List<OccupancyGrid.Occupant> occupants;
+    private final EnemyTable table;
+    private FlowField flowField;
+    private FlowField phantomFlowField;
 
     /**
      * Constructs a new EnemyManager object with the specified level and initial enemy spawns.
@@ -31,6 +49,24 @@ public class EnemyManager {
         this.level = level;
         this.enemies = new ArrayList<>();
         this.enemies2 = enemies;
+        int[][] layout = level.getLevelLayout().layout();
+        this.occupancy = new OccupancyGrid(layout[0].length, layout.length, level.getCellWidth(), level.getCellHeight());
+        this.occupants = new ArrayList<>();
+        this.table = level.getEntityStorage() == EntityStorage.ARRAYS ? new EnemyTable(level, this) : null;
+        this.setParallelUpdate(Boolean.getBoolean(PARALLEL_UPDATE_PROPERTY));
+    }
+
+    /**
+     * Switches the parallel two-phase update of the enemies on or off. The enemies end up exactly where the
+     * sequential update would have put them; only the time taken differs. Has no effect with the object storage,
+     * where every enemy updates itself.
+     *
+     * @param parallel true to decide the moves of the enemies in parallel, false to update them one by one.
+     */
+    public void setParallelUpdate(boolean parallel) {
+        if (this.table != null) {
+            this.table.setParallel(parallel);
+        }
     }
 
     /**
@@ -41,7 +77,7 @@ public class EnemyManager {
      */
     public void spawnEnemies(int cellWidth, int cellHeight) {
         for (EnemySpawn enemySpawn : this.enemies2) {
-            this.spawnEnemy(enemySpawn.type(), enemySpawn.position().x, enemySpawn.position().y, cellWidth, cellHeight);
+            this.spawnEnemy(enemySpawn.type(), enemySpawn.position().x(), enemySpawn.position().y(), cellWidth, cellHeight);
         }
     }
 
@@ -64,11 +100,22 @@ public class EnemyManager {
             enemy = new Ghost(x * cellWidth, y * cellHeight, cellWidth, cellHeight, 3, this.level);
         } else if (enemyType == ThermalTitan.class) {
             enemy = new ThermalTitan(x * cellWidth, y * cellHeight, cellWidth, cellHeight, 3, this.level, 1);
+        } else if (enemyType == Chaser.class) {
+            enemy = new Chaser(x * cellWidth, y * cellHeight, cellWidth, cellHeight, 2, this.level);
+            this.getFlowField(false);
+        } else if (enemyType == PhantomChaser.class) {
+            enemy = new PhantomChaser(x * cellWidth, y * cellHeight, cellWidth, cellHeight, 1, this.level);
+            this.getFlowField(true);
         } else {
             // add new enemies
             throw new RuntimeException("Unknown enemy type");
         }
         this.enemies.add(enemy);
+        if (this.table != null) {
+            this.table.add(enemy);
+        } else {
+            this.occupants.add(this.occupancy.add(enemy));
+        }
     }
 
     /**
@@ -78,56 +125,160 @@ public class EnemyManager {
      * @return {@code true} if there is a collision with any enemy, {@code false} otherwise.
      */
     public boolean checkPlayerCollision(Player player) {
-        for (Enemy enemy : this.enemies) {
-            if (enemy.hasCollidedWithPlayer(player)) {
-                return true;
-            }
+        if (player == null) {
+            return false;
         }
-        return false;
+        if (this.table != null) {
+            return this.table.isAreaOccupied(player.getX(), player.getY(), player.getWidth(), player.getHeight());
+        }
+        return this.occupancy.findOverlapping(player.getX(), player.getY(), player.getWidth(), player.getHeight()) != null;
     }
 
     /**
-     * Checks if there is an enemy at the specified position.
+     * Checks if there is an enemy in the specified cell, even if only partly.
      *
-     * @param x The x-coordinate of the position.
-     * @param y The y-coordinate of the position.
-     * @return {@code true} if there is an enemy at the position, {@code false} otherwise.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return {@code true} if there is an enemy in the cell, {@code false} otherwise.
      */
     public boolean isEnemyAt(int x, int y) {
-        for (Enemy enemy : this.enemies) {
-            if (enemy.getX() == x && enemy.getY() == y) {
-                return true;
-            }
+        if (this.table != null) {
+            int cellWidth = this.level.getCellWidth();
+            int cellHeight = this.level.getCellHeight();
+            return this.table.isAreaOccupied(x * cellWidth, y * cellHeight, cellWidth, cellHeight);
         }
-        return false;
+        return this.occupancy.isCellOccupied(x, y);
     }
 
     /**
-     * Renders all the enemies.
+     * Checks if there is an enemy in any cell of the specified block of cells.
      *
-     * @param g The Graphics object to render with.
+     * @param minX The x-coordinate of the first cell.
+     * @param minY The y-coordinate of the first cell.
+     * @param maxX The x-coordinate of the last cell, inclusive.
+     * @param maxY The y-coordinate of the last cell, inclusive.
+     * @return {@code true} if there is an enemy in one of the cells, {@code false} otherwise.
      */
-    public void render(Graphics g) {
-        for (Enemy enemy : this.enemies) {
-            enemy.render(g);
+    public boolean isEnemyInCells(int minX, int minY, int maxX, int maxY) {
+        if (this.table != null) {
+            int cellWidth = this.level.getCellWidth();
+            int cellHeight = this.level.getCellHeight();
+            return this.table.isAreaOccupied(minX * cellWidth, minY * cellHeight,
+                    (maxX - minX + 1) * cellWidth, (maxY - minY + 1) * cellHeight);
+        }
+        return this.occupancy.isAnyCellOccupied(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Returns the flow field towards the player shared by the chasing enemies.
+     * The field is created when the first chaser that needs it spawns, or else the first time it is asked for;
+     * the one that goes around the ice follows every change of the ice from then on.
+     *
+     * @param passesThroughIce true for the field of the enemies that pass through ice, false for the one around it.
+     * @return The flow field.
+     */
+    public FlowField getFlowField(boolean passesThroughIce) {
+        if (passesThroughIce) {
+            if (this.phantomFlowField == null) {
+                this.phantomFlowField = this.createFlowField(true);
+            }
+            return this.phantomFlowField;
+        }
+        if (this.flowField == null) {
+            this.flowField = this.createFlowField(false);
+            this.level.getIceManager().ifPresent(iceManager -> iceManager.getIceBlockManager().addIceChangeListener(this.flowField));
+        }
+        return this.flowField;
+    }
+
+    private FlowField createFlowField(boolean passesThroughIce) {
+        FlowField field = new FlowField(this.level.getLevelLayout().layout(), passesThroughIce);
+        this.retarget(field);
+        return field;
+    }
+
+    private void retarget(FlowField field) {
+        Player player = this.level.getPlayer();
+        if (player == null) {
+            return;
+        }
+        // The cell holding the centre of the player; while the level is being prepared, the player's starting cell
+        if (player.getLevel() != this.level) {
+            field.setTarget(this.level.getConfig().getPlayerStartingPosition().x(), this.level.getConfig().getPlayerStartingPosition().y());
+            return;
         }
+        field.setTarget((player.getX() + player.getWidth() / 2) / this.level.getCellWidth(),
+                (player.getY() + player.getHeight() / 2) / this.level.getCellHeight());
     }
 
     /**
      * Updates the state of all the enemies.
      */
     public void update() {
-        for (Enemy enemy : this.enemies) {
-            enemy.update();
+        if (this.flowField != null) {
+            this.retarget(this.flowField);
+        }
+        if (this.phantomFlowField != null) {
+            this.retarget(this.phantomFlowField);
+        }
+        if (this.table != null) {
+            this.table.update();
+            return;
+        }
+        for (int i = 0; i < this.enemies.size(); i++) {
+            this.enemies.get(i).update();
+            this.occupancy.update(this.occupants.get(i));
+        }
+    }
+
+    /**
+     * Writes the state of every enemy, e.g. for a replay keyframe. The flow fields are not saved; they follow the
+     * ice and the player on their own.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putInt(this.enemies.size());
+        if (this.table != null) {
+            this.table.saveState(out);
+            return;
+        }
+        for (int i = 0; i < this.enemies.size(); i++) {
+            this.enemies.get(i).saveState(out);
+        }
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)} for the same level in the same storage.
+     *
+     * @param in The buffer to read from.
+     * @throws IllegalStateException if the state was saved with a different number of enemies.
+     */
+    public void restoreState(StateBuffer in) {
+        int count = in.getInt();
+        if (count != this.enemies.size()) {
+            throw new IllegalStateException("Saved state has " + count + " enemies, the level has " + this.enemies.size());
+        }
+        if (this.table != null) {
+            this.table.restoreState(in);
+            return;
+        }
+        for (int i = 0; i < this.enemies.size(); i++) {
+            this.enemies.get(i).restoreState(in);
+            this.occupancy.update(this.occupants.get(i));
         }
     }
 
     /**
      * Returns the list of enemies managed by the EnemyManager.
+     * With the array storage the positions of the enemy objects are brought up to date first.
      *
      * @return The list of enemies.
      */
     public List<Enemy> getEnemies() {
+        if (this.table != null) {
+            this.table.syncViews(this.enemies);
+        }
         return this.enemies;
     }
 }
\ No newline at end of file
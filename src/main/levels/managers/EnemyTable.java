@@ -0,0 +1,593 @@
+package main.levels.managers;
+
+import main.entities.enemies.Chaser;
+import main.entities.enemies.Enemy;
+import main.entities.enemies.Ghost;
+import main.entities.enemies.Guard;
+import main.entities.enemies.PhantomChaser;
+import main.entities.enemies.ThermalTitan;
+import main.entities.enemies.Yeti;
+import main.levels.FlowField;
+import main.levels.CellIndex;
+import main.levels.Level;
+import main.simulation.GameClock;
+import main.simulation.RandomStream;
+import main.simulation.StateBuffer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The EnemyTable class holds the enemies of a level as a struct of arrays: the position, size, speed, direction,
+ * type tag, direction timer and random stream state of the enemy in slot {@code i} are the {@code i}-th elements of
+ * parallel primitive arrays. One update walks the slots linearly and runs the behaviour of each type tag, which is
+ * the behaviour of the matching enemy class step for step, so a level evolves exactly as it does with objects.
+ * <p>
+ * The enemies are visited in spawn order in a single pass rather than in one pass per type, because they interact
+ * through the ice: a thermal titan melting a cell changes where the enemies after it can go.
+ * The clock is read once per update, which under a tick clock is the time every enemy object would have read.
+ * The enemy objects are kept only as views for the renderers; {@link #syncViews(List)} copies the positions into them.
+ */
+final class EnemyTable implements CellIndex.SlotBounds {
+    private static final byte GUARD = 0;
+    private static final byte YETI = 1;
+    private static final byte GHOST = 2;
+    private static final byte THERMAL_TITAN = 3;
+    private static final byte CHASER = 4;
+    private static final byte PHANTOM_CHASER = 5;
+    // Milliseconds after which a wandering enemy picks a new direction, by type tag; only the wandering types use it
+    private static final long[] DIRECTION_INTERVALS = {3000, 0, 5000, 4000, 0, 0};
+    private static final int INITIAL_CAPACITY = 16;
+    // Below this many enemies the parallel update costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int MIN_CHUNK_SIZE = 128;
+
+    private final Level level;
+    private final EnemyManager manager;
+    private final GameClock clock;
+    private final int[][] layout;
+    private final int columns;
+    private final int rows;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final CellIndex cellIndex;
+    // A stream whose state is swapped in and out, so the streams of the enemies can live in a long array
+    private final RandomStream random = new RandomStream(0);
+    private int size;
+    private byte[] types;
+    private int[] xs;
+    private int[] ys;
+    private int[] widths;
+    private int[] heights;
+    private int[] speeds;
+    // 0 = up, 1 = right, 2 = down, 3 = left, for every type
+    private int[] directions;
+    private int[] heatRadii;
+    private long[] lastChanges;
+    private long[] randomStates;
+    // The intents of the enemies, made by the decide phase and applied by the commit phase
+    private int[] nextXs;
+    private int[] nextYs;
+    private int[] nextDirections;
+    private long[] nextLastChanges;
+    private long[] nextRandomStates;
+    private boolean[] melting;
+    // The position each enemy tried to move to, i.e. the cells its decision read
+    private int[] targetXs;
+    private int[] targetYs;
+    // The cells melted during the current commit are marked with the current mark
+    private final int[] meltMarks;
+    private int meltMark;
+    private boolean meltedInCommit;
+    private DecidePass decidePass;
+    private boolean parallel;
+    // The time of the tick being updated
+    private long now;
+
+    /**
+     * Constructs an empty EnemyTable.
+     *
+     * @param level   The level of the enemies.
+     * @param manager The manager owning the table, which provides the flow fields of the chasers.
+     */
+    EnemyTable(Level level, EnemyManager manager) {
+        this.level = level;
+        this.manager = manager;
+        this.clock = level.getClock();
+        this.layout = level.getLevelLayout().layout();
+        this.columns = this.layout[0].length;
+        this.rows = this.layout.length;
+        this.cellWidth = level.getCellWidth();
+        this.cellHeight = level.getCellHeight();
+        this.cellIndex = new CellIndex(this.columns, this.rows, this.cellWidth, this.cellHeight, INITIAL_CAPACITY);
+        this.types = new byte[INITIAL_CAPACITY];
+        this.xs = new int[INITIAL_CAPACITY];
+        this.ys = new int[INITIAL_CAPACITY];
+        this.widths = new int[INITIAL_CAPACITY];
+        this.heights = new int[INITIAL_CAPACITY];
+        this.speeds = new int[INITIAL_CAPACITY];
+        this.directions = new int[INITIAL_CAPACITY];
+        this.heatRadii = new int[INITIAL_CAPACITY];
+        this.lastChanges = new long[INITIAL_CAPACITY];
+        this.randomStates = new long[INITIAL_CAPACITY];
+        this.nextXs = new int[INITIAL_CAPACITY];
+        this.nextYs = new int[INITIAL_CAPACITY];
+        this.nextDirections = new int[INITIAL_CAPACITY];
+        this.nextLastChanges = new long[INITIAL_CAPACITY];
+        this.nextRandomStates = new long[INITIAL_CAPACITY];
+        this.melting = new boolean[INITIAL_CAPACITY];
+        this.targetXs = new int[INITIAL_CAPACITY];
+        this.targetYs = new int[INITIAL_CAPACITY];
+        this.meltMarks = new int[this.columns * this.rows];
+    }
+
+    /**
+     * Copies a freshly spawned enemy into the next slot of the table.
+     *
+     * @param enemy The enemy.
+     * @throws IllegalArgumentException if the table has no behaviour for the type of the enemy.
+     */
+    void add(Enemy enemy) {
+        this.ensureCapacity(this.size + 1);
+        int slot = this.size++;
+        this.types[slot] = typeOf(enemy);
+        this.xs[slot] = enemy.getX();
+        this.ys[slot] = enemy.getY();
+        this.widths[slot] = enemy.getWidth();
+        this.heights[slot] = enemy.getHeight();
+        this.speeds[slot] = enemy.getSpeed();
+        // A yeti ignores the random direction of the base class and always sets off to the right
+        this.directions[slot] = this.types[slot] == YETI ? 1 : enemy.getDirection();
+        this.heatRadii[slot] = enemy instanceof ThermalTitan titan ? titan.getHeatRadius() : 0;
+        this.lastChanges[slot] = enemy.getLastChange();
+        this.randomStates[slot] = enemy.getRandomState();
+        this.cellIndex.add(slot, this.xs[slot], this.ys[slot], this.widths[slot], this.heights[slot]);
+    }
+
+    /**
+     * Updates every enemy in spawn order. With the parallel update switched on and enough enemies, the decisions
+     * are made in parallel first and then committed in spawn order; see {@link #setParallel(boolean)}.
+     */
+    void update() {
+        this.now = this.clock.currentTimeMillis();
+        if (this.parallel && this.size >= PARALLEL_THRESHOLD) {
+            this.updateInParallel();
+            return;
+        }
+        for (int slot = 0; slot < this.size; slot++) {
+            this.decide(slot, this.random);
+            this.commit(slot);
+        }
+    }
+
+    /**
+     * Switches the two-phase parallel update on or off.
+     * <p>
+     * In the decide phase every enemy works out its move, its new direction, timer and random state, and whether it
+     * melts ice, in parallel on a shared {@link ForkJoinPool}. The phase only reads the layout, the flow fields and
+     * the enemy's own slot and writes its own slot of the intent arrays, and nothing changes the layout while it
+     * runs, so every decision sees the grid as it was at the start of the tick.
+     * In the commit phase the intents are applied in spawn order, and the titans melt their ice. A decision that
+     * read a cell melted earlier in the same commit, or a flow field repaired because of such a melt, is stale;
+     * it is made again against the current grid before it is applied. That is exactly what the sequential update
+     * would have decided, so both updates produce the same level bit for bit.
+     *
+     * @param parallel true to decide in parallel, false to update the enemies one by one.
+     */
+    void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    private void updateInParallel() {
+        if (this.decidePass == null) {
+            this.decidePass = new DecidePass(DecidePool.POOL.getParallelism() * 4);
+        }
+        this.decidePass.reinitialize();
+        DecidePool.POOL.invoke(this.decidePass);
+
+        this.meltMark++;
+        this.meltedInCommit = false;
+        for (int slot = 0; slot < this.size; slot++) {
+            if (this.meltedInCommit && this.isStale(slot)) {
+                this.decide(slot, this.random);
+            }
+            this.commit(slot);
+        }
+    }
+
+    /**
+     * Finds an enemy overlapping the given area.
+     *
+     * @param x      The x-coordinate of the area.
+     * @param y      The y-coordinate of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @return true if an enemy overlaps the area, false otherwise.
+     */
+    boolean isAreaOccupied(int x, int y, int width, int height) {
+        return this.size > 0
+                && this.cellIndex.findOverlapping(x, y, width, height, this) != CellIndex.NONE;
+    }
+
+    @Override
+    public int getX(int slot) {
+        return this.xs[slot];
+    }
+
+    @Override
+    public int getY(int slot) {
+        return this.ys[slot];
+    }
+
+    @Override
+    public int getWidth(int slot) {
+        return this.widths[slot];
+    }
+
+    @Override
+    public int getHeight(int slot) {
+        return this.heights[slot];
+    }
+
+    /**
+     * Copies the positions of the enemies into their view objects.
+     *
+     * @param views The enemy objects, in slot order.
+     */
+    void syncViews(List<Enemy> views) {
+        for (int slot = 0; slot < this.size; slot++) {
+            Enemy view = views.get(slot);
+            view.setX(this.xs[slot]);
+            view.setY(this.ys[slot]);
+        }
+    }
+
+    /**
+     * Writes the position, direction, timer and random stream state of every enemy.
+     *
+     * @param out The buffer to write to.
+     */
+    void saveState(StateBuffer out) {
+        for (int slot = 0; slot < this.size; slot++) {
+            out.putInt(this.xs[slot]);
+            out.putInt(this.ys[slot]);
+            out.putInt(this.directions[slot]);
+            out.putLong(this.lastChanges[slot]);
+            out.putLong(this.randomStates[slot]);
+        }
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from.
+     */
+    void restoreState(StateBuffer in) {
+        for (int slot = 0; slot < this.size; slot++) {
+            this.xs[slot] = in.getInt();
+            this.ys[slot] = in.getInt();
+            this.directions[slot] = in.getInt();
+            this.lastChanges[slot] = in.getLong();
+            this.randomStates[slot] = in.getLong();
+            this.cellIndex.move(slot, this.xs[slot], this.ys[slot]);
+        }
+    }
+
+    // Works out the next state of an enemy into the intent arrays; reads the shared state, writes only the slot
+    private void decide(int slot, RandomStream random) {
+        this.nextXs[slot] = this.xs[slot];
+        this.nextYs[slot] = this.ys[slot];
+        this.nextDirections[slot] = this.directions[slot];
+        this.nextLastChanges[slot] = this.lastChanges[slot];
+        this.nextRandomStates[slot] = this.randomStates[slot];
+        this.melting[slot] = false;
+        switch (this.types[slot]) {
+            case GUARD -> this.wander(slot, false, random);
+            case GHOST, THERMAL_TITAN -> this.wander(slot, true, random);
+            case YETI -> this.patrol(slot);
+            case CHASER -> this.chase(slot, false, random);
+            default -> this.chase(slot, true, random);
+        }
+    }
+
+    // Applies the intents of an enemy
+    private void commit(int slot) {
+        this.xs[slot] = this.nextXs[slot];
+        this.ys[slot] = this.nextYs[slot];
+        this.directions[slot] = this.nextDirections[slot];
+        this.lastChanges[slot] = this.nextLastChanges[slot];
+        this.randomStates[slot] = this.nextRandomStates[slot];
+        if (this.melting[slot] && this.level.getIceManager().isPresent()) {
+            this.markIceAround(slot);
+            this.level.getIceManager().get().meltIceAround(this.xs[slot], this.ys[slot], this.heatRadii[slot]);
+        }
+        this.cellIndex.move(slot, this.xs[slot], this.ys[slot]);
+    }
+
+    // Whether a decision read ice that has melted since; enemies passing through ice only ever read the walls
+    private boolean isStale(int slot) {
+        return switch (this.types[slot]) {
+            case GUARD, YETI -> this.isMeltedUnder(slot, this.targetXs[slot], this.targetYs[slot]);
+            // The flow field may have changed anywhere
+            case CHASER -> true;
+            default -> false;
+        };
+    }
+
+    // Guard, Ghost and ThermalTitan: walk straight on, turn randomly when blocked and after a while
+    private void wander(int slot, boolean passesThroughIce, RandomStream random) {
+        int newX = this.nextXs[slot] + stepX(this.nextDirections[slot], this.speeds[slot]);
+        int newY = this.nextYs[slot] + stepY(this.nextDirections[slot], this.speeds[slot]);
+        this.targetXs[slot] = newX;
+        this.targetYs[slot] = newY;
+        if (this.canMoveTo(slot, newX, newY, passesThroughIce)) {
+            this.nextXs[slot] = newX;
+            this.nextYs[slot] = newY;
+        } else {
+            this.changeDirection(slot, random);
+        }
+        if (this.types[slot] == THERMAL_TITAN) {
+            this.melting[slot] = this.isIceAround(slot);
+        }
+        if (this.now - this.nextLastChanges[slot] > DIRECTION_INTERVALS[this.types[slot]]) {
+            this.changeDirection(slot, random);
+        }
+    }
+
+    // Yeti: walk straight on and turn clockwise when blocked
+    private void patrol(int slot) {
+        int newX = this.nextXs[slot] + stepX(this.nextDirections[slot], this.speeds[slot]);
+        int newY = this.nextYs[slot] + stepY(this.nextDirections[slot], this.speeds[slot]);
+        this.targetXs[slot] = newX;
+        this.targetYs[slot] = newY;
+        if (this.canMoveTo(slot, newX, newY, false)) {
+            this.nextXs[slot] = newX;
+            this.nextYs[slot] = newY;
+        } else {
+            this.nextDirections[slot] = (this.nextDirections[slot] + 1) % 4;
+        }
+    }
+
+    // Chaser and PhantomChaser: follow the flow field from cell to cell
+    private void chase(int slot, boolean passesThroughIce, RandomStream random) {
+        int cellWidth = this.cellWidth;
+        int cellHeight = this.cellHeight;
+        int x = this.nextXs[slot];
+        int y = this.nextYs[slot];
+        boolean onCell = x % cellWidth == 0 && y % cellHeight == 0;
+
+        if (onCell) {
+            FlowField flowField = this.manager.getFlowField(passesThroughIce);
+            int direction = flowField.getDirectionToward(x / cellWidth, y / cellHeight);
+            if (direction != FlowField.NO_DIRECTION) {
+                this.nextDirections[slot] = direction;
+            }
+        }
+
+        // A step never goes past the next cell
+        int speed = this.speeds[slot];
+        int newX = x;
+        int newY = y;
+        switch (this.nextDirections[slot]) {
+            case 0 -> newY -= Math.min(speed, y % cellHeight == 0 ? cellHeight : y % cellHeight);
+            case 1 -> newX += Math.min(speed, cellWidth - x % cellWidth);
+            case 2 -> newY += Math.min(speed, cellHeight - y % cellHeight);
+            default -> newX -= Math.min(speed, x % cellWidth == 0 ? cellWidth : x % cellWidth);
+        }
+        this.targetXs[slot] = newX;
+        this.targetYs[slot] = newY;
+
+        if (this.canMoveTo(slot, newX, newY, passesThroughIce)) {
+            this.nextXs[slot] = newX;
+            this.nextYs[slot] = newY;
+        } else if (onCell) {
+            this.changeDirection(slot, random);
+        } else {
+            this.nextDirections[slot] = (this.nextDirections[slot] + 2) % 4;
+        }
+    }
+
+    private static int stepX(int direction, int speed) {
+        return switch (direction) {
+            case 1 -> speed;
+            case 3 -> -speed;
+            default -> 0;
+        };
+    }
+
+    private static int stepY(int direction, int speed) {
+        return switch (direction) {
+            case 0 -> -speed;
+            case 2 -> speed;
+            default -> 0;
+        };
+    }
+
+    // The checks of LevelValidator, reading the layout directly
+    private boolean canMoveTo(int slot, int x, int y, boolean passesThroughIce) {
+        int left = x / this.cellWidth;
+        int top = y / this.cellHeight;
+        int right = (x + this.widths[slot] - 1) / this.cellWidth;
+        int bottom = (y + this.heights[slot] - 1) / this.cellHeight;
+        return this.isPassable(left, top, passesThroughIce) && this.isPassable(right, top, passesThroughIce)
+                && this.isPassable(left, bottom, passesThroughIce) && this.isPassable(right, bottom, passesThroughIce);
+    }
+
+    private boolean isPassable(int column, int row, boolean passesThroughIce) {
+        if (column < 0 || column >= this.columns || row < 0 || row >= this.rows) {
+            return false;
+        }
+        int value = this.layout[row][column];
+        return passesThroughIce ? value != Level.WALL : value == Level.EMPTY;
+    }
+
+    // Whether a cell read by canMoveTo at the given position has melted during the current commit
+    private boolean isMeltedUnder(int slot, int x, int y) {
+        int left = x / this.cellWidth;
+        int top = y / this.cellHeight;
+        int right = (x + this.widths[slot] - 1) / this.cellWidth;
+        int bottom = (y + this.heights[slot] - 1) / this.cellHeight;
+        return this.isMelted(left, top) || this.isMelted(right, top) || this.isMelted(left, bottom) || this.isMelted(right, bottom);
+    }
+
+    private boolean isMelted(int column, int row) {
+        if (column < 0 || column >= this.columns || row < 0 || row >= this.rows) {
+            return false;
+        }
+        return this.meltMarks[row * this.columns + column] == this.meltMark;
+    }
+
+    // Whether the heat aura of a thermal titan reaches any ice, scanning the same cells as IceBlockManager.meltIceAround
+    private boolean isIceAround(int slot) {
+        int column = this.nextXs[slot] / this.cellWidth;
+        int row = this.nextYs[slot] / this.cellHeight;
+        int radius = this.heatRadii[slot];
+        int maxColumn = Math.min(this.columns, column + radius + 1);
+        int maxRow = Math.min(this.rows, row + radius + 1);
+        for (int y = Math.max(0, row - radius); y < maxRow; y++) {
+            int[] cells = this.layout[y];
+            for (int x = Math.max(0, column - radius); x < maxColumn; x++) {
+                if (cells[x] == Level.ICE_BLOCK) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Marks the ice a titan is about to melt, which is all the ice in the cells of its aura
+    private void markIceAround(int slot) {
+        int column = this.xs[slot] / this.cellWidth;
+        int row = this.ys[slot] / this.cellHeight;
+        int radius = this.heatRadii[slot];
+        int maxColumn = Math.min(this.columns, column + radius + 1);
+        int maxRow = Math.min(this.rows, row + radius + 1);
+        for (int y = Math.max(0, row - radius); y < maxRow; y++) {
+            for (int x = Math.max(0, column - radius); x < maxColumn; x++) {
+                if (this.layout[y][x] == Level.ICE_BLOCK) {
+                    this.meltMarks[y * this.columns + x] = this.meltMark;
+                    this.meltedInCommit = true;
+                }
+            }
+        }
+    }
+
+    private void changeDirection(int slot, RandomStream random) {
+        random.setState(this.nextRandomStates[slot]);
+        this.nextDirections[slot] = random.nextInt(4);
+        this.nextRandomStates[slot] = random.getState();
+        this.nextLastChanges[slot] = this.now;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.types.length) {
+            return;
+        }
+        int length = Math.max(capacity, this.types.length * 2);
+        this.types = Arrays.copyOf(this.types, length);
+        this.xs = Arrays.copyOf(this.xs, length);
+        this.ys = Arrays.copyOf(this.ys, length);
+        this.widths = Arrays.copyOf(this.widths, length);
+        this.heights = Arrays.copyOf(this.heights, length);
+        this.speeds = Arrays.copyOf(this.speeds, length);
+        this.directions = Arrays.copyOf(this.directions, length);
+        this.heatRadii = Arrays.copyOf(this.heatRadii, length);
+        this.lastChanges = Arrays.copyOf(this.lastChanges, length);
+        this.randomStates = Arrays.copyOf(this.randomStates, length);
+        this.nextXs = Arrays.copyOf(this.nextXs, length);
+        this.nextYs = Arrays.copyOf(this.nextYs, length);
+        this.nextDirections = Arrays.copyOf(this.nextDirections, length);
+        this.nextLastChanges = Arrays.copyOf(this.nextLastChanges, length);
+        this.nextRandomStates = Arrays.copyOf(this.nextRandomStates, length);
+        this.melting = Arrays.copyOf(this.melting, length);
+        this.targetXs = Arrays.copyOf(this.targetXs, length);
+        this.targetYs = Arrays.copyOf(this.targetYs, length);
+        this.cellIndex.ensureCapacity(length);
+    }
+
+    private static byte typeOf(Enemy enemy) {
+        // The subclass is tested before the class it extends
+        if (enemy instanceof PhantomChaser) {
+            return PHANTOM_CHASER;
+        }
+        if (enemy instanceof Chaser) {
+            return CHASER;
+        }
+        if (enemy instanceof Guard) {
+            return GUARD;
+        }
+        if (enemy instanceof Yeti) {
+            return YETI;
+        }
+        if (enemy instanceof Ghost) {
+            return GHOST;
+        }
+        if (enemy instanceof ThermalTitan) {
+            return THERMAL_TITAN;
+        }
+        throw new IllegalArgumentException("Unknown enemy type");
+    }
+
+    /**
+     * The decide phase of one tick: splits the slots into chunks and decides them in parallel.
+     * The pass and its chunks are reused from tick to tick, each chunk with a random stream of its own.
+     */
+    private final class DecidePass extends RecursiveAction {
+        private final DecideChunk[] chunks;
+
+        private DecidePass(int chunkCount) {
+            this.chunks = new DecideChunk[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                this.chunks[i] = new DecideChunk();
+            }
+        }
+
+        @Override
+        protected void compute() {
+            int size = EnemyTable.this.size;
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, (size + this.chunks.length - 1) / this.chunks.length);
+            int chunkCount = (size + chunkSize - 1) / chunkSize;
+            for (int i = 0; i < chunkCount; i++) {
+                DecideChunk chunk = this.chunks[i];
+                chunk.reinitialize();
+                chunk.from = i * chunkSize;
+                chunk.to = Math.min(size, chunk.from + chunkSize);
+                chunk.fork();
+            }
+            for (int i = chunkCount - 1; i >= 0; i--) {
+                this.chunks[i].join();
+            }
+        }
+    }
+
+    /**
+     * Decides a range of slots.
+     */
+    private final class DecideChunk extends RecursiveAction {
+        private final RandomStream random = new RandomStream(0);
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            for (int slot = this.from; slot < this.to; slot++) {
+                EnemyTable.this.decide(slot, this.random);
+            }
+        }
+    }
+
+    /**
+     * Holds the pool of the decide phase, which is shared by all levels and only started when first needed.
+     */
+    private static final class DecidePool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("BadIceCream-EnemyDecide-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+}
@@ -7,23 +7,41 @@ import main.entities.fruits.Lemon;
 import main.entities.fruits.Grapes;
 import main.entities.fruits.Orange;
 import main.entities.fruits.Watermelon;
+import main.geometry.Bounds;
+import main.geometry.Position;
+import main.levels.CellIndex;
+import main.levels.EntityStorage;
+import main.levels.FreeCellIndex;
 import main.levels.Level;
+import main.levels.OccupancyGrid;
 import main.levels.Pair;
+import main.simulation.RandomStream;
+import main.simulation.StateBuffer;
 
-import java.awt.Graphics;
-import java.awt.Rectangle;
 import java.util.ArrayList;
-import java.util.Random;
 import java.util.List;
 /**
  * The FruitManager class manages the fruits in a level.
+ * Fruits are indexed in an {@link OccupancyGrid}, so collecting them only looks at the cells around the player.
+ * New fruits are placed on a cell drawn from the level's {@link FreeCellIndex}. When every empty cell is under the
+ * player or the board is frozen solid, the fruit is deferred and placed as soon as a cell becomes free; the level is
+ * not complete while fruits are deferred.
+ * With the {@link EntityStorage#ARRAYS} storage the fruits are collected from a {@link FruitTable} instead of the grid.
  */
 public class FruitManager {
+    // The fruit types by the code they are saved with
+    private static final List<Class<? extends Fruit>> FRUIT_TYPES = List.of(Grapes.class, Banana.class, Lemon.class,
+            Orange.class, Watermelon.class);
     private final Level level;
+    private final RandomStream random;
     private final List<Fruit> fruits;
+    private final OccupancyGrid occupancy;
+    private final List<OccupancyGrid.Occupant> occupants;
+    private final FruitTable table;
     private final List<Pair<Class<? extends Fruit>, Integer>> fruits2;
     private Pair<Class<? extends Fruit>, Integer> currentFruitPair;
     private int numRemainingFruits;
+    private int numDeferredFruits;
 
     /**
      * Constructs a new FruitManager object with the specified level and initial fruit configurations.
@@ -33,8 +51,13 @@ public class FruitManager {
      */
     public FruitManager(Level level, List<Pair<Class<? extends Fruit>, Integer>> fruits) {
         this.level = level;
+        this.random = level.nextRandomStream();
         this.fruits2 = fruits;
         this.fruits = new ArrayList<>();
+        int[][] layout = level.getLevelLayout().layout();
+        this.occupancy = new OccupancyGrid(layout[0].length, layout.length, level.getCellWidth(), level.getCellHeight());
+        this.occupants = new ArrayList<>();
+        this.table = level.getEntityStorage() == EntityStorage.ARRAYS ? new FruitTable(level) : null;
         this.moveToNextFruitType();
         this.spawnFruitsOfType();
     }
@@ -44,7 +67,9 @@ public class FruitManager {
      */
     public void spawnFruitsOfType() {
         while (this.numRemainingFruits > 0) {
-            this.spawnFruitAtRandomLocation(this.currentFruitPair.getKey());
+            if (!this.spawnFruitAtRandomLocation(this.currentFruitPair.getKey())) {
+                this.numDeferredFruits++;
+            }
             this.numRemainingFruits--;
         }
     }
@@ -53,11 +78,13 @@ public class FruitManager {
      * Spawns a fruit at a random location in the level.
      */
     public void spawnFruit() {
-        if (!this.fruits.isEmpty()) {
+        if (!this.fruits.isEmpty() || this.numDeferredFruits > 0) {
             return;
         }
         if (this.numRemainingFruits > 0) {
-            this.spawnFruitAtRandomLocation(this.currentFruitPair.getKey());
+            if (!this.spawnFruitAtRandomLocation(this.currentFruitPair.getKey())) {
+                this.numDeferredFruits++;
+            }
             this.numRemainingFruits--;
         } else if (!this.fruits2.isEmpty()) {
             this.moveToNextFruitType();
@@ -84,70 +111,127 @@ public class FruitManager {
      * @param player The player object.
      */
     public void checkFruitCollection(Player player) {
-        List<Fruit> collectedFruits = new ArrayList<>();
-
-        for (Fruit fruit : this.fruits) {
-            if (fruit.getBounds().intersects(player.getBounds())) {
-                collectedFruits.add(fruit);
+        if (this.table != null) {
+            int slot;
+            while ((slot = this.table.findOverlapping(player.getX(), player.getY(), player.getWidth(), player.getHeight())) != CellIndex.NONE) {
+                player.addPoints(this.table.getPointValue(slot));
+                this.table.remove(slot, this.fruits);
+            }
+        } else {
+            OccupancyGrid.Occupant occupant;
+            while ((occupant = this.occupancy.findOverlapping(player.getX(), player.getY(), player.getWidth(), player.getHeight())) != null) {
+                Fruit fruit = (Fruit) occupant.getElement();
                 player.addPoints(fruit.getPointValue());
+                this.occupancy.remove(occupant);
+                this.removeAt(occupant.getIndex());
             }
         }
 
-        this.fruits.removeAll(collectedFruits);
-
-        if (this.fruits.isEmpty() && !this.fruits2.isEmpty()) {
+        if (this.fruits.isEmpty() && this.numDeferredFruits == 0 && !this.fruits2.isEmpty()) {
             this.spawnFruit();
         }
     }
 
     /**
-     * Spawns a fruit of the specified type at a random location in the level.
+     * Spawns a fruit of the specified type on a random empty cell of the level that the player does not cover.
      *
      * @param fruitType The class representing the type of the fruit.
+     * @return true if the fruit was spawned, false if no cell was available.
      */
-    private void spawnFruitAtRandomLocation(Class<? extends Fruit> fruitType) {
-        Random rand = new Random();
-        int x;
-        int y;
+    private boolean spawnFruitAtRandomLocation(Class<? extends Fruit> fruitType) {
+        FreeCellIndex freeCells = this.level.getIceManager().orElseThrow().getIceBlockManager().getFreeCells();
+        int cellWidth = this.level.getCellWidth();
+        int cellHeight = this.level.getCellHeight();
 
-        Rectangle playerBounds = null;
-        Player player = this.level.getPlayer();
-        if (player != null) {
-            playerBounds = player.getBounds();
+        // The cells overlapped by the player, or an empty range if there is no player
+        Bounds playerBounds = this.computePlayerBounds();
+        int cell;
+        if (playerBounds == null || playerBounds.width() <= 0 || playerBounds.height() <= 0) {
+            cell = freeCells.sampleExcluding(this.random, 0, 0, -1, -1);
+        } else {
+            cell = freeCells.sampleExcluding(this.random,
+                    Math.floorDiv(playerBounds.x(), cellWidth), Math.floorDiv(playerBounds.y(), cellHeight),
+                    Math.floorDiv(playerBounds.x() + playerBounds.width() - 1, cellWidth),
+                    Math.floorDiv(playerBounds.y() + playerBounds.height() - 1, cellHeight));
         }
+        if (cell < 0) {
+            return false;
+        }
+        int x = cell % freeCells.getColumns();
+        int y = cell / freeCells.getColumns();
+        this.addFruit(this.createFruit(fruitType, x * cellWidth, y * cellHeight));
+        return true;
+    }
 
-        Rectangle fruitBounds;
-
-        do {
-            x = rand.nextInt(this.level.getLevelLayout().layout()[0].length);
-            y = rand.nextInt(this.level.getLevelLayout().layout().length);
-
-            fruitBounds = new Rectangle(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight());
-
-        } while (this.level.getLevelLayout().layout()[y][x] != Level.EMPTY || (playerBounds != null && playerBounds.intersects(fruitBounds)));
-
-        Fruit fruit;
+    private Fruit createFruit(Class<? extends Fruit> fruitType, int x, int y) {
         if (fruitType == Grapes.class) {
-            fruit = new Grapes(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight(), this.level.getSpriteSheet());
+            return new Grapes(x, y, this.level.getCellWidth(), this.level.getCellHeight());
         } else if (fruitType == Banana.class) {
-            fruit = new Banana(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight(), this.level.getSpriteSheet());
+            return new Banana(x, y, this.level.getCellWidth(), this.level.getCellHeight());
         } else if (fruitType == Lemon.class) {
-            fruit = new Lemon(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight(), this.level.getSpriteSheet());
+            return new Lemon(x, y, this.level.getCellWidth(), this.level.getCellHeight());
         } else if (fruitType == Orange.class) {
-            fruit = new Orange(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight(), this.level.getSpriteSheet());
+            return new Orange(x, y, this.level.getCellWidth(), this.level.getCellHeight());
         } else if (fruitType == Watermelon.class) {
-            fruit = new Watermelon(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight(), this.level.getSpriteSheet());
+            return new Watermelon(x, y, this.level.getCellWidth(), this.level.getCellHeight());
         } else {
             throw new RuntimeException("Unknown fruit type");
         }
+    }
 
+    private void addFruit(Fruit fruit) {
         this.fruits.add(fruit);
+        if (this.table != null) {
+            this.table.add(fruit);
+        } else {
+            OccupancyGrid.Occupant occupant = this.occupancy.add(fruit);
+            occupant.setIndex(this.occupants.size());
+            this.occupants.add(occupant);
+        }
+    }
+
+    // Removes a fruit of the object storage by moving the last fruit into its place, like FruitTable#remove
+    private void removeAt(int index) {
+        int last = this.fruits.size() - 1;
+        if (index != last) {
+            OccupancyGrid.Occupant moved = this.occupants.get(last);
+            moved.setIndex(index);
+            this.occupants.set(index, moved);
+            this.fruits.set(index, this.fruits.get(last));
+        }
+        this.occupants.remove(last);
+        this.fruits.remove(last);
+    }
+
+    private void removeAllFruits() {
+        if (this.table != null) {
+            this.table.clear();
+        } else {
+            for (int i = 0; i < this.occupants.size(); i++) {
+                this.occupancy.remove(this.occupants.get(i));
+            }
+            this.occupants.clear();
+        }
+        this.fruits.clear();
+    }
+
+    /**
+     * Computes the area that must stay free of fruits because the player occupies it.
+     * While the level is still being prepared the player has not entered it yet, so its starting cell is kept free.
+     *
+     * @return The player's area, or null if there is no player.
+     */
+    private Bounds computePlayerBounds() {
+        Player player = this.level.getPlayer();
+        if (player == null) {
+            return null;
+        }
+        if (player.getLevel() != this.level) {
+            Position start = this.level.getConfig().getPlayerStartingPosition();
+            return new Bounds(start.x() * this.level.getCellWidth(), start.y() * this.level.getCellHeight(),
+                    this.level.getCellWidth(), this.level.getCellHeight());
+        }
+        return player.getBounds();
     }
 
     /**
@@ -156,26 +240,95 @@ public class FruitManager {
      * @return True if all fruits have been collected, false otherwise.
      */
     public boolean allFruitsCollected() {
-        return this.fruits.isEmpty();
+        return this.fruits.isEmpty() && this.numDeferredFruits == 0;
+    }
+
+    /**
+     * Returns the list of fruits currently present in the level.
+     *
+     * @return The list of fruits.
+     */
+    public List<Fruit> getFruits() {
+        return this.fruits;
+    }
+
+    /**
+     * Returns the number of fruits waiting for a free cell.
+     *
+     * @return The number of deferred fruits.
+     */
+    public int getDeferredFruitCount() {
+        return this.numDeferredFruits;
+    }
+
+    /**
+     * Writes the fruits on the board, the fruits still to come and the random stream placing them,
+     * e.g. for a replay keyframe.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putLong(this.random.getState());
+        out.putInt(this.fruits2.size());
+        for (int i = 0; i < this.fruits2.size(); i++) {
+            out.putInt(FRUIT_TYPES.indexOf(this.fruits2.get(i).getKey()));
+            out.putInt(this.fruits2.get(i).getValue());
+        }
+        out.putInt(this.currentFruitPair == null ? -1 : FRUIT_TYPES.indexOf(this.currentFruitPair.getKey()));
+        out.putInt(this.currentFruitPair == null ? 0 : this.currentFruitPair.getValue());
+        out.putInt(this.numRemainingFruits);
+        out.putInt(this.numDeferredFruits);
+        out.putInt(this.fruits.size());
+        for (int i = 0; i < this.fruits.size(); i++) {
+            Fruit fruit = this.fruits.get(i);
+            out.putInt(FRUIT_TYPES.indexOf(fruit.getClass()));
+            out.putInt(fruit.getX());
+            out.putInt(fruit.getY());
+        }
     }
 
     /**
-     * Renders all the fruits.
+     * Reads back the state written by {@link #saveState(StateBuffer)}. The fruits on the board are replaced by new ones.
      *
-     * @param g The Graphics object to render with.
+     * @param in The buffer to read from.
      */
-    public void render(Graphics g) {
-        for (Fruit fruit : this.fruits) {
-            fruit.render(g);
+    public void restoreState(StateBuffer in) {
+        this.random.setState(in.getLong());
+        this.fruits2.clear();
+        int waves = in.getInt();
+        for (int i = 0; i < waves; i++) {
+            Class<? extends Fruit> fruitType = FRUIT_TYPES.get(in.getInt());
+            this.fruits2.add(new Pair<>(fruitType, in.getInt()));
+        }
+        int currentType = in.getInt();
+        int currentCount = in.getInt();
+        this.currentFruitPair = currentType < 0 ? null : new Pair<>(FRUIT_TYPES.get(currentType), currentCount);
+        this.numRemainingFruits = in.getInt();
+        this.numDeferredFruits = in.getInt();
+
+        this.removeAllFruits();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            Class<? extends Fruit> fruitType = FRUIT_TYPES.get(in.getInt());
+            int x = in.getInt();
+            int y = in.getInt();
+            this.addFruit(this.createFruit(fruitType, x, y));
         }
     }
 
     /**
-     * Updates the state of all the fruits.
+     * Places the deferred fruits that fit on the board and updates the state of all the fruits.
      */
     public void update() {
-        for (Fruit fruit : this.fruits) {
-            fruit.update();
+        while (this.numDeferredFruits > 0 && this.spawnFruitAtRandomLocation(this.currentFruitPair.getKey())) {
+            this.numDeferredFruits--;
+        }
+        if (this.table != null) {
+            // Fruits in the table have no behaviour to run
+            return;
+        }
+        for (int i = 0; i < this.fruits.size(); i++) {
+            this.fruits.get(i).update();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package main.levels.managers;
+
+import main.entities.fruits.Fruit;
+import main.levels.CellIndex;
+import main.levels.Level;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The FruitTable class holds the fruits of a level as a struct of arrays: the position, size and point value of the
+ * fruit in slot {@code i} are the {@code i}-th elements of parallel primitive arrays.
+ * Fruits have no behaviour of their own, so the table is only ever queried; a collected fruit is removed by moving
+ * the last fruit into its slot. The fruit objects are kept in the same order as views for the renderers.
+ */
+final class FruitTable implements CellIndex.SlotBounds {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final CellIndex cellIndex;
+    private int size;
+    private int[] xs;
+    private int[] ys;
+    private int[] widths;
+    private int[] heights;
+    private int[] pointValues;
+
+    /**
+     * Constructs an empty FruitTable.
+     *
+     * @param level The level of the fruits.
+     */
+    FruitTable(Level level) {
+        int[][] layout = level.getLevelLayout().layout();
+        this.cellIndex = new CellIndex(layout[0].length, layout.length, level.getCellWidth(), level.getCellHeight(), INITIAL_CAPACITY);
+        this.xs = new int[INITIAL_CAPACITY];
+        this.ys = new int[INITIAL_CAPACITY];
+        this.widths = new int[INITIAL_CAPACITY];
+        this.heights = new int[INITIAL_CAPACITY];
+        this.pointValues = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Copies a freshly spawned fruit into the next slot of the table.
+     *
+     * @param fruit The fruit.
+     */
+    void add(Fruit fruit) {
+        this.ensureCapacity(this.size + 1);
+        int slot = this.size++;
+        this.xs[slot] = fruit.getX();
+        this.ys[slot] = fruit.getY();
+        this.widths[slot] = fruit.getWidth();
+        this.heights[slot] = fruit.getHeight();
+        this.pointValues[slot] = fruit.getPointValue();
+        this.cellIndex.add(slot, this.xs[slot], this.ys[slot], this.widths[slot], this.heights[slot]);
+    }
+
+    /**
+     * Finds a fruit overlapping the given area.
+     *
+     * @param x      The x-coordinate of the area.
+     * @param y      The y-coordinate of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     * @return The slot of an overlapping fruit, or {@link CellIndex#NONE} if the area is free.
+     */
+    int findOverlapping(int x, int y, int width, int height) {
+        if (this.size == 0) {
+            return CellIndex.NONE;
+        }
+        return this.cellIndex.findOverlapping(x, y, width, height, this);
+    }
+
+    /**
+     * Returns the point value of the fruit in the given slot.
+     *
+     * @param slot The slot of the fruit.
+     * @return The point value.
+     */
+    int getPointValue(int slot) {
+        return this.pointValues[slot];
+    }
+
+    @Override
+    public int getX(int slot) {
+        return this.xs[slot];
+    }
+
+    @Override
+    public int getY(int slot) {
+        return this.ys[slot];
+    }
+
+    @Override
+    public int getWidth(int slot) {
+        return this.widths[slot];
+    }
+
+    @Override
+    public int getHeight(int slot) {
+        return this.heights[slot];
+    }
+
+    /**
+     * Removes the fruit in the given slot, moving the last fruit into it, and does the same with the views.
+     *
+     * @param slot  The slot of the fruit.
+     * @param views The fruit objects, in slot order.
+     */
+    void remove(int slot, List<Fruit> views) {
+        int last = --this.size;
+        this.cellIndex.remove(slot);
+        if (slot != last) {
+            this.xs[slot] = this.xs[last];
+            this.ys[slot] = this.ys[last];
+            this.widths[slot] = this.widths[last];
+            this.heights[slot] = this.heights[last];
+            this.pointValues[slot] = this.pointValues[last];
+            this.cellIndex.relocate(last, slot);
+            views.set(slot, views.get(last));
+        }
+        views.remove(last);
+    }
+
+    /**
+     * Removes every fruit.
+     */
+    void clear() {
+        this.size = 0;
+        this.cellIndex.clear();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.xs.length) {
+            return;
+        }
+        int length = Math.max(capacity, this.xs.length * 2);
+        this.xs = Arrays.copyOf(this.xs, length);
+        this.ys = Arrays.copyOf(this.ys, length);
+        this.widths = Arrays.copyOf(this.widths, length);
+        this.heights = Arrays.copyOf(this.heights, length);
+        this.pointValues = Arrays.copyOf(this.pointValues, length);
+        this.cellIndex.ensureCapacity(length);
+    }
+}
@@ -1,16 +1,22 @@
 package main.levels.managers;
 
 import main.entities.other.Direction;
-import main.entities.other.IceBlock;
+import main.levels.FreeCellIndex;
 import main.levels.Level;
+import main.simulation.StateBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
 
-import java.awt.Graphics;
 /**
  * The IceBlockManager class manages the ice blocks in a level.
+ * The ice is stored only in the cells of the level layout, so freezing and melting a cell is a single array write.
+ * The empty cells are kept in a {@link FreeCellIndex} that is updated with every freeze and melt.
  */
 public class IceBlockManager {
     private final Level level;
-    private IceBlock[][] iceBlocks;
+    private final List<IceChangeListener> iceChangeListeners;
+    private final FreeCellIndex freeCells;
 
     /**
      * Constructs a new IceBlockManager object with the specified level.
@@ -19,7 +25,35 @@ public class IceBlockManager {
      */
     public IceBlockManager(Level level) {
         this.level = level;
-        this.iceBlocks = level.getIceBlocks();
+        this.iceChangeListeners = new ArrayList<>();
+        this.freeCells = new FreeCellIndex(level.getLevelLayout().layout());
+    }
+
+    /**
+     * Returns the index of the empty cells of the level.
+     *
+     * @return The free cell index.
+     */
+    public FreeCellIndex getFreeCells() {
+        return this.freeCells;
+    }
+
+    /**
+     * Registers a listener notified whenever a cell freezes or melts.
+     *
+     * @param listener The listener to add.
+     */
+    public void addIceChangeListener(IceChangeListener listener) {
+        this.iceChangeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addIceChangeListener(IceChangeListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeIceChangeListener(IceChangeListener listener) {
+        this.iceChangeListeners.remove(listener);
     }
 
     /**
@@ -43,13 +77,18 @@ public class IceBlockManager {
         }
 
         // Create or remove the ice block based on the 'create' parameter
-        if (create) {
-            this.level.getLevelLayout().layout()[y][x] = Level.ICE_BLOCK;
-            this.iceBlocks[y][x] = new IceBlock(x * this.level.getCellWidth(), y * this.level.getCellHeight(),
-                    this.level.getCellWidth(), this.level.getCellHeight());
-        } else {
-            this.level.getLevelLayout().layout()[y][x] = Level.EMPTY;
-            this.iceBlocks[y][x] = null;
+        int previous = this.level.getLevelLayout().layout()[y][x];
+        int updated = create ? Level.ICE_BLOCK : Level.EMPTY;
+        this.level.getLevelLayout().layout()[y][x] = updated;
+        if (previous != updated) {
+            if (create) {
+                this.freeCells.remove(x, y);
+            } else {
+                this.freeCells.add(x, y);
+            }
+            for (int i = 0; i < this.iceChangeListeners.size(); i++) {
+                this.iceChangeListeners.get(i).onIceChanged(x, y, create);
+            }
         }
     }
 
@@ -163,12 +202,41 @@ public class IceBlockManager {
     }
 
     /**
-     * Returns the array of ice blocks.
+     * Writes the cells of the level layout and the order of the free cells, e.g. for a replay keyframe.
      *
-     * @return The ice block array.
+     * @param out The buffer to write to.
      */
-    public IceBlock[][] getIceBlocks() {
-        return this.iceBlocks;
+    public void saveState(StateBuffer out) {
+        int[][] layout = this.level.getLevelLayout().layout();
+        for (int[] row : layout) {
+            for (int cell : row) {
+                out.putByte(cell);
+            }
+        }
+        this.freeCells.saveState(out);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}. The layout is updated in place and the
+     * listeners are told about every cell that froze or melted, so the flow fields and renderers catch up.
+     *
+     * @param in The buffer to read from.
+     */
+    public void restoreState(StateBuffer in) {
+        int[][] layout = this.level.getLevelLayout().layout();
+        for (int y = 0; y < layout.length; y++) {
+            for (int x = 0; x < layout[y].length; x++) {
+                int previous = layout[y][x];
+                int restored = in.getByte();
+                layout[y][x] = restored;
+                if (previous != restored) {
+                    for (int i = 0; i < this.iceChangeListeners.size(); i++) {
+                        this.iceChangeListeners.get(i).onIceChanged(x, y, restored == Level.ICE_BLOCK);
+                    }
+                }
+            }
+        }
+        this.freeCells.restoreState(in);
     }
 
     /**
@@ -179,6 +247,7 @@ public class IceBlockManager {
      * @param heatRadius The heat radius.
      */
     public void meltIceAround(int x, int y, int heatRadius) {
+        int[][] layout = this.level.getLevelLayout().layout();
         int cellWidth = this.level.getCellWidth();
         int cellHeight = this.level.getCellHeight();
 
@@ -188,50 +257,17 @@ public class IceBlockManager {
 
         // Determine the range of indices
         int minX = Math.max(0, cellX - heatRadius);
-        int maxX = Math.min(this.iceBlocks[0].length, cellX + heatRadius + 1);
+        int maxX = Math.min(layout[0].length, cellX + heatRadius + 1);
         int minY = Math.max(0, cellY - heatRadius);
-        int maxY = Math.min(this.iceBlocks.length, cellY + heatRadius + 1);
+        int maxY = Math.min(layout.length, cellY + heatRadius + 1);
 
         // Melt the ice in the specified radius
         for (int i = minY; i < maxY; i++) {
             for (int j = minX; j < maxX; j++) {
-                if (this.iceBlocks[i][j] != null) {
+                if (layout[i][j] == Level.ICE_BLOCK) {
                     this.interactWithIceBlock(j, i, false);
                 }
             }
         }
     }
-
-    /**
-     * Initializes the ice blocks based on the level layout.
-     */
-    public void initializeIceBlocks() {
-        this.iceBlocks = new IceBlock[this.level.getLevelLayout().layout().length][this.level.getLevelLayout().layout()[0].length];
-
-        for (int y = 0; y < this.level.getLevelLayout().layout().length; y++) {
-            for (int x = 0; x < this.level.getLevelLayout().layout()[y].length; x++) {
-                if (this.level.getLevelLayout().layout()[y][x] == Level.ICE_BLOCK) {
-                    int iceBlockX = x * this.level.getCellWidth();
-                    int iceBlockY = y * this.level.getCellHeight();
-
-                    this.iceBlocks[y][x] = new IceBlock(iceBlockX, iceBlockY, this.level.getCellWidth(), this.level.getCellHeight());
-                }
-            }
-        }
-    }
-
-    /**
-     * Renders the ice blocks.
-     *
-     * @param g The graphics object.
-     */
-    public void render(Graphics g) {
-        for (int y = 0; y < this.level.getLevelLayout().layout().length; y++) {
-            for (int x = 0; x < this.level.getLevelLayout().layout()[0].length; x++) {
-                if (this.level.getLevelLayout().layout()[y][x] == Level.ICE_BLOCK) {
-                    this.iceBlocks[y][x].render(g);
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package main.levels.managers;
 
 import main.entities.other.Direction;
 import main.levels.Level;
+import main.simulation.StateBuffer;
 
 /**
  * The IceBreaker class represents a player's ability to break ice blocks in the game.
@@ -13,7 +14,7 @@ public class IceBreaker {
     private Direction breakDirection;
     private int breakX;
     private int breakY;
-    private static final long ICE_BREAK_INTERVAL = 75; // Time in milliseconds
+    private static final long ICE_BREAK_INTERVAL = 75; // Time in milliseconds of simulation time
     private long lastBreakTime = 0;
 
     /**
@@ -39,7 +40,7 @@ public class IceBreaker {
         this.breakDirection = direction;
         this.breakX = x;
         this.breakY = y;
-        this.lastBreakTime = System.currentTimeMillis();
+        this.lastBreakTime = this.level.getClock().currentTimeMillis();
     }
 
     private void interactWithIceBlock(int x, int y) {
@@ -57,7 +58,7 @@ public class IceBreaker {
      * Updates the icebreaker.
      */
     public void update() {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = this.level.getClock().currentTimeMillis();
 
         if (this.breakingIce) {
             if (currentTime - this.lastBreakTime >= ICE_BREAK_INTERVAL) {
@@ -75,6 +76,33 @@ public class IceBreaker {
         }
     }
 
+    /**
+     * Writes the state of the ice being broken, e.g. for a replay keyframe.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putBoolean(this.breakingIce);
+        out.putInt(this.breakDirection == null ? -1 : this.breakDirection.ordinal());
+        out.putInt(this.breakX);
+        out.putInt(this.breakY);
+        out.putLong(this.lastBreakTime);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from.
+     */
+    public void restoreState(StateBuffer in) {
+        this.breakingIce = in.getBoolean();
+        int direction = in.getInt();
+        this.breakDirection = direction < 0 ? null : Direction.values()[direction];
+        this.breakX = in.getInt();
+        this.breakY = in.getInt();
+        this.lastBreakTime = in.getLong();
+    }
+
     private boolean isOutOfBounds(int x, int y) {
         return x < 0 || x >= this.level.getLevelLayout().layout()[0].length || y < 0 || y >= this.level.getLevelLayout().layout().length;
     }
@@ -0,0 +1,17 @@
+package main.levels.managers;
+
+/**
+ * The IceChangeListener interface is notified whenever a cell of the level freezes or melts.
+ * Listeners are called on the simulation thread, in the middle of a tick.
+ */
+@FunctionalInterface
+public interface IceChangeListener {
+    /**
+     * Called after the cell at the given coordinates changed.
+     *
+     * @param x      The x-coordinate of the cell.
+     * @param y      The y-coordinate of the cell.
+     * @param frozen true if the cell now holds ice, false if it was cleared.
+     */
+    void onIceChanged(int x, int y, boolean frozen);
+}
@@ -2,6 +2,7 @@ package main.levels.managers;
 
 import main.entities.other.Direction;
 import main.levels.Level;
+import main.simulation.StateBuffer;
 
 /**
  * The IceGenerator class represents a player's ability to generate new ice blocks in the game.
@@ -12,7 +13,7 @@ public class IceGenerator {
     private Direction generationDirection;
     private int generationX;
     private int generationY;
-    private static final long ICE_GENERATION_INTERVAL = 75; // Time in milliseconds
+    private static final long ICE_GENERATION_INTERVAL = 75; // Time in milliseconds of simulation time
     private long lastGenerationTime = 0;
     private boolean generatingIce = false;
 
@@ -43,7 +44,7 @@ public class IceGenerator {
         this.generationDirection = direction;
         this.generationX = x;
         this.generationY = y;
-        this.lastGenerationTime = System.currentTimeMillis();
+        this.lastGenerationTime = this.level.getClock().currentTimeMillis();
 
         if (this.iceBlockManager.isWallOrIceBlockOrEnemyAhead(this.generationX, this.generationY, this.generationDirection)) {
             this.stopGeneratingIce();
@@ -54,7 +55,7 @@ public class IceGenerator {
      * Updates the ice generator.
      */
     public void update() {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = this.level.getClock().currentTimeMillis();
 
         if (this.generatingIce) {
             if (currentTime - this.lastGenerationTime >= ICE_GENERATION_INTERVAL) {
@@ -83,6 +84,33 @@ public class IceGenerator {
         this.generatingIce = false;
     }
 
+    /**
+     * Writes the state of the ice being generated, e.g. for a replay keyframe.
+     *
+     * @param out The buffer to write to.
+     */
+    public void saveState(StateBuffer out) {
+        out.putBoolean(this.generatingIce);
+        out.putInt(this.generationDirection == null ? -1 : this.generationDirection.ordinal());
+        out.putInt(this.generationX);
+        out.putInt(this.generationY);
+        out.putLong(this.lastGenerationTime);
+    }
+
+    /**
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from.
+     */
+    public void restoreState(StateBuffer in) {
+        this.generatingIce = in.getBoolean();
+        int direction = in.getInt();
+        this.generationDirection = direction < 0 ? null : Direction.values()[direction];
+        this.generationX = in.getInt();
+        this.generationY = in.getInt();
+        this.lastGenerationTime = in.getLong();
+    }
+
     private void stopIfCollidedWithEnemy() {
         if (this.level.getEnemyManager().isPresent()) {
             for (int i = 0; i <= 2; i++) { // check current and next two cells
@@ -2,8 +2,7 @@ package main.levels.managers;
 
 import main.entities.other.Direction;
 import main.levels.Level;
-
-import java.awt.Graphics;
+import main.simulation.StateBuffer;
 
 /**
  * The IceManager class manages the ice blocks in the game, including their generation, breaking, and melting.
@@ -55,30 +54,36 @@ public class IceManager {
     }
 
     /**
-     * Initializes the ice blocks at the beginning of the game.
+     * Melts the ice blocks around the specified coordinates within the given heat radius.
+     *
+     * @param x          The x-coordinate.
+     * @param y          The y-coordinate.
+     * @param heatRadius The radius within which the ice blocks should be melted.
      */
-    public void initializeIceBlocks() {
-        this.iceBlockManager.initializeIceBlocks();
+    public void meltIceAround(int x, int y, int heatRadius) {
+        this.iceBlockManager.meltIceAround(x, y, heatRadius);
     }
 
     /**
-     * Renders the ice blocks on the graphics context.
+     * Writes the ice of the level and the state of the ice being generated and broken.
      *
-     * @param g The graphics context.
+     * @param out The buffer to write to.
      */
-    public void render(Graphics g) {
-        this.iceBlockManager.render(g);
+    public void saveState(StateBuffer out) {
+        this.iceBlockManager.saveState(out);
+        this.iceGenerator.saveState(out);
+        this.iceBreaker.saveState(out);
     }
 
     /**
-     * Melts the ice blocks around the specified coordinates within the given heat radius.
+     * Reads back the state written by {@link #saveState(StateBuffer)}.
      *
-     * @param x          The x-coordinate.
-     * @param y          The y-coordinate.
-     * @param heatRadius The radius within which the ice blocks should be melted.
+     * @param in The buffer to read from.
      */
-    public void meltIceAround(int x, int y, int heatRadius) {
-        this.iceBlockManager.meltIceAround(x, y, heatRadius);
+    public void restoreState(StateBuffer in) {
+        this.iceBlockManager.restoreState(in);
+        this.iceGenerator.restoreState(in);
+        this.iceBreaker.restoreState(in);
     }
 
     /**
@@ -1,54 +1,112 @@
 package main.levels.managers;
 
 import main.levels.Level;
+
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * The LevelManager class manages the levels in the game, including adding levels, accessing the current level,
  * progressing to the next level, and checking if it is the last level.
+ * Levels are built lazily: the current level is built on first access, and while it is being played the next
+ * one is built on a background thread. Completed levels are released, so at most two levels are resident.
  */
 public class LevelManager {
-    private final ArrayList<Level> levels;
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4), runnable -> {
+                Thread thread = new Thread(runnable, "BadIceCream-LevelPrefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final List<Supplier<Level>> levelFactories;
     private int currentLevelIndex;
+    private Level currentLevel;
+    private CompletableFuture<Level> prefetchedLevel;
 
     /**
      * Constructs a LevelManager object.
      */
     public LevelManager() {
-        this.levels = new ArrayList<>();
+        this.levelFactories = new ArrayList<>();
         this.currentLevelIndex = 0;
     }
 
     /**
-     * Adds a level to the manager.
+     * Adds a level to the manager. The level is not built until it is needed.
+     * The factory may be called on a background thread, so it must not touch state owned by the simulation thread.
      *
-     * @param level The level to add.
+     * @param levelFactory The factory building the level.
      */
-    public void addLevel(Level level) {
-        this.levels.add(level);
+    public void addLevel(Supplier<Level> levelFactory) {
+        this.levelFactories.add(levelFactory);
     }
 
     /**
-     * Retrieves the current level.
+     * Retrieves the current level, building it if necessary.
      *
      * @return The current level.
      * @throws RuntimeException if there is no current level (the game may be over).
      */
     public Level getCurrentLevel() {
-        if (this.currentLevelIndex >= this.levels.size()) {
+        if (this.currentLevelIndex >= this.levelFactories.size()) {
             throw new RuntimeException("No current level. The game may be over.");
         }
-        return this.levels.get(this.currentLevelIndex);
+        if (this.currentLevel == null) {
+            this.currentLevel = this.levelFactories.get(this.currentLevelIndex).get();
+            this.prefetchNextLevel();
+        }
+        return this.currentLevel;
     }
 
     /**
      * Progresses to the next level.
      * Only advances to the next level if the current level is not the last level.
+     * The completed level is released and the prefetched one, if ready, becomes current.
      */
     public void nextLevel() {
-        if (!this.isLastLevel()) {
-            this.currentLevelIndex++;
+        if (this.isLastLevel()) {
+            return;
         }
+        this.currentLevelIndex++;
+        this.currentLevel = null;
+        if (this.prefetchedLevel != null) {
+            this.currentLevel = this.prefetchedLevel.join();
+            this.prefetchedLevel = null;
+            this.prefetchNextLevel();
+        }
+    }
+
+    /**
+     * Makes the level at the given index current, e.g. when a saved game is restored. Staying on the current
+     * level keeps it as it is; going to any other level discards the current one and builds that level afresh.
+     *
+     * @param index The index of the level, in the order the levels were added.
+     * @throws IllegalArgumentException if there is no level at the index.
+     */
+    public void goToLevel(int index) {
+        if (index < 0 || index >= this.levelFactories.size()) {
+            throw new IllegalArgumentException("No level at index " + index);
+        }
+        if (index == this.currentLevelIndex) {
+            return;
+        }
+        this.close();
+        this.currentLevelIndex = index;
+        this.currentLevel = null;
+    }
+
+    /**
+     * Returns the index of the current level, in the order the levels were added.
+     *
+     * @return The index of the current level.
+     */
+    public int getCurrentLevelIndex() {
+        return this.currentLevelIndex;
     }
 
     /**
@@ -57,6 +115,22 @@ public class LevelManager {
      * @return {@code true} if it is the last level, {@code false} otherwise.
      */
     public boolean isLastLevel() {
-        return this.currentLevelIndex == this.levels.size() - 1;
+        return this.currentLevelIndex == this.levelFactories.size() - 1;
+    }
+
+    /**
+     * Discards the level being prefetched, if any. Called when the manager is no longer used.
+     */
+    public void close() {
+        if (this.prefetchedLevel != null) {
+            this.prefetchedLevel.cancel(false);
+            this.prefetchedLevel = null;
+        }
+    }
+
+    private void prefetchNextLevel() {
+        if (!this.isLastLevel()) {
+            this.prefetchedLevel = CompletableFuture.supplyAsync(this.levelFactories.get(this.currentLevelIndex + 1), PREFETCH_EXECUTOR);
+        }
     }
 }
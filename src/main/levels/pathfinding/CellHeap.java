@@ -0,0 +1,77 @@
+package main.levels.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of cells, used as the open set of the A* searches.
+ * Cells are ordered by their estimated path length and, among equal estimates, by their estimated remaining
+ * distance, so the search keeps following the most advanced of the equally good paths instead of widening out.
+ * Both are packed into one long key. Decreasing a key is done by pushing the cell again; the search skips
+ * entries that are out of date.
+ */
+class CellHeap {
+    private long[] keys;
+    private int[] cells;
+    private int size;
+
+    CellHeap(int initialCapacity) {
+        this.keys = new long[Math.max(16, initialCapacity)];
+        this.cells = new int[this.keys.length];
+    }
+
+    void clear() {
+        this.size = 0;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void push(int estimate, int remaining, int cell) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+            this.cells = Arrays.copyOf(this.cells, this.cells.length * 2);
+        }
+        long key = ((long) estimate << 32) | remaining;
+        int index = this.size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            this.keys[index] = this.keys[parent];
+            this.cells[index] = this.cells[parent];
+            index = parent;
+        }
+        this.keys[index] = key;
+        this.cells[index] = cell;
+    }
+
+    int peekEstimate() {
+        return (int) (this.keys[0] >> 32);
+    }
+
+    int pop() {
+        int top = this.cells[0];
+        this.size--;
+        long key = this.keys[this.size];
+        int cell = this.cells[this.size];
+        int index = 0;
+        int half = this.size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < this.size && this.keys[child + 1] < this.keys[child]) {
+                child++;
+            }
+            if (key <= this.keys[child]) {
+                break;
+            }
+            this.keys[index] = this.keys[child];
+            this.cells[index] = this.cells[child];
+            index = child;
+        }
+        this.keys[index] = key;
+        this.cells[index] = cell;
+        return top;
+    }
+}
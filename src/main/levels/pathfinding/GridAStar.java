@@ -0,0 +1,136 @@
+package main.levels.pathfinding;
+
+import main.levels.Level;
+
+/**
+ * The GridAStar class finds exact shortest paths with an A* search over the individual cells of the grid,
+ * guided by the Manhattan distance. A query may visit every cell of the grid, which makes it the reference
+ * the {@link HierarchicalPathfinder} is measured against.
+ * The search state is kept in arrays stamped per query, so a query does not allocate.
+ */
+public class GridAStar implements Pathfinder {
+    private static final int[] DIRECTION_DX = {0, 1, 0, -1};
+    private static final int[] DIRECTION_DY = {-1, 0, 1, 0};
+
+    private final int[][] layout;
+    private final boolean passesThroughIce;
+    private final int width;
+    private final int height;
+    private final int[] costs;
+    private final int[] parents;
+    private final int[] seenMarks;
+    private final int[] closedMarks;
+    private final CellHeap open;
+    private int mark;
+
+    /**
+     * Constructs a GridAStar over the given layout.
+     *
+     * @param layout           The layout of the level; queries read its current state.
+     * @param passesThroughIce true if ice does not block the way, false if only empty cells can be walked.
+     */
+    public GridAStar(int[][] layout, boolean passesThroughIce) {
+        this.layout = layout;
+        this.passesThroughIce = passesThroughIce;
+        this.height = layout.length;
+        this.width = layout[0].length;
+        int cells = this.width * this.height;
+        this.costs = new int[cells];
+        this.parents = new int[cells];
+        this.seenMarks = new int[cells];
+        this.closedMarks = new int[cells];
+        this.open = new CellHeap(1024);
+    }
+
+    @Override
+    public int findPathLength(int startX, int startY, int goalX, int goalY) {
+        return this.search(startX, startY, goalX, goalY);
+    }
+
+    @Override
+    public int findFirstDirection(int startX, int startY, int goalX, int goalY) {
+        int length = this.search(startX, startY, goalX, goalY);
+        if (length == NO_PATH || length == 0) {
+            return NO_DIRECTION;
+        }
+        int start = startY * this.width + startX;
+        int cell = goalY * this.width + goalX;
+        while (this.parents[cell] != start) {
+            cell = this.parents[cell];
+        }
+        return directionBetween(start, cell, this.width);
+    }
+
+    private int search(int startX, int startY, int goalX, int goalY) {
+        if (!this.isWalkable(startX, startY) || !this.isWalkable(goalX, goalY)) {
+            return NO_PATH;
+        }
+        int start = startY * this.width + startX;
+        int goal = goalY * this.width + goalX;
+        this.mark++;
+        this.open.clear();
+        this.costs[start] = 0;
+        this.seenMarks[start] = this.mark;
+        int startRemaining = Math.abs(goalX - startX) + Math.abs(goalY - startY);
+        this.open.push(startRemaining, startRemaining, start);
+
+        while (!this.open.isEmpty()) {
+            int cell = this.open.pop();
+            if (this.closedMarks[cell] == this.mark) {
+                continue;
+            }
+            if (cell == goal) {
+                return this.costs[cell];
+            }
+            this.closedMarks[cell] = this.mark;
+            int x = cell % this.width;
+            int y = cell / this.width;
+            int next = this.costs[cell] + 1;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourX = x + DIRECTION_DX[direction];
+                int neighbourY = y + DIRECTION_DY[direction];
+                if (!this.isWalkable(neighbourX, neighbourY)) {
+                    continue;
+                }
+                int neighbour = neighbourY * this.width + neighbourX;
+                if (this.seenMarks[neighbour] != this.mark || next < this.costs[neighbour]) {
+                    this.seenMarks[neighbour] = this.mark;
+                    this.costs[neighbour] = next;
+                    this.parents[neighbour] = cell;
+                    int remaining = Math.abs(goalX - neighbourX) + Math.abs(goalY - neighbourY);
+                    this.open.push(next + remaining, remaining, neighbour);
+                }
+            }
+        }
+        return NO_PATH;
+    }
+
+    private boolean isWalkable(int x, int y) {
+        if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+            return false;
+        }
+        int value = this.layout[y][x];
+        return this.passesThroughIce ? value != Level.WALL : value == Level.EMPTY;
+    }
+
+    /**
+     * Returns the direction of the step between two neighbouring cells.
+     *
+     * @param from  The cell the step starts from.
+     * @param to    The neighbouring cell the step ends on.
+     * @param width The width of the grid.
+     * @return The direction (0 = up, 1 = right, 2 = down, 3 = left).
+     */
+    static int directionBetween(int from, int to, int width) {
+        if (to == from - width) {
+            return 0;
+        }
+        if (to == from + 1) {
+            return 1;
+        }
+        if (to == from + width) {
+            return 2;
+        }
+        return 3;
+    }
+}
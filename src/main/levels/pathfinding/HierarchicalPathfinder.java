@@ -0,0 +1,694 @@
+package main.levels.pathfinding;
+
+import main.levels.Level;
+import main.levels.managers.IceChangeListener;
+
+import java.util.Arrays;
+
+/**
+ * The HierarchicalPathfinder class answers path queries on large grids in the manner of HPA*.
+ * The grid is split into square clusters. Along every border between two clusters, each run of cells that can be
+ * crossed gets one entrance, or one at each end when the run is long; the cells of an entrance on both sides are
+ * the nodes of an abstract graph. The nodes of a cluster are linked by their walking distance inside the cluster,
+ * and facing nodes of neighbouring clusters by a single step.
+ * <p>
+ * A query connects the start and the goal to the nodes of their own clusters and runs A* over the abstract graph,
+ * which has a small fraction of the cells of the grid. The paths found are at most a few steps longer than the
+ * shortest ones, and a path is found exactly when one exists.
+ * <p>
+ * When the ice changes, only the cluster holding the changed cell is marked; before the next query its borders
+ * and its internal distances are recomputed, together with the neighbours whose entrances moved.
+ * <p>
+ * A query for a goal that cannot be reached would search the whole abstract graph, so every node also carries a
+ * component label kept in a union-find structure: a rebuilt cluster gives its nodes new labels and unites them
+ * along its edges. Uniting never misses a new connection, so two nodes with different labels are never connected;
+ * ice that cuts a component in two only leaves the labels too coarse, and they are recomputed from scratch when a
+ * search finds no path between two nodes that share a label.
+ */
+public class HierarchicalPathfinder implements Pathfinder, IceChangeListener {
+    /**
+     * The cluster size used when none is given.
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    // Runs of crossable border cells at least this long get an entrance at each end instead of one in the middle
+    private static final int SPLIT_ENTRANCE_LENGTH = 6;
+    private static final int FROM_START = -2;
+    private static final int NO_NODE = -1;
+    private static final int[] NO_OFFSETS = new int[0];
+    private static final int[] DIRECTION_DX = {0, 1, 0, -1};
+    private static final int[] DIRECTION_DY = {-1, 0, 1, 0};
+
+    private final int[][] layout;
+    private final boolean passesThroughIce;
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+
+    // Entrance offsets along the border to the right of, and below, every cluster
+    private final int[][] verticalBorders;
+    private final int[][] horizontalBorders;
+    private final int[][] clusterNodes;
+    private final int[][] clusterEdges;
+    private final int[] nodeSlots;
+
+    private final boolean[] dirtyClusters;
+    private final int[] dirtyList;
+    private int dirtyCount;
+    private final boolean[] staleClusters;
+    private final int[] staleList;
+    private int staleCount;
+
+    // Scratch space for searches confined to one cluster
+    private final int[] borderScratch;
+    private final int[] nodeScratch;
+    private final int[] localDistances;
+    private final int[] localQueue;
+    private final int[] startDistances;
+    private final int[] startParents;
+    private final int[] goalDistances;
+
+    // State of the search over the abstract graph, indexed by cell and stamped per query
+    private final int[] costs;
+    private final int[] parents;
+    private final int[] seenMarks;
+    private final int[] closedMarks;
+    private final CellHeap open;
+    private int mark;
+    private int goalParent;
+    private long clusterRebuilds;
+
+    // Component label of every node, by cell, and the union-find forest over the labels
+    private final int[] components;
+    private int[] componentParents;
+    private int componentCount;
+    private int[] componentQueue;
+    private int nodeCount;
+
+    /**
+     * Constructs a HierarchicalPathfinder with the default cluster size.
+     *
+     * @param layout           The layout of the level; queries read its current state.
+     * @param passesThroughIce true if ice does not block the way, false if only empty cells can be walked.
+     */
+    public HierarchicalPathfinder(int[][] layout, boolean passesThroughIce) {
+        this(layout, passesThroughIce, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Constructs a HierarchicalPathfinder and builds its abstract graph.
+     *
+     * @param layout           The layout of the level; queries read its current state.
+     * @param passesThroughIce true if ice does not block the way, false if only empty cells can be walked.
+     * @param clusterSize      The width and height of a cluster in cells.
+     */
+    public HierarchicalPathfinder(int[][] layout, boolean passesThroughIce, int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("The cluster size must be at least 2");
+        }
+        this.layout = layout;
+        this.passesThroughIce = passesThroughIce;
+        this.height = layout.length;
+        this.width = layout[0].length;
+        this.clusterSize = clusterSize;
+        this.clustersX = (this.width + clusterSize - 1) / clusterSize;
+        this.clustersY = (this.height + clusterSize - 1) / clusterSize;
+        int clusters = this.clustersX * this.clustersY;
+
+        this.verticalBorders = new int[clusters][];
+        this.horizontalBorders = new int[clusters][];
+        this.clusterNodes = new int[clusters][];
+        this.clusterEdges = new int[clusters][];
+        Arrays.fill(this.verticalBorders, NO_OFFSETS);
+        Arrays.fill(this.horizontalBorders, NO_OFFSETS);
+        Arrays.fill(this.clusterNodes, NO_OFFSETS);
+        Arrays.fill(this.clusterEdges, NO_OFFSETS);
+        this.nodeSlots = new int[this.width * this.height];
+        Arrays.fill(this.nodeSlots, NO_NODE);
+
+        this.dirtyClusters = new boolean[clusters];
+        this.dirtyList = new int[clusters];
+        this.staleClusters = new boolean[clusters];
+        this.staleList = new int[clusters];
+
+        int clusterCells = clusterSize * clusterSize;
+        this.borderScratch = new int[clusterSize];
+        this.nodeScratch = new int[4 * clusterSize];
+        this.localDistances = new int[clusterCells];
+        this.localQueue = new int[clusterCells];
+        this.startDistances = new int[clusterCells];
+        this.startParents = new int[clusterCells];
+        this.goalDistances = new int[clusterCells];
+
+        this.costs = new int[this.width * this.height];
+        this.parents = new int[this.width * this.height];
+        this.seenMarks = new int[this.width * this.height];
+        this.closedMarks = new int[this.width * this.height];
+        this.open = new CellHeap(1024);
+        this.components = new int[this.width * this.height];
+        this.componentParents = new int[1024];
+        this.componentQueue = new int[1024];
+
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            this.markDirty(cluster);
+        }
+        this.rebuildDirtyClusters();
+    }
+
+    @Override
+    public int findPathLength(int startX, int startY, int goalX, int goalY) {
+        return this.search(startX, startY, goalX, goalY);
+    }
+
+    @Override
+    public int findFirstDirection(int startX, int startY, int goalX, int goalY) {
+        int length = this.search(startX, startY, goalX, goalY);
+        if (length == NO_PATH || length == 0) {
+            return NO_DIRECTION;
+        }
+        int start = startY * this.width + startX;
+        int startCluster = this.clusterOf(startX, startY);
+        if (this.goalParent == NO_NODE) {
+            // The shortest way stays inside the start cluster
+            return this.firstLocalStep(startCluster, start, goalY * this.width + goalX);
+        }
+
+        // Walk the abstract path back to its first node, remembering the node after it
+        int node = this.goalParent;
+        int nextNode = goalY * this.width + goalX;
+        while (this.parents[node] != FROM_START) {
+            nextNode = node;
+            node = this.parents[node];
+        }
+        int target = node != start ? node : nextNode;
+        if (this.clusterOf(target % this.width, target / this.width) != startCluster) {
+            return GridAStar.directionBetween(start, target, this.width);
+        }
+        return this.firstLocalStep(startCluster, start, target);
+    }
+
+    /**
+     * Marks the cluster holding the changed cell, so it is rebuilt before the next query.
+     */
+    @Override
+    public void onIceChanged(int x, int y, boolean frozen) {
+        if (this.passesThroughIce) {
+            return;
+        }
+        this.markDirty(this.clusterOf(x, y));
+    }
+
+    /**
+     * Returns how many times a cluster had its entrances and internal distances recomputed, including the
+     * initial build.
+     *
+     * @return The number of cluster rebuilds.
+     */
+    public long getClusterRebuildCount() {
+        return this.clusterRebuilds;
+    }
+
+    /**
+     * Returns the number of nodes of the abstract graph.
+     *
+     * @return The number of nodes.
+     */
+    public int getNodeCount() {
+        this.rebuildDirtyClusters();
+        int count = 0;
+        for (int[] nodes : this.clusterNodes) {
+            count += nodes.length;
+        }
+        return count;
+    }
+
+    private int search(int startX, int startY, int goalX, int goalY) {
+        if (!this.isWalkable(startX, startY) || !this.isWalkable(goalX, goalY)) {
+            return NO_PATH;
+        }
+        this.goalParent = NO_NODE;
+        if (startX == goalX && startY == goalY) {
+            return 0;
+        }
+        this.rebuildDirtyClusters();
+
+        int start = startY * this.width + startX;
+        int goal = goalY * this.width + goalX;
+        int startCluster = this.clusterOf(startX, startY);
+        int goalCluster = this.clusterOf(goalX, goalY);
+        this.searchCluster(startCluster, start, this.startDistances, this.startParents);
+        this.searchCluster(goalCluster, goal, this.goalDistances, null);
+        int best = startCluster == goalCluster ? this.startDistances[this.localIndex(startCluster, goal)] : UNREACHABLE;
+        boolean sameComponent = this.shareComponent(startCluster, goalCluster);
+        if (best == UNREACHABLE && !sameComponent) {
+            return NO_PATH;
+        }
+
+        this.mark++;
+        this.open.clear();
+        for (int node : this.clusterNodes[startCluster]) {
+            int distance = this.startDistances[this.localIndex(startCluster, node)];
+            if (distance != UNREACHABLE) {
+                this.relax(FROM_START, node, distance, goalX, goalY);
+            }
+        }
+
+        while (!this.open.isEmpty() && this.open.peekEstimate() < best) {
+            int node = this.open.pop();
+            if (this.closedMarks[node] == this.mark) {
+                continue;
+            }
+            this.closedMarks[node] = this.mark;
+            int cost = this.costs[node];
+            int x = node % this.width;
+            int y = node / this.width;
+            int cluster = this.clusterOf(x, y);
+
+            if (cluster == goalCluster) {
+                int toGoal = this.goalDistances[this.localIndex(goalCluster, node)];
+                if (toGoal != UNREACHABLE && cost + toGoal < best) {
+                    best = cost + toGoal;
+                    this.goalParent = node;
+                }
+            }
+
+            int[] nodes = this.clusterNodes[cluster];
+            int[] edges = this.clusterEdges[cluster];
+            int slot = this.nodeSlots[node];
+            int row = slot * nodes.length;
+            for (int other = 0; other < nodes.length; other++) {
+                int distance = edges[row + other];
+                if (other != slot && distance != UNREACHABLE) {
+                    this.relax(node, nodes[other], cost + distance, goalX, goalY);
+                }
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourX = x + DIRECTION_DX[direction];
+                int neighbourY = y + DIRECTION_DY[direction];
+                if (neighbourX < 0 || neighbourX >= this.width || neighbourY < 0 || neighbourY >= this.height) {
+                    continue;
+                }
+                int neighbour = neighbourY * this.width + neighbourX;
+                if (this.nodeSlots[neighbour] != NO_NODE && this.clusterOf(neighbourX, neighbourY) != cluster) {
+                    this.relax(node, neighbour, cost + 1, goalX, goalY);
+                }
+            }
+        }
+        if (best == UNREACHABLE) {
+            // The labels still join two parts the ice has separated; split them so the next query is rejected early
+            this.labelComponents();
+            return NO_PATH;
+        }
+        // A path found inside the start cluster is no longer than the abstract one
+        if (startCluster == goalCluster && best == this.startDistances[this.localIndex(startCluster, goal)]) {
+            this.goalParent = NO_NODE;
+        }
+        return best;
+    }
+
+    /**
+     * Checks if a node reached from the start and a node reaching the goal, within their clusters, lie in the same
+     * component of the abstract graph.
+     */
+    private boolean shareComponent(int startCluster, int goalCluster) {
+        int[] startNodes = this.clusterNodes[startCluster];
+        int[] goalNodes = this.clusterNodes[goalCluster];
+        for (int startNode : startNodes) {
+            if (this.startDistances[this.localIndex(startCluster, startNode)] == UNREACHABLE) {
+                continue;
+            }
+            int component = this.findComponent(this.components[startNode]);
+            for (int goalNode : goalNodes) {
+                if (this.findComponent(this.components[goalNode]) == component
+                        && this.goalDistances[this.localIndex(goalCluster, goalNode)] != UNREACHABLE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void labelComponents() {
+        this.componentCount = 0;
+        for (int[] nodes : this.clusterNodes) {
+            for (int node : nodes) {
+                this.components[node] = NO_NODE;
+            }
+        }
+        for (int[] seeds : this.clusterNodes) {
+            for (int seed : seeds) {
+                if (this.components[seed] != NO_NODE) {
+                    continue;
+                }
+                int component = this.newComponent();
+                this.components[seed] = component;
+                int head = 0;
+                int tail = 0;
+                this.componentQueue[tail++] = seed;
+                while (head < tail) {
+                    int node = this.componentQueue[head++];
+                    int x = node % this.width;
+                    int y = node / this.width;
+                    int cluster = this.clusterOf(x, y);
+                    int[] nodes = this.clusterNodes[cluster];
+                    int row = this.nodeSlots[node] * nodes.length;
+                    for (int other = 0; other < nodes.length; other++) {
+                        if (this.clusterEdges[cluster][row + other] != UNREACHABLE && this.components[nodes[other]] == NO_NODE) {
+                            this.components[nodes[other]] = component;
+                            tail = this.enqueueComponentNode(nodes[other], tail);
+                        }
+                    }
+                    for (int direction = 0; direction < 4; direction++) {
+                        int neighbourX = x + DIRECTION_DX[direction];
+                        int neighbourY = y + DIRECTION_DY[direction];
+                        if (neighbourX < 0 || neighbourX >= this.width || neighbourY < 0 || neighbourY >= this.height) {
+                            continue;
+                        }
+                        int neighbour = neighbourY * this.width + neighbourX;
+                        if (this.nodeSlots[neighbour] != NO_NODE && this.components[neighbour] == NO_NODE
+                                && this.clusterOf(neighbourX, neighbourY) != cluster) {
+                            this.components[neighbour] = component;
+                            tail = this.enqueueComponentNode(neighbour, tail);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private int newComponent() {
+        if (this.componentCount == this.componentParents.length) {
+            this.componentParents = Arrays.copyOf(this.componentParents, this.componentCount * 2);
+        }
+        this.componentParents[this.componentCount] = this.componentCount;
+        return this.componentCount++;
+    }
+
+    private int findComponent(int component) {
+        while (this.componentParents[component] != component) {
+            this.componentParents[component] = this.componentParents[this.componentParents[component]];
+            component = this.componentParents[component];
+        }
+        return component;
+    }
+
+    private void uniteComponents(int first, int second) {
+        int firstRoot = this.findComponent(first);
+        int secondRoot = this.findComponent(second);
+        if (firstRoot != secondRoot) {
+            this.componentParents[firstRoot] = secondRoot;
+        }
+    }
+
+    private int enqueueComponentNode(int node, int tail) {
+        if (tail == this.componentQueue.length) {
+            this.componentQueue = Arrays.copyOf(this.componentQueue, tail * 2);
+        }
+        this.componentQueue[tail] = node;
+        return tail + 1;
+    }
+
+    private void relax(int from, int node, int cost, int goalX, int goalY) {
+        if (this.seenMarks[node] == this.mark && cost >= this.costs[node]) {
+            return;
+        }
+        this.seenMarks[node] = this.mark;
+        this.costs[node] = cost;
+        this.parents[node] = from;
+        int remaining = Math.abs(goalX - node % this.width) + Math.abs(goalY - node / this.width);
+        this.open.push(cost + remaining, remaining, node);
+    }
+
+    private int firstLocalStep(int cluster, int start, int target) {
+        int startLocal = this.localIndex(cluster, start);
+        int local = this.localIndex(cluster, target);
+        while (this.startParents[local] != startLocal) {
+            local = this.startParents[local];
+        }
+        return GridAStar.directionBetween(start, this.cellOfLocal(cluster, local), this.width);
+    }
+
+    private void markDirty(int cluster) {
+        if (!this.dirtyClusters[cluster]) {
+            this.dirtyClusters[cluster] = true;
+            this.dirtyList[this.dirtyCount++] = cluster;
+        }
+    }
+
+    private void markStale(int cluster) {
+        if (!this.staleClusters[cluster]) {
+            this.staleClusters[cluster] = true;
+            this.staleList[this.staleCount++] = cluster;
+        }
+    }
+
+    private void rebuildDirtyClusters() {
+        if (this.dirtyCount == 0) {
+            return;
+        }
+        // The borders of a changed cluster are recomputed first; a neighbour whose entrances moved is rebuilt too
+        for (int i = 0; i < this.dirtyCount; i++) {
+            int cluster = this.dirtyList[i];
+            this.dirtyClusters[cluster] = false;
+            this.markStale(cluster);
+            int clusterX = cluster % this.clustersX;
+            int clusterY = cluster / this.clustersX;
+            if (clusterX > 0 && this.updateVerticalBorder(cluster - 1)) {
+                this.markStale(cluster - 1);
+            }
+            if (clusterX < this.clustersX - 1 && this.updateVerticalBorder(cluster)) {
+                this.markStale(cluster + 1);
+            }
+            if (clusterY > 0 && this.updateHorizontalBorder(cluster - this.clustersX)) {
+                this.markStale(cluster - this.clustersX);
+            }
+            if (clusterY < this.clustersY - 1 && this.updateHorizontalBorder(cluster)) {
+                this.markStale(cluster + this.clustersX);
+            }
+        }
+        this.dirtyCount = 0;
+
+        for (int i = 0; i < this.staleCount; i++) {
+            int cluster = this.staleList[i];
+            this.staleClusters[cluster] = false;
+            this.rebuildCluster(cluster);
+        }
+        this.staleCount = 0;
+        // Labels left behind by rebuilt clusters pile up in the forest; start afresh once they dominate it
+        if (this.componentCount > 4 * this.nodeCount + 1024) {
+            this.labelComponents();
+        }
+    }
+
+    // The border between the given cluster and the one to its right
+    private boolean updateVerticalBorder(int cluster) {
+        int leftX = (cluster % this.clustersX + 1) * this.clusterSize - 1;
+        int minY = cluster / this.clustersX * this.clusterSize;
+        int maxY = Math.min(this.height, minY + this.clusterSize) - 1;
+        int count = 0;
+        int runStart = -1;
+        for (int y = minY; y <= maxY + 1; y++) {
+            boolean open = y <= maxY && this.isWalkable(leftX, y) && this.isWalkable(leftX + 1, y);
+            if (open && runStart < 0) {
+                runStart = y;
+            } else if (!open && runStart >= 0) {
+                count = this.addEntrances(runStart - minY, y - 1 - minY, count);
+                runStart = -1;
+            }
+        }
+        return this.storeBorder(this.verticalBorders, cluster, count);
+    }
+
+    // The border between the given cluster and the one below it
+    private boolean updateHorizontalBorder(int cluster) {
+        int topY = (cluster / this.clustersX + 1) * this.clusterSize - 1;
+        int minX = cluster % this.clustersX * this.clusterSize;
+        int maxX = Math.min(this.width, minX + this.clusterSize) - 1;
+        int count = 0;
+        int runStart = -1;
+        for (int x = minX; x <= maxX + 1; x++) {
+            boolean open = x <= maxX && this.isWalkable(x, topY) && this.isWalkable(x, topY + 1);
+            if (open && runStart < 0) {
+                runStart = x;
+            } else if (!open && runStart >= 0) {
+                count = this.addEntrances(runStart - minX, x - 1 - minX, count);
+                runStart = -1;
+            }
+        }
+        return this.storeBorder(this.horizontalBorders, cluster, count);
+    }
+
+    private int addEntrances(int first, int last, int count) {
+        if (last - first + 1 < SPLIT_ENTRANCE_LENGTH) {
+            this.borderScratch[count++] = (first + last) / 2;
+        } else {
+            this.borderScratch[count++] = first;
+            this.borderScratch[count++] = last;
+        }
+        return count;
+    }
+
+    private boolean storeBorder(int[][] borders, int cluster, int count) {
+        int[] previous = borders[cluster];
+        if (Arrays.equals(previous, 0, previous.length, this.borderScratch, 0, count)) {
+            return false;
+        }
+        borders[cluster] = count == 0 ? NO_OFFSETS : Arrays.copyOf(this.borderScratch, count);
+        return true;
+    }
+
+    private void rebuildCluster(int cluster) {
+        this.clusterRebuilds++;
+        this.nodeCount -= this.clusterNodes[cluster].length;
+        for (int node : this.clusterNodes[cluster]) {
+            this.nodeSlots[node] = NO_NODE;
+        }
+
+        // The nodes of a cluster are its sides of the entrances on its four borders
+        int clusterX = cluster % this.clustersX;
+        int clusterY = cluster / this.clustersX;
+        int minX = clusterX * this.clusterSize;
+        int minY = clusterY * this.clusterSize;
+        int maxX = Math.min(this.width, minX + this.clusterSize) - 1;
+        int maxY = Math.min(this.height, minY + this.clusterSize) - 1;
+        int count = 0;
+        if (clusterX > 0) {
+            for (int offset : this.verticalBorders[cluster - 1]) {
+                count = this.addNode(minX, minY + offset, count);
+            }
+        }
+        if (clusterX < this.clustersX - 1) {
+            for (int offset : this.verticalBorders[cluster]) {
+                count = this.addNode(maxX, minY + offset, count);
+            }
+        }
+        if (clusterY > 0) {
+            for (int offset : this.horizontalBorders[cluster - this.clustersX]) {
+                count = this.addNode(minX + offset, minY, count);
+            }
+        }
+        if (clusterY < this.clustersY - 1) {
+            for (int offset : this.horizontalBorders[cluster]) {
+                count = this.addNode(minX + offset, maxY, count);
+            }
+        }
+        int[] nodes = count == 0 ? NO_OFFSETS : Arrays.copyOf(this.nodeScratch, count);
+        int[] edges = new int[count * count];
+        for (int i = 0; i < count; i++) {
+            this.searchCluster(cluster, nodes[i], this.localDistances, null);
+            for (int j = 0; j < count; j++) {
+                edges[i * count + j] = this.localDistances[this.localIndex(cluster, nodes[j])];
+            }
+        }
+        this.clusterNodes[cluster] = nodes;
+        this.clusterEdges[cluster] = edges;
+        this.nodeCount += count;
+
+        // New labels, united along the edges inside the cluster and across its borders
+        for (int node : nodes) {
+            this.components[node] = this.newComponent();
+        }
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                if (edges[i * count + j] != UNREACHABLE) {
+                    this.uniteComponents(this.components[nodes[i]], this.components[nodes[j]]);
+                }
+            }
+            int x = nodes[i] % this.width;
+            int y = nodes[i] / this.width;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourX = x + DIRECTION_DX[direction];
+                int neighbourY = y + DIRECTION_DY[direction];
+                if (neighbourX < 0 || neighbourX >= this.width || neighbourY < 0 || neighbourY >= this.height) {
+                    continue;
+                }
+                int neighbour = neighbourY * this.width + neighbourX;
+                if (this.nodeSlots[neighbour] != NO_NODE && this.clusterOf(neighbourX, neighbourY) != cluster) {
+                    this.uniteComponents(this.components[nodes[i]], this.components[neighbour]);
+                }
+            }
+        }
+    }
+
+    private int addNode(int x, int y, int count) {
+        int cell = y * this.width + x;
+        // A corner cell may be the entrance of two borders
+        if (this.nodeSlots[cell] == NO_NODE) {
+            this.nodeSlots[cell] = count;
+            this.nodeScratch[count++] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Runs a breadth-first search from a cell without leaving its cluster.
+     *
+     * @param cluster   The cluster to search.
+     * @param origin    The cell the search starts from.
+     * @param distances Receives the distance of every cell of the cluster, by local index.
+     * @param parents   Receives the local index of the previous cell on the way, or null if not needed.
+     */
+    private void searchCluster(int cluster, int origin, int[] distances, int[] parents) {
+        int minX = cluster % this.clustersX * this.clusterSize;
+        int minY = cluster / this.clustersX * this.clusterSize;
+        int maxX = Math.min(this.width, minX + this.clusterSize) - 1;
+        int maxY = Math.min(this.height, minY + this.clusterSize) - 1;
+        int localWidth = maxX - minX + 1;
+        Arrays.fill(distances, 0, localWidth * (maxY - minY + 1), UNREACHABLE);
+
+        int originLocal = (origin / this.width - minY) * localWidth + origin % this.width - minX;
+        distances[originLocal] = 0;
+        int head = 0;
+        int tail = 0;
+        this.localQueue[tail++] = originLocal;
+        while (head < tail) {
+            int local = this.localQueue[head++];
+            int x = minX + local % localWidth;
+            int y = minY + local / localWidth;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbourX = x + DIRECTION_DX[direction];
+                int neighbourY = y + DIRECTION_DY[direction];
+                if (neighbourX < minX || neighbourX > maxX || neighbourY < minY || neighbourY > maxY
+                        || !this.isWalkable(neighbourX, neighbourY)) {
+                    continue;
+                }
+                int neighbourLocal = (neighbourY - minY) * localWidth + neighbourX - minX;
+                if (distances[neighbourLocal] == UNREACHABLE) {
+                    distances[neighbourLocal] = distances[local] + 1;
+                    if (parents != null) {
+                        parents[neighbourLocal] = local;
+                    }
+                    this.localQueue[tail++] = neighbourLocal;
+                }
+            }
+        }
+    }
+
+    private int localIndex(int cluster, int cell) {
+        int minX = cluster % this.clustersX * this.clusterSize;
+        int minY = cluster / this.clustersX * this.clusterSize;
+        int localWidth = Math.min(this.width, minX + this.clusterSize) - minX;
+        return (cell / this.width - minY) * localWidth + cell % this.width - minX;
+    }
+
+    private int cellOfLocal(int cluster, int local) {
+        int minX = cluster % this.clustersX * this.clusterSize;
+        int minY = cluster / this.clustersX * this.clusterSize;
+        int localWidth = Math.min(this.width, minX + this.clusterSize) - minX;
+        return (minY + local / localWidth) * this.width + minX + local % localWidth;
+    }
+
+    private int clusterOf(int x, int y) {
+        return y / this.clusterSize * this.clustersX + x / this.clusterSize;
+    }
+
+    private boolean isWalkable(int x, int y) {
+        if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+            return false;
+        }
+        int value = this.layout[y][x];
+        return this.passesThroughIce ? value != Level.WALL : value == Level.EMPTY;
+    }
+}
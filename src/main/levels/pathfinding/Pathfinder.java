@@ -0,0 +1,40 @@
+package main.levels.pathfinding;
+
+/**
+ * The Pathfinder interface answers shortest-path queries between two cells of a level grid.
+ * Paths are four-connected and every step costs one. Directions use the enemies' numbering:
+ * 0 = up, 1 = right, 2 = down, 3 = left.
+ */
+public interface Pathfinder {
+    /**
+     * The length returned when the goal cannot be reached.
+     */
+    int NO_PATH = -1;
+    /**
+     * The direction returned when there is no step to take.
+     */
+    int NO_DIRECTION = -1;
+
+    /**
+     * Finds the length of a path between two cells.
+     *
+     * @param startX The x-coordinate of the start cell.
+     * @param startY The y-coordinate of the start cell.
+     * @param goalX  The x-coordinate of the goal cell.
+     * @param goalY  The y-coordinate of the goal cell.
+     * @return The number of steps of the path, or {@link #NO_PATH} if the goal cannot be reached.
+     */
+    int findPathLength(int startX, int startY, int goalX, int goalY);
+
+    /**
+     * Finds the direction of the first step of a path between two cells.
+     *
+     * @param startX The x-coordinate of the start cell.
+     * @param startY The y-coordinate of the start cell.
+     * @param goalX  The x-coordinate of the goal cell.
+     * @param goalY  The y-coordinate of the goal cell.
+     * @return The direction of the first step, or {@link #NO_DIRECTION} if the start is the goal or the goal
+     *         cannot be reached.
+     */
+    int findFirstDirection(int startX, int startY, int goalX, int goalY);
+}
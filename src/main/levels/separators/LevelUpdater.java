@@ -1,6 +1,8 @@
 package main.levels.separators;
 
 import main.levels.Level;
+import main.metrics.TickPhase;
+import main.metrics.TickProfiler;
 
 /**
  * The LevelUpdater class is responsible for updating the level, including updating enemies, fruits, and ice blocks.
@@ -24,9 +26,19 @@ public class LevelUpdater implements Updatable {
     @Override
     public void update() {
         if (this.level.getEnemyManager().isPresent() && this.level.getFruitManager().isPresent() && this.level.getIceManager().isPresent()) {
+            TickProfiler profiler = this.level.getProfiler();
+
+            long startTime = profiler.begin();
             this.level.getEnemyManager().get().update();
+            profiler.end(TickPhase.ENEMY_UPDATE, startTime);
+
+            startTime = profiler.begin();
             this.level.getFruitManager().get().update();
+            profiler.end(TickPhase.FRUIT_UPDATE, startTime);
+
+            startTime = profiler.begin();
             this.level.getIceManager().get().update();
+            profiler.end(TickPhase.ICE_UPDATE, startTime);
         }
     }
 }
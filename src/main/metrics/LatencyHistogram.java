@@ -0,0 +1,144 @@
+package main.metrics;
+
+import java.util.Arrays;
+
+/**
+ * The LatencyHistogram class records nanosecond durations into log-linear buckets.
+ * Every power of two is split into 16 sub-buckets, so percentiles are accurate to about 6%.
+ * Recording is a couple of arithmetic operations and an array increment; it never allocates.
+ * A histogram is not thread-safe: each recording thread should own one and merge them for reporting.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long totalCount;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new long[BUCKETS];
+    }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[bucketIndex(value)]++;
+        this.totalCount++;
+        this.totalNanos += value;
+        if (value > this.maxNanos) {
+            this.maxNanos = value;
+        }
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other The histogram to merge.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.totalCount += other.totalCount;
+        this.totalNanos += other.totalNanos;
+        this.maxNanos = Math.max(this.maxNanos, other.maxNanos);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.totalCount = 0;
+        this.totalNanos = 0;
+        this.maxNanos = 0;
+    }
+
+    /**
+     * Returns the value below which the given fraction of the recorded values fall.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds.
+     */
+    public long getPercentile(double percentile) {
+        if (this.totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), this.maxNanos);
+            }
+        }
+        return this.maxNanos;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return The mean in nanoseconds.
+     */
+    public double getMean() {
+        return this.totalCount == 0 ? 0 : (double) this.totalNanos / this.totalCount;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMax() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Returns a one-line summary of the distribution in microseconds.
+     *
+     * @return The summary.
+     */
+    public String summary() {
+        return String.format("n=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                this.totalCount, this.getMean() / 1e3, this.getPercentile(50) / 1e3, this.getPercentile(90) / 1e3,
+                this.getPercentile(99) / 1e3, this.getPercentile(99.9) / 1e3, this.maxNanos / 1e3);
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lowerBound = (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,17 @@
+package main.metrics;
+
+/**
+ * Enum representing the instrumented phases of a simulation tick and of a rendered frame.
+ */
+public enum TickPhase {
+    TICK,
+    PLAYER_UPDATE,
+    LEVEL_UPDATE,
+    ENEMY_UPDATE,
+    FRUIT_UPDATE,
+    ICE_UPDATE,
+    PLAYER_COLLISION,
+    FRUIT_COLLECTION,
+    SNAPSHOT,
+    RENDER
+}
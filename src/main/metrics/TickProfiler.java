@@ -0,0 +1,181 @@
+package main.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The TickProfiler class measures how long every phase of a tick takes. Durations go into one histogram per
+ * phase, and the individual events of the last N ticks are kept in a ring buffer so they can be exported as a
+ * Chrome trace (also readable by Perfetto) for offline analysis of frame spikes.
+ * <p>
+ * A disabled profiler does not even read the clock. The profiler is not thread-safe; the simulation and the
+ * renderer both call it while holding the game's state lock.
+ */
+public class TickProfiler {
+    public static final String ENABLED_PROPERTY = "badicecream.profile";
+    public static final String TRACE_TICKS_PROPERTY = "badicecream.trace.ticks";
+    public static final String TRACE_FILE_PROPERTY = "badicecream.trace.file";
+    public static final int DEFAULT_TRACE_TICKS = 600;
+    private static final TickPhase[] PHASES = TickPhase.values();
+
+    private final boolean enabled;
+    private final LatencyHistogram[] histograms;
+    private final int capacity;
+    private final int[] eventPhases;
+    private final long[] eventStarts;
+    private final long[] eventDurations;
+    private final long[] eventTicks;
+    private final long[] eventThreads;
+    private int nextEvent;
+    private int eventCount;
+    private long tick;
+
+    /**
+     * Constructs a TickProfiler.
+     *
+     * @param enabled    Whether timings are recorded at all.
+     * @param traceTicks The number of most recent ticks kept for trace export; 0 keeps only the histograms.
+     * @throws IllegalArgumentException if traceTicks is negative.
+     */
+    public TickProfiler(boolean enabled, int traceTicks) {
+        if (traceTicks < 0) {
+            throw new IllegalArgumentException("The number of traced ticks must not be negative: " + traceTicks);
+        }
+        this.enabled = enabled;
+        this.histograms = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            this.histograms[i] = new LatencyHistogram();
+        }
+        this.capacity = enabled ? traceTicks * PHASES.length : 0;
+        this.eventPhases = new int[this.capacity];
+        this.eventStarts = new long[this.capacity];
+        this.eventDurations = new long[this.capacity];
+        this.eventTicks = new long[this.capacity];
+        this.eventThreads = new long[this.capacity];
+    }
+
+    /**
+     * Creates a profiler configured by the {@value #ENABLED_PROPERTY} and {@value #TRACE_TICKS_PROPERTY}
+     * system properties. Profiling is off unless explicitly enabled.
+     *
+     * @return The profiler.
+     */
+    public static TickProfiler fromSystemProperties() {
+        boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+        int traceTicks = Integer.getInteger(TRACE_TICKS_PROPERTY, DEFAULT_TRACE_TICKS);
+        return new TickProfiler(enabled, traceTicks);
+    }
+
+    /**
+     * Marks the start of a phase.
+     *
+     * @return The start timestamp to pass to {@link #end(TickPhase, long)}, or 0 if profiling is disabled.
+     */
+    public long begin() {
+        return this.enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of a phase and records its duration.
+     *
+     * @param phase     The phase that ended.
+     * @param startTime The timestamp returned by {@link #begin()}.
+     */
+    public void end(TickPhase phase, long startTime) {
+        if (!this.enabled) {
+            return;
+        }
+        long duration = System.nanoTime() - startTime;
+        this.histograms[phase.ordinal()].record(duration);
+        if (this.capacity == 0) {
+            return;
+        }
+
+        int index = this.nextEvent;
+        this.eventPhases[index] = phase.ordinal();
+        this.eventStarts[index] = startTime;
+        this.eventDurations[index] = duration;
+        this.eventTicks[index] = this.tick;
+        this.eventThreads[index] = Thread.currentThread().getId();
+        this.nextEvent = (index + 1) % this.capacity;
+        this.eventCount = Math.min(this.eventCount + 1, this.capacity);
+    }
+
+    /**
+     * Marks the end of a whole tick.
+     *
+     * @param startTime The timestamp returned by {@link #begin()} at the start of the tick.
+     */
+    public void endTick(long startTime) {
+        this.end(TickPhase.TICK, startTime);
+        this.tick++;
+    }
+
+    /**
+     * Checks if the profiler records anything.
+     *
+     * @return True if profiling is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Returns the duration histogram of a phase.
+     *
+     * @param phase The phase.
+     * @return The histogram of the phase.
+     */
+    public LatencyHistogram getHistogram(TickPhase phase) {
+        return this.histograms[phase.ordinal()];
+    }
+
+    /**
+     * Returns a multi-line summary with the duration distribution of every phase that was recorded.
+     *
+     * @return The summary.
+     */
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (TickPhase phase : PHASES) {
+            LatencyHistogram histogram = this.histograms[phase.ordinal()];
+            if (histogram.getCount() > 0) {
+                builder.append(String.format("%-17s %s%n", phase, histogram.summary()));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the buffered events of the last ticks to a file in the Chrome trace event format.
+     * The file can be opened in chrome://tracing or in the Perfetto UI.
+     *
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void exportTrace(Path file) throws IOException {
+        int first = (this.nextEvent - this.eventCount + this.capacity) % Math.max(1, this.capacity);
+        long origin = Long.MAX_VALUE;
+        for (int i = 0; i < this.eventCount; i++) {
+            origin = Math.min(origin, this.eventStarts[i]);
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("{\"displayTimeUnit\":\"ns\",\"traceEvents\":[");
+            for (int i = 0; i < this.eventCount; i++) {
+                int index = (first + i) % this.capacity;
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(String.format(Locale.ROOT,
+                        "%n{\"name\":\"%s\",\"cat\":\"tick\",\"ph\":\"X\",\"pid\":1,\"tid\":%d,\"ts\":%.3f,\"dur\":%.3f,\"args\":{\"tick\":%d}}",
+                        PHASES[this.eventPhases[index]], this.eventThreads[index],
+                        (this.eventStarts[index] - origin) / 1e3, this.eventDurations[index] / 1e3, this.eventTicks[index]));
+            }
+            writer.write(String.format("%n]}%n"));
+        }
+    }
+}
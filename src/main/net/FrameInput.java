@@ -0,0 +1,38 @@
+package main.net;
+
+import main.input.InputSource;
+import main.replay.Replay;
+
+/**
+ * The FrameInput class is the input of a player in a network game. The session sets the frame of every tick before
+ * simulating it, whether the frame was typed locally, received from the other peer or predicted.
+ * Frames use the encoding of {@link Replay}.
+ */
+public class FrameInput implements InputSource {
+    private byte frame;
+    private boolean spacePending;
+
+    /**
+     * Sets the input of the tick about to be simulated.
+     *
+     * @param frame The frame.
+     */
+    public void setFrame(byte frame) {
+        this.frame = frame;
+        this.spacePending = Replay.isSpacePressed(frame);
+    }
+
+    @Override
+    public boolean isKeyDown(int keyCode) {
+        return Replay.isKeyDown(this.frame, keyCode);
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        if (keyCode == KEY_SPACE && this.spacePending) {
+            this.spacePending = false;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package main.net;
+
+import main.simulation.GameClock;
+import main.simulation.RandomStream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * The LoopbackTransport class connects two peers in the same process, e.g. for headless tests of network play.
+ * Every packet is delayed by a fixed latency plus a random jitter and may be dropped, as on a real network;
+ * with jitter, packets can also arrive out of order. Delivery times are read from a clock, so a simulated clock
+ * makes a whole network game reproducible. The randomness is drawn from a seed.
+ */
+public class LoopbackTransport implements Transport {
+    private final GameClock clock;
+    private final int latencyMillis;
+    private final int jitterMillis;
+    private final int lossPercent;
+    private final RandomStream random;
+    private final PriorityQueue<Packet> inbox;
+    private LoopbackTransport peer;
+    private long sequence;
+    private long sentCount;
+    private long droppedCount;
+
+    private record Packet(long deliveryTime, long sequence, byte[] data) {
+    }
+
+    private LoopbackTransport(GameClock clock, int latencyMillis, int jitterMillis, int lossPercent, RandomStream random) {
+        this.clock = clock;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.lossPercent = lossPercent;
+        this.random = random;
+        this.inbox = new PriorityQueue<>(Comparator.comparingLong(Packet::deliveryTime).thenComparingLong(Packet::sequence));
+    }
+
+    /**
+     * Creates two connected endpoints. The conditions apply to both directions.
+     *
+     * @param clock         The clock delivery times are read from.
+     * @param latencyMillis The one-way delay of every packet in milliseconds.
+     * @param jitterMillis  The maximum random delay added to the latency in milliseconds.
+     * @param lossPercent   The chance in percent that a packet is dropped.
+     * @param seed          The seed of the losses and jitter.
+     * @return The two endpoints.
+     */
+    public static LoopbackTransport[] createPair(GameClock clock, int latencyMillis, int jitterMillis, int lossPercent,
+                                                 long seed) {
+        if (latencyMillis < 0 || jitterMillis < 0 || lossPercent < 0 || lossPercent > 100) {
+            throw new IllegalArgumentException("Latency and jitter must not be negative, loss must be 0-100%");
+        }
+        RandomStream random = new RandomStream(seed);
+        LoopbackTransport first = new LoopbackTransport(clock, latencyMillis, jitterMillis, lossPercent, random.split());
+        LoopbackTransport second = new LoopbackTransport(clock, latencyMillis, jitterMillis, lossPercent, random.split());
+        first.peer = second;
+        second.peer = first;
+        return new LoopbackTransport[]{first, second};
+    }
+
+    @Override
+    public void send(byte[] data, int length) {
+        this.sentCount++;
+        if (this.random.nextInt(100) < this.lossPercent) {
+            this.droppedCount++;
+            return;
+        }
+        long deliveryTime = this.clock.currentTimeMillis() + this.latencyMillis + this.random.nextInt(this.jitterMillis + 1);
+        this.peer.deliver(new Packet(deliveryTime, this.sequence++, Arrays.copyOf(data, length)));
+    }
+
+    private synchronized void deliver(Packet packet) {
+        this.inbox.add(packet);
+    }
+
+    @Override
+    public synchronized int receive(byte[] buffer) {
+        Packet packet = this.inbox.peek();
+        if (packet == null || packet.deliveryTime() > this.clock.currentTimeMillis()) {
+            return -1;
+        }
+        this.inbox.poll();
+        System.arraycopy(packet.data(), 0, buffer, 0, packet.data().length);
+        return packet.data().length;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.inbox.clear();
+    }
+
+    /**
+     * Returns the number of packets sent from this endpoint, including dropped ones.
+     *
+     * @return The sent count.
+     */
+    public long getSentCount() {
+        return this.sentCount;
+    }
+
+    /**
+     * Returns the number of packets sent from this endpoint that were dropped.
+     *
+     * @return The dropped count.
+     */
+    public long getDroppedCount() {
+        return this.droppedCount;
+    }
+}
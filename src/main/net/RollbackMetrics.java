@@ -0,0 +1,180 @@
+package main.net;
+
+import main.metrics.LatencyHistogram;
+
+/**
+ * The RollbackMetrics class counts what the prediction of the remote input costs a peer: how often and how deep it
+ * rolled back, how long restoring and re-simulating took, how often it had to wait for the other peer or let it catch up, and whether
+ * the two peers ever disagreed about a confirmed tick. Recording never allocates.
+ */
+public class RollbackMetrics {
+    private final long[] depthCounts;
+    private final LatencyHistogram rollbackTimes;
+    private final long frameBudgetNanos;
+    private long ticks;
+    private long stalls;
+    private long timeSyncWaits;
+    private long rollbacks;
+    private long resimulatedTicks;
+    private long overBudget;
+    private long mispredictedFrames;
+    private long packetsSent;
+    private long packetsReceived;
+    private long checksumsCompared;
+    private long desyncs;
+    private long firstDesyncTick = -1;
+
+    /**
+     * Constructs empty metrics.
+     *
+     * @param maxDepth         The deepest rollback the session can make.
+     * @param frameBudgetNanos The time a rollback must fit in to keep up with the frame rate.
+     */
+    public RollbackMetrics(int maxDepth, long frameBudgetNanos) {
+        this.depthCounts = new long[maxDepth + 1];
+        this.rollbackTimes = new LatencyHistogram();
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * Adds the counts of other metrics to these, e.g. to report on several games at once.
+     *
+     * @param other The metrics to add.
+     */
+    public void merge(RollbackMetrics other) {
+        for (int depth = 0; depth < Math.min(this.depthCounts.length, other.depthCounts.length); depth++) {
+            this.depthCounts[depth] += other.depthCounts[depth];
+        }
+        this.rollbackTimes.merge(other.rollbackTimes);
+        this.ticks += other.ticks;
+        this.stalls += other.stalls;
+        this.timeSyncWaits += other.timeSyncWaits;
+        this.rollbacks += other.rollbacks;
+        this.resimulatedTicks += other.resimulatedTicks;
+        this.overBudget += other.overBudget;
+        this.mispredictedFrames += other.mispredictedFrames;
+        this.packetsSent += other.packetsSent;
+        this.packetsReceived += other.packetsReceived;
+        this.checksumsCompared += other.checksumsCompared;
+        this.desyncs += other.desyncs;
+        if (this.firstDesyncTick < 0) {
+            this.firstDesyncTick = other.firstDesyncTick;
+        }
+    }
+
+    void recordTick() {
+        this.ticks++;
+    }
+
+    void recordStall() {
+        this.stalls++;
+    }
+
+    void recordTimeSyncWait() {
+        this.timeSyncWaits++;
+    }
+
+    void recordRollback(int depth, long nanos) {
+        this.rollbacks++;
+        this.resimulatedTicks += depth;
+        this.depthCounts[depth]++;
+        this.rollbackTimes.record(nanos);
+        if (nanos > this.frameBudgetNanos) {
+            this.overBudget++;
+        }
+    }
+
+    void recordMisprediction() {
+        this.mispredictedFrames++;
+    }
+
+    void recordPacketSent() {
+        this.packetsSent++;
+    }
+
+    void recordPacketReceived() {
+        this.packetsReceived++;
+    }
+
+    void recordChecksum(long tick, boolean matches) {
+        this.checksumsCompared++;
+        if (!matches) {
+            this.desyncs++;
+            if (this.firstDesyncTick < 0) {
+                this.firstDesyncTick = tick;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rollbacks of each depth.
+     *
+     * @param depth The number of ticks re-simulated.
+     * @return The number of rollbacks that deep.
+     */
+    public long getRollbackCount(int depth) {
+        return this.depthCounts[depth];
+    }
+
+    /**
+     * Returns the times taken by rollbacks, each restoring a snapshot and re-simulating the ticks after it.
+     *
+     * @return The rollback times.
+     */
+    public LatencyHistogram getRollbackTimes() {
+        return this.rollbackTimes;
+    }
+
+    /**
+     * Returns the number of rollbacks that took longer than a frame.
+     *
+     * @return The over-budget count.
+     */
+    public long getOverBudgetCount() {
+        return this.overBudget;
+    }
+
+    /**
+     * Returns the number of confirmed ticks where the checksums of the two peers differed.
+     *
+     * @return The desync count.
+     */
+    public long getDesyncCount() {
+        return this.desyncs;
+    }
+
+    /**
+     * Returns the number of confirmed ticks whose checksums were compared with the other peer's.
+     *
+     * @return The number of checksums compared.
+     */
+    public long getChecksumsCompared() {
+        return this.checksumsCompared;
+    }
+
+    /**
+     * Returns a report of the metrics.
+     *
+     * @return The multi-line summary.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("  ticks %d, stalled %d updates, waited %d to stay level, %d packets sent, %d received%n",
+                this.ticks, this.stalls, this.timeSyncWaits, this.packetsSent, this.packetsReceived));
+        summary.append(String.format("  %d mispredicted frames, %d rollbacks re-simulating %d ticks (%.2f per tick)%n",
+                this.mispredictedFrames, this.rollbacks, this.resimulatedTicks,
+                this.ticks == 0 ? 0 : (double) this.resimulatedTicks / this.ticks));
+        summary.append("  rollback depth:");
+        for (int depth = 1; depth < this.depthCounts.length; depth++) {
+            summary.append(' ').append(depth).append('=').append(this.depthCounts[depth]);
+        }
+        summary.append(System.lineSeparator());
+        if (this.rollbacks > 0) {
+            summary.append(String.format("  rollback %s, %d over the %.1f ms frame budget%n",
+                    this.rollbackTimes.summary(), this.overBudget, this.frameBudgetNanos / 1e6));
+        }
+        summary.append(String.format("  %d confirmed checksums compared, %d desyncs%s%n", this.checksumsCompared,
+                this.desyncs, this.firstDesyncTick < 0 ? "" : ", first at tick " + this.firstDesyncTick));
+        return summary.toString();
+    }
+}
@@ -0,0 +1,402 @@
+package main.net;
+
+import main.controller.GameLoop;
+import main.controller.GameOverListener;
+import main.controller.GameState;
+import main.input.InputSource;
+import main.levels.separators.Updatable;
+import main.replay.Replay;
+import main.replay.StateChecksum;
+import main.simulation.RewindBuffer;
+import main.simulation.TickClock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The RollbackSession class plays a two-player co-op game over a {@link Transport} with rollback networking.
+ * <p>
+ * Both peers simulate the same deterministic game: same seed, same starting level, and on every tick the input of
+ * both players. A peer never waits for the other player's input of the tick it simulates. It predicts that input
+ * instead, by repeating the last one it received, and sends its own input along to the other peer. When the real
+ * input of a tick arrives and differs from the prediction, the peer restores its snapshot of that tick and
+ * re-simulates up to the current one with the input corrected. A peer runs at most {@value #MAX_ROLLBACK_TICKS}
+ * ticks ahead of the input it has received and stalls beyond that, so no rollback re-simulates more ticks.
+ * <p>
+ * Every packet carries the unacknowledged inputs of the sender, so lost packets cost nothing but a resend, plus the
+ * checksum of the sender's latest confirmed tick; a tick is confirmed once the inputs of both players up to it are
+ * known. A checksum that differs from the local one is counted as a desync.
+ * <p>
+ * Packets also carry how far the sender is ahead of the input it has received. A peer that is further ahead than
+ * the other one, e.g. because it started first, skips a tick now and then until the two are level again; otherwise
+ * it would roll back deeper than the latency requires on every late input.
+ * <p>
+ * The game ends when the game state has ended on a confirmed tick. The session keeps exchanging packets after that,
+ * so the other peer can confirm the end as well.
+ */
+public class RollbackSession implements Updatable {
+    public static final String PLAYER_PROPERTY = "badicecream.net.player";
+    public static final String SEED_PROPERTY = "badicecream.net.seed";
+    public static final String LEVEL_PROPERTY = "badicecream.net.level";
+    public static final int MAX_ROLLBACK_TICKS = 8;
+    private static final int MAGIC = 0x4249434e; // "BICN"
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + 2;
+    private static final int TIME_SYNC_INTERVAL = 10;
+    private static final int MAX_FRAMES_PER_PACKET = 32;
+    // Ring buffers of per-tick data; far more ticks than either peer can be apart
+    private static final int RING_SIZE = 64;
+    private static final int SNAPSHOT_KEYFRAME_INTERVAL = 16;
+    private static final int SNAPSHOT_CAPACITY = MAX_ROLLBACK_TICKS + 2 * SNAPSHOT_KEYFRAME_INTERVAL;
+    private static final int SNAPSHOT_BYTES = SNAPSHOT_CAPACITY * 8 * 1024;
+    private static final StateChecksum[] CHECKSUMS = StateChecksum.values();
+
+    private final GameState gameState;
+    private final Transport transport;
+    private final InputSource localSource;
+    private final FrameInput localInput;
+    private final FrameInput remoteInput;
+    private final RewindBuffer snapshots;
+    private final RollbackMetrics metrics;
+    private GameOverListener gameOverListener = message -> { };
+    private GameLoop gameLoop;
+
+    private final byte[] localFrames = new byte[RING_SIZE];
+    private final byte[] remoteFrames = new byte[RING_SIZE];
+    private final int[] remoteFrameTicks = new int[RING_SIZE];
+    private final byte[] usedRemoteFrames = new byte[RING_SIZE];
+    private final int[] localChecksums = new int[RING_SIZE];
+    private final int[] localChecksumTicks = new int[RING_SIZE];
+    private final int[] remoteChecksums = new int[RING_SIZE];
+    private final int[] remoteChecksumTicks = new int[RING_SIZE];
+    private int tick;
+    private int confirmedRemoteTick = -1;
+    private int remoteAckedTick = -1;
+    private int comparedTick = -1;
+    private int rollbackTick = Integer.MAX_VALUE;
+    private int endTick;
+    private int latestRemoteTick = -1;
+    private int remoteAdvantage;
+    private int ticksSinceTimeSync;
+    private boolean finished;
+
+    private final byte[] packet = new byte[Transport.MAX_PACKET_SIZE];
+    private final ByteBuffer packetBuffer = ByteBuffer.wrap(this.packet);
+
+    /**
+     * Constructs a RollbackSession and the game state it plays. Both peers must be constructed with the same seed
+     * and starting level, and with different player numbers.
+     *
+     * @param width              The width of the playing field in pixels.
+     * @param height             The height of the playing field in pixels.
+     * @param localSource        The input of the local player.
+     * @param playerNumber       1 to control the player, 2 to control the partner.
+     * @param startingLevelIndex The zero-based index of the first level.
+     * @param seed               The seed of the game.
+     * @param transport          The link to the other peer.
+     */
+    public RollbackSession(int width, int height, InputSource localSource, int playerNumber, int startingLevelIndex,
+                           long seed, Transport transport) {
+        if (playerNumber != 1 && playerNumber != 2) {
+            throw new IllegalArgumentException("Player number must be 1 or 2: " + playerNumber);
+        }
+        this.transport = transport;
+        this.localSource = localSource;
+        this.localInput = new FrameInput();
+        this.remoteInput = new FrameInput();
+        FrameInput playerInput = playerNumber == 1 ? this.localInput : this.remoteInput;
+        FrameInput partnerInput = playerNumber == 1 ? this.remoteInput : this.localInput;
+        // Rolling back restores snapshots of its own, so the game keeps no rewind history
+        this.gameState = new GameState(width, height, playerInput, partnerInput, startingLevelIndex, seed,
+                new TickClock(GameLoop.DEFAULT_TICKS_PER_SECOND), false);
+        this.snapshots = new RewindBuffer(SNAPSHOT_CAPACITY, SNAPSHOT_KEYFRAME_INTERVAL, SNAPSHOT_BYTES);
+        this.metrics = new RollbackMetrics(MAX_ROLLBACK_TICKS, 1_000_000_000L / GameLoop.DEFAULT_TICKS_PER_SECOND);
+        Arrays.fill(this.remoteFrameTicks, -1);
+        Arrays.fill(this.localChecksumTicks, -1);
+        Arrays.fill(this.remoteChecksumTicks, -1);
+    }
+
+    /**
+     * Creates a session over UDP from the {@value UdpTransport#PEER_PROPERTY}, {@value UdpTransport#PORT_PROPERTY},
+     * {@value #PLAYER_PROPERTY}, {@value #SEED_PROPERTY} and {@value #LEVEL_PROPERTY} system properties.
+     *
+     * @param width       The width of the playing field in pixels.
+     * @param height      The height of the playing field in pixels.
+     * @param localSource The input of the local player.
+     * @return The session, or null if no peer is configured.
+     * @throws IOException if the local port cannot be bound.
+     */
+    public static RollbackSession fromSystemProperties(int width, int height, InputSource localSource)
+            throws IOException {
+        String peer = System.getProperty(UdpTransport.PEER_PROPERTY);
+        if (peer == null) {
+            return null;
+        }
+        Transport transport = new UdpTransport(Integer.getInteger(UdpTransport.PORT_PROPERTY, UdpTransport.DEFAULT_PORT),
+                UdpTransport.parseAddress(peer));
+        return new RollbackSession(width, height, localSource, Integer.getInteger(PLAYER_PROPERTY, 1),
+                Integer.getInteger(LEVEL_PROPERTY, 1) - 1, Long.getLong(SEED_PROPERTY, 0), transport);
+    }
+
+    /**
+     * Exchanges packets with the other peer, rolls back if a received input proved a prediction wrong, and then
+     * simulates the next tick unless the session is too far ahead of the other peer or the game is over.
+     */
+    @Override
+    public void update() {
+        synchronized (this.gameState.getStateLock()) {
+            this.receivePackets();
+            if (this.rollbackTick < this.tick) {
+                this.rollBack();
+            }
+            this.rollbackTick = Integer.MAX_VALUE;
+
+            if (this.gameState.hasEnded()) {
+                // A game over on a predicted tick may still be rolled back
+                if (!this.finished && this.confirmedRemoteTick >= this.endTick) {
+                    this.finished = true;
+                    this.gameOverListener.onGameOver(this.gameState.getGameOverMessage());
+                }
+            } else if (this.tick - this.confirmedRemoteTick > MAX_ROLLBACK_TICKS) {
+                this.metrics.recordStall();
+            } else if (this.ticksSinceTimeSync >= TIME_SYNC_INTERVAL
+                    && this.getAdvantage() - this.remoteAdvantage >= 2) {
+                // Half the difference is how far this peer runs ahead of the other one
+                this.ticksSinceTimeSync = 0;
+                this.metrics.recordTimeSyncWait();
+            } else {
+                this.ticksSinceTimeSync++;
+                this.localSource.nextTick();
+                this.localFrames[slot(this.tick)] = Replay.captureFrame(this.localSource);
+                this.simulate(this.tick);
+                this.tick++;
+                this.metrics.recordTick();
+            }
+            this.compareChecksums();
+            this.sendPacket();
+        }
+    }
+
+    /**
+     * Starts a game loop running the session at the default tick rate. The loop keeps running after the game is
+     * over until {@link #close()}.
+     */
+    public void start() {
+        this.gameLoop = this.gameState.startGameLoop(this);
+    }
+
+    /**
+     * Stops the game loop, if any, and closes the transport.
+     */
+    public void close() {
+        if (this.gameLoop != null) {
+            this.gameLoop.stop();
+        }
+        try {
+            this.transport.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // How many ticks this peer has simulated beyond the latest input received from the other one
+    private int getAdvantage() {
+        return this.tick - (this.latestRemoteTick + 1);
+    }
+
+    private static int slot(int tick) {
+        return tick & (RING_SIZE - 1);
+    }
+
+    // Restores the state before the earliest mispredicted tick and plays the ticks since then again
+    private void rollBack() {
+        long startTime = System.nanoTime();
+        int depth = this.tick - this.rollbackTick;
+        this.snapshots.restore(this.rollbackTick, this.gameState);
+        for (int t = this.rollbackTick; t < this.tick; t++) {
+            this.simulate(t);
+        }
+        this.metrics.recordRollback(depth, System.nanoTime() - startTime);
+    }
+
+    private void simulate(int tick) {
+        this.snapshots.capture(tick, this.gameState);
+        byte remoteFrame = this.remoteFrameTicks[slot(tick)] == tick ? this.remoteFrames[slot(tick)] : this.predict();
+        this.usedRemoteFrames[slot(tick)] = remoteFrame;
+        this.localInput.setFrame(this.localFrames[slot(tick)]);
+        this.remoteInput.setFrame(remoteFrame);
+        boolean hadEnded = this.gameState.hasEnded();
+        this.gameState.update();
+        // The ticks after the one that ended the game change nothing, so the end does not wait for their input
+        if (!hadEnded && this.gameState.hasEnded()) {
+            this.endTick = tick;
+        }
+        // Taken on every tick, as a tick simulated with a correct prediction is confirmed without a rollback
+        int checksum = 0;
+        for (StateChecksum part : CHECKSUMS) {
+            checksum = checksum * 31 + part.compute(this.gameState);
+        }
+        this.localChecksums[slot(tick)] = checksum;
+        this.localChecksumTicks[slot(tick)] = tick;
+    }
+
+    // The other player most likely keeps holding the same keys, but a press of SPACE happens only once
+    private byte predict() {
+        if (this.confirmedRemoteTick < 0) {
+            return 0;
+        }
+        return Replay.withoutSpacePress(this.remoteFrames[slot(this.confirmedRemoteTick)]);
+    }
+
+    // The checksums of confirmed ticks are final, so they are compared with the other peer's as they become known
+    private void compareChecksums() {
+        int confirmedTick = this.getConfirmedTick();
+        for (int t = this.comparedTick + 1; t <= confirmedTick; t++) {
+            if (this.remoteChecksumTicks[slot(t)] == t && this.localChecksumTicks[slot(t)] == t) {
+                this.metrics.recordChecksum(t, this.remoteChecksums[slot(t)] == this.localChecksums[slot(t)]);
+            }
+        }
+        this.comparedTick = Math.max(this.comparedTick, confirmedTick);
+    }
+
+    private void receivePackets() {
+        int length;
+        while ((length = this.receive()) >= 0) {
+            if (length < HEADER_SIZE) {
+                continue;
+            }
+            this.packetBuffer.clear();
+            if (this.packetBuffer.getInt() != MAGIC) {
+                continue;
+            }
+            this.metrics.recordPacketReceived();
+            this.remoteAckedTick = Math.max(this.remoteAckedTick, this.packetBuffer.getInt());
+            int checksumTick = this.packetBuffer.getInt();
+            int checksum = this.packetBuffer.getInt();
+            this.remoteAdvantage = this.packetBuffer.get();
+            int firstTick = this.packetBuffer.getInt();
+            int count = Math.min(this.packetBuffer.get() & 0xff, length - HEADER_SIZE);
+            if (count > 0) {
+                this.latestRemoteTick = Math.max(this.latestRemoteTick, firstTick + count - 1);
+            }
+            for (int i = 0; i < count; i++) {
+                this.receiveFrame(firstTick + i, this.packetBuffer.get());
+            }
+            this.receiveChecksum(checksumTick, checksum);
+        }
+    }
+
+    private int receive() {
+        try {
+            return this.transport.receive(this.packet);
+        } catch (IOException e) {
+            throw new RuntimeException("Receiving from the other peer failed", e);
+        }
+    }
+
+    private void receiveFrame(int tick, byte frame) {
+        if (tick <= this.confirmedRemoteTick || tick - this.confirmedRemoteTick >= RING_SIZE
+                || this.remoteFrameTicks[slot(tick)] == tick) {
+            return;
+        }
+        this.remoteFrames[slot(tick)] = frame;
+        this.remoteFrameTicks[slot(tick)] = tick;
+        if (tick < this.tick && this.usedRemoteFrames[slot(tick)] != frame) {
+            this.metrics.recordMisprediction();
+            this.rollbackTick = Math.min(this.rollbackTick, tick);
+        }
+        while (this.remoteFrameTicks[slot(this.confirmedRemoteTick + 1)] == this.confirmedRemoteTick + 1) {
+            this.confirmedRemoteTick++;
+        }
+    }
+
+    private void receiveChecksum(int tick, int checksum) {
+        if (tick < 0 || this.remoteChecksumTicks[slot(tick)] == tick) {
+            return;
+        }
+        this.remoteChecksums[slot(tick)] = checksum;
+        this.remoteChecksumTicks[slot(tick)] = tick;
+        // Checksums of ticks confirmed before are not looked at again
+        if (tick <= this.comparedTick && this.localChecksumTicks[slot(tick)] == tick) {
+            this.metrics.recordChecksum(tick, this.localChecksums[slot(tick)] == checksum);
+        }
+    }
+
+    // The local frames the other peer has not acknowledged yet, oldest first, and the latest confirmed checksum
+    private void sendPacket() {
+        int firstTick = Math.max(this.remoteAckedTick + 1, this.tick - RING_SIZE / 2);
+        int count = Math.min(this.tick - firstTick, MAX_FRAMES_PER_PACKET);
+        this.packetBuffer.clear();
+        this.packetBuffer.putInt(MAGIC);
+        this.packetBuffer.putInt(this.confirmedRemoteTick);
+        this.packetBuffer.putInt(this.comparedTick);
+        this.packetBuffer.putInt(this.comparedTick < 0 ? 0 : this.localChecksums[slot(this.comparedTick)]);
+        this.packetBuffer.put((byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, this.getAdvantage())));
+        this.packetBuffer.putInt(firstTick);
+        this.packetBuffer.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            this.packetBuffer.put(this.localFrames[slot(firstTick + i)]);
+        }
+        try {
+            this.transport.send(this.packet, this.packetBuffer.position());
+        } catch (IOException e) {
+            throw new RuntimeException("Sending to the other peer failed", e);
+        }
+        this.metrics.recordPacketSent();
+    }
+
+    /**
+     * Sets the listener notified once the game is over on a confirmed tick, with the game over message.
+     * It is called from the thread updating the session.
+     *
+     * @param gameOverListener The listener.
+     */
+    public void setGameOverListener(GameOverListener gameOverListener) {
+        this.gameOverListener = gameOverListener;
+    }
+
+    /**
+     * Checks if the game is over on a confirmed tick.
+     *
+     * @return true if the game is finished, false otherwise.
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Returns the game state played by the session.
+     *
+     * @return The game state.
+     */
+    public GameState getGameState() {
+        return this.gameState;
+    }
+
+    /**
+     * Returns the number of ticks simulated.
+     *
+     * @return The current tick.
+     */
+    public int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Returns the latest tick whose input of both players is known.
+     *
+     * @return The confirmed tick, or -1 if none.
+     */
+    public int getConfirmedTick() {
+        return Math.min(this.confirmedRemoteTick, this.tick - 1);
+    }
+
+    /**
+     * Returns the metrics of the session.
+     *
+     * @return The metrics.
+     */
+    public RollbackMetrics getMetrics() {
+        return this.metrics;
+    }
+}
@@ -0,0 +1,30 @@
+package main.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Interface for the unreliable, unordered datagram link between the two peers of a network game.
+ * Packets may be lost, duplicated or reordered; the session on top resends everything that is not acknowledged.
+ */
+public interface Transport extends Closeable {
+    int MAX_PACKET_SIZE = 512;
+
+    /**
+     * Sends a packet to the other peer without waiting.
+     *
+     * @param data   The buffer holding the packet.
+     * @param length The length of the packet, at most {@value #MAX_PACKET_SIZE} bytes.
+     * @throws IOException if the link has failed.
+     */
+    void send(byte[] data, int length) throws IOException;
+
+    /**
+     * Takes the next packet that has arrived, without waiting.
+     *
+     * @param buffer The buffer to copy the packet into, at least {@value #MAX_PACKET_SIZE} bytes long.
+     * @return The length of the packet, or -1 if none has arrived.
+     * @throws IOException if the link has failed.
+     */
+    int receive(byte[] buffer) throws IOException;
+}
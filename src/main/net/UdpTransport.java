@@ -0,0 +1,94 @@
+package main.net;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * The UdpTransport class links the two peers of a network game over UDP. The channel is non-blocking and connected
+ * to the other peer, so only its datagrams are received. While the other peer is not listening yet, sending and
+ * receiving simply lose the packets, as the session resends them anyway.
+ */
+public class UdpTransport implements Transport {
+    public static final String PORT_PROPERTY = "badicecream.net.port";
+    public static final String PEER_PROPERTY = "badicecream.net.peer";
+    public static final int DEFAULT_PORT = 7777;
+    private final DatagramChannel channel;
+    private final ByteBuffer sendBuffer;
+    private final ByteBuffer receiveBuffer;
+
+    /**
+     * Constructs a UdpTransport listening on a local port and connected to the other peer.
+     *
+     * @param localPort The local UDP port.
+     * @param peer      The address of the other peer.
+     * @throws IOException if the port cannot be bound.
+     */
+    public UdpTransport(int localPort, InetSocketAddress peer) throws IOException {
+        this.channel = DatagramChannel.open(peer.getAddress() instanceof Inet6Address
+                ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET);
+        try {
+            this.channel.bind(new InetSocketAddress(localPort));
+            this.channel.configureBlocking(false);
+            this.channel.connect(peer);
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.sendBuffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+        this.receiveBuffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+    }
+
+    /**
+     * Parses a peer address of the form {@code host:port}.
+     *
+     * @param address The address.
+     * @return The socket address.
+     * @throws IllegalArgumentException if the address has no port.
+     */
+    public static InetSocketAddress parseAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0 || colon == address.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port, got " + address);
+        }
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    @Override
+    public void send(byte[] data, int length) throws IOException {
+        this.sendBuffer.clear();
+        this.sendBuffer.put(data, 0, length);
+        this.sendBuffer.flip();
+        try {
+            this.channel.write(this.sendBuffer);
+        } catch (PortUnreachableException e) {
+            // The other peer is not listening yet
+        }
+    }
+
+    @Override
+    public int receive(byte[] buffer) throws IOException {
+        this.receiveBuffer.clear();
+        int length;
+        try {
+            length = this.channel.read(this.receiveBuffer);
+        } catch (PortUnreachableException e) {
+            return -1;
+        }
+        if (length <= 0) {
+            return -1;
+        }
+        this.receiveBuffer.flip();
+        this.receiveBuffer.get(buffer, 0, length);
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,381 @@
+package main.replay;
+
+import main.input.InputSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The Replay class is a recorded game: everything needed to build the same game again, and the input of the player
+ * on every tick of it. As the simulation is deterministic, that is enough to play the whole game back.
+ * <p>
+ * The input of a tick is a single frame byte holding a bit per movement key and one for a press of SPACE.
+ * On disk the frames are run-length encoded, so the long stretches where the player idles or holds a key take a
+ * couple of bytes each; a two-minute game is a few kilobytes.
+ * <p>
+ * A golden replay also stores the {@link StateChecksum}s of the game after every tick, starting with the state
+ * before the first one, so a later build can check that it still plays the game exactly the same way.
+ * The checksums are run-length encoded as well, but they make the file an order of magnitude larger.
+ */
+public final class Replay {
+    public static final String FILE_EXTENSION = ".bicr";
+    private static final int MAGIC = 0x42494352; // "BICR"
+    private static final int VERSION = 2;
+    private static final int FIRST_VERSION_WITH_CHECKSUMS = 2;
+    private static final StateChecksum[] CHECKSUMS = StateChecksum.values();
+    private static final int[] MOVEMENT_KEYS = {'W', 'A', 'S', 'D'};
+    private static final int SPACE_BIT = 1 << MOVEMENT_KEYS.length;
+
+    private final int levelIndex;
+    private final long seed;
+    private final long startTick;
+    private final int width;
+    private final int height;
+    private final byte[] frames;
+    private final int[][] checksums;
+
+    /**
+     * Constructs a Replay without checksums.
+     *
+     * @param levelIndex The zero-based index of the level the game started at.
+     * @param seed       The seed of the game, see {@link main.controller.GameState#getGameSeed()}.
+     * @param startTick  The tick of the game clock when the game started.
+     * @param width      The width of the playing field in pixels.
+     * @param height     The height of the playing field in pixels.
+     * @param frames     The input frame of every tick.
+     */
+    public Replay(int levelIndex, long seed, long startTick, int width, int height, byte[] frames) {
+        this(levelIndex, seed, startTick, width, height, frames, null);
+    }
+
+    private Replay(int levelIndex, long seed, long startTick, int width, int height, byte[] frames, int[][] checksums) {
+        this.levelIndex = levelIndex;
+        this.seed = seed;
+        this.startTick = startTick;
+        this.width = width;
+        this.height = height;
+        this.frames = frames;
+        this.checksums = checksums;
+    }
+
+    /**
+     * Returns a copy of this replay with the given checksums, making it a golden replay.
+     *
+     * @param checksums The checksums by {@link StateChecksum} ordinal and then by tick; every array holds the same
+     *                  number of ticks.
+     * @return The golden replay.
+     */
+    public Replay withChecksums(int[][] checksums) {
+        if (checksums.length != CHECKSUMS.length) {
+            throw new IllegalArgumentException("Expected " + CHECKSUMS.length + " checksums per tick");
+        }
+        return new Replay(this.levelIndex, this.seed, this.startTick, this.width, this.height, this.frames, checksums);
+    }
+
+    /**
+     * Reads the input the simulation sees on the current tick of the source into a frame.
+     * Consumes a pending press of SPACE, exactly as the player does once per tick.
+     *
+     * @param source The input source.
+     * @return The frame.
+     */
+    public static byte captureFrame(InputSource source) {
+        int frame = 0;
+        for (int i = 0; i < MOVEMENT_KEYS.length; i++) {
+            if (source.isKeyDown(MOVEMENT_KEYS[i])) {
+                frame |= 1 << i;
+            }
+        }
+        if (source.isKeyPressed(InputSource.KEY_SPACE)) {
+            frame |= SPACE_BIT;
+        }
+        return (byte) frame;
+    }
+
+    /**
+     * Checks if a movement key is held down in a frame.
+     *
+     * @param frame   The frame.
+     * @param keyCode The key code.
+     * @return true if the key is held down, false otherwise.
+     */
+    public static boolean isKeyDown(byte frame, int keyCode) {
+        for (int i = 0; i < MOVEMENT_KEYS.length; i++) {
+            if (MOVEMENT_KEYS[i] == keyCode) {
+                return (frame & 1 << i) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if SPACE was pressed in a frame.
+     *
+     * @param frame The frame.
+     * @return true if SPACE was pressed, false otherwise.
+     */
+    public static boolean isSpacePressed(byte frame) {
+        return (frame & SPACE_BIT) != 0;
+    }
+
+    /**
+     * Returns a frame with the same movement keys held but without a press of SPACE.
+     *
+     * @param frame The frame.
+     * @return The frame without SPACE.
+     */
+    public static byte withoutSpacePress(byte frame) {
+        return (byte) (frame & ~SPACE_BIT);
+    }
+
+    /**
+     * Writes the replay to a stream. The stream is not closed.
+     *
+     * @param stream The stream to write to.
+     * @throws IOException if writing fails.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(this.levelIndex);
+        out.writeLong(this.seed);
+        out.writeLong(this.startTick);
+        out.writeShort(this.width);
+        out.writeShort(this.height);
+        writeVarInt(out, this.frames.length);
+        // Runs of equal frames, each as the frame followed by the length of the run
+        int start = 0;
+        while (start < this.frames.length) {
+            int end = start + 1;
+            while (end < this.frames.length && this.frames[end] == this.frames[start]) {
+                end++;
+            }
+            out.writeByte(this.frames[start]);
+            writeVarInt(out, end - start);
+            start = end;
+        }
+        out.writeBoolean(this.checksums != null);
+        if (this.checksums != null) {
+            writeVarInt(out, this.checksums[0].length);
+            for (int[] values : this.checksums) {
+                writeChecksums(out, values);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a replay written by {@link #write(OutputStream)}. The stream is not closed.
+     *
+     * @param stream The stream to read from.
+     * @return The replay.
+     * @throws IOException if reading fails or the stream does not hold a replay.
+     */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        int levelIndex = in.readUnsignedByte();
+        long seed = in.readLong();
+        long startTick = in.readLong();
+        int width = in.readUnsignedShort();
+        int height = in.readUnsignedShort();
+        byte[] frames = new byte[readVarInt(in)];
+        int tick = 0;
+        while (tick < frames.length) {
+            byte frame = in.readByte();
+            int length = readVarInt(in);
+            if (length <= 0 || length > frames.length - tick) {
+                throw new IOException("Corrupt replay: run of " + length + " ticks at tick " + tick);
+            }
+            Arrays.fill(frames, tick, tick + length, frame);
+            tick += length;
+        }
+        int[][] checksums = null;
+        if (version >= FIRST_VERSION_WITH_CHECKSUMS && in.readBoolean()) {
+            checksums = new int[CHECKSUMS.length][readVarInt(in)];
+            for (int[] values : checksums) {
+                readChecksums(in, values);
+            }
+        }
+        return new Replay(levelIndex, seed, startTick, width, height, frames, checksums);
+    }
+
+    /**
+     * Writes the replay to a file.
+     *
+     * @param file The file.
+     * @throws IOException if writing fails.
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file))) {
+            this.write(stream);
+        }
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param file The file.
+     * @return The replay.
+     * @throws IOException if reading fails or the file does not hold a replay.
+     */
+    public static Replay load(Path file) throws IOException {
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(stream);
+        }
+    }
+
+    private static void writeChecksums(DataOutputStream out, int[] values) throws IOException {
+        int start = 0;
+        while (start < values.length) {
+            int end = start + 1;
+            while (end < values.length && values[end] == values[start]) {
+                end++;
+            }
+            out.writeInt(values[start]);
+            writeVarInt(out, end - start);
+            start = end;
+        }
+    }
+
+    private static void readChecksums(DataInputStream in, int[] values) throws IOException {
+        int tick = 0;
+        while (tick < values.length) {
+            int value = in.readInt();
+            int length = readVarInt(in);
+            if (length <= 0 || length > values.length - tick) {
+                throw new IOException("Corrupt replay: run of " + length + " checksums at tick " + tick);
+            }
+            Arrays.fill(values, tick, tick + length, value);
+            tick += length;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte(value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt replay: malformed length");
+    }
+
+    /**
+     * Returns the index of the level the game started at.
+     *
+     * @return The zero-based level index.
+     */
+    public int getLevelIndex() {
+        return this.levelIndex;
+    }
+
+    /**
+     * Returns the seed of the game.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the tick of the game clock when the game started.
+     *
+     * @return The starting tick.
+     */
+    public long getStartTick() {
+        return this.startTick;
+    }
+
+    /**
+     * Returns the width of the playing field in pixels.
+     *
+     * @return The width.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the playing field in pixels.
+     *
+     * @return The height.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the number of ticks recorded.
+     *
+     * @return The tick count.
+     */
+    public int getTickCount() {
+        return this.frames.length;
+    }
+
+    /**
+     * Returns the input frame of a tick.
+     *
+     * @param tick The tick, counted from the start of the game.
+     * @return The frame.
+     */
+    public byte getFrame(int tick) {
+        return this.frames[tick];
+    }
+
+    /**
+     * Checks if the replay stores checksums, i.e. is a golden replay.
+     *
+     * @return true if the replay has checksums, false otherwise.
+     */
+    public boolean hasChecksums() {
+        return this.checksums != null;
+    }
+
+    /**
+     * Returns the number of ticks checksummed, including the state before the first tick.
+     *
+     * @return The number of checksummed states, or 0 if the replay has no checksums.
+     */
+    public int getChecksumCount() {
+        return this.checksums == null ? 0 : this.checksums[0].length;
+    }
+
+    /**
+     * Returns a stored checksum.
+     *
+     * @param checksum The part of the game state.
+     * @param tick     The number of ticks played when the checksum was taken.
+     * @return The checksum.
+     */
+    public int getChecksum(StateChecksum checksum, int tick) {
+        return this.checksums[checksum.ordinal()][tick];
+    }
+}
@@ -0,0 +1,64 @@
+package main.replay;
+
+import main.input.InputSource;
+
+/**
+ * The ReplayInput class feeds the recorded input of a {@link Replay} back to the game, one frame per tick.
+ * Once the recording runs out the player stands still.
+ */
+public class ReplayInput implements InputSource {
+    private final Replay replay;
+    private int tick;
+    private byte frame;
+    private boolean spacePending;
+
+    /**
+     * Constructs a ReplayInput positioned at the start of the replay.
+     *
+     * @param replay The replay.
+     */
+    public ReplayInput(Replay replay) {
+        this.replay = replay;
+    }
+
+    @Override
+    public void nextTick() {
+        this.frame = this.tick < this.replay.getTickCount() ? this.replay.getFrame(this.tick) : 0;
+        this.spacePending = Replay.isSpacePressed(this.frame);
+        this.tick++;
+    }
+
+    @Override
+    public boolean isKeyDown(int keyCode) {
+        return Replay.isKeyDown(this.frame, keyCode);
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        if (keyCode == KEY_SPACE && this.spacePending) {
+            this.spacePending = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of ticks played so far.
+     *
+     * @return The tick the next frame belongs to.
+     */
+    public int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Moves to the given tick, e.g. after the game has been restored to a keyframe of that tick.
+     *
+     * @param tick The tick the next frame belongs to.
+     */
+    public void setTick(int tick) {
+        this.tick = tick;
+        this.frame = 0;
+        this.spacePending = false;
+    }
+}
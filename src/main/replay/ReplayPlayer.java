@@ -0,0 +1,180 @@
+package main.replay;
+
+import main.controller.GameLoop;
+import main.controller.GameState;
+import main.levels.separators.Updatable;
+import main.simulation.StateBuffer;
+import main.simulation.TickClock;
+
+/**
+ * The ReplayPlayer class plays a {@link Replay} back on a game state of its own.
+ * <p>
+ * The game can be stepped tick by tick, run to the end as fast as the simulation allows, or played at the normal
+ * speed by a game loop. Every way of playing steps the game, so a keyframe of the whole game state is saved every
+ * {@code keyframeInterval} ticks; seeking restores the nearest keyframe at or before the wanted tick and simulates
+ * only the ticks after it. The keyframe of the first tick is saved up front, so the replay can always be played
+ * again from the start. Keyframes are kept in memory and never written to the replay file.
+ */
+public class ReplayPlayer implements Updatable {
+    public static final String FILE_PROPERTY = "badicecream.replay.file";
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 300; // 5 seconds at the default tick rate
+    private final Replay replay;
+    private final ReplayInput input;
+    private final GameState gameState;
+    private final int keyframeInterval;
+    private final byte[][] keyframes;
+    private final StateBuffer buffer;
+    private GameLoop gameLoop;
+
+    /**
+     * Constructs a ReplayPlayer saving a keyframe every {@value #DEFAULT_KEYFRAME_INTERVAL} ticks.
+     *
+     * @param replay The replay.
+     */
+    public ReplayPlayer(Replay replay) {
+        this(replay, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Constructs a ReplayPlayer positioned at the start of the replay.
+     *
+     * @param replay           The replay.
+     * @param keyframeInterval The number of ticks between two keyframes.
+     */
+    public ReplayPlayer(Replay replay, int keyframeInterval) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframe interval must be positive");
+        }
+        this.replay = replay;
+        this.input = new ReplayInput(replay);
+        TickClock clock = new TickClock(GameLoop.DEFAULT_TICKS_PER_SECOND);
+        clock.setTicks(replay.getStartTick());
+        // Seeking restores keyframes of its own, so the game keeps no rewind history
+        this.gameState = new GameState(replay.getWidth(), replay.getHeight(), this.input, null, replay.getLevelIndex(),
+                replay.getSeed(), clock, false);
+        this.keyframeInterval = keyframeInterval;
+        this.keyframes = new byte[replay.getTickCount() / keyframeInterval + 1][];
+        this.buffer = new StateBuffer();
+        this.saveKeyframe(0);
+    }
+
+    /**
+     * Plays the next tick, saving a keyframe first if one is due.
+     *
+     * @return true if a tick was played, false if the replay is finished.
+     */
+    public boolean step() {
+        if (this.isFinished()) {
+            return false;
+        }
+        int tick = this.getTick();
+        if (tick % this.keyframeInterval == 0 && this.keyframes[tick / this.keyframeInterval] == null) {
+            this.saveKeyframe(tick / this.keyframeInterval);
+        }
+        this.gameState.update();
+        return true;
+    }
+
+    /**
+     * Plays the next tick on the game loop started by {@link #start()}, and stops the loop once the replay is
+     * finished.
+     */
+    @Override
+    public void update() {
+        this.step();
+        if (this.isFinished() && this.gameLoop != null) {
+            this.gameLoop.stop();
+        }
+    }
+
+    /**
+     * Starts a game loop playing the replay at the normal speed from the current tick. Keyframes are saved on the
+     * way just as when stepping.
+     */
+    public void start() {
+        this.gameLoop = this.gameState.startGameLoop(this);
+    }
+
+    /**
+     * Plays the rest of the replay as fast as the simulation allows.
+     */
+    public void runToEnd() {
+        while (this.step()) {
+            // every step saves its keyframe, if one is due
+        }
+    }
+
+    /**
+     * Moves the game to the given tick. Seeking forward within the current keyframe interval simply plays on;
+     * anything else restores the nearest saved keyframe at or before the tick first. Keyframes not saved yet are
+     * saved on the way, so only the first seek past the furthest tick played so far simulates all ticks up to it.
+     *
+     * @param tick The tick, clamped to the length of the replay.
+     * @throws IllegalStateException if there is no keyframe to go back to.
+     */
+    public void seek(int tick) {
+        synchronized (this.gameState.getStateLock()) {
+            int target = Math.max(0, Math.min(tick, this.replay.getTickCount()));
+            int keyframe = target / this.keyframeInterval;
+            while (keyframe > 0 && this.keyframes[keyframe] == null) {
+                keyframe--;
+            }
+            int keyframeTick = keyframe * this.keyframeInterval;
+            int current = this.getTick();
+            if (current > target || current < keyframeTick) {
+                byte[] state = this.keyframes[keyframe];
+                if (state == null) {
+                    throw new IllegalStateException("No keyframe to seek to tick " + target + " from");
+                }
+                this.buffer.load(state, state.length);
+                this.gameState.restoreState(this.buffer);
+                this.input.setTick(keyframeTick);
+            }
+            while (this.getTick() < target && this.step()) {
+                // play on from the keyframe
+            }
+        }
+    }
+
+    /**
+     * Checks if the replay is finished: every recorded tick has been played or the game has ended.
+     *
+     * @return true if the replay is finished, false otherwise.
+     */
+    public boolean isFinished() {
+        return this.getTick() >= this.replay.getTickCount() || this.gameState.hasEnded();
+    }
+
+    /**
+     * Returns the number of ticks played.
+     *
+     * @return The current tick, counted from the start of the replay.
+     */
+    public int getTick() {
+        return this.input.getTick();
+    }
+
+    /**
+     * Returns the game state the replay is played on.
+     *
+     * @return The game state.
+     */
+    public GameState getGameState() {
+        return this.gameState;
+    }
+
+    /**
+     * Returns the replay being played.
+     *
+     * @return The replay.
+     */
+    public Replay getReplay() {
+        return this.replay;
+    }
+
+    private void saveKeyframe(int keyframe) {
+        this.buffer.clear();
+        this.gameState.saveState(this.buffer);
+        this.keyframes[keyframe] = this.buffer.toByteArray();
+    }
+}
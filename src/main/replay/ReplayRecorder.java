@@ -0,0 +1,125 @@
+package main.replay;
+
+import main.controller.GameState;
+import main.input.InputSource;
+import main.simulation.TickClock;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The ReplayRecorder class records the input of a game into a {@link Replay}. It sits between the game and the
+ * real input source: at the start of every tick it reads the source once into a frame, records the frame and then
+ * answers the game from it, so the game sees exactly the input that is recorded.
+ * The {@value #DIRECTORY_PROPERTY} system property names the directory the game window and the headless runner
+ * save every finished game into.
+ */
+public class ReplayRecorder implements InputSource {
+    public static final String DIRECTORY_PROPERTY = "badicecream.replay.dir";
+    private static final int INITIAL_CAPACITY = 4096;
+    private final InputSource source;
+    private byte[] frames;
+    private int tickCount;
+    private byte frame;
+    private boolean spacePending;
+    private int levelIndex;
+    private long seed;
+    private long startTick;
+    private int width;
+    private int height;
+
+    /**
+     * Constructs a ReplayRecorder reading from the given source.
+     *
+     * @param source The real input source.
+     */
+    public ReplayRecorder(InputSource source) {
+        this.source = source;
+        this.frames = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Starts recording the game about to be played by the given game state, discarding anything recorded before.
+     * Call it once the game is set up and before its first tick, i.e. after constructing or restarting it.
+     *
+     * @param gameState The game state.
+     * @throws IllegalStateException if the game does not run on a {@link TickClock}.
+     */
+    public synchronized void begin(GameState gameState) {
+        if (!(gameState.getClock() instanceof TickClock clock)) {
+            throw new IllegalStateException("Only a game running on a tick clock can be recorded");
+        }
+        this.levelIndex = gameState.getStartingLevelIndex();
+        this.seed = gameState.getGameSeed();
+        this.startTick = clock.getTicks();
+        this.width = gameState.getWidth();
+        this.height = gameState.getHeight();
+        this.tickCount = 0;
+    }
+
+    /**
+     * Returns the game recorded since {@link #begin(GameState)}. Recording goes on until begin is called again.
+     *
+     * @return The replay.
+     */
+    public synchronized Replay finish() {
+        return new Replay(this.levelIndex, this.seed, this.startTick, this.width, this.height,
+                Arrays.copyOf(this.frames, this.tickCount));
+    }
+
+    /**
+     * Saves the game recorded since {@link #begin(GameState)} into a directory. The file is named after the level,
+     * seed and starting tick of the game.
+     *
+     * @param directory The directory.
+     * @return The file written.
+     * @throws IOException if writing fails.
+     */
+    public Path finishAndSave(Path directory) throws IOException {
+        Replay replay = this.finish();
+        Path file = directory.resolve(String.format("replay-%d-%016x-%d%s", replay.getLevelIndex() + 1,
+                replay.getSeed(), replay.getStartTick(), Replay.FILE_EXTENSION));
+        replay.save(file);
+        return file;
+    }
+
+    /**
+     * Forgets the input recorded after a tick, after the game has been rewound to it.
+     *
+     * @param tick The tick of the game clock the game was rewound to.
+     * @throws IllegalArgumentException if the tick is not within the recorded game.
+     */
+    public synchronized void rewindTo(long tick) {
+        long count = tick - this.startTick;
+        if (count < 0 || count > this.tickCount) {
+            throw new IllegalArgumentException("Tick " + tick + " is not within the recorded game");
+        }
+        this.tickCount = (int) count;
+    }
+
+    @Override
+    public synchronized void nextTick() {
+        this.source.nextTick();
+        this.frame = Replay.captureFrame(this.source);
+        this.spacePending = Replay.isSpacePressed(this.frame);
+        if (this.tickCount == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+        }
+        this.frames[this.tickCount++] = this.frame;
+    }
+
+    @Override
+    public boolean isKeyDown(int keyCode) {
+        return Replay.isKeyDown(this.frame, keyCode);
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        if (keyCode == KEY_SPACE && this.spacePending) {
+            this.spacePending = false;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package main.simulation;
+
+/**
+ * The GameClock interface is the only source of time for the simulation. Gameplay code must never read the
+ * system clock directly, so that a simulation can be run faster than real time and reproduced exactly.
+ */
+public interface GameClock {
+    /**
+     * Returns the current simulation time.
+     *
+     * @return the current time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Called by the game state once per simulation tick.
+     */
+    default void tick() {
+    }
+}
@@ -0,0 +1,85 @@
+package main.simulation;
+
+/**
+ * The RandomStream class is a small, seedable pseudo-random generator (SplitMix64) used by the simulation.
+ * Independent child streams can be split off deterministically, so every enemy and manager draws from its own
+ * stream and the order in which they are updated never changes what another one sees. The whole state is a
+ * single long, which makes streams cheap to save and restore.
+ */
+public class RandomStream {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private long state;
+
+    /**
+     * Constructs a RandomStream with the given seed.
+     *
+     * @param seed the seed
+     */
+    public RandomStream(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Returns the next pseudo-random long.
+     *
+     * @return a uniformly distributed long
+     */
+    public long nextLong() {
+        this.state += GOLDEN_GAMMA;
+        return mix64(this.state);
+    }
+
+    /**
+     * Returns a pseudo-random int between zero (inclusive) and the bound (exclusive), without modulo bias.
+     *
+     * @param bound the upper bound, must be positive
+     * @return a uniformly distributed int in [0, bound)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        int r = (int) (this.nextLong() >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (this.nextLong() >>> 33)) {
+            // reject values from the incomplete last range
+        }
+        return r;
+    }
+
+    /**
+     * Splits off a new stream whose values are independent of this one.
+     *
+     * @return the child stream
+     */
+    public RandomStream split() {
+        return new RandomStream(mix64(this.nextLong()));
+    }
+
+    /**
+     * Returns the internal state, e.g. for saving a simulation.
+     *
+     * @return the state
+     */
+    public long getState() {
+        return this.state;
+    }
+
+    /**
+     * Sets the internal state, e.g. when restoring a simulation.
+     *
+     * @param state the state
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
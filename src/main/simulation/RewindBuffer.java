@@ -0,0 +1,461 @@
+package main.simulation;
+
+import main.metrics.LatencyHistogram;
+
+/**
+ * The RewindBuffer class keeps the recent history of a {@link Snapshottable} in a fixed amount of memory, so the state
+ * of any of the last ticks can be restored at once.
+ * <p>
+ * A snapshot is captured every tick. Every {@code keyframeInterval} ticks the whole snapshot is stored as a keyframe;
+ * the ticks in between only store the bytes that differ from the last keyframe, as runs of skipped and changed bytes.
+ * Snapshots are written with fixed-width values, so a tick where a few entities moved costs a few dozen bytes.
+ * Restoring a tick decodes a single delta on top of its keyframe, whatever its distance from the newest tick.
+ * <p>
+ * All entries live in one byte arena allocated up front and used as a ring. When either the arena or the tick
+ * capacity is full, the oldest entries are dropped, and a delta is dropped together with its keyframe.
+ * Capturing and restoring never allocate once the scratch buffers have grown to the size of a snapshot.
+ * <p>
+ * Capture and restore times are recorded in histograms of their own. The buffer is not thread-safe.
+ */
+public class RewindBuffer {
+    // Unchanged gaps shorter than this are copied as part of the surrounding run; a new run costs two varints
+    private static final int MIN_GAP = 4;
+    private static final int MAX_VARINT_BYTES = 5;
+
+    private final int capacity;
+    private final int keyframeInterval;
+    private final byte[] arena;
+    private final long[] ticks;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final long[] keyframeSequences;
+    private long oldestSequence;
+    private long nextSequence;
+    private int writePosition;
+    private int readPosition;
+
+    private final StateBuffer snapshot;
+    private byte[] encoded;
+    private byte[] keyframe;
+    private int keyframeLength;
+    private long keyframeSequence;
+
+    private final LatencyHistogram captureTimes;
+    private final LatencyHistogram restoreTimes;
+    private long capturedBytes;
+
+    /**
+     * Constructs an empty RewindBuffer.
+     *
+     * @param capacity         The maximum number of ticks kept.
+     * @param keyframeInterval The number of ticks between two keyframes.
+     * @param maxBytes         The size of the arena all entries are stored in.
+     */
+    public RewindBuffer(int capacity, int keyframeInterval, int maxBytes) {
+        if (capacity <= 0 || keyframeInterval <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Capacity, keyframe interval and size must be positive");
+        }
+        this.capacity = capacity;
+        this.keyframeInterval = keyframeInterval;
+        this.arena = new byte[maxBytes];
+        this.ticks = new long[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.keyframeSequences = new long[capacity];
+        this.snapshot = new StateBuffer();
+        this.encoded = new byte[0];
+        this.keyframe = new byte[0];
+        this.captureTimes = new LatencyHistogram();
+        this.restoreTimes = new LatencyHistogram();
+    }
+
+    /**
+     * Captures the state at a tick. Ticks must be captured in increasing order; capturing the newest tick again does
+     * nothing, so a simulation that stood still is not stored twice.
+     *
+     * @param tick  The tick.
+     * @param state The state.
+     * @throws IllegalArgumentException if the tick is older than the newest tick captured
+     * @throws IllegalStateException    if a single snapshot does not fit in the arena
+     */
+    public void capture(long tick, Snapshottable state) {
+        if (this.size() > 0) {
+            long newest = this.ticks[this.slot(this.nextSequence - 1)];
+            if (tick == newest) {
+                return;
+            }
+            if (tick < newest) {
+                throw new IllegalArgumentException("Tick " + tick + " is older than the newest tick " + newest);
+            }
+        }
+        long startTime = System.nanoTime();
+        this.snapshot.clear();
+        state.saveState(this.snapshot);
+
+        boolean isKeyframe = this.size() == 0 || this.keyframeSequence < this.oldestSequence
+                || this.nextSequence - this.keyframeSequence >= this.keyframeInterval;
+        int length = isKeyframe ? this.encodeKeyframe() : this.encodeDelta();
+        int position = this.makeRoom(length);
+        if (!isKeyframe && this.keyframeSequence < this.oldestSequence) {
+            // Making room dropped the keyframe this delta is relative to
+            length = this.encodeKeyframe();
+            position = this.makeRoom(length);
+            isKeyframe = true;
+        }
+
+        int slot = this.slot(this.nextSequence);
+        System.arraycopy(this.encoded, 0, this.arena, position, length);
+        this.ticks[slot] = tick;
+        this.offsets[slot] = position;
+        this.lengths[slot] = length;
+        if (isKeyframe) {
+            this.setKeyframe(this.nextSequence, this.snapshot.array(), this.snapshot.size());
+        }
+        this.keyframeSequences[slot] = this.keyframeSequence;
+        this.nextSequence++;
+        this.writePosition = position + length;
+
+        this.capturedBytes += length;
+        this.captureTimes.record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Restores the state captured at a tick and drops every newer entry, so capturing resumes from that tick.
+     *
+     * @param tick  The tick, between {@link #getOldestTick()} and {@link #getNewestTick()}.
+     * @param state The state to restore into.
+     * @throws IllegalArgumentException if the tick is not in the buffer
+     */
+    public void restore(long tick, Snapshottable state) {
+        long startTime = System.nanoTime();
+        long sequence = this.find(tick);
+        int slot = this.slot(sequence);
+        long keyframeSequence = this.keyframeSequences[slot];
+        if (keyframeSequence != this.keyframeSequence) {
+            int keyframeSlot = this.slot(keyframeSequence);
+            this.setKeyframe(keyframeSequence, this.arena, this.offsets[keyframeSlot],
+                    this.lengths[keyframeSlot]);
+        }
+        if (sequence == keyframeSequence) {
+            this.snapshot.load(this.keyframe, this.keyframeLength);
+        } else {
+            this.decodeDelta(this.offsets[slot]);
+        }
+        state.restoreState(this.snapshot);
+
+        this.nextSequence = sequence + 1;
+        this.writePosition = this.offsets[slot] + this.lengths[slot];
+        this.restoreTimes.record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Drops every entry newer than a tick, e.g. because the state was taken back to that tick from somewhere else,
+     * so capturing can resume after it. Dropping entries of a restored tick again does nothing.
+     *
+     * @param tick The tick; entries up to and including it are kept.
+     */
+    public void discardAfter(long tick) {
+        long sequence = this.nextSequence;
+        while (sequence > this.oldestSequence && this.ticks[this.slot(sequence - 1)] > tick) {
+            sequence--;
+        }
+        if (sequence == this.nextSequence) {
+            return;
+        }
+        this.nextSequence = sequence;
+        if (this.size() == 0) {
+            this.writePosition = 0;
+            return;
+        }
+        int newestSlot = this.slot(sequence - 1);
+        this.writePosition = this.offsets[newestSlot] + this.lengths[newestSlot];
+        long newestKeyframe = this.keyframeSequences[newestSlot];
+        if (newestKeyframe != this.keyframeSequence) {
+            // The keyframe the next delta is relative to was among the dropped entries
+            int keyframeSlot = this.slot(newestKeyframe);
+            this.setKeyframe(newestKeyframe, this.arena, this.offsets[keyframeSlot], this.lengths[keyframeSlot]);
+        }
+    }
+
+    /**
+     * Drops all entries. The recorded times and byte counts are kept.
+     */
+    public void clear() {
+        this.oldestSequence = this.nextSequence;
+        this.writePosition = 0;
+    }
+
+    /**
+     * Returns the number of ticks in the buffer.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return (int) (this.nextSequence - this.oldestSequence);
+    }
+
+    /**
+     * Returns the oldest tick that can be restored.
+     *
+     * @return The oldest tick.
+     * @throws IllegalStateException if the buffer is empty
+     */
+    public long getOldestTick() {
+        this.requireEntries();
+        return this.ticks[this.slot(this.oldestSequence)];
+    }
+
+    /**
+     * Returns the newest tick captured.
+     *
+     * @return The newest tick.
+     * @throws IllegalStateException if the buffer is empty
+     */
+    public long getNewestTick() {
+        this.requireEntries();
+        return this.ticks[this.slot(this.nextSequence - 1)];
+    }
+
+    /**
+     * Returns the number of arena bytes taken by the entries in the buffer.
+     *
+     * @return The stored size in bytes.
+     */
+    public long getStoredBytes() {
+        long bytes = 0;
+        for (long sequence = this.oldestSequence; sequence < this.nextSequence; sequence++) {
+            bytes += this.lengths[this.slot(sequence)];
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the size of the arena.
+     *
+     * @return The maximum number of bytes stored.
+     */
+    public int getCapacityBytes() {
+        return this.arena.length;
+    }
+
+    /**
+     * Returns the average number of bytes stored per second of history.
+     *
+     * @param ticksPerSecond The tick rate of the simulation.
+     * @return The bytes per second, or 0 if nothing was captured.
+     */
+    public double getBytesPerSecond(int ticksPerSecond) {
+        long count = this.captureTimes.getCount();
+        return count == 0 ? 0 : (double) this.capturedBytes / count * ticksPerSecond;
+    }
+
+    /**
+     * Returns the times taken to capture a tick, including saving the state.
+     *
+     * @return The capture times.
+     */
+    public LatencyHistogram getCaptureTimes() {
+        return this.captureTimes;
+    }
+
+    /**
+     * Returns the times taken to restore a tick, including restoring the state.
+     *
+     * @return The restore times.
+     */
+    public LatencyHistogram getRestoreTimes() {
+        return this.restoreTimes;
+    }
+
+    /**
+     * Returns a report of the history held and of the capture times, and of the restore times if any.
+     *
+     * @param ticksPerSecond The tick rate of the simulation.
+     * @return The multi-line summary.
+     */
+    public String summary(int ticksPerSecond) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Rewind: %d ticks (%.1f s) in %d of %d bytes, %.0f bytes/sec of history%n",
+                this.size(), (double) this.size() / ticksPerSecond, this.getStoredBytes(), this.arena.length,
+                this.getBytesPerSecond(ticksPerSecond)));
+        summary.append(String.format("  %-8s %s%n", "capture", this.captureTimes.summary()));
+        if (this.restoreTimes.getCount() > 0) {
+            summary.append(String.format("  %-8s %s%n", "restore", this.restoreTimes.summary()));
+        }
+        return summary.toString();
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % this.capacity);
+    }
+
+    private void requireEntries() {
+        if (this.size() == 0) {
+            throw new IllegalStateException("The rewind buffer is empty");
+        }
+    }
+
+    // Ticks increase with the sequence, so the entry is found by binary search
+    private long find(long tick) {
+        long low = this.oldestSequence;
+        long high = this.nextSequence - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long middleTick = this.ticks[this.slot(middle)];
+            if (middleTick < tick) {
+                low = middle + 1;
+            } else if (middleTick > tick) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalArgumentException("Tick " + tick + " is not in the rewind buffer");
+    }
+
+    // Drops the oldest entries until one of the given length fits, and returns where to write it
+    private int makeRoom(int length) {
+        if (length > this.arena.length) {
+            throw new IllegalStateException("A snapshot of " + length + " bytes does not fit in the rewind buffer");
+        }
+        if (this.size() == this.capacity) {
+            this.dropOldest();
+        }
+        if (this.size() == 0) {
+            this.writePosition = 0;
+        }
+        int position = this.writePosition;
+        if (position + length > this.arena.length) {
+            // Entries are never split, so wrap around, dropping the oldest entries at the end of the arena
+            while (this.size() > 0 && this.offsets[this.slot(this.oldestSequence)] >= position) {
+                this.dropOldest();
+            }
+            position = 0;
+        }
+        while (this.size() > 0) {
+            int oldest = this.slot(this.oldestSequence);
+            if (this.offsets[oldest] < position + length && this.offsets[oldest] + this.lengths[oldest] > position) {
+                this.dropOldest();
+            } else {
+                break;
+            }
+        }
+        return position;
+    }
+
+    private void dropOldest() {
+        this.oldestSequence++;
+        // A delta is useless without its keyframe
+        while (this.size() > 0 && this.keyframeSequences[this.slot(this.oldestSequence)] < this.oldestSequence) {
+            this.oldestSequence++;
+        }
+    }
+
+    private void setKeyframe(long sequence, byte[] data, int length) {
+        this.setKeyframe(sequence, data, 0, length);
+    }
+
+    private void setKeyframe(long sequence, byte[] data, int offset, int length) {
+        if (this.keyframe.length < length) {
+            this.keyframe = new byte[length];
+        }
+        System.arraycopy(data, offset, this.keyframe, 0, length);
+        this.keyframeLength = length;
+        this.keyframeSequence = sequence;
+    }
+
+    private void ensureEncodedCapacity(int capacity) {
+        if (this.encoded.length < capacity) {
+            this.encoded = new byte[capacity];
+        }
+    }
+
+    private int encodeKeyframe() {
+        int length = this.snapshot.size();
+        this.ensureEncodedCapacity(length);
+        System.arraycopy(this.snapshot.array(), 0, this.encoded, 0, length);
+        return length;
+    }
+
+    // The length of the snapshot, then runs of a skip over bytes equal to the keyframe and a changed run of bytes
+    private int encodeDelta() {
+        byte[] current = this.snapshot.array();
+        int length = this.snapshot.size();
+        int compared = Math.min(length, this.keyframeLength);
+        // Worst case: runs of a single byte between gaps just long enough to end them, and a final skip
+        int maxRuns = length / (MIN_GAP + 1) + 1;
+        this.ensureEncodedCapacity(length + (maxRuns * 2 + 2) * MAX_VARINT_BYTES);
+        int out = writeVarInt(this.encoded, 0, length);
+        int runEnd = 0;
+        int i = 0;
+        while (i < length) {
+            if (i < compared && current[i] == this.keyframe[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int end = i + 1;
+            // Extend the run over changes separated by short unchanged gaps
+            int gap = 0;
+            while (end + gap < length && gap < MIN_GAP) {
+                if (end + gap < compared && current[end + gap] == this.keyframe[end + gap]) {
+                    gap++;
+                } else {
+                    end += gap + 1;
+                    gap = 0;
+                }
+            }
+            out = writeVarInt(this.encoded, out, start - runEnd);
+            out = writeVarInt(this.encoded, out, end - start);
+            System.arraycopy(current, start, this.encoded, out, end - start);
+            out += end - start;
+            runEnd = end;
+            i = end;
+        }
+        if (runEnd < length) {
+            out = writeVarInt(this.encoded, out, length - runEnd);
+        }
+        return out;
+    }
+
+    private void decodeDelta(int offset) {
+        this.readPosition = offset;
+        int length = this.readVarInt();
+        this.snapshot.load(this.keyframe, Math.min(length, this.keyframeLength));
+        // Bytes past the end of the keyframe are always part of a changed run; pad for them to be copied over
+        while (this.snapshot.size() < length) {
+            this.snapshot.putByte(0);
+        }
+        byte[] out = this.snapshot.array();
+        int i = this.readVarInt();
+        while (i < length) {
+            int runLength = this.readVarInt();
+            System.arraycopy(this.arena, this.readPosition, out, i, runLength);
+            this.readPosition += runLength;
+            i += runLength;
+            if (i < length) {
+                i += this.readVarInt();
+            }
+        }
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = this.arena[this.readPosition++] & 0xff;
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int writeVarInt(byte[] data, int offset, int value) {
+        while ((value & ~0x7f) != 0) {
+            data[offset++] = (byte) (value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        data[offset++] = (byte) value;
+        return offset;
+    }
+}
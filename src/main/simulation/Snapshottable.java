@@ -0,0 +1,20 @@
+package main.simulation;
+
+/**
+ * Interface for state that can be written into a {@link StateBuffer} and read back from it later.
+ */
+public interface Snapshottable {
+    /**
+     * Writes the state.
+     *
+     * @param out The buffer to write to.
+     */
+    void saveState(StateBuffer out);
+
+    /**
+     * Reads back a state written by {@link #saveState(StateBuffer)}.
+     *
+     * @param in The buffer to read from, positioned at the start of the state.
+     */
+    void restoreState(StateBuffer in);
+}
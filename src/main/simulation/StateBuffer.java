@@ -0,0 +1,136 @@
+package main.simulation;
+
+import java.util.Arrays;
+
+/**
+ * The StateBuffer class is a growable byte buffer the simulation saves its state into and restores it from.
+ * Values are written with a fixed width in big-endian order, so the snapshots of two similar states line up
+ * byte for byte. Values are read back from the start of the buffer in the order they were written.
+ */
+public class StateBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+    private byte[] bytes;
+    private int size;
+    private int position;
+
+    /**
+     * Constructs an empty StateBuffer.
+     */
+    public StateBuffer() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Discards the contents of the buffer, so it can be written again.
+     */
+    public void clear() {
+        this.size = 0;
+        this.position = 0;
+    }
+
+    /**
+     * Replaces the contents of the buffer with a copy of the given bytes and rewinds it for reading.
+     *
+     * @param data   the bytes, e.g. returned by {@link #toByteArray()}
+     * @param length the number of bytes to copy
+     */
+    public void load(byte[] data, int length) {
+        this.clear();
+        this.ensureCapacity(length);
+        System.arraycopy(data, 0, this.bytes, 0, length);
+        this.size = length;
+    }
+
+    /**
+     * Moves the read position back to the start of the buffer.
+     */
+    public void rewind() {
+        this.position = 0;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @return the size of the contents
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the backing array of the buffer. Only the first {@link #size()} bytes are contents, and the array is
+     * replaced when the buffer grows, so it must not be kept across writes.
+     *
+     * @return the backing array
+     */
+    public byte[] array() {
+        return this.bytes;
+    }
+
+    /**
+     * Returns a copy of the contents of the buffer.
+     *
+     * @return the bytes written
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.bytes, this.size);
+    }
+
+    /**
+     * Writers and readers below; every value must be read back with the reader of the type it was written with.
+     */
+    public void putByte(int value) {
+        this.ensureCapacity(this.size + 1);
+        this.bytes[this.size++] = (byte) value;
+    }
+
+    public void putBoolean(boolean value) {
+        this.putByte(value ? 1 : 0);
+    }
+
+    public void putInt(int value) {
+        this.ensureCapacity(this.size + 4);
+        this.bytes[this.size++] = (byte) (value >>> 24);
+        this.bytes[this.size++] = (byte) (value >>> 16);
+        this.bytes[this.size++] = (byte) (value >>> 8);
+        this.bytes[this.size++] = (byte) value;
+    }
+
+    public void putLong(long value) {
+        this.putInt((int) (value >>> 32));
+        this.putInt((int) value);
+    }
+
+    public byte getByte() {
+        this.require(1);
+        return this.bytes[this.position++];
+    }
+
+    public boolean getBoolean() {
+        return this.getByte() != 0;
+    }
+
+    public int getInt() {
+        this.require(4);
+        return (this.bytes[this.position++] & 0xff) << 24
+                | (this.bytes[this.position++] & 0xff) << 16
+                | (this.bytes[this.position++] & 0xff) << 8
+                | (this.bytes[this.position++] & 0xff);
+    }
+
+    public long getLong() {
+        return (long) this.getInt() << 32 | (this.getInt() & 0xffffffffL);
+    }
+
+    private void require(int length) {
+        if (this.position + length > this.size) {
+            throw new IllegalStateException("The saved state is truncated");
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(capacity, this.bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package main.simulation;
+
+/**
+ * The SystemClock class follows the wall clock. Simulations using it are not reproducible.
+ */
+public class SystemClock implements GameClock {
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
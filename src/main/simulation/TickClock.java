@@ -0,0 +1,50 @@
+package main.simulation;
+
+/**
+ * The TickClock class is a virtual clock that advances by a fixed amount of time on every simulation tick.
+ * Simulation time therefore depends only on the number of ticks, never on how fast they were computed.
+ */
+public class TickClock implements GameClock {
+    private final int ticksPerSecond;
+    private long ticks;
+
+    /**
+     * Constructs a TickClock starting at tick zero.
+     *
+     * @param ticksPerSecond the number of ticks that make up one second of simulation time
+     */
+    public TickClock(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive");
+        }
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.ticks * 1000 / this.ticksPerSecond;
+    }
+
+    @Override
+    public void tick() {
+        this.ticks++;
+    }
+
+    /**
+     * Returns the number of ticks elapsed.
+     *
+     * @return the tick count
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Sets the number of ticks elapsed, e.g. when restoring a saved simulation.
+     *
+     * @param ticks the tick count
+     */
+    public void setTicks(long ticks) {
+        this.ticks = ticks;
+    }
+}